@@ -0,0 +1,100 @@
+package com.wishlist.benchmark;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.dto.request.CustomerWishlistRequestDTO;
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.exception.NoItemsAddedException;
+import com.wishlist.repository.CustomerWishlistRepository;
+import com.wishlist.service.CustomerWishListService;
+import com.wishlist.service.ProductCatalog;
+import com.wishlist.service.ProductPopularity;
+import com.wishlist.service.WishlistCache;
+import com.wishlist.service.WishlistMetrics;
+import com.wishlist.utils.mapper.CustomerWishlistMapperImpl;
+import com.wishlist.utils.mapper.ProductMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mede {@link CustomerWishListService#addItemsWishlist} sem banco: o repositório devolve sempre uma cópia da
+ * wishlist inicial como documento anterior ao update, então cada chamada adiciona um produto novo a uma lista
+ * com {@code wishlistSize} itens. Com 0 itens o cliente é tratado como novo. O limite é elevado para
+ * {@link #MAX_ITEMS} para medir também wishlists de clientes B2B.
+ */
+@State(Scope.Benchmark)
+public class AddItemsWishlistBenchmark {
+
+    private static final int MAX_ITEMS = 500;
+
+    @Param({"0", "1", "10", "19", "499"})
+    public int wishlistSize;
+
+    private CustomerWishListService service;
+    private CustomerWishlistRequestDTO request;
+
+    @Setup
+    public void setup() {
+        CustomerWishlistEntity stored = WishlistFixtures.customer(wishlistSize);
+        WishlistProperties properties = new WishlistProperties();
+        properties.setMaxItems(MAX_ITEMS);
+        service = new CustomerWishListService(
+                inMemoryRepository(stored),
+                new CustomerWishlistMapperImpl(),
+                new ProductMapperImpl(),
+                properties,
+                new WishlistCache(properties),
+                new WishlistMetrics(new SimpleMeterRegistry(), properties),
+                new ProductPopularity(properties),
+                new ProductCatalog(null, properties));
+
+        List<ProductDTO> products = List.of(WishlistFixtures.productDTO(wishlistSize));
+        request = CustomerWishlistRequestDTO.builder()
+                .customerId(stored.getCustomerId())
+                .wishlist(products)
+                .build();
+    }
+
+    @Benchmark
+    public CustomerWishlistResponseDTO addItemsWishlist() throws NoItemsAddedException {
+        return service.addItemsWishlist(request);
+    }
+
+    /**
+     * Implementa apenas o que o fluxo de adição usa; o restante do repositório lança UnsupportedOperationException.
+     */
+    private static CustomerWishlistRepository inMemoryRepository(CustomerWishlistEntity stored) {
+        return (CustomerWishlistRepository) Proxy.newProxyInstance(
+                CustomerWishlistRepository.class.getClassLoader(),
+                new Class<?>[]{CustomerWishlistRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> "InMemoryCustomerWishlistRepository";
+                        };
+                    }
+                    if (method.getName().equals("addProducts")) {
+                        if (stored.getWishlist().isEmpty()) {
+                            return Optional.empty();
+                        }
+                        CustomerWishlistEntity before = CustomerWishlistEntity.builder()
+                                .customerId(stored.getCustomerId())
+                                .wishlist(new ArrayList<>(stored.getWishlist()))
+                                .dateCreation(stored.getDateCreation())
+                                .dateUpdate(stored.getDateUpdate())
+                                .version(stored.getVersion())
+                                .build();
+                        return Optional.of(before);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,37 @@
+package com.wishlist.benchmark;
+
+import com.wishlist.utils.CurrencyFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+
+/**
+ * Compara a formatação antiga (NumberFormat criado a cada chamada, via double) com {@link CurrencyFormatter}.
+ * Com {@code -prof gc}, a diferença aparece em {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+public class CurrencyFormatterBenchmark {
+
+    @Param({"0", "1990", "123456789"})
+    public long priceInCents;
+
+    private final CurrencyFormatter enUs = CurrencyFormatter.of(Locale.forLanguageTag("en-US"), Currency.getInstance("BRL"));
+
+    @Benchmark
+    public String legacyNumberFormat() {
+        NumberFormat formatter = NumberFormat.getCurrencyInstance(new Locale("pt", "BR"));
+        return formatter.format(priceInCents / 100.0);
+    }
+
+    @Benchmark
+    public String currencyFormatterDefault() {
+        return CurrencyFormatter.DEFAULT.format(priceInCents);
+    }
+
+    @Benchmark
+    public String currencyFormatterEnUs() {
+        return enUs.format(priceInCents);
+    }
+}
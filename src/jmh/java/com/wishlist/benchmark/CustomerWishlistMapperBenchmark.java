@@ -0,0 +1,39 @@
+package com.wishlist.benchmark;
+
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.utils.mapper.CustomerWishlistMapper;
+import com.wishlist.utils.mapper.CustomerWishlistMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+public class CustomerWishlistMapperBenchmark {
+
+    @Param({"0", "1", "10", "20"})
+    public int wishlistSize;
+
+    private final CustomerWishlistMapper mapper = new CustomerWishlistMapperImpl();
+    private CustomerWishlistEntity customer;
+    private Long totalPrice;
+
+    @Setup
+    public void setup() {
+        customer = WishlistFixtures.customer(wishlistSize);
+        totalPrice = mapper.calculateTotalPrice(customer);
+    }
+
+    @Benchmark
+    public CustomerWishlistResponseDTO toResponseDTO() {
+        return mapper.toResponseDTO(customer);
+    }
+
+    @Benchmark
+    public Long calculateTotalPrice() {
+        return mapper.calculateTotalPrice(customer);
+    }
+
+    @Benchmark
+    public String formatPrice() {
+        return mapper.formatPrice(totalPrice);
+    }
+}
@@ -0,0 +1,31 @@
+package com.wishlist.benchmark;
+
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.utils.mapper.ProductMapper;
+import com.wishlist.utils.mapper.ProductMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+public class ProductMapperBenchmark {
+
+    private final ProductMapper mapper = new ProductMapperImpl();
+    private ProductDTO dto;
+    private ProductEntity entity;
+
+    @Setup
+    public void setup() {
+        dto = WishlistFixtures.productDTO(1);
+        entity = WishlistFixtures.product(1);
+    }
+
+    @Benchmark
+    public ProductEntity toEntity() {
+        return mapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public ProductDTO toDTO() {
+        return mapper.toDTO(entity);
+    }
+}
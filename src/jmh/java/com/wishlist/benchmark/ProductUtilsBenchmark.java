@@ -0,0 +1,36 @@
+package com.wishlist.benchmark;
+
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.utils.ProductUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@State(Scope.Benchmark)
+public class ProductUtilsBenchmark {
+
+    @Param({"0", "1", "10", "20", "500"})
+    public int wishlistSize;
+
+    private List<ProductEntity> wishlist;
+    private UUID lastProductId;
+    private UUID missingProductId;
+
+    @Setup
+    public void setup() {
+        wishlist = WishlistFixtures.products(wishlistSize);
+        lastProductId = wishlist.isEmpty() ? UUID.randomUUID() : wishlist.get(wishlist.size() - 1).getProductId();
+        missingProductId = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public boolean isProductInListLastItem() {
+        return ProductUtils.isProductInList(wishlist, lastProductId);
+    }
+
+    @Benchmark
+    public boolean isProductInListMissing() {
+        return ProductUtils.isProductInList(wishlist, missingProductId);
+    }
+}
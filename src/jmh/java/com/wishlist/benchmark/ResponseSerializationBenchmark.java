@@ -0,0 +1,27 @@
+package com.wishlist.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.utils.mapper.CustomerWishlistMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+    @Param({"0", "1", "10", "20"})
+    public int wishlistSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private CustomerWishlistResponseDTO response;
+
+    @Setup
+    public void setup() {
+        response = new CustomerWishlistMapperImpl().toResponseDTO(WishlistFixtures.customer(wishlistSize));
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
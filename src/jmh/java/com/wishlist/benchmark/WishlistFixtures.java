@@ -0,0 +1,51 @@
+package com.wishlist.benchmark;
+
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.dto.ProductDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Dados usados pelos benchmarks. Os tamanhos vão de wishlist vazia até cheia no limite padrão (20 itens) e além,
+ * para os limites maiores de {@code wishlist.max-items}.
+ */
+final class WishlistFixtures {
+
+    private WishlistFixtures() {
+    }
+
+    static List<ProductEntity> products(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(WishlistFixtures::product)
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+
+    static ProductEntity product(int index) {
+        return new ProductEntity(UUID.randomUUID(), "Produto " + index, "Descrição do produto " + index, 1_990L + index * 100L);
+    }
+
+    static ProductDTO productDTO(int index) {
+        return ProductDTO.builder()
+                .productId(UUID.randomUUID())
+                .name("Produto " + index)
+                .description("Descrição do produto " + index)
+                .price(19.90 + index)
+                .build();
+    }
+
+    static CustomerWishlistEntity customer(int size) {
+        LocalDateTime now = LocalDateTime.now();
+        return CustomerWishlistEntity.builder()
+                .customerId(UUID.randomUUID())
+                .wishlist(products(size))
+                .dateCreation(now)
+                .dateUpdate(now)
+                .version(1L)
+                .build();
+    }
+}
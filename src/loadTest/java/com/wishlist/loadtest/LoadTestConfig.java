@@ -0,0 +1,80 @@
+package com.wishlist.loadtest;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga, lidos das system properties {@code loadtest.*}
+ * (pelo Gradle: {@code ./gradlew loadTest -Ploadtest.concurrency=128}).
+ */
+@Value
+public class LoadTestConfig {
+
+    /**
+     * Host do MongoDB já em execução; quando vazio, um container é iniciado pelo Testcontainers.
+     */
+    String mongoHost;
+    int mongoPort;
+    String mongoImage;
+
+    /**
+     * Profiles da aplicação, ex.: {@code dev,virtual-threads} para comparar os modos de execução.
+     */
+    String springProfiles;
+
+    Duration warmup;
+    Duration duration;
+    int concurrency;
+
+    /**
+     * Quantidade de clientes e expoente da distribuição Zipf usada para escolher o cliente de cada chamada.
+     */
+    int customers;
+    double zipfExponent;
+
+    /**
+     * Produtos distintos usados nas adições e remoções, e quantos itens cada wishlist recebe antes da carga.
+     */
+    int catalogSize;
+    int initialItems;
+
+    /**
+     * Peso de cada operação no mix, no formato {@code get=60,check=25,put=10,delete=5}.
+     */
+    Map<WishlistOperation, Integer> mix;
+
+    Path outputDir;
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                System.getProperty("loadtest.mongoHost", ""),
+                Integer.getInteger("loadtest.mongoPort", 27017),
+                System.getProperty("loadtest.mongoImage", "mongo:7.0"),
+                System.getProperty("loadtest.springProfiles", "dev"),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Integer.getInteger("loadtest.concurrency", 64),
+                Integer.getInteger("loadtest.customers", 10_000),
+                Double.parseDouble(System.getProperty("loadtest.zipfExponent", "1.1")),
+                Integer.getInteger("loadtest.catalogSize", 500),
+                Integer.getInteger("loadtest.initialItems", 10),
+                parseMix(System.getProperty("loadtest.mix", "get=60,check=25,put=10,delete=5")),
+                Path.of(System.getProperty("loadtest.outputDir", "build/reports/loadtest")));
+    }
+
+    private static Map<WishlistOperation, Integer> parseMix(String value) {
+        Map<WishlistOperation, Integer> mix = new EnumMap<>(WishlistOperation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix inválido: " + value);
+            }
+            mix.put(WishlistOperation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,128 @@
+package com.wishlist.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resultado consolidado do teste: vazão e percentis por operação e no total. Grava um JSON para comparação entre
+ * execuções e a distribuição completa de cada histograma em formato {@code .hgrm} (HdrHistogram, em ms).
+ */
+final class LoadTestResult {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final LoadTestConfig config;
+    private final long measuredNanos;
+    private final Map<WishlistOperation, Histogram> histograms;
+    private final Map<WishlistOperation, OperationStats> stats;
+    private final Histogram total;
+
+    private LoadTestResult(LoadTestConfig config, long measuredNanos, Map<WishlistOperation, Histogram> histograms,
+                           Map<WishlistOperation, OperationStats> stats, Histogram total) {
+        this.config = config;
+        this.measuredNanos = measuredNanos;
+        this.histograms = histograms;
+        this.stats = stats;
+        this.total = total;
+    }
+
+    static LoadTestResult from(LoadTestConfig config, Map<WishlistOperation, OperationStats> stats, long measuredNanos) {
+        Map<WishlistOperation, Histogram> histograms = new EnumMap<>(WishlistOperation.class);
+        Histogram total = new Histogram(3);
+        stats.forEach((operation, operationStats) -> {
+            Histogram histogram = operationStats.latencyHistogram();
+            histograms.put(operation, histogram);
+            total.add(histogram);
+        });
+        return new LoadTestResult(config, measuredNanos, histograms, stats, total);
+    }
+
+    void write(Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(outputDir.resolve("result.json").toFile(), toMap());
+        writeDistribution(outputDir.resolve("total.hgrm"), total);
+        for (Map.Entry<WishlistOperation, Histogram> entry : histograms.entrySet()) {
+            writeDistribution(outputDir.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm"), entry.getValue());
+        }
+    }
+
+    String summary() {
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT, "%-8s %10s %10s %9s %9s %9s %9s%n",
+                "op", "req/s", "count", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        histograms.forEach((operation, histogram) -> summary.append(line(operation.name(), histogram)));
+        return summary.append(line("TOTAL", total)).toString();
+    }
+
+    private String line(String name, Histogram histogram) {
+        return String.format(Locale.ROOT, "%-8s %10.1f %10d %9.2f %9.2f %9.2f %9.2f%n",
+                name, throughput(histogram), histogram.getTotalCount(),
+                millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", Instant.now().toString());
+        result.put("config", Map.of(
+                "springProfiles", config.getSpringProfiles(),
+                "concurrency", config.getConcurrency(),
+                "durationSeconds", config.getDuration().toSeconds(),
+                "customers", config.getCustomers(),
+                "zipfExponent", config.getZipfExponent(),
+                "initialItems", config.getInitialItems(),
+                "mix", config.getMix()));
+        result.put("measuredSeconds", measuredNanos / 1e9);
+        result.put("total", latency(total));
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        histograms.forEach((operation, histogram) -> {
+            Map<String, Object> values = latency(histogram);
+            OperationStats operationStats = stats.get(operation);
+            values.put("successes", operationStats.successes());
+            values.put("clientErrors", operationStats.clientErrors());
+            values.put("serverErrors", operationStats.serverErrors());
+            values.put("failures", operationStats.failures());
+            operations.put(operation.name().toLowerCase(Locale.ROOT), values);
+        });
+        result.put("operations", operations);
+        return result;
+    }
+
+    private Map<String, Object> latency(Histogram histogram) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", histogram.getTotalCount());
+        values.put("throughputPerSecond", throughput(histogram));
+        values.put("meanMs", histogram.getMean() / MICROS_PER_MILLI);
+        values.put("p50Ms", millis(histogram, 50));
+        values.put("p90Ms", millis(histogram, 90));
+        values.put("p99Ms", millis(histogram, 99));
+        values.put("p999Ms", millis(histogram, 99.9));
+        values.put("maxMs", histogram.getMaxValue() / MICROS_PER_MILLI);
+        return values;
+    }
+
+    private double throughput(Histogram histogram) {
+        return histogram.getTotalCount() / (measuredNanos / 1e9);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.wishlist.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.dto.request.BulkWishlistOperationDTO;
+import com.wishlist.dto.request.BulkWishlistRequestDTO;
+import com.wishlist.dto.request.CustomerWishlistRequestDTO;
+import com.wishlist.dto.request.RemoveProductsRequestDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Carga em malha fechada: {@code concurrency} virtual threads fazem uma chamada atrás da outra até o fim do teste.
+ * A latência é medida do envio até o fim da resposta; como cada worker espera a resposta anterior, latências altas
+ * reduzem a vazão em vez de acumular fila (coordinated omission), então compare execuções com a mesma concorrência.
+ */
+@Slf4j
+final class LoadTestRunner {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private final LoadTestConfig config;
+    private final URI baseUri;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ZipfSampler customerSampler;
+    private final OperationMix mix;
+    private final List<UUID> customers;
+    private final List<ProductDTO> catalog;
+    private final Map<WishlistOperation, OperationStats> stats = new EnumMap<>(WishlistOperation.class);
+
+    LoadTestRunner(LoadTestConfig config, URI baseUri) {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.customerSampler = new ZipfSampler(config.getCustomers(), config.getZipfExponent());
+        this.mix = new OperationMix(config.getMix());
+        this.customers = IntStream.range(0, config.getCustomers()).mapToObj(i -> UUID.randomUUID()).toList();
+        this.catalog = IntStream.range(0, config.getCatalogSize())
+                .mapToObj(i -> ProductDTO.builder()
+                        .productId(UUID.randomUUID())
+                        .name("Produto " + i)
+                        .description("Produto de carga " + i)
+                        .price(10.0 + i % 500)
+                        .build())
+                .toList();
+        for (WishlistOperation operation : WishlistOperation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    LoadTestResult run() throws IOException, InterruptedException {
+        seed();
+
+        log.warn("Aquecendo por {} com {} workers", config.getWarmup(), config.getConcurrency());
+        long start = System.nanoTime();
+        long warmupEnd = start + config.getWarmup().toNanos();
+        long end = warmupEnd + config.getDuration().toNanos();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.getConcurrency(); i++) {
+                workers.submit(() -> work(end));
+            }
+            sleepUntil(warmupEnd);
+            stats.values().forEach(OperationStats::reset);
+            log.warn("Medindo por {}", config.getDuration());
+        }
+        return LoadTestResult.from(config, stats, System.nanoTime() - warmupEnd);
+    }
+
+    /**
+     * Cria a wishlist de todos os clientes pelo endpoint de lote, com {@code initialItems} produtos cada.
+     */
+    private void seed() throws IOException, InterruptedException {
+        log.warn("Criando {} wishlists com {} itens", customers.size(), config.getInitialItems());
+        for (int from = 0; from < customers.size(); from += SEED_BATCH_SIZE) {
+            List<BulkWishlistOperationDTO> operations = customers.subList(from, Math.min(from + SEED_BATCH_SIZE, customers.size())).stream()
+                    .map(customerId -> BulkWishlistOperationDTO.builder()
+                            .customerId(customerId)
+                            .type(BulkWishlistOperationDTO.OperationType.ADD)
+                            .products(randomProducts(config.getInitialItems()))
+                            .build())
+                    .toList();
+            HttpResponse<Void> response = client.send(
+                    json("POST", "/api/wishlist/batch", BulkWishlistRequestDTO.builder().operations(operations).build()),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Falha ao criar as wishlists iniciais: HTTP " + response.statusCode());
+            }
+        }
+    }
+
+    private void work(long end) {
+        while (System.nanoTime() < end) {
+            WishlistOperation operation = mix.next();
+            HttpRequest request = request(operation, customers.get(customerSampler.next()));
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            stats.get(operation).record((System.nanoTime() - start) / 1_000, status);
+        }
+    }
+
+    private HttpRequest request(WishlistOperation operation, UUID customerId) {
+        ProductDTO product = catalog.get(ThreadLocalRandom.current().nextInt(catalog.size()));
+        return switch (operation) {
+            case GET -> HttpRequest.newBuilder(baseUri.resolve("/api/wishlist/" + customerId)).GET().build();
+            case CHECK -> HttpRequest.newBuilder(baseUri.resolve("/api/wishlist/product/check/" + product.getProductId() + "/" + customerId))
+                    .GET()
+                    .build();
+            case PUT -> json("PUT", "/api/wishlist", CustomerWishlistRequestDTO.builder()
+                    .customerId(customerId)
+                    .wishlist(List.of(product))
+                    .build());
+            case DELETE -> json("DELETE", "/api/wishlist/product", RemoveProductsRequestDTO.builder()
+                    .customerId(customerId)
+                    .productIds(List.of(product.getProductId()))
+                    .build());
+        };
+    }
+
+    private HttpRequest json(String method, String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<ProductDTO> randomProducts(int count) {
+        List<ProductDTO> shuffled = new ArrayList<>(catalog);
+        Collections.shuffle(shuffled);
+        return shuffled.subList(0, Math.min(count, shuffled.size()));
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(Duration.ofNanos(remaining));
+        }
+    }
+}
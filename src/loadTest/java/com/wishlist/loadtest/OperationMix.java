@@ -0,0 +1,36 @@
+package com.wishlist.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorteia a próxima operação de acordo com os pesos configurados.
+ */
+final class OperationMix {
+
+    private final WishlistOperation[] operations;
+    private final int[] cumulativeWeights;
+
+    OperationMix(Map<WishlistOperation, Integer> weights) {
+        operations = weights.keySet().toArray(WishlistOperation[]::new);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("O mix precisa ter ao menos uma operação com peso positivo");
+        }
+    }
+
+    WishlistOperation next() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
@@ -0,0 +1,65 @@
+package com.wishlist.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latência (em microssegundos) e contagem de respostas de uma operação. Seguro para gravação concorrente.
+ */
+final class OperationStats {
+
+    private final Recorder latency = new Recorder(3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param status código HTTP, ou -1 quando a chamada falhou sem resposta
+     */
+    void record(long latencyMicros, int status) {
+        latency.recordValue(latencyMicros);
+        if (status < 0) {
+            failures.increment();
+        } else if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            successes.increment();
+        }
+    }
+
+    /**
+     * Descarta o que foi gravado até agora (fim do aquecimento).
+     */
+    void reset() {
+        latency.reset();
+        successes.reset();
+        clientErrors.reset();
+        serverErrors.reset();
+        failures.reset();
+    }
+
+    Histogram latencyHistogram() {
+        return latency.getIntervalHistogram();
+    }
+
+    long successes() {
+        return successes.sum();
+    }
+
+    long clientErrors() {
+        return clientErrors.sum();
+    }
+
+    long serverErrors() {
+        return serverErrors.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+}
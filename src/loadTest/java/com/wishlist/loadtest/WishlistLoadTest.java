@@ -0,0 +1,54 @@
+package com.wishlist.loadtest;
+
+import com.wishlist.WishlistApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+
+/**
+ * Sobe a aplicação completa em uma porta livre, apontando para um MongoDB descartável, e executa o
+ * {@link LoadTestRunner}. Sem {@code loadtest.mongoHost} o banco é iniciado pelo Testcontainers (requer Docker).
+ */
+@Slf4j
+public final class WishlistLoadTest {
+
+    private static final String DATABASE = "wishlist_loadtest";
+
+    private WishlistLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        MongoDBContainer container = null;
+        String mongoUri;
+        if (config.getMongoHost().isBlank()) {
+            container = new MongoDBContainer(DockerImageName.parse(config.getMongoImage()));
+            container.start();
+            mongoUri = container.getReplicaSetUrl(DATABASE);
+        } else {
+            mongoUri = "mongodb://" + config.getMongoHost() + ":" + config.getMongoPort() + "/" + DATABASE;
+        }
+
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(WishlistApplication.class).run(
+                "--server.port=0",
+                "--spring.profiles.active=" + config.getSpringProfiles(),
+                "--spring.data.mongodb.uri=" + mongoUri,
+                "--spring.data.mongodb.database=" + DATABASE,
+                "--logging.level.com.wishlist=WARN")) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            LoadTestResult result = new LoadTestRunner(config, URI.create("http://localhost:" + port)).run();
+            result.write(config.getOutputDir());
+            log.warn("Resultado gravado em {}\n{}", config.getOutputDir().toAbsolutePath(), result.summary());
+        } finally {
+            if (container != null) {
+                container.stop();
+            }
+        }
+    }
+}
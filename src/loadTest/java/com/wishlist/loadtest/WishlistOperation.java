@@ -0,0 +1,11 @@
+package com.wishlist.loadtest;
+
+/**
+ * Chamadas feitas pelo teste de carga, uma por endpoint de {@code WishlistController}.
+ */
+public enum WishlistOperation {
+    GET,
+    CHECK,
+    PUT,
+    DELETE
+}
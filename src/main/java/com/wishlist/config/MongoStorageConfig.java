@@ -0,0 +1,21 @@
+package com.wishlist.config;
+
+import com.wishlist.repository.CustomerWishlistReadingConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+@Configuration
+public class MongoStorageConfig {
+
+    /**
+     * Substitui a leitura padrão de CustomerWishlistEntity por uma que entende os dois formatos de documento
+     * ({@code wishlist.storage.layout}), usada pelo MongoTemplate e pelo ReactiveMongoTemplate.
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new CustomerWishlistReadingConverter()));
+    }
+}
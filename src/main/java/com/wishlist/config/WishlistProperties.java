@@ -0,0 +1,340 @@
+package com.wishlist.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "wishlist")
+public class WishlistProperties {
+
+    /**
+     * Quantidade máxima de produtos na wishlist de cada cliente. Pode ser aumentada para algumas centenas
+     * (clientes B2B); as verificações de duplicados não percorrem a lista a cada produto.
+     */
+    private int maxItems = 20;
+
+    @Valid
+    private Bulk bulk = new Bulk();
+
+    @Valid
+    private MultiGet multiGet = new MultiGet();
+
+    private Cache cache = new Cache();
+
+    private PinningMonitor pinningMonitor = new PinningMonitor();
+
+    private Currency currency = new Currency();
+
+    private Backfill backfill = new Backfill();
+
+    private Storage storage = new Storage();
+
+    private Wishers wishers = new Wishers();
+
+    private Export export = new Export();
+
+    private BulkImport bulkImport = new BulkImport();
+
+    private Popularity popularity = new Popularity();
+
+    private Catalog catalog = new Catalog();
+
+    private ProductUpdate productUpdate = new ProductUpdate();
+
+    @Data
+    public static class Bulk {
+        /**
+         * Quantidade de operações enviadas em cada bulkWrite.
+         */
+        @Min(1)
+        private int chunkSize = 500;
+    }
+
+    @Data
+    public static class MultiGet {
+        /**
+         * Quantidade de clientes consultados em cada query {@code $in}.
+         */
+        @Min(1)
+        private int chunkSize = 1000;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+
+        /**
+         * Quantidade máxima de wishlists mantidas em memória.
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * Tempo máximo que uma wishlist fica em cache. Cada instância só invalida as escritas que ela mesma faz,
+         * então esse valor limita por quanto tempo uma escrita feita em outra instância pode não ser vista.
+         */
+        private Duration expireAfterWrite = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class PinningMonitor {
+        private boolean enabled = false;
+
+        /**
+         * Tempo mínimo que uma virtual thread precisa ficar presa à carrier thread para ser registrada.
+         */
+        private Duration threshold = Duration.ofMillis(20);
+    }
+
+    @Data
+    public static class Backfill {
+        /**
+         * Preenche {@code itemCount} e {@code totalPriceCents} dos documentos antigos na inicialização.
+         */
+        private boolean aggregates = false;
+    }
+
+    @Data
+    public static class Currency {
+        /**
+         * Moeda dos preços armazenados (em centavos).
+         */
+        private String code = "BRL";
+
+        /**
+         * Locale usado quando a requisição não informa {@code lang} nem Accept-Language suportado.
+         */
+        private Locale defaultLocale = Locale.forLanguageTag("pt-BR");
+
+        /**
+         * Locales aceitos para formatar {@code formattedTotalPrice}; os formatters são montados na inicialização.
+         */
+        private List<Locale> locales = List.of(
+                Locale.forLanguageTag("pt-BR"),
+                Locale.forLanguageTag("en-US"),
+                Locale.forLanguageTag("es-ES"));
+    }
+
+    @Data
+    public static class Wishers {
+        /**
+         * Quantidade de clientes lidos por consulta ao listar quem tem um produto na wishlist; é o que fica em memória
+         * por requisição, independente do total de clientes.
+         */
+        private int pageSize = 1000;
+
+        /**
+         * Cria na inicialização o índice multikey de produtos usado pela listagem.
+         */
+        private boolean createIndex = true;
+    }
+
+    @Data
+    public static class Export {
+        /**
+         * Documentos trazidos do Mongo a cada ida ao servidor durante a exportação.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Arquivo de saída da exportação por linha de comando; quando informado, a exportação roda na inicialização.
+         */
+        private String output;
+
+        /**
+         * Compacta a saída com gzip. Quando não informado, compacta se {@link #output} terminar em {@code .gz}.
+         */
+        private Boolean gzip;
+
+        /**
+         * Arquivo de checkpoint; por padrão, o nome da saída com o sufixo {@code .checkpoint}.
+         */
+        private String checkpoint;
+
+        /**
+         * Quantidade de wishlists escritas entre dois checkpoints.
+         */
+        private int checkpointInterval = 10_000;
+    }
+
+    @Data
+    public static class BulkImport {
+        /**
+         * Arquivo NDJSON ou CSV (opcionalmente {@code .gz}) a importar; quando informado, a importação roda na inicialização.
+         */
+        private String input;
+
+        /**
+         * Arquivo com as linhas rejeitadas e o motivo; por padrão, o nome da entrada com o sufixo {@code .rejects.ndjson}.
+         */
+        private String rejects;
+
+        /**
+         * Threads que interpretam e validam as linhas em paralelo.
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Capacidade de cada fila entre as etapas; quando cheia, a etapa anterior espera.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Registros gravados por chamada de {@code WishlistBulkService}.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Registros processados entre duas mensagens de progresso no log.
+         */
+        private long progressInterval = 100_000;
+    }
+
+    @Data
+    public static class Popularity {
+        /**
+         * Conta as adições e remoções de cada produto no sketch em memória.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Erro máximo da estimativa, como fração do total de itens em wishlists: largura {@code ⌈e/epsilon⌉}.
+         */
+        private double epsilon = 0.0005;
+
+        /**
+         * Probabilidade de uma estimativa ultrapassar o erro máximo: profundidade {@code ⌈ln(1/delta)⌉}.
+         */
+        private double delta = 0.001;
+
+        /**
+         * Tamanho do ranking; o dobro disso em candidatos é mantido em memória.
+         */
+        private int topK = 100;
+
+        /**
+         * Intervalo entre as gravações do sketch no Mongo.
+         */
+        private Duration checkpointInterval = Duration.ofMinutes(1);
+
+        /**
+         * Cron da recontagem exata que confere o erro das estimativas; {@code -} desliga.
+         */
+        private String recountCron = "-";
+    }
+
+    @Data
+    public static class Catalog {
+        /**
+         * Grava nas wishlists só o id do produto e a data de inclusão; nome, descrição e preço ficam na coleção
+         * product_catalog e são preenchidos na leitura.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Quantidade máxima de produtos mantidos em memória.
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * Tempo máximo que um produto fica em cache; limita por quanto tempo uma alteração de preço feita por outra
+         * instância pode não ser vista, mesmo com o ETag da wishlist já alterado.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        /**
+         * Quantidade máxima de produtos buscados por consulta {@code $in} ao carregar o cache.
+         */
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class ProductUpdate {
+        /**
+         * Quantidade de wishlists alteradas por updateMany.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Pausa entre os lotes, para limitar a carga extra no banco.
+         */
+        private Duration pause = Duration.ofMillis(20);
+    }
+
+    public enum StorageLayout {
+        /**
+         * Mapeamento padrão do Spring Data: nomes completos dos campos e UUIDs no subtipo 3 (java-legacy).
+         */
+        LEGACY,
+        /**
+         * Apelidos curtos, UUIDs no subtipo 4, sem {@code _class} e centavos em int64.
+         */
+        COMPACT,
+        /**
+         * Nomes do formato compacto, com os itens divididos em documentos de tamanho fixo (buckets) em
+         * customer_wishlist_bucket; em customer_wishlist fica só o cabeçalho com os agregados e os ponteiros dos
+         * buckets. Indicado quando {@code wishlist.max-items} é alto. Não é suportado no profile {@code reactive}.
+         */
+        BUCKETED
+    }
+
+    @Data
+    public static class Storage {
+        /**
+         * Formato dos documentos gravados em customer_wishlist. Os formatos antigo e compacto são sempre lidos. Com
+         * {@code bucketed} são lidos os documentos compactos, que passam para buckets na primeira escrita; os antigos
+         * precisam ter sido migrados antes.
+         */
+        private StorageLayout layout = StorageLayout.LEGACY;
+
+        /**
+         * Com o formato compacto, procura também documentos no formato antigo e os migra antes de qualquer escrita.
+         * Pode ser desligado quando a migração terminar, economizando uma consulta por escrita.
+         */
+        private boolean readLegacy = true;
+
+        private Migration migration = new Migration();
+
+        private Buckets buckets = new Buckets();
+    }
+
+    @Data
+    public static class Buckets {
+        /**
+         * Quantidade máxima de itens em cada bucket. As adições só escrevem no último bucket e abrem um novo quando
+         * ele enche.
+         */
+        private int size = 100;
+
+        /**
+         * Tempo que uma escrita mantém a wishlist do cliente reservada. Outras escritas no mesmo cliente esperam até
+         * esse tempo; depois disso a reserva é considerada abandonada e o cabeçalho é recalculado a partir dos buckets.
+         */
+        private Duration lockTimeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Migration {
+        /**
+         * Migra em segundo plano, após a inicialização, os documentos ainda no formato antigo.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Quantidade de documentos migrados por lote.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Pausa entre os lotes, para limitar a carga extra no banco.
+         */
+        private Duration pause = Duration.ofMillis(100);
+    }
+}
@@ -0,0 +1,43 @@
+package com.wishlist.config.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Marca no MDC as requisições que enviaram {@link #DEBUG_HEADER}, para que {@link RequestDebugTurboFilter} libere
+ * os logs DEBUG (inclusive os dumps de payload) só nelas.
+ * <p>
+ * Vale apenas para o modo servlet: no profile {@code reactive} o MDC não acompanha a requisição entre threads.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestDebugLogFilter extends OncePerRequestFilter {
+
+    public static final String DEBUG_HEADER = "X-Debug-Log";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!Boolean.parseBoolean(request.getHeader(DEBUG_HEADER))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        MDC.put(RequestDebugTurboFilter.MDC_KEY, "true");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(RequestDebugTurboFilter.MDC_KEY);
+        }
+    }
+}
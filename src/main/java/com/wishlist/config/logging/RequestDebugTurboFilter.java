@@ -0,0 +1,34 @@
+package com.wishlist.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Getter;
+import lombok.Setter;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Libera o nível DEBUG dos loggers da aplicação apenas na requisição que pediu, via header
+ * {@link RequestDebugLogFilter#DEBUG_HEADER}. Fora dessas requisições não interfere: quem decide é o nível
+ * configurado para o logger.
+ */
+@Getter
+@Setter
+public class RequestDebugTurboFilter extends TurboFilter {
+
+    public static final String MDC_KEY = "wishlist.debug";
+
+    private String loggerPrefix = "com.wishlist";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.isGreaterOrEqual(Level.DEBUG)
+                && MDC.get(MDC_KEY) != null
+                && logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.ACCEPT;
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
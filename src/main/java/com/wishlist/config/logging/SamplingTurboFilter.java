@@ -0,0 +1,51 @@
+package com.wishlist.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Getter;
+import lombok.Setter;
+import org.slf4j.Marker;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Amostragem de mensagens de alto volume: dos eventos dos loggers listados em {@code loggerName} e com nível até
+ * {@code maxLevel}, só um a cada {@code sampleEvery} segue para os appenders. WARN e ERROR nunca são descartados.
+ * Os loggers são listados um a um para que as classes com mensagens operacionais (admin, migração, importação) no
+ * mesmo pacote não sejam amostradas.
+ * <p>
+ * Deve ser declarado depois de {@link RequestDebugTurboFilter} para que requisições com debug ligado não sejam
+ * amostradas.
+ */
+@Getter
+@Setter
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final Set<String> loggerNames = new HashSet<>();
+    private Level maxLevel = Level.INFO;
+    private int sampleEvery = 1;
+
+    private final AtomicLong counter = new AtomicLong();
+
+    /**
+     * Chamado pelo logback para cada elemento {@code <loggerName>} da configuração.
+     */
+    public void addLoggerName(String loggerName) {
+        loggerNames.add(loggerName.trim());
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format nulo vem de isXxxEnabled(), que não deve consumir a vez de um evento
+        if (format == null || sampleEvery <= 1
+                || level.levelInt > maxLevel.levelInt
+                || !loggerNames.contains(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % sampleEvery == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,176 @@
+package com.wishlist.controller;
+
+import com.wishlist.dto.request.BulkWishlistRequestDTO;
+import com.wishlist.dto.request.CustomerWishlistRequestDTO;
+import com.wishlist.dto.request.MultiGetWishlistRequestDTO;
+import com.wishlist.dto.request.ProductBatchCheckRequestDTO;
+import com.wishlist.dto.request.RemoveProductsRequestDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO;
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.dto.response.MultiGetWishlistResponseDTO;
+import com.wishlist.dto.response.ProductBatchCheckResponseDTO;
+import com.wishlist.dto.response.ProductCheckResponseDTO;
+import com.wishlist.dto.response.ProductWisherResponseDTO;
+import com.wishlist.dto.response.WishlistSummaryResponseDTO;
+import com.wishlist.service.ReactiveCustomerWishListService;
+import com.wishlist.service.WishlistBulkService;
+import com.wishlist.service.WishlistVersion;
+import com.wishlist.utils.CurrencyFormatter;
+import com.wishlist.utils.CurrencyFormatterRegistry;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Mesmos endpoints de {@link WishlistController} sobre WebFlux, ativos no profile {@code reactive}.
+ * A documentação OpenAPI fica no controller MVC.
+ */
+@Slf4j
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/wishlist")
+@RequiredArgsConstructor
+@Validated
+public class ReactiveWishlistController {
+    private final ReactiveCustomerWishListService customerWishListService;
+    private final WishlistBulkService wishlistBulkService;
+    private final CurrencyFormatterRegistry currencyFormatters;
+
+    @GetMapping(value = "/{customerId}")
+    public Mono<ResponseEntity<CustomerWishlistResponseDTO>> getWishlist(
+            @PathVariable @NotNull(message = "O ID do cliente não pode ser nulo") UUID customerId,
+            @RequestParam(required = false) String lang,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage,
+            ServerWebExchange exchange
+    ) {
+        log.info("Buscando wishlist para o cliente: {}", customerId);
+        CurrencyFormatter formatter = currencyFormatters.resolve(lang, acceptLanguage);
+        exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT_LANGUAGE));
+        Predicate<WishlistVersion> notModified = version -> checkNotModified(exchange, version.localized(formatter));
+        Mono<CustomerWishlistResponseDTO> wishlist = page == null && size == null && sort == null && fields == null
+                ? customerWishListService.getWishlist(customerId, notModified)
+                : customerWishListService.getWishlistPage(customerId, page, size, sort, fields, notModified);
+        return wishlist
+                .map(response -> ResponseEntity.ok(currencyFormatters.localize(response, formatter)))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build())
+                .doOnError(e -> log.warn("Erro ao buscar wishlist para o cliente: {} ({})", customerId, e.getMessage()));
+    }
+
+    @GetMapping(value = "/{customerId}/summary")
+    public Mono<WishlistSummaryResponseDTO> getWishlistSummary(
+            @PathVariable @NotNull(message = "O ID do cliente não pode ser nulo") UUID customerId,
+            @RequestParam(required = false) String lang,
+            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage
+    ) {
+        log.info("Buscando resumo da wishlist para o cliente: {}", customerId);
+        CurrencyFormatter formatter = currencyFormatters.resolve(lang, acceptLanguage);
+        return customerWishListService.getWishlistSummary(customerId)
+                .map(summary -> currencyFormatters.localize(summary, formatter));
+    }
+
+    @PostMapping("/multi-get")
+    public Mono<MultiGetWishlistResponseDTO> getWishlists(
+            @RequestBody @Valid MultiGetWishlistRequestDTO request,
+            @RequestParam(required = false) String lang,
+            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage
+    ) {
+        log.info("Buscando wishlists de {} clientes", request.getCustomerIds().size());
+        CurrencyFormatter formatter = currencyFormatters.resolve(lang, acceptLanguage);
+        return customerWishListService.getWishlists(request.getCustomerIds())
+                .map(response -> currencyFormatters.localize(response, formatter));
+    }
+
+    @GetMapping(value = "/product/check/{productId}/{customerId}")
+    public Mono<ProductCheckResponseDTO> checkIfProductIsInWishlist(
+            @PathVariable @NotNull(message = "O ID do produto não pode ser nulo") UUID productId,
+            @PathVariable @NotNull(message = "O ID do cliente não pode ser nulo") UUID customerId
+    ) {
+        log.info("Verificando se o produto {} está na wishlist do cliente {}", productId, customerId);
+        return customerWishListService.checkProductInWishlist(customerId, productId)
+                .doOnError(e -> log.warn("Erro ao verificar produto na wishlist do cliente {} ({})", customerId, e.getMessage()));
+    }
+
+    @PostMapping("/product/check")
+    public Mono<ProductBatchCheckResponseDTO> checkIfProductsAreInWishlist(@RequestBody @Valid ProductBatchCheckRequestDTO request) {
+        log.info("Verificando {} produtos na wishlist do cliente {}", request.getProductIds().size(), request.getCustomerId());
+        return customerWishListService.checkProductsInWishlist(request.getCustomerId(), request.getProductIds())
+                .doOnError(e -> log.warn("Erro ao verificar produtos na wishlist do cliente {} ({})", request.getCustomerId(), e.getMessage()));
+    }
+
+    @GetMapping(value = "/product/{productId}/customers", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductWisherResponseDTO> streamProductWishers(
+            @PathVariable @NotNull(message = "O ID do produto não pode ser nulo") UUID productId,
+            @RequestParam(required = false) String cursor
+    ) {
+        log.info("Listando clientes com o produto {} na wishlist", productId);
+        return customerWishListService.getWishers(productId, cursor)
+                .doOnError(e -> log.warn("Erro ao listar clientes com o produto {} ({})", productId, e.getMessage()));
+    }
+
+    @PutMapping
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<CustomerWishlistResponseDTO> addProductsToWishlist(
+            @RequestBody @Valid @NotNull(message = "O corpo da requisição não pode ser nulo") CustomerWishlistRequestDTO customerWishlist,
+            @RequestParam(required = false) String lang,
+            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage
+    ) {
+        log.info("Adicionando produtos à wishlist do cliente: {}", customerWishlist.getCustomerId());
+        CurrencyFormatter formatter = currencyFormatters.resolve(lang, acceptLanguage);
+        return customerWishListService.addItemsWishlist(customerWishlist)
+                .map(response -> currencyFormatters.localize(response, formatter))
+                .doOnError(e -> log.warn("Erro ao adicionar produtos à wishlist do cliente: {} ({})", customerWishlist.getCustomerId(), e.getMessage()));
+    }
+
+    @DeleteMapping("/product")
+    public Mono<ResponseEntity<CustomerWishlistResponseDTO>> removeProductsFromWishlist(
+            @RequestBody @Valid RemoveProductsRequestDTO request,
+            @RequestParam(defaultValue = "false") boolean returnBody,
+            @RequestParam(required = false) String lang,
+            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage
+    ) {
+        log.info("Removendo produtos da wishlist do cliente: {}", request.getCustomerId());
+        CurrencyFormatter formatter = currencyFormatters.resolve(lang, acceptLanguage);
+        Mono<ResponseEntity<CustomerWishlistResponseDTO>> response = returnBody
+                ? customerWishListService.deleteItemsFromWishlistWithResponse(request.getCustomerId(), request.getProductIds())
+                        .map(wishlist -> ResponseEntity.ok(currencyFormatters.localize(wishlist, formatter)))
+                : customerWishListService.deleteItemsFromWishlist(request.getCustomerId(), request.getProductIds())
+                        .then(Mono.fromSupplier(() -> ResponseEntity.noContent().<CustomerWishlistResponseDTO>build()));
+        return response.doOnError(e -> log.warn("Erro ao remover produtos da wishlist do cliente: {} ({})", request.getCustomerId(), e.getMessage()));
+    }
+
+    /**
+     * O processamento em lote continua bloqueante; roda no scheduler elástico para não ocupar as threads do event loop.
+     */
+    @PostMapping("/batch")
+    public Mono<BulkWishlistResponseDTO> applyBatch(@RequestBody @Valid BulkWishlistRequestDTO request) {
+        log.info("Processando lote com {} operações", request.getOperations().size());
+        return Mono.fromCallable(() -> wishlistBulkService.applyOperations(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(response -> log.info("Lote processado: {} com sucesso, {} rejeitadas", response.getSucceeded(), response.getFailed()));
+    }
+
+    private boolean checkNotModified(ServerWebExchange exchange, WishlistVersion version) {
+        return exchange.checkNotModified(version.getEtag(), Instant.ofEpochMilli(version.getLastModified()));
+    }
+}
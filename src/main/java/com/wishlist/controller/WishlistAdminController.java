@@ -0,0 +1,171 @@
+package com.wishlist.controller;
+
+import com.wishlist.dto.request.ProductUpdateRequestDTO;
+import com.wishlist.dto.response.CacheStatsResponseDTO;
+import com.wishlist.dto.response.PopularProductsResponseDTO;
+import com.wishlist.dto.response.PopularityRecountResponseDTO;
+import com.wishlist.dto.response.ProductUpdateResponseDTO;
+import com.wishlist.service.ProductPopularity;
+import com.wishlist.service.ProductPopularityRecount;
+import com.wishlist.service.ProductUpdateService;
+import com.wishlist.service.WishlistCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+@Tag(name = "Wishlist Admin", description = "Operações administrativas da Wishlist")
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/wishlist")
+@RequiredArgsConstructor
+public class WishlistAdminController {
+    private final WishlistCache wishlistCache;
+    private final ProductPopularity productPopularity;
+    private final ProductPopularityRecount productPopularityRecount;
+    private final ProductUpdateService productUpdateService;
+
+    @Operation(
+            summary = "Estatísticas do cache de wishlists",
+            description = "Retorna acertos, falhas, cargas e remoções do cache em memória desta instância"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estatísticas retornadas com sucesso",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CacheStatsResponseDTO.class)
+                    )
+            )
+    })
+    @GetMapping("/cache/stats")
+    public CacheStatsResponseDTO getCacheStats() {
+        return wishlistCache.stats();
+    }
+
+    @Operation(
+            summary = "Produtos mais desejados (aproximado)",
+            description = "Retorna o ranking mantido em memória, sem consultar o banco. Cada contagem estimada nunca fica "
+                    + "abaixo da real e, com a confiança informada, passa dela no máximo errorBound"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Ranking retornado com sucesso",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = PopularProductsResponseDTO.class)
+                    )
+            )
+    })
+    @GetMapping("/popular-products")
+    public PopularProductsResponseDTO getPopularProducts(
+            @Parameter(description = "Quantidade de produtos, limitada a wishlist.popularity.top-k")
+            @RequestParam(defaultValue = "20") int limit) {
+        return productPopularity.top(limit);
+    }
+
+    @Operation(
+            summary = "Conferir o ranking de produtos",
+            description = "Conta no banco, de forma exata, os produtos do ranking e compara com as estimativas. "
+                    + "Percorre toda a coleção"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Conferência concluída",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = PopularityRecountResponseDTO.class)
+                    )
+            )
+    })
+    @PostMapping("/popular-products/recount")
+    public CompletableFuture<PopularityRecountResponseDTO> recountPopularProducts() {
+        log.info("Conferência do ranking de produtos solicitada");
+        return productPopularityRecount.recountAsync();
+    }
+
+    @Operation(
+            summary = "Reconstruir o ranking de produtos",
+            description = "Recria as contagens a partir de todas as wishlists e substitui o estado compartilhado"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Ranking reconstruído",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = PopularProductsResponseDTO.class)
+                    )
+            )
+    })
+    @PostMapping("/popular-products/rebuild")
+    public CompletableFuture<PopularProductsResponseDTO> rebuildPopularProducts() {
+        log.info("Reconstrução do ranking de produtos solicitada");
+        return productPopularityRecount.rebuildAsync();
+    }
+
+    @Operation(
+            summary = "Atualizar produtos nas wishlists",
+            description = "Propaga nome, descrição e preço dos produtos para todas as wishlists que os contêm, em lotes, "
+                    + "recalculando o total de cada wishlist alterada. Responde ao final; o andamento pode ser consultado "
+                    + "em /products/update-progress"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Atualização concluída",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductUpdateResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Já existe uma atualização de produtos em andamento",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @PutMapping("/products")
+    public CompletableFuture<ProductUpdateResponseDTO> updateProducts(@Valid @RequestBody ProductUpdateRequestDTO request) {
+        log.info("Atualização de {} produtos solicitada", request.getProducts().size());
+        return productUpdateService.updateAsync(request.getProducts());
+    }
+
+    @Operation(
+            summary = "Andamento da atualização de produtos",
+            description = "Retorna o andamento da atualização de produtos atual ou da última executada nesta instância"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Andamento retornado com sucesso",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductUpdateResponseDTO.class)
+                    )
+            )
+    })
+    @GetMapping("/products/update-progress")
+    public ProductUpdateResponseDTO getProductUpdateProgress() {
+        return productUpdateService.progress();
+    }
+}
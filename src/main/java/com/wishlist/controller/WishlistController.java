@@ -1,13 +1,29 @@
 package com.wishlist.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.wishlist.dto.request.BulkWishlistRequestDTO;
 import com.wishlist.dto.request.CustomerWishlistRequestDTO;
+import com.wishlist.dto.request.MultiGetWishlistRequestDTO;
+import com.wishlist.dto.request.ProductBatchCheckRequestDTO;
 import com.wishlist.dto.request.RemoveProductsRequestDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO;
 import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.dto.response.MultiGetWishlistResponseDTO;
+import com.wishlist.dto.response.ProductBatchCheckResponseDTO;
 import com.wishlist.dto.response.ProductCheckResponseDTO;
+import com.wishlist.dto.response.ProductWisherResponseDTO;
+import com.wishlist.dto.response.WishlistSummaryResponseDTO;
 import com.wishlist.exception.CustomerNotFoundException;
+import com.wishlist.exception.InvalidCursorException;
+import com.wishlist.exception.InvalidWishlistQueryException;
 import com.wishlist.exception.NoItemsAddedException;
 import com.wishlist.exception.NoItemsDeletedException;
 import com.wishlist.service.CustomerWishListService;
+import com.wishlist.service.WishlistBulkService;
+import com.wishlist.service.WishlistVersion;
+import com.wishlist.utils.CurrencyFormatter;
+import com.wishlist.utils.CurrencyFormatterRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,25 +35,41 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Iterator;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 @Tag(name = "Wishlist", description = "API de gerenciamento de Wishlist")
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/wishlist")
 @RequiredArgsConstructor
 @Validated
 public class WishlistController {
     private final CustomerWishListService customerWishListService;
+    private final WishlistBulkService wishlistBulkService;
+    private final CurrencyFormatterRegistry currencyFormatters;
+    private final ObjectMapper objectMapper;
 
     @Operation(
             summary = "Buscar a Wishlist do cliente",
-            description = "Recupera todos os produtos na Wishlist de um cliente específico"
+            description = "Recupera todos os produtos na Wishlist de um cliente específico. " +
+                    "Aceita If-None-Match/If-Modified-Since e responde 304 quando a wishlist não mudou. " +
+                    "Com page/size/sort/fields, retorna só a página de produtos e os campos pedidos, junto com a " +
+                    "quantidade total de produtos; size=0 retorna apenas a quantidade e o total."
     )
     @ApiResponses({
             @ApiResponse(
@@ -48,6 +80,16 @@ public class WishlistController {
                             schema = @Schema(implementation = CustomerWishlistResponseDTO.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Wishlist não modificada desde a versão informada",
+                    content = @Content(schema = @Schema(hidden = true))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Parâmetros de paginação, ordenação ou campos inválidos",
+                    content = @Content(schema = @Schema(hidden = true))
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Cliente não encontrado",
@@ -55,21 +97,112 @@ public class WishlistController {
             )
     })
     @GetMapping(value = "/{customerId}")
-    public CustomerWishlistResponseDTO getWishlist(
+    public ResponseEntity<CustomerWishlistResponseDTO> getWishlist(
             @Parameter(description = "ID único do cliente", example = "123e4567-e89b-12d3-a456-426614174000")
-            @PathVariable @NotNull(message = "O ID do cliente não pode ser nulo") UUID customerId
-    ) throws CustomerNotFoundException {
+            @PathVariable @NotNull(message = "O ID do cliente não pode ser nulo") UUID customerId,
+            @Parameter(description = "Idioma da formatação de valores (ex.: en-US); tem prioridade sobre o Accept-Language", example = "pt-BR")
+            @RequestParam(required = false) String lang,
+            @Parameter(description = "Página de produtos, a partir de zero", example = "0")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Produtos por página, de 0 a wishlist.max-items (padrão: todos)", example = "10")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Ordenação dos produtos: added (ordem de inclusão, padrão), name ou price, seguida de ,asc ou ,desc", example = "price,desc")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Campos dos produtos na resposta, separados por vírgula (productId, name, description, price)", example = "productId")
+            @RequestParam(required = false) String fields,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage,
+            @Parameter(hidden = true) WebRequest webRequest
+    ) throws CustomerNotFoundException, InvalidWishlistQueryException {
         log.info("Buscando wishlist para o cliente: {}", customerId);
         try {
-            CustomerWishlistResponseDTO response = customerWishListService.getWishlist(customerId);
+            CurrencyFormatter formatter = currencyFormatters.resolve(lang, acceptLanguage);
+            AtomicReference<WishlistVersion> version = new AtomicReference<>();
+            Predicate<WishlistVersion> notModified = found -> {
+                version.set(found.localized(formatter));
+                return webRequest.checkNotModified(version.get().getEtag(), version.get().getLastModified());
+            };
+            Optional<CustomerWishlistResponseDTO> wishlist = page == null && size == null && sort == null && fields == null
+                    ? customerWishListService.getWishlist(customerId, notModified)
+                    : customerWishListService.getWishlistPage(customerId, page, size, sort, fields, notModified);
+            if (wishlist.isEmpty()) {
+                log.debug("Wishlist do cliente {} não modificada ({})", customerId, version.get().getEtag());
+                return null;
+            }
+            CustomerWishlistResponseDTO response = currencyFormatters.localize(wishlist.get(), formatter);
             log.debug("Wishlist encontrada com sucesso para o cliente: {}", response);
-            return response;
-        } catch (CustomerNotFoundException e) {
-            log.error("Erro ao buscar wishlist para o cliente: {}", customerId, e);
+            return ResponseEntity.ok()
+                    .eTag(version.get().getEtag())
+                    .lastModified(version.get().getLastModified())
+                    .varyBy(HttpHeaders.ACCEPT_LANGUAGE)
+                    .body(response);
+        } catch (CustomerNotFoundException | InvalidWishlistQueryException e) {
+            log.warn("Erro ao buscar wishlist para o cliente: {} ({})", customerId, e.getMessage());
             throw e;
         }
     }
 
+    @Operation(
+            summary = "Buscar o resumo da Wishlist do cliente",
+            description = "Retorna apenas a quantidade de produtos e o valor total da Wishlist, sem a lista de produtos"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Resumo encontrado com sucesso",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = WishlistSummaryResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Cliente não encontrado",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @GetMapping(value = "/{customerId}/summary")
+    public WishlistSummaryResponseDTO getWishlistSummary(
+            @Parameter(description = "ID único do cliente", example = "123e4567-e89b-12d3-a456-426614174000")
+            @PathVariable @NotNull(message = "O ID do cliente não pode ser nulo") UUID customerId,
+            @Parameter(description = "Idioma da formatação de valores (ex.: en-US); tem prioridade sobre o Accept-Language", example = "pt-BR")
+            @RequestParam(required = false) String lang,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage
+    ) throws CustomerNotFoundException {
+        log.info("Buscando resumo da wishlist para o cliente: {}", customerId);
+        return currencyFormatters.localize(
+                customerWishListService.getWishlistSummary(customerId),
+                currencyFormatters.resolve(lang, acceptLanguage));
+    }
+
+    @Operation(
+            summary = "Buscar as Wishlists de vários clientes",
+            description = "Recupera as Wishlists de uma lista de clientes em uma única requisição. " +
+                    "Clientes sem wishlist são retornados em notFound, sem erro."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Busca realizada com sucesso",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = MultiGetWishlistResponseDTO.class)
+                    )
+            )
+    })
+    @PostMapping("/multi-get")
+    public MultiGetWishlistResponseDTO getWishlists(
+            @Parameter(description = "UUIDs dos clientes")
+            @RequestBody @Valid MultiGetWishlistRequestDTO request,
+            @Parameter(description = "Idioma da formatação de valores (ex.: en-US); tem prioridade sobre o Accept-Language", example = "pt-BR")
+            @RequestParam(required = false) String lang,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage
+    ) {
+        log.info("Buscando wishlists de {} clientes", request.getCustomerIds().size());
+        return currencyFormatters.localize(
+                customerWishListService.getWishlists(request.getCustomerIds()),
+                currencyFormatters.resolve(lang, acceptLanguage));
+    }
+
     @Operation(
             summary = "Verificar se um produto está na wishlist",
             description = "Verifica se um produto específico está na wishlist de um cliente e retorna detalhes"
@@ -101,16 +234,99 @@ public class WishlistController {
             ProductCheckResponseDTO response = customerWishListService.checkProductInWishlist(customerId, productId);
             return ResponseEntity.ok(response);
         } catch (CustomerNotFoundException e) {
-            log.error("Erro ao verificar produto na wishlist: cliente {} não encontrado", customerId, e);
+            log.warn("Erro ao verificar produto na wishlist: cliente {} não encontrado ({})", customerId, e.getMessage());
             throw e;
         }
     }
 
+    @Operation(
+            summary = "Verificar vários produtos na wishlist",
+            description = "Verifica de uma só vez se cada produto informado está na wishlist do cliente e retorna os detalhes " +
+                    "dos que estiverem. Indicado para páginas de listagem e busca."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Verificação realizada com sucesso",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductBatchCheckResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Cliente não encontrado",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @PostMapping("/product/check")
+    public ProductBatchCheckResponseDTO checkIfProductsAreInWishlist(
+            @Parameter(description = "Cliente e produtos a serem verificados")
+            @RequestBody @Valid ProductBatchCheckRequestDTO request
+    ) throws CustomerNotFoundException {
+        log.info("Verificando {} produtos na wishlist do cliente {}", request.getProductIds().size(), request.getCustomerId());
+        try {
+            return customerWishListService.checkProductsInWishlist(request.getCustomerId(), request.getProductIds());
+        } catch (CustomerNotFoundException e) {
+            log.warn("Erro ao verificar produtos na wishlist: cliente {} não encontrado ({})", request.getCustomerId(), e.getMessage());
+            throw e;
+        }
+    }
 
+    @Operation(
+            summary = "Listar clientes que têm um produto na wishlist",
+            description = "Retorna em NDJSON (uma linha JSON por cliente) todos os clientes com o produto na wishlist, " +
+                    "em ordem estável. Cada linha traz um cursor: para retomar uma listagem interrompida, envie o cursor " +
+                    "da última linha recebida. Os clientes são lidos do banco em páginas, então o consumo de memória não " +
+                    "depende da quantidade de clientes."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Listagem iniciada com sucesso",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = ProductWisherResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Cursor inválido",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @GetMapping(value = "/product/{productId}/customers", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProductWishers(
+            @Parameter(description = "ID do produto", example = "123e4567-e89b-12d3-a456-426614174000")
+            @PathVariable @NotNull(message = "O ID do produto não pode ser nulo") UUID productId,
+            @Parameter(description = "Cursor da última linha recebida, para continuar a listagem")
+            @RequestParam(required = false) String cursor
+    ) throws InvalidCursorException {
+        log.info("Listando clientes com o produto {} na wishlist", productId);
+        Stream<ProductWisherResponseDTO> wishers;
+        try {
+            wishers = customerWishListService.streamWishers(productId, cursor);
+        } catch (InvalidCursorException e) {
+            log.warn("Erro ao listar clientes com o produto {} ({})", productId, e.getMessage());
+            throw e;
+        }
+
+        ObjectWriter writer = objectMapper.writerFor(ProductWisherResponseDTO.class);
+        StreamingResponseBody body = output -> {
+            Iterator<ProductWisherResponseDTO> iterator = wishers.iterator();
+            while (iterator.hasNext()) {
+                output.write(writer.writeValueAsBytes(iterator.next()));
+                output.write('\n');
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 
     @Operation(
             summary = "Adicionar produtos à Wishlist",
-            description = "Adiciona um ou mais produtos à Wishlist do cliente. Cada cliente pode ter no máximo 20 produtos em sua lista. " +
+            description = "Adiciona um ou mais produtos à Wishlist do cliente. Cada cliente pode ter no máximo wishlist.max-items produtos em sua lista (20 por padrão). " +
                     "Se a solicitação ultrapassar esse limite, nenhum produto será adicionado e uma exceção será lançada."
     )
     @ApiResponses({
@@ -135,15 +351,20 @@ public class WishlistController {
             @RequestBody
             @Valid
             @NotNull(message = "O corpo da requisição não pode ser nulo")
-            CustomerWishlistRequestDTO customerWishlist
+            CustomerWishlistRequestDTO customerWishlist,
+            @Parameter(description = "Idioma da formatação de valores (ex.: en-US); tem prioridade sobre o Accept-Language", example = "pt-BR")
+            @RequestParam(required = false) String lang,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage
     ) throws NoItemsAddedException {
         log.info("Adicionando produtos à wishlist do cliente: {}", customerWishlist.getCustomerId());
         try {
-            CustomerWishlistResponseDTO response = customerWishListService.addItemsWishlist(customerWishlist);
+            CustomerWishlistResponseDTO response = currencyFormatters.localize(
+                    customerWishListService.addItemsWishlist(customerWishlist),
+                    currencyFormatters.resolve(lang, acceptLanguage));
             log.debug("Produtos adicionados com sucesso à wishlist do cliente: {}", response);
             return response;
         } catch (NoItemsAddedException e) {
-            log.error("Erro ao adicionar produtos à wishlist do cliente: {}", customerWishlist.getCustomerId(), e);
+            log.warn("Erro ao adicionar produtos à wishlist do cliente: {} ({})", customerWishlist.getCustomerId(), e.getMessage());
             throw e;
         }
     }
@@ -179,15 +400,20 @@ public class WishlistController {
             @Parameter(
                     description = "Define se a resposta deve incluir a lista atualizada"
             )
-            @RequestParam(defaultValue = "false") boolean returnBody
+            @RequestParam(defaultValue = "false") boolean returnBody,
+            @Parameter(description = "Idioma da formatação de valores (ex.: en-US); tem prioridade sobre o Accept-Language", example = "pt-BR")
+            @RequestParam(required = false) String lang,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage
     ) throws CustomerNotFoundException, NoItemsDeletedException {
         log.info("Removendo produtos da wishlist do cliente: {}", request.getCustomerId());
         try {
             if (returnBody) {
-                CustomerWishlistResponseDTO response = customerWishListService.deleteItemsFromWishlistWithResponse(
-                        request.getCustomerId(),
-                        request.getProductIds()
-                );
+                CustomerWishlistResponseDTO response = currencyFormatters.localize(
+                        customerWishListService.deleteItemsFromWishlistWithResponse(
+                                request.getCustomerId(),
+                                request.getProductIds()
+                        ),
+                        currencyFormatters.resolve(lang, acceptLanguage));
                 log.debug("Produtos removidos com sucesso e resposta gerada para o cliente: {}", response);
                 return ResponseEntity.ok(response);
             }
@@ -199,9 +425,36 @@ public class WishlistController {
             log.debug("Produtos removidos com sucesso da wishlist do cliente: {}", request.getCustomerId());
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
-            log.error("Erro ao remover produtos da wishlist do cliente: {}", request.getCustomerId(), e);
+            log.warn("Erro ao remover produtos da wishlist do cliente: {} ({})", request.getCustomerId(), e.getMessage());
             throw e;
         }
     }
 
+    @Operation(
+            summary = "Adicionar/remover produtos de vários clientes em lote",
+            description = "Aplica operações de adição e remoção de vários clientes com as mesmas regras das operações individuais " +
+                    "(limite de wishlist.max-items itens e produtos duplicados ignorados). As operações são gravadas em lotes não ordenados " +
+                    "e o resultado de cada uma é retornado na mesma ordem da requisição."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote processado; verifique o status de cada operação",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = BulkWishlistResponseDTO.class)
+                    )
+            )
+    })
+    @PostMapping("/batch")
+    public BulkWishlistResponseDTO applyBatch(
+            @Parameter(description = "Operações a serem aplicadas")
+            @RequestBody @Valid BulkWishlistRequestDTO request
+    ) {
+        log.info("Processando lote com {} operações", request.getOperations().size());
+        BulkWishlistResponseDTO response = wishlistBulkService.applyOperations(request);
+        log.info("Lote processado: {} com sucesso, {} rejeitadas", response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
 }
@@ -0,0 +1,78 @@
+package com.wishlist.controller;
+
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.service.WishlistExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+@Tag(name = "Wishlist Admin", description = "Operações administrativas da Wishlist")
+@Slf4j
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/admin/wishlist")
+@RequiredArgsConstructor
+public class WishlistExportController {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final WishlistExportService exportService;
+
+    @Operation(
+            summary = "Exportar todas as wishlists",
+            description = "Retorna em NDJSON (uma linha JSON por cliente, no mesmo formato da busca de wishlist) todas as " +
+                    "wishlists, em ordem estável. Os documentos são lidos do banco com um cursor e escritos conforme chegam, " +
+                    "então o consumo de memória não depende da quantidade de wishlists. Para retomar uma exportação " +
+                    "interrompida, envie o customerId da última linha recebida."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Exportação iniciada com sucesso",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = CustomerWishlistResponseDTO.class)
+                    )
+            )
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportWishlists(
+            @Parameter(description = "customerId da última linha recebida, para continuar a exportação")
+            @RequestParam(required = false) UUID after,
+            @Parameter(description = "Compacta a resposta com gzip (Content-Encoding: gzip)")
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        log.info("Exportando wishlists após o cliente {} (gzip: {})", after, gzip);
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, GZIP_BUFFER_SIZE);
+                exportService.export(after, compressed);
+                compressed.finish();
+            } else {
+                exportService.export(after, output);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -27,4 +27,20 @@ public class CustomerWishlistEntity {
 
     private LocalDateTime dateUpdate;
 
+    /**
+     * Incrementado a cada alteração da wishlist; base do ETag do GET. Nulo em documentos gravados antes do campo existir.
+     */
+    private Long version;
+
+    /**
+     * Quantidade de itens em {@code wishlist}, mantida pelos updates de inclusão e remoção. Nulo em documentos ainda
+     * não migrados (ver WishlistAggregatesBackfill).
+     */
+    private Integer itemCount;
+
+    /**
+     * Soma dos preços (em centavos) dos itens em {@code wishlist}, mantida junto com {@link #itemCount}.
+     */
+    private Long totalPriceCents;
+
 }
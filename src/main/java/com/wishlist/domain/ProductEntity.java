@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
@@ -15,4 +16,13 @@ public class ProductEntity {
     private String name;
     private String description;
     private Long price;
+
+    /**
+     * Data de inclusão na wishlist, gravada apenas com {@code wishlist.catalog.enabled}. Nulo nos demais itens.
+     */
+    private LocalDateTime dateAdded;
+
+    public ProductEntity(UUID productId, String name, String description, Long price) {
+        this(productId, name, description, price, null);
+    }
 }
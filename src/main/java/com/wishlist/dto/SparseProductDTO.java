@@ -0,0 +1,15 @@
+package com.wishlist.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Produto da busca com {@code fields}: os campos não pedidos ficam nulos e não são serializados. As demais respostas
+ * usam {@link ProductDTO}, que mantém os campos nulos.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SparseProductDTO extends ProductDTO {
+
+    public SparseProductDTO(ProductDTO product) {
+        super(product.getProductId(), product.getName(), product.getDescription(), product.getPrice());
+    }
+}
@@ -0,0 +1,40 @@
+package com.wishlist.dto.request;
+
+import com.wishlist.dto.ProductDTO;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkWishlistOperationDTO {
+
+    @NotNull(message = "O ID do cliente não pode ser nulo")
+    @Schema(description = "UUID do cliente")
+    private UUID customerId;
+
+    @NotNull(message = "O tipo da operação não pode ser nulo")
+    @Schema(description = "Tipo da operação")
+    private OperationType type;
+
+    @Valid
+    @Schema(description = "Produtos a serem adicionados (operações ADD)")
+    private List<ProductDTO> products;
+
+    @Schema(description = "UUIDs dos produtos a serem removidos (operações REMOVE)")
+    private List<UUID> productIds;
+
+    public enum OperationType {
+        ADD,
+        REMOVE
+    }
+}
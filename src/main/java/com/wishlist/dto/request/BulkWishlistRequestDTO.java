@@ -0,0 +1,25 @@
+package com.wishlist.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkWishlistRequestDTO {
+
+    @NotEmpty(message = "A lista de operações não pode estar vazia")
+    @Size(max = 50000, message = "O lote pode ter no máximo 50000 operações")
+    @Valid
+    @Schema(description = "Operações de adição/remoção, de um ou mais clientes")
+    private List<BulkWishlistOperationDTO> operations;
+}
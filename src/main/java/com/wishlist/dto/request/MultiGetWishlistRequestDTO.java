@@ -0,0 +1,24 @@
+package com.wishlist.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MultiGetWishlistRequestDTO {
+
+    @NotEmpty(message = "A lista de clientes não pode estar vazia")
+    @Size(max = 10000, message = "É possível buscar no máximo 10000 clientes por requisição")
+    @Schema(description = "UUIDs dos clientes")
+    private List<UUID> customerIds;
+}
@@ -0,0 +1,29 @@
+package com.wishlist.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchCheckRequestDTO {
+
+    @NotNull(message = "O ID do cliente não pode ser nulo")
+    @Schema(description = "UUID do cliente")
+    private UUID customerId;
+
+    @NotEmpty(message = "A lista de produtos não pode estar vazia")
+    @Size(max = 500, message = "É possível verificar no máximo 500 produtos por requisição")
+    @Schema(description = "UUIDs dos produtos a serem verificados")
+    private List<UUID> productIds;
+}
@@ -0,0 +1,20 @@
+package com.wishlist.dto.request;
+
+import com.wishlist.dto.ProductDTO;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ProductUpdateRequestDTO {
+
+    @NotEmpty(message = "A lista de produtos não pode estar vazia")
+    @Valid
+    @Schema(description = "Produtos com os novos nome, descrição e preço")
+    private List<ProductDTO> products;
+}
@@ -0,0 +1,71 @@
+package com.wishlist.dto.response;
+
+import com.wishlist.dto.request.BulkWishlistOperationDTO;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkWishlistResponseDTO {
+
+    @Schema(description = "Quantidade de operações aplicadas com sucesso")
+    private int succeeded;
+
+    @Schema(description = "Quantidade de operações rejeitadas")
+    private int failed;
+
+    @Schema(description = "Resultado de cada operação, na mesma ordem da requisição")
+    private List<OperationResultDTO> results;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class OperationResultDTO {
+
+        @Schema(description = "UUID do cliente")
+        private UUID customerId;
+
+        @Schema(description = "Tipo da operação")
+        private BulkWishlistOperationDTO.OperationType type;
+
+        @Schema(description = "Resultado da operação")
+        private Status status;
+
+        @Schema(description = "Detalhe do motivo quando a operação não foi aplicada")
+        private String message;
+    }
+
+    public enum Status {
+        CREATED(true),
+        ADDED(true),
+        REMOVED(true),
+        NO_ITEMS_ADDED(false),
+        LIMIT_EXCEEDED(false),
+        NO_ITEMS_DELETED(false),
+        CUSTOMER_NOT_FOUND(false),
+        WRITE_FAILED(false),
+        /**
+         * Escritas concorrentes no mesmo cliente impediram confirmar se a operação foi aplicada.
+         */
+        UNKNOWN(false);
+
+        private final boolean success;
+
+        Status(boolean success) {
+            this.success = success;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+    }
+}
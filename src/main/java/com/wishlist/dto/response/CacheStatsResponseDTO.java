@@ -0,0 +1,36 @@
+package com.wishlist.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Estatísticas do cache de wishlists desta instância")
+public class CacheStatsResponseDTO {
+
+    @Schema(description = "Indica se o cache está habilitado")
+    private boolean enabled;
+
+    @Schema(description = "Quantidade aproximada de wishlists em cache")
+    private long size;
+
+    @Schema(description = "Leituras atendidas pelo cache")
+    private long hitCount;
+
+    @Schema(description = "Leituras que precisaram ir ao banco")
+    private long missCount;
+
+    @Schema(description = "Proporção de leituras atendidas pelo cache")
+    private double hitRate;
+
+    @Schema(description = "Cargas feitas no banco")
+    private long loadCount;
+
+    @Schema(description = "Wishlists removidas por tamanho ou expiração")
+    private long evictionCount;
+}
@@ -1,5 +1,6 @@
 package com.wishlist.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.wishlist.dto.ProductDTO;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
@@ -28,4 +29,16 @@ public class CustomerWishlistResponseDTO {
     @Schema(description = "Valor total de produtos na Wishlist formatado")
     private String formattedTotalPrice;
 
+    @Schema(description = "Quantidade total de produtos na Wishlist; presente apenas na busca paginada", example = "42")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer itemCount;
+
+    @Schema(description = "Página retornada, a partir de zero; presente apenas na busca paginada", example = "0")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer page;
+
+    @Schema(description = "Tamanho da página; presente apenas na busca paginada", example = "10")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer size;
+
 }
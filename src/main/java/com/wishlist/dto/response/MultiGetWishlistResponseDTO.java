@@ -0,0 +1,23 @@
+package com.wishlist.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MultiGetWishlistResponseDTO {
+
+    @Schema(description = "Wishlists encontradas, na ordem da requisição")
+    private List<CustomerWishlistResponseDTO> found;
+
+    @Schema(description = "UUIDs dos clientes sem wishlist")
+    private List<UUID> notFound;
+}
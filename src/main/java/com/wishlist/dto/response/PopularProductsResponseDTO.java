@@ -0,0 +1,43 @@
+package com.wishlist.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Ranking aproximado dos produtos mais desejados")
+public class PopularProductsResponseDTO {
+
+    @Schema(description = "Total de itens em wishlists contado pelo sketch")
+    private long totalWishes;
+
+    @Schema(description = "Quanto cada estimativa pode estar acima do valor real (epsilon × totalWishes)")
+    private long errorBound;
+
+    @Schema(description = "Probabilidade de uma estimativa respeitar o erro máximo")
+    private double confidence;
+
+    @Schema(description = "Produtos em ordem decrescente de estimativa")
+    private List<PopularProductDTO> products;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PopularProductDTO {
+
+        @Schema(description = "UUID do produto")
+        private UUID productId;
+
+        @Schema(description = "Quantidade estimada de wishlists com o produto; nunca abaixo do valor real")
+        private long estimatedCount;
+    }
+}
@@ -0,0 +1,55 @@
+package com.wishlist.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Comparação entre as estimativas do ranking e a contagem exata no banco")
+public class PopularityRecountResponseDTO {
+
+    @Schema(description = "Total exato de itens em wishlists")
+    private long totalWishes;
+
+    @Schema(description = "Total de itens contado pelo sketch")
+    private long estimatedTotalWishes;
+
+    @Schema(description = "Erro máximo esperado para cada produto (epsilon × totalWishes)")
+    private long errorBound;
+
+    @Schema(description = "Maior diferença absoluta entre estimativa e valor exato")
+    private long maxError;
+
+    @Schema(description = "Indica se todas as estimativas ficaram dentro do erro máximo, sem ficar abaixo do valor exato")
+    private boolean withinBound;
+
+    @Schema(description = "Fração dos produtos do ranking exato que também estão no ranking estimado")
+    private double recall;
+
+    @Schema(description = "Produtos dos dois rankings, em ordem decrescente de contagem exata")
+    private List<ProductCountDTO> products;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ProductCountDTO {
+
+        @Schema(description = "UUID do produto")
+        private UUID productId;
+
+        @Schema(description = "Quantidade exata de wishlists com o produto")
+        private long exactCount;
+
+        @Schema(description = "Quantidade estimada pelo sketch")
+        private long estimatedCount;
+    }
+}
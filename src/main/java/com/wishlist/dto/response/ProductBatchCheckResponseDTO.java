@@ -0,0 +1,24 @@
+package com.wishlist.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Resposta da verificação de vários produtos na wishlist do cliente")
+public class ProductBatchCheckResponseDTO {
+
+    @Schema(description = "UUID do cliente")
+    private UUID customerId;
+
+    @Schema(description = "Resultado da verificação de cada produto, na ordem da requisição")
+    private List<ProductCheckResponseDTO> products;
+}
@@ -0,0 +1,39 @@
+package com.wishlist.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Andamento da propagação de alterações de produtos para as wishlists")
+public class ProductUpdateResponseDTO {
+
+    @Schema(description = "Indica se a atualização ainda está em andamento")
+    private boolean running;
+
+    @Schema(description = "Quantidade de produtos recebidos")
+    private int totalProducts;
+
+    @Schema(description = "Quantidade de produtos já propagados")
+    private int processedProducts;
+
+    @Schema(description = "Quantidade de wishlists alteradas até agora")
+    private long updatedWishlists;
+
+    @Schema(description = "Quantidade de wishlists que ficaram com os detalhes antigos por estarem reservadas por outra "
+            + "escrita; quando maior que zero, a atualização deve ser reenviada")
+    private long skippedWishlists;
+
+    @Schema(description = "Início da atualização")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "Fim da atualização; nulo enquanto estiver em andamento")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,23 @@
+package com.wishlist.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Cliente que tem o produto na wishlist (uma linha do NDJSON)")
+public class ProductWisherResponseDTO {
+
+    @Schema(description = "UUID do cliente")
+    private UUID customerId;
+
+    @Schema(description = "Cursor para retomar a listagem logo após este cliente")
+    private String cursor;
+}
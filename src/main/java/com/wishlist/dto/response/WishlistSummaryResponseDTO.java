@@ -0,0 +1,29 @@
+package com.wishlist.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Resumo da wishlist do cliente, sem a lista de produtos")
+public class WishlistSummaryResponseDTO {
+
+    @Schema(description = "UUID do cliente")
+    private UUID customerId;
+
+    @Schema(description = "Quantidade de produtos na Wishlist", example = "3")
+    private Integer itemCount;
+
+    @Schema(description = "Total de produtos na Wishlist")
+    private Long totalPrice;
+
+    @Schema(description = "Valor total de produtos na Wishlist formatado")
+    private String formattedTotalPrice;
+}
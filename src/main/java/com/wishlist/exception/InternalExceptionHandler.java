@@ -1,6 +1,9 @@
 package com.wishlist.exception;
 
+import com.wishlist.service.WishlistMetrics;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,18 +14,48 @@ import java.time.LocalDateTime;
 
 @Slf4j(topic = "EXCEPTION_HANDLER")
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class InternalExceptionHandler {
 
+    private final WishlistMetrics metrics;
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<Object> handleAllUncaughtException(
             Exception exception) {
+        // Os erros de domínio chegam aqui só como WARN nos controllers; a pilha é registrada uma vez, para os inesperados
+        log.error("Erro inesperado ao processar a requisição", exception);
         final String errorMessage = "Unknown error occurred";
         return new ResponseEntity<>(errorMessage, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     @ExceptionHandler(NoItemsAddedException.class)
     public ResponseEntity<ErrorResponse> handleNoItemsAddedException(NoItemsAddedException ex) {
+        metrics.noItemsAdded();
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ProductUpdateInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleProductUpdateInProgressException(ProductUpdateInProgressException ex) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Wishlist no formato {@code bucketed} reservada por outra escrita além de {@code wishlist.storage.buckets.lock-timeout}.
+     */
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handlePessimisticLockingFailureException(PessimisticLockingFailureException ex) {
+        log.warn("Escrita concorrente na wishlist: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.CONFLICT.value(),
                 ex.getMessage(),
@@ -33,6 +66,7 @@ public class InternalExceptionHandler {
 
     @ExceptionHandler(WishlistLimitExceededException.class)
     public ResponseEntity<ErrorResponse> handleWishlistLimitExceededException(WishlistLimitExceededException ex) {
+        metrics.limitExceeded();
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.UNPROCESSABLE_ENTITY.value(),
                 ex.getMessage(),
@@ -43,6 +77,7 @@ public class InternalExceptionHandler {
 
     @ExceptionHandler(CustomerNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleCustomerNotFoundException(CustomerNotFoundException ex) {
+        metrics.customerNotFound();
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.NOT_FOUND.value(),
                 ex.getMessage(),
@@ -51,8 +86,29 @@ public class InternalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException ex) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidWishlistQueryException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidWishlistQueryException(InvalidWishlistQueryException ex) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(NoItemsDeletedException.class)
     public ResponseEntity<ErrorResponse> handleNoItemsDeletedException(NoItemsDeletedException ex) {
+        metrics.noItemsDeleted();
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
                 ex.getMessage(),
@@ -0,0 +1,13 @@
+package com.wishlist.exception;
+
+import java.io.Serial;
+
+public class InvalidCursorException extends Exception {
+
+  @Serial
+  private static final long serialVersionUID = 1149241039409861914L;
+
+  public InvalidCursorException(String msg) {
+    super(msg);
+  }
+}
@@ -0,0 +1,13 @@
+package com.wishlist.exception;
+
+import java.io.Serial;
+
+public class InvalidWishlistQueryException extends Exception {
+
+  @Serial
+  private static final long serialVersionUID = -3532104671520898547L;
+
+  public InvalidWishlistQueryException(String msg) {
+    super(msg);
+  }
+}
@@ -0,0 +1,7 @@
+package com.wishlist.exception;
+
+public class ProductUpdateInProgressException extends RuntimeException {
+  public ProductUpdateInProgressException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,90 @@
+package com.wishlist.repository;
+
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.types.Binary;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lê documentos de customer_wishlist nos dois formatos ({@link WishlistLayout}): cada campo é procurado pelo apelido
+ * compacto e, se ausente, pelo nome antigo. UUIDs são aceitos já decodificados pelo driver ou como binário, tanto no
+ * subtipo 4 (padrão) quanto no subtipo 3 (java-legacy), então a leitura não depende de {@code uuid-representation}.
+ */
+@ReadingConverter
+public class CustomerWishlistReadingConverter implements Converter<Document, CustomerWishlistEntity> {
+
+    private static final WishlistLayout COMPACT = WishlistLayout.COMPACT;
+    private static final WishlistLayout LEGACY = WishlistLayout.LEGACY;
+
+    @Override
+    public CustomerWishlistEntity convert(Document source) {
+        return CustomerWishlistEntity.builder()
+                .customerId(uuid(source.get(WishlistUpdates.ID)))
+                .wishlist(products(get(source, COMPACT.wishlist, LEGACY.wishlist)))
+                .dateCreation(dateTime(get(source, COMPACT.dateCreation, LEGACY.dateCreation)))
+                .dateUpdate(dateTime(get(source, COMPACT.dateUpdate, LEGACY.dateUpdate)))
+                .version(longValue(get(source, COMPACT.version, LEGACY.version)))
+                .itemCount(intValue(get(source, COMPACT.itemCount, LEGACY.itemCount)))
+                .totalPriceCents(longValue(get(source, COMPACT.totalPriceCents, LEGACY.totalPriceCents)))
+                .build();
+    }
+
+    static UUID uuid(Object value) {
+        if (value == null || value instanceof UUID) {
+            return (UUID) value;
+        }
+        if (value instanceof Binary binary) {
+            UuidRepresentation representation = binary.getType() == BsonBinarySubType.UUID_STANDARD.getValue()
+                    ? UuidRepresentation.STANDARD
+                    : UuidRepresentation.JAVA_LEGACY;
+            return new BsonBinary(binary.getType(), binary.getData()).asUuid(representation);
+        }
+        throw new IllegalArgumentException("Valor não pode ser lido como UUID: " + value.getClass().getName());
+    }
+
+    private static List<ProductEntity> products(Object value) {
+        if (!(value instanceof List<?> items)) {
+            return null;
+        }
+        List<ProductEntity> products = new ArrayList<>(items.size());
+        for (Object item : items) {
+            Document product = (Document) item;
+            products.add(new ProductEntity(
+                    uuid(get(product, COMPACT.productId, LEGACY.productId)),
+                    (String) get(product, COMPACT.name, LEGACY.name),
+                    (String) get(product, COMPACT.description, LEGACY.description),
+                    longValue(get(product, COMPACT.price, LEGACY.price)),
+                    dateTime(get(product, COMPACT.dateAdded, LEGACY.dateAdded))));
+        }
+        return products;
+    }
+
+    private static Object get(Document document, String compactName, String legacyName) {
+        Object value = document.get(compactName);
+        return value != null ? value : document.get(legacyName);
+    }
+
+    private static LocalDateTime dateTime(Object value) {
+        return value != null ? LocalDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    private static Long longValue(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    private static Integer intValue(Object value) {
+        return value != null ? ((Number) value).intValue() : null;
+    }
+}
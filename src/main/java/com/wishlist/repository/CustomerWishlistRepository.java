@@ -3,9 +3,9 @@ package com.wishlist.repository;
 import com.wishlist.domain.CustomerWishlistEntity;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-import java.util.Optional;
-import java.util.UUID;
-
-public interface CustomerWishlistRepository  extends MongoRepository<CustomerWishlistEntity, String> {
-    Optional<CustomerWishlistEntity> findByCustomerId(UUID customerId);
+/**
+ * As buscas por id ficam em {@link CustomerWishlistRepositoryCustom}, porque o filtro depende do formato dos
+ * documentos ({@code wishlist.storage}).
+ */
+public interface CustomerWishlistRepository  extends MongoRepository<CustomerWishlistEntity, String>, CustomerWishlistRepositoryCustom {
 }
@@ -0,0 +1,159 @@
+package com.wishlist.repository;
+
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface CustomerWishlistRepositoryCustom {
+
+    /**
+     * Busca o cliente pelo id. Com o formato compacto e {@code wishlist.storage.read-legacy} ligado, encontra também
+     * documentos ainda no formato antigo.
+     */
+    Optional<CustomerWishlistEntity> findByCustomerId(UUID customerId);
+
+    /**
+     * Busca os clientes em uma única query {@code $in}, com a mesma regra de {@link #findByCustomerId}.
+     */
+    List<CustomerWishlistEntity> findByCustomerIdIn(Collection<UUID> customerIds);
+
+    boolean existsByCustomerId(UUID customerId);
+
+    /**
+     * Busca o cliente projetando apenas o item da wishlist com o productId informado ({@code $elemMatch}).
+     * A lista do documento retornado fica vazia/nula quando o produto não está na wishlist.
+     *
+     * @return vazio quando o cliente não existe
+     */
+    Optional<CustomerWishlistEntity> findWishlistItem(UUID customerId, UUID productId);
+
+    /**
+     * Busca o cliente sem a lista de produtos: apenas {@code itemCount}, {@code totalPriceCents} e os validadores.
+     *
+     * @return vazio quando o cliente não existe
+     */
+    Optional<CustomerWishlistEntity> findSummary(UUID customerId);
+
+    /**
+     * Busca o cliente com os agregados, os validadores e só a página de itens da consulta, já ordenada e com os
+     * campos pedidos; a ordenação, o recorte e a projeção são feitos no Mongo.
+     *
+     * @return vazio quando o cliente não existe
+     */
+    Optional<CustomerWishlistEntity> findWishlistPage(UUID customerId, WishlistItemsQuery query);
+
+    /**
+     * Página de clientes que têm o produto na wishlist, em ordem de {@code _id}. Só o {@code _id} é lido, pelo índice
+     * criado em {@link #ensureProductIndexes}.
+     *
+     * @param after cursor do último cliente da página anterior, ou {@code null} para começar do início
+     * @throws IllegalArgumentException quando {@code after} não é um cursor válido
+     */
+    List<ProductWisher> findWishers(UUID productId, String after, int limit);
+
+    /**
+     * Percorre toda a coleção em ordem de {@code _id} com um cursor do Mongo: os documentos chegam em lotes de
+     * {@code batchSize} e são convertidos um a um, então a memória usada não depende do tamanho da coleção.
+     * O Stream mantém o cursor aberto e deve ser fechado.
+     *
+     * @param after customerId do último documento já lido, ou {@code null} para começar do início
+     */
+    Stream<CustomerWishlistEntity> streamAll(UUID after, int batchSize);
+
+    /**
+     * Quantidade total de itens em wishlists, somando todos os clientes.
+     */
+    long countWishes();
+
+    /**
+     * Contagem exata de clientes que têm cada um dos produtos na wishlist. Só os documentos com algum dos produtos
+     * são lidos, pelo índice criado em {@link #ensureProductIndexes}.
+     *
+     * @return contagem por produto; produtos sem nenhum cliente ficam de fora
+     */
+    Map<UUID, Long> countWishesByProduct(Collection<UUID> productIds);
+
+    /**
+     * Os produtos presentes em mais wishlists, em ordem decrescente de contagem exata. Percorre toda a coleção
+     * (agregação com {@code allowDiskUse}), então deve ser usado apenas em rotinas administrativas.
+     */
+    Map<UUID, Long> topWishedProducts(int limit);
+
+    /**
+     * Cria, se ainda não existir, o índice multikey de produtos ({@code wishlist.productId}, {@code _id}) de cada
+     * formato de documento lido.
+     */
+    void ensureProductIndexes();
+
+    /**
+     * Adiciona os produtos em uma única operação atômica (upsert). Produtos já presentes são ignorados e,
+     * se o limite for ultrapassado, nada é adicionado.
+     *
+     * @return o documento como estava antes da atualização, ou vazio quando o cliente foi criado agora
+     */
+    Optional<CustomerWishlistEntity> addProducts(UUID customerId, List<ProductEntity> products, int maxItems, LocalDateTime now);
+
+    /**
+     * Remove os produtos em uma única operação atômica.
+     *
+     * @return o documento como estava antes da atualização, ou vazio quando o cliente não existe ou nenhum produto
+     * foi encontrado
+     */
+    Optional<CustomerWishlistEntity> removeProductsAndGetPrevious(UUID customerId, Collection<UUID> productIds, LocalDateTime now);
+
+    /**
+     * Mesma regra de {@link #removeProductsAndGetPrevious}; do documento anterior só os ids dos produtos são lidos.
+     *
+     * @return os produtos efetivamente removidos; vazio quando nada foi removido
+     */
+    Set<UUID> removeProducts(UUID customerId, Collection<UUID> productIds, LocalDateTime now);
+
+    /**
+     * Troca nome, descrição e preço do produto nas wishlists dos clientes informados com um updateMany em pipeline,
+     * que no mesmo update recalcula {@code totalPriceCents} no servidor e incrementa a versão; os ETags das wishlists
+     * alteradas mudam junto com o total. No formato {@code bucketed} cada wishlist é alterada com a reserva do cliente,
+     * e as que continuam reservadas por outra escrita após uma nova tentativa ficam de fora.
+     *
+     * @return quantidade de wishlists alteradas e os clientes que ficaram de fora
+     */
+    ProductDetailsUpdateResults updateProductDetails(ProductEntity product, Collection<UUID> customerIds, LocalDateTime now);
+
+    /**
+     * Incrementa a versão e a data de atualização das wishlists informadas, sem alterar os itens. No modo com
+     * catálogo de produtos os detalhes não ficam na wishlist, e é assim que o ETag muda quando o catálogo muda.
+     *
+     * @return quantidade de wishlists alteradas
+     */
+    long touchWishlists(Collection<UUID> customerIds, LocalDateTime now);
+
+    /**
+     * Envia as mutações em um único bulkWrite não ordenado, com as mesmas regras das operações individuais.
+     *
+     * @return as operações que falharam no servidor e quantas das demais alteraram alguma wishlist
+     */
+    WishlistMutationResults applyMutations(List<WishlistMutation> mutations, int maxItems, LocalDateTime now);
+
+    /**
+     * Preenche {@code itemCount} e {@code totalPriceCents} nos documentos que ainda não têm os campos, com um
+     * único updateMany calculado no servidor. Pode ser executado mais de uma vez.
+     *
+     * @return quantidade de documentos atualizados
+     */
+    long backfillAggregates();
+
+    /**
+     * Migra até {@code batchSize} documentos do formato antigo para o compacto: grava a cópia compacta e remove o
+     * original. Só deve ser usado com {@code wishlist.storage.layout=compact}.
+     *
+     * @return quantidade de documentos migrados; zero quando não há mais documentos no formato antigo
+     */
+    int migrateLegacyBatch(int batchSize);
+}
@@ -0,0 +1,429 @@
+package com.wishlist.repository;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class CustomerWishlistRepositoryCustomImpl implements CustomerWishlistRepositoryCustom {
+
+    private static final String PRODUCT = "p";
+    private static final String COUNT = "n";
+
+    private final MongoTemplate mongoTemplate;
+    private final WishlistStorage storage;
+    /**
+     * Presente apenas com {@code wishlist.storage.layout=bucketed}.
+     */
+    private final WishlistBuckets buckets;
+
+    public CustomerWishlistRepositoryCustomImpl(MongoTemplate mongoTemplate, WishlistProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.storage = new WishlistStorage(mongoTemplate.getConverter(), properties.getStorage());
+        this.buckets = properties.getStorage().getLayout() == WishlistProperties.StorageLayout.BUCKETED
+                ? new WishlistBuckets(mongoTemplate, storage, properties.getStorage().getBuckets())
+                : null;
+    }
+
+    @Override
+    public Optional<CustomerWishlistEntity> findByCustomerId(UUID customerId) {
+        return findOne(storage.byId(customerId), null).map(this::read);
+    }
+
+    @Override
+    public List<CustomerWishlistEntity> findByCustomerIdIn(Collection<UUID> customerIds) {
+        if (customerIds.isEmpty()) {
+            return List.of();
+        }
+        List<Document> documents = mongoTemplate.execute(CustomerWishlistEntity.class,
+                collection -> collection.find(storage.byIds(customerIds)).into(new ArrayList<>()));
+        if (buckets != null) {
+            return buckets.readAll(documents);
+        }
+        return documents.stream()
+                .map(storage::read)
+                .toList();
+    }
+
+    @Override
+    public boolean existsByCustomerId(UUID customerId) {
+        Long count = mongoTemplate.execute(CustomerWishlistEntity.class,
+                collection -> collection.countDocuments(storage.byId(customerId)));
+        return count != null && count > 0;
+    }
+
+    @Override
+    public Optional<CustomerWishlistEntity> findWishlistItem(UUID customerId, UUID productId) {
+        return findOne(storage.byId(customerId), storage.wishlistItemProjection(productId))
+                .map(document -> buckets != null ? buckets.readItem(document, productId) : storage.read(document));
+    }
+
+    @Override
+    public Optional<CustomerWishlistEntity> findSummary(UUID customerId) {
+        return findOne(storage.byId(customerId), storage.summaryProjection()).map(storage::read);
+    }
+
+    @Override
+    public Optional<CustomerWishlistEntity> findWishlistPage(UUID customerId, WishlistItemsQuery query) {
+        return findOne(storage.byId(customerId), storage.wishlistPageProjection(query))
+                .map(document -> buckets != null ? buckets.readPage(document, query) : storage.read(document));
+    }
+
+    @Override
+    public List<ProductWisher> findWishers(UUID productId, String after, int limit) {
+        Document filter = storage.wishersFilter(productId, after);
+        List<BsonDocument> ids = mongoTemplate.execute(CustomerWishlistEntity.class, collection -> collection.find(filter, BsonDocument.class)
+                .projection(WishlistUpdates.ID_ASCENDING)
+                .sort(WishlistUpdates.ID_ASCENDING)
+                .limit(limit)
+                .into(new ArrayList<>(limit)));
+        Stream<BsonBinary> wishers = ids.stream()
+                .map(document -> document.getBinary(WishlistUpdates.ID));
+        if (buckets != null) {
+            BsonBinary afterId = after != null ? WishlistStorage.fromCursor(after) : null;
+            wishers = Stream.concat(wishers, buckets.findWishers(productId, afterId, limit).stream())
+                    .sorted(WishlistBuckets.ID_ORDER)
+                    .distinct()
+                    .limit(limit);
+        }
+        return wishers
+                .map(id -> new ProductWisher(WishlistStorage.customerId(id), WishlistStorage.cursor(id)))
+                .toList();
+    }
+
+    @Override
+    public Stream<CustomerWishlistEntity> streamAll(UUID after, int batchSize) {
+        MongoCursor<Document> cursor = mongoTemplate.execute(CustomerWishlistEntity.class, collection -> {
+            Document filter = after == null
+                    ? new Document()
+                    : WishlistUpdates.byId(new Document("$gt", storedId(collection, after)));
+            return collection.find(filter)
+                    .sort(WishlistUpdates.ID_ASCENDING)
+                    .batchSize(batchSize)
+                    .cursor();
+        });
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close)
+                .map(this::read);
+    }
+
+    @Override
+    public long countWishes() {
+        List<Document> pipeline = List.of(
+                new Document("$project", new Document(WishlistUpdates.ID, 0)
+                        .append(COUNT, new Document("$size", storage.productIdsExpression()))),
+                new Document("$group", new Document(WishlistUpdates.ID, null)
+                        .append(COUNT, new Document("$sum", "$" + COUNT))));
+        Document result = mongoTemplate.execute(CustomerWishlistEntity.class,
+                collection -> collection.aggregate(pipeline).allowDiskUse(true).first());
+        long count = result != null ? ((Number) result.get(COUNT)).longValue() : 0L;
+        if (buckets != null) {
+            count += buckets.aggregate(pipeline).stream()
+                    .mapToLong(bucketResult -> ((Number) bucketResult.get(COUNT)).longValue())
+                    .sum();
+        }
+        return count;
+    }
+
+    @Override
+    public Map<UUID, Long> countWishesByProduct(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Document> pipeline = List.of(
+                new Document("$match", storage.containingAnyProduct(productIds)),
+                new Document("$project", new Document(WishlistUpdates.ID, 0).append(PRODUCT, storage.productIdsExpression())),
+                new Document("$unwind", "$" + PRODUCT),
+                new Document("$match", new Document(PRODUCT, new Document("$in", storage.productIdsInAnyLayout(productIds)))),
+                new Document("$group", new Document(WishlistUpdates.ID, "$" + PRODUCT)
+                        .append(COUNT, new Document("$sum", 1))));
+        return countsByProduct(pipeline);
+    }
+
+    /**
+     * Enquanto houver documentos nos dois formatos, um mesmo produto forma um grupo por subtipo de UUID; por isso são
+     * lidos {@code limit} grupos de cada formato, somados por produto antes do corte.
+     */
+    @Override
+    public Map<UUID, Long> topWishedProducts(int limit) {
+        List<Document> pipeline = List.of(
+                new Document("$project", new Document(WishlistUpdates.ID, 0).append(PRODUCT, storage.productIdsExpression())),
+                new Document("$unwind", "$" + PRODUCT),
+                new Document("$group", new Document(WishlistUpdates.ID, "$" + PRODUCT)
+                        .append(COUNT, new Document("$sum", 1))),
+                new Document("$sort", new Document(COUNT, -1)),
+                new Document("$limit", limit * storage.readLayoutCount()));
+        return countsByProduct(pipeline).entrySet().stream()
+                .sorted(Map.Entry.<UUID, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Long::sum, LinkedHashMap::new));
+    }
+
+    @Override
+    public void ensureProductIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(CustomerWishlistEntity.class);
+        storage.productIndexes().forEach(keys -> indexOps.ensureIndex(new CompoundIndexDefinition(keys)));
+        if (buckets != null) {
+            buckets.ensureIndexes();
+        }
+    }
+
+    @Override
+    public Optional<CustomerWishlistEntity> addProducts(UUID customerId, List<ProductEntity> products, int maxItems, LocalDateTime now) {
+        if (buckets != null) {
+            return buckets.addProducts(customerId, products, maxItems, now);
+        }
+        migrateOnWrite(List.of(customerId));
+        Document filter = WishlistUpdates.byId(storage.id(customerId));
+        List<Document> update = storage.updates().addProducts(storage.products(products), maxItems, storage.date(now));
+        FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .upsert(true)
+                .returnDocument(ReturnDocument.BEFORE);
+
+        Document before = mongoTemplate.execute(CustomerWishlistEntity.class,
+                collection -> collection.findOneAndUpdate(filter, update, options));
+        return Optional.ofNullable(before).map(storage::read);
+    }
+
+    @Override
+    public Optional<CustomerWishlistEntity> removeProductsAndGetPrevious(UUID customerId, Collection<UUID> productIds, LocalDateTime now) {
+        if (buckets != null) {
+            return buckets.removeProducts(customerId, productIds, now, true);
+        }
+        return removeProducts(customerId, productIds, now, new FindOneAndUpdateOptions().returnDocument(ReturnDocument.BEFORE));
+    }
+
+    @Override
+    public Set<UUID> removeProducts(UUID customerId, Collection<UUID> productIds, LocalDateTime now) {
+        if (buckets != null) {
+            return buckets.removeProducts(customerId, productIds, now, false)
+                    .map(before -> WishlistStorage.removedProductIds(before, productIds))
+                    .orElse(Set.of());
+        }
+        FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .projection(storage.updates().productIdsProjection())
+                .returnDocument(ReturnDocument.BEFORE);
+        return removeProducts(customerId, productIds, now, options)
+                .map(before -> WishlistStorage.removedProductIds(before, productIds))
+                .orElse(Set.of());
+    }
+
+    @Override
+    public ProductDetailsUpdateResults updateProductDetails(ProductEntity product, Collection<UUID> customerIds, LocalDateTime now) {
+        if (customerIds.isEmpty()) {
+            return new ProductDetailsUpdateResults(0L, Set.of());
+        }
+        migrateOnWrite(customerIds);
+        Long modified = mongoTemplate.execute(CustomerWishlistEntity.class, collection ->
+                (long) collection.bulkWrite(storage.productDetailsUpdates(product, customerIds, now)).getModifiedCount());
+        long updated = modified != null ? modified : 0L;
+        if (buckets == null) {
+            return new ProductDetailsUpdateResults(updated, Set.of());
+        }
+        ProductDetailsUpdateResults bucketed = buckets.updateProductDetails(product, customerIds, now);
+        return new ProductDetailsUpdateResults(updated + bucketed.getUpdated(), bucketed.getSkipped());
+    }
+
+    @Override
+    public long touchWishlists(Collection<UUID> customerIds, LocalDateTime now) {
+        if (customerIds.isEmpty()) {
+            return 0L;
+        }
+        migrateOnWrite(customerIds);
+        Long modified = mongoTemplate.execute(CustomerWishlistEntity.class, collection ->
+                collection.updateMany(storage.byIds(customerIds), storage.updates().touch(storage.date(now))).getModifiedCount());
+        return modified != null ? modified : 0L;
+    }
+
+    @Override
+    public WishlistMutationResults applyMutations(List<WishlistMutation> mutations, int maxItems, LocalDateTime now) {
+        if (mutations.isEmpty()) {
+            return new WishlistMutationResults(Set.of(), 0);
+        }
+        if (buckets != null) {
+            return buckets.applyMutations(mutations, maxItems, now);
+        }
+        migrateOnWrite(mutations.stream().map(WishlistMutation::getCustomerId).collect(Collectors.toSet()));
+        Object mongoNow = storage.date(now);
+        List<WriteModel<Document>> writes = new ArrayList<>(mutations.size());
+        for (WishlistMutation mutation : mutations) {
+            writes.add(toWriteModel(mutation, maxItems, mongoNow));
+        }
+
+        return mongoTemplate.execute(CustomerWishlistEntity.class, collection -> {
+            try {
+                return new WishlistMutationResults(Set.of(),
+                        applied(collection.bulkWrite(writes, new BulkWriteOptions().ordered(false))));
+            } catch (MongoBulkWriteException e) {
+                return new WishlistMutationResults(e.getWriteErrors().stream()
+                        .map(BulkWriteError::getIndex)
+                        .collect(Collectors.toSet()), applied(e.getWriteResult()));
+            }
+        });
+    }
+
+    @Override
+    public long backfillAggregates() {
+        Long modified = mongoTemplate.execute(CustomerWishlistEntity.class,
+                collection -> collection.updateMany(WishlistUpdates.withoutAggregates(), WishlistUpdates.LEGACY.backfillAggregates())
+                        .getModifiedCount());
+        return modified != null ? modified : 0L;
+    }
+
+    @Override
+    public int migrateLegacyBatch(int batchSize) {
+        if (!storage.isCompact()) {
+            throw new IllegalStateException("A migração exige wishlist.storage.layout=compact ou bucketed");
+        }
+        if (buckets != null) {
+            return buckets.migrateBatch(batchSize);
+        }
+        Integer migrated = mongoTemplate.execute(CustomerWishlistEntity.class, collection ->
+                migrate(collection, collection.find(WishlistUpdates.legacyDocuments()).limit(batchSize).into(new ArrayList<>())));
+        return migrated != null ? migrated : 0;
+    }
+
+    private Map<UUID, Long> countsByProduct(List<Document> pipeline) {
+        List<Document> groups = mongoTemplate.execute(CustomerWishlistEntity.class,
+                collection -> collection.aggregate(pipeline).allowDiskUse(true).into(new ArrayList<>()));
+        if (buckets != null) {
+            groups.addAll(buckets.aggregate(pipeline));
+        }
+        Map<UUID, Long> counts = new HashMap<>();
+        groups.forEach(group -> counts.merge(CustomerWishlistReadingConverter.uuid(group.get(WishlistUpdates.ID)),
+                ((Number) group.get(COUNT)).longValue(), Long::sum));
+        return counts;
+    }
+
+    private Optional<CustomerWishlistEntity> removeProducts(UUID customerId, Collection<UUID> productIds, LocalDateTime now,
+                                                            FindOneAndUpdateOptions options) {
+        migrateOnWrite(List.of(customerId));
+        List<?> ids = storage.productIds(productIds);
+        Document filter = storage.updates().byIdContainingAny(storage.id(customerId), ids);
+        List<Document> update = storage.updates().removeProducts(ids, storage.date(now));
+
+        Document before = mongoTemplate.execute(CustomerWishlistEntity.class,
+                collection -> collection.findOneAndUpdate(filter, update, options));
+        return Optional.ofNullable(before).map(storage::read);
+    }
+
+    /**
+     * Antes de escrever no formato compacto, migra o documento antigo dos clientes (se houver), para que o upsert
+     * não crie um segundo documento para o mesmo cliente.
+     */
+    private void migrateOnWrite(Collection<UUID> customerIds) {
+        if (storage.migratesOnWrite()) {
+            mongoTemplate.execute(CustomerWishlistEntity.class, collection ->
+                    migrate(collection, collection.find(storage.legacyByIds(customerIds)).into(new ArrayList<>())));
+        }
+    }
+
+    /**
+     * Grava as cópias compactas e só então remove os originais. Uma cópia que já existe (chave duplicada) vem de uma
+     * migração concorrente do mesmo cliente e é mantida.
+     */
+    private int migrate(MongoCollection<Document> collection, List<Document> legacyDocuments) {
+        if (legacyDocuments.isEmpty()) {
+            return 0;
+        }
+        List<Document> compactDocuments = legacyDocuments.stream()
+                .map(storage::toCompact)
+                .toList();
+        try {
+            collection.insertMany(compactDocuments, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            boolean onlyDuplicates = e.getWriteErrors().stream()
+                    .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+        List<Object> legacyIds = legacyDocuments.stream()
+                .map(document -> document.get(WishlistUpdates.ID))
+                .toList();
+        collection.deleteMany(WishlistUpdates.legacyDocuments().append(WishlistUpdates.ID, new Document("$in", legacyIds)));
+        return legacyDocuments.size();
+    }
+
+    /**
+     * {@code _id} como está gravado. Com os dois formatos na coleção, o subtipo do UUID muda a posição do documento na
+     * ordem do {@code _id}; se o cliente não existir mais, usa o formato configurado.
+     */
+    private Object storedId(MongoCollection<Document> collection, UUID customerId) {
+        if (storage.migratesOnWrite()) {
+            BsonDocument stored = collection.find(storage.byId(customerId), BsonDocument.class)
+                    .projection(WishlistUpdates.ID_ASCENDING)
+                    .first();
+            if (stored != null) {
+                return stored.get(WishlistUpdates.ID);
+            }
+        }
+        return storage.id(customerId);
+    }
+
+    private Optional<Document> findOne(Document filter, Document projection) {
+        return Optional.ofNullable(mongoTemplate.execute(CustomerWishlistEntity.class,
+                collection -> collection.find(filter).projection(projection).first()));
+    }
+
+    /**
+     * No formato {@code bucketed} os itens ficam fora do documento e são buscados só quando a lista for acessada.
+     */
+    private CustomerWishlistEntity read(Document document) {
+        return buckets != null ? buckets.read(document) : storage.read(document);
+    }
+
+    /**
+     * Uma adição que o servidor descartou (duplicados ou limite) não altera o documento, nem os agregados de documentos
+     * gravados antes deles existirem (ver {@link WishlistUpdates#addProducts}), e a remoção só casa quando há o que
+     * remover; então cada documento alterado ou criado é uma operação aplicada.
+     */
+    private static long applied(BulkWriteResult result) {
+        return result.getModifiedCount() + result.getUpserts().size();
+    }
+
+    private WriteModel<Document> toWriteModel(WishlistMutation mutation, int maxItems, Object now) {
+        Object customerId = storage.id(mutation.getCustomerId());
+        if (mutation.isAdd()) {
+            List<Document> update = storage.updates().addProducts(storage.products(mutation.getProductsToAdd()), maxItems, now);
+            return new UpdateOneModel<>(WishlistUpdates.byId(customerId), update, new UpdateOptions().upsert(true));
+        }
+        List<?> ids = storage.productIds(mutation.getProductIdsToRemove());
+        return new UpdateOneModel<>(storage.updates().byIdContainingAny(customerId, ids), storage.updates().removeProducts(ids, now));
+    }
+}
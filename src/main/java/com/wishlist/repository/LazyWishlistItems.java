@@ -0,0 +1,53 @@
+package com.wishlist.repository;
+
+import com.wishlist.domain.ProductEntity;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Itens de uma wishlist no formato {@code bucketed}, buscados nos buckets apenas no primeiro acesso à lista. Assim
+ * as leituras que só usam o cabeçalho (versão, agregados) não leem os itens. Não pode ser alterada.
+ * <p>
+ * A carga faz I/O no Mongo; com um {@link ReentrantLock} em vez de {@code synchronized}, a thread virtual que espera
+ * pela carga de outra não prende a thread de plataforma.
+ */
+final class LazyWishlistItems extends AbstractList<ProductEntity> {
+
+    private final Supplier<List<ProductEntity>> loader;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile List<ProductEntity> items;
+
+    LazyWishlistItems(Supplier<List<ProductEntity>> loader) {
+        this.loader = loader;
+    }
+
+    @Override
+    public ProductEntity get(int index) {
+        return items().get(index);
+    }
+
+    @Override
+    public int size() {
+        return items().size();
+    }
+
+    private List<ProductEntity> items() {
+        List<ProductEntity> loaded = items;
+        if (loaded == null) {
+            lock.lock();
+            try {
+                loaded = items;
+                if (loaded == null) {
+                    loaded = List.copyOf(loader.get());
+                    items = loaded;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return loaded;
+    }
+}
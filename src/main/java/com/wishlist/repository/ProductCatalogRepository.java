@@ -0,0 +1,122 @@
+package com.wishlist.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.wishlist.domain.ProductEntity;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Detalhes dos produtos (nome, descrição e preço) na coleção {@value #COLLECTION}, um documento por produto, usados
+ * quando {@code wishlist.catalog.enabled} está ligado e as wishlists guardam apenas os ids.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductCatalogRepository {
+
+    static final String COLLECTION = "product_catalog";
+
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String PRICE = "price";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Busca os produtos em uma única query {@code $in}; produtos fora do catálogo ficam de fora.
+     */
+    public List<ProductEntity> findByIds(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        Document filter = WishlistUpdates.byId(new Document("$in", productIds.stream().map(this::id).toList()));
+        List<Document> documents = mongoTemplate.execute(COLLECTION, collection -> collection.find(filter).into(new ArrayList<>()));
+        return documents.stream()
+                .map(ProductCatalogRepository::toProduct)
+                .toList();
+    }
+
+    /**
+     * Grava os detalhes dos produtos (upsert) em um único bulkWrite não ordenado; a última escrita prevalece. Usado
+     * só pela atualização de produtos.
+     */
+    public void saveAll(Collection<ProductEntity> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        ReplaceOptions upsert = new ReplaceOptions().upsert(true);
+        List<WriteModel<Document>> writes = products.stream()
+                .<WriteModel<Document>>map(product -> {
+                    Document filter = WishlistUpdates.byId(id(product.getProductId()));
+                    return new ReplaceOneModel<>(filter, toDocument(filter, product), upsert);
+                })
+                .toList();
+        mongoTemplate.execute(COLLECTION, collection -> collection.bulkWrite(writes, new BulkWriteOptions().ordered(false)));
+    }
+
+    /**
+     * Insere, em um único bulkWrite não ordenado, só os produtos que ainda não estão no catálogo
+     * ({@code $setOnInsert}); os que já existem não são alterados. Usado nas escritas dos clientes, que não devem
+     * trocar os detalhes compartilhados por todas as wishlists.
+     *
+     * @return ids dos produtos inseridos agora
+     */
+    public Set<UUID> insertMissing(List<ProductEntity> products) {
+        List<ProductEntity> withDetails = products.stream()
+                .filter(product -> !toDocument(new Document(), product).isEmpty())
+                .toList();
+        if (withDetails.isEmpty()) {
+            return Set.of();
+        }
+        UpdateOptions upsert = new UpdateOptions().upsert(true);
+        List<WriteModel<Document>> writes = withDetails.stream()
+                .<WriteModel<Document>>map(product -> new UpdateOneModel<>(WishlistUpdates.byId(id(product.getProductId())),
+                        new Document("$setOnInsert", toDocument(new Document(), product)), upsert))
+                .toList();
+        BulkWriteResult result = mongoTemplate.execute(COLLECTION,
+                collection -> collection.bulkWrite(writes, new BulkWriteOptions().ordered(false)));
+        return result.getUpserts().stream()
+                .map(inserted -> withDetails.get(inserted.getIndex()).getProductId())
+                .collect(Collectors.toSet());
+    }
+
+    private Object id(UUID productId) {
+        return mongoTemplate.getConverter().convertToMongoType(productId);
+    }
+
+    private static Document toDocument(Document filter, ProductEntity product) {
+        Document document = new Document(filter);
+        if (product.getName() != null) {
+            document.append(NAME, product.getName());
+        }
+        if (product.getDescription() != null) {
+            document.append(DESCRIPTION, product.getDescription());
+        }
+        if (product.getPrice() != null) {
+            document.append(PRICE, product.getPrice());
+        }
+        return document;
+    }
+
+    private static ProductEntity toProduct(Document document) {
+        return new ProductEntity(
+                CustomerWishlistReadingConverter.uuid(document.get(WishlistUpdates.ID)),
+                document.getString(NAME),
+                document.getString(DESCRIPTION),
+                document.get(PRICE) instanceof Number price ? price.longValue() : null);
+    }
+}
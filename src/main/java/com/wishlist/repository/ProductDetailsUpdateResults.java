@@ -0,0 +1,24 @@
+package com.wishlist.repository;
+
+import lombok.Value;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Resultado da troca dos detalhes de um produto em uma página de wishlists.
+ */
+@Value
+public class ProductDetailsUpdateResults {
+
+    /**
+     * Quantidade de wishlists alteradas.
+     */
+    long updated;
+
+    /**
+     * Clientes que ficaram com os detalhes antigos porque a wishlist estava reservada por outra escrita (formato
+     * {@code bucketed}); a atualização do produto precisa ser reenviada para eles.
+     */
+    Set<UUID> skipped;
+}
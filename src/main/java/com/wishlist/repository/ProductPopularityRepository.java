@@ -0,0 +1,140 @@
+package com.wishlist.repository;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.ReturnDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Estado compartilhado do ranking de produtos mais desejados, em um único documento da coleção
+ * {@value #COLLECTION}. Cada instância soma com {@code $inc} apenas as células que mudaram desde a última gravação,
+ * então instâncias diferentes não sobrescrevem as contagens umas das outras. Os candidatos ao ranking são gravados
+ * como texto.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ProductPopularityRepository {
+
+    static final String COLLECTION = "product_popularity";
+
+    private static final String STATE_ID = "count-min";
+    private static final String WIDTH = "width";
+    private static final String DEPTH = "depth";
+    private static final String COUNTERS = "counters";
+    private static final String TOTAL = "total";
+    private static final String CANDIDATES = "candidates";
+
+    private final MongoTemplate mongoTemplate;
+
+    public Optional<ProductPopularitySnapshot> find() {
+        Document state = mongoTemplate.execute(COLLECTION, collection -> collection.find(byId()).first());
+        return Optional.ofNullable(state).map(ProductPopularityRepository::toSnapshot);
+    }
+
+    /**
+     * Soma as alterações ao estado gravado e devolve o resultado, já com as alterações das outras instâncias. Quando
+     * o estado ainda não existe, ou foi gravado com outras dimensões, ele é recriado zerado antes.
+     *
+     * @param cells      posições das células alteradas
+     * @param increments quanto somar em cada célula de {@code cells}
+     */
+    public ProductPopularitySnapshot merge(int width, int depth, int[] cells, long[] increments, long total,
+                                           Collection<UUID> candidates) {
+        Document increment = new Document(TOTAL, total);
+        for (int i = 0; i < cells.length; i++) {
+            increment.append(COUNTERS + "." + cells[i], increments[i]);
+        }
+        Document update = new Document("$inc", increment);
+        if (!candidates.isEmpty()) {
+            update.append("$addToSet", new Document(CANDIDATES, new Document("$each", toStrings(candidates))));
+        }
+        Document filter = byId().append(WIDTH, width).append(DEPTH, depth);
+        FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER);
+
+        Document state = mongoTemplate.execute(COLLECTION, collection -> {
+            ensureState(collection, width, depth);
+            return collection.findOneAndUpdate(filter, update, options);
+        });
+        if (state == null) {
+            throw new IllegalStateException("O estado do ranking foi recriado com outras dimensões durante a gravação");
+        }
+        return toSnapshot(state);
+    }
+
+    /**
+     * Substitui todo o estado, como na reconstrução a partir das wishlists.
+     */
+    public void replace(ProductPopularitySnapshot snapshot) {
+        Document state = byId()
+                .append(WIDTH, snapshot.getWidth())
+                .append(DEPTH, snapshot.getDepth())
+                .append(COUNTERS, Arrays.stream(snapshot.getCounters()).boxed().toList())
+                .append(TOTAL, snapshot.getTotal())
+                .append(CANDIDATES, toStrings(snapshot.getCandidates()));
+        mongoTemplate.execute(COLLECTION, collection -> collection.replaceOne(byId(), state, new ReplaceOptions().upsert(true)));
+    }
+
+    public void saveCandidates(Collection<UUID> candidates) {
+        mongoTemplate.execute(COLLECTION, collection ->
+                collection.updateOne(byId(), new Document("$set", new Document(CANDIDATES, toStrings(candidates)))));
+    }
+
+    private static void ensureState(MongoCollection<Document> collection, int width, int depth) {
+        Document current = collection.find(byId()).projection(new Document(WIDTH, 1).append(DEPTH, 1)).first();
+        if (current != null && current.getInteger(WIDTH, 0) == width && current.getInteger(DEPTH, 0) == depth) {
+            return;
+        }
+        Document empty = byId()
+                .append(WIDTH, width)
+                .append(DEPTH, depth)
+                .append(COUNTERS, Arrays.stream(new long[width * depth]).boxed().toList())
+                .append(TOTAL, 0L)
+                .append(CANDIDATES, List.of());
+        if (current != null) {
+            log.warn("O sketch de popularidade gravado tem outras dimensões ({}x{}); recriando com {}x{}",
+                    current.getInteger(DEPTH), current.getInteger(WIDTH), depth, width);
+            collection.replaceOne(byId(), empty);
+            return;
+        }
+        try {
+            collection.insertOne(empty);
+        } catch (MongoWriteException e) {
+            // Outra instância criou o estado ao mesmo tempo
+            if (ErrorCategory.fromErrorCode(e.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+        }
+    }
+
+    private static ProductPopularitySnapshot toSnapshot(Document state) {
+        List<Number> counters = state.getList(COUNTERS, Number.class, List.of());
+        return new ProductPopularitySnapshot(
+                state.getInteger(WIDTH, 0),
+                state.getInteger(DEPTH, 0),
+                counters.stream().mapToLong(Number::longValue).toArray(),
+                state.get(TOTAL) instanceof Number total ? total.longValue() : 0L,
+                state.getList(CANDIDATES, String.class, List.of()).stream().map(UUID::fromString).toList());
+    }
+
+    private static List<String> toStrings(Collection<UUID> ids) {
+        return ids.stream().map(UUID::toString).toList();
+    }
+
+    private static Document byId() {
+        return new Document(WishlistUpdates.ID, STATE_ID);
+    }
+}
@@ -0,0 +1,20 @@
+package com.wishlist.repository;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Estado do sketch de popularidade gravado no Mongo: células da matriz {@code depth × width} em ordem de linha,
+ * total de itens e produtos candidatos ao ranking.
+ */
+@Value
+public class ProductPopularitySnapshot {
+
+    int width;
+    int depth;
+    long[] counters;
+    long total;
+    List<UUID> candidates;
+}
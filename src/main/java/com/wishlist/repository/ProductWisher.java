@@ -0,0 +1,15 @@
+package com.wishlist.repository;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Cliente que tem um produto na wishlist, com o cursor que retoma a busca logo depois dele.
+ */
+@Value
+public class ProductWisher {
+
+    UUID customerId;
+    String cursor;
+}
@@ -0,0 +1,10 @@
+package com.wishlist.repository;
+
+import com.wishlist.domain.CustomerWishlistEntity;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+/**
+ * @see CustomerWishlistRepository
+ */
+public interface ReactiveCustomerWishlistRepository extends ReactiveMongoRepository<CustomerWishlistEntity, String>, ReactiveCustomerWishlistRepositoryCustom {
+}
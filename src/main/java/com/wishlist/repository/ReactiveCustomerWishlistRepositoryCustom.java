@@ -0,0 +1,69 @@
+package com.wishlist.repository;
+
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Versão reativa de {@link CustomerWishlistRepositoryCustom}, com os mesmos filtros e updates.
+ */
+public interface ReactiveCustomerWishlistRepositoryCustom {
+
+    /**
+     * @see CustomerWishlistRepositoryCustom#findByCustomerId
+     */
+    Mono<CustomerWishlistEntity> findByCustomerId(UUID customerId);
+
+    /**
+     * @see CustomerWishlistRepositoryCustom#findByCustomerIdIn
+     */
+    Flux<CustomerWishlistEntity> findByCustomerIdIn(Collection<UUID> customerIds);
+
+    Mono<Boolean> existsByCustomerId(UUID customerId);
+
+    /**
+     * @see CustomerWishlistRepositoryCustom#findWishlistItem
+     */
+    Mono<CustomerWishlistEntity> findWishlistItem(UUID customerId, UUID productId);
+
+    /**
+     * @see CustomerWishlistRepositoryCustom#findSummary
+     */
+    Mono<CustomerWishlistEntity> findSummary(UUID customerId);
+
+    /**
+     * @see CustomerWishlistRepositoryCustom#findWishlistPage
+     */
+    Mono<CustomerWishlistEntity> findWishlistPage(UUID customerId, WishlistItemsQuery query);
+
+    /**
+     * @see CustomerWishlistRepositoryCustom#findWishers
+     */
+    Mono<List<ProductWisher>> findWishers(UUID productId, String after, int limit);
+
+    /**
+     * @return o documento como estava antes da atualização, ou vazio quando o cliente foi criado agora
+     * @see CustomerWishlistRepositoryCustom#addProducts
+     */
+    Mono<CustomerWishlistEntity> addProducts(UUID customerId, List<ProductEntity> products, int maxItems, LocalDateTime now);
+
+    /**
+     * @return o documento como estava antes da atualização, ou vazio quando o cliente não existe ou nenhum produto
+     * foi encontrado
+     * @see CustomerWishlistRepositoryCustom#removeProductsAndGetPrevious
+     */
+    Mono<CustomerWishlistEntity> removeProductsAndGetPrevious(UUID customerId, Collection<UUID> productIds, LocalDateTime now);
+
+    /**
+     * @return os produtos efetivamente removidos; vazio quando nada foi removido
+     * @see CustomerWishlistRepositoryCustom#removeProducts
+     */
+    Mono<Set<UUID>> removeProducts(UUID customerId, Collection<UUID> productIds, LocalDateTime now);
+}
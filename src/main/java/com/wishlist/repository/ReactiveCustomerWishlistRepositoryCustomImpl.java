@@ -0,0 +1,168 @@
+package com.wishlist.repository;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class ReactiveCustomerWishlistRepositoryCustomImpl implements ReactiveCustomerWishlistRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final WishlistStorage storage;
+
+    public ReactiveCustomerWishlistRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate, WishlistProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.storage = new WishlistStorage(mongoTemplate.getConverter(), properties.getStorage());
+    }
+
+    @Override
+    public Mono<CustomerWishlistEntity> findByCustomerId(UUID customerId) {
+        return findOne(storage.byId(customerId), null);
+    }
+
+    @Override
+    public Flux<CustomerWishlistEntity> findByCustomerIdIn(Collection<UUID> customerIds) {
+        if (customerIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return mongoTemplate.execute(CustomerWishlistEntity.class,
+                        collection -> collection.find(storage.byIds(customerIds)))
+                .map(storage::read);
+    }
+
+    @Override
+    public Mono<Boolean> existsByCustomerId(UUID customerId) {
+        return mongoTemplate.execute(CustomerWishlistEntity.class,
+                        collection -> collection.countDocuments(storage.byId(customerId)))
+                .next()
+                .map(count -> count > 0)
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public Mono<CustomerWishlistEntity> findWishlistItem(UUID customerId, UUID productId) {
+        return findOne(storage.byId(customerId), storage.wishlistItemProjection(productId));
+    }
+
+    @Override
+    public Mono<CustomerWishlistEntity> findSummary(UUID customerId) {
+        return findOne(storage.byId(customerId), storage.summaryProjection());
+    }
+
+    @Override
+    public Mono<CustomerWishlistEntity> findWishlistPage(UUID customerId, WishlistItemsQuery query) {
+        return findOne(storage.byId(customerId), storage.wishlistPageProjection(query));
+    }
+
+    @Override
+    public Mono<List<ProductWisher>> findWishers(UUID productId, String after, int limit) {
+        return Mono.fromCallable(() -> storage.wishersFilter(productId, after))
+                .flatMap(filter -> mongoTemplate.execute(CustomerWishlistEntity.class, collection -> collection.find(filter, BsonDocument.class)
+                                .projection(WishlistUpdates.ID_ASCENDING)
+                                .sort(WishlistUpdates.ID_ASCENDING)
+                                .limit(limit))
+                        .map(document -> document.getBinary(WishlistUpdates.ID))
+                        .map(id -> new ProductWisher(WishlistStorage.customerId(id), WishlistStorage.cursor(id)))
+                        .collectList());
+    }
+
+    @Override
+    public Mono<CustomerWishlistEntity> addProducts(UUID customerId, List<ProductEntity> products, int maxItems, LocalDateTime now) {
+        Document filter = WishlistUpdates.byId(storage.id(customerId));
+        List<Document> update = storage.updates().addProducts(storage.products(products), maxItems, storage.date(now));
+        FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .upsert(true)
+                .returnDocument(ReturnDocument.BEFORE);
+
+        return migrateOnWrite(customerId)
+                .then(mongoTemplate.execute(CustomerWishlistEntity.class,
+                                collection -> collection.findOneAndUpdate(filter, update, options))
+                        .next())
+                .map(storage::read);
+    }
+
+    @Override
+    public Mono<CustomerWishlistEntity> removeProductsAndGetPrevious(UUID customerId, Collection<UUID> productIds, LocalDateTime now) {
+        return removeProducts(customerId, productIds, now, new FindOneAndUpdateOptions().returnDocument(ReturnDocument.BEFORE));
+    }
+
+    @Override
+    public Mono<Set<UUID>> removeProducts(UUID customerId, Collection<UUID> productIds, LocalDateTime now) {
+        FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .projection(storage.updates().productIdsProjection())
+                .returnDocument(ReturnDocument.BEFORE);
+        return removeProducts(customerId, productIds, now, options)
+                .map(before -> WishlistStorage.removedProductIds(before, productIds))
+                .defaultIfEmpty(Set.of());
+    }
+
+    private Mono<CustomerWishlistEntity> removeProducts(UUID customerId, Collection<UUID> productIds, LocalDateTime now,
+                                                        FindOneAndUpdateOptions options) {
+        List<?> ids = storage.productIds(productIds);
+        Document filter = storage.updates().byIdContainingAny(storage.id(customerId), ids);
+        List<Document> update = storage.updates().removeProducts(ids, storage.date(now));
+
+        return migrateOnWrite(customerId)
+                .then(mongoTemplate.execute(CustomerWishlistEntity.class,
+                                collection -> collection.findOneAndUpdate(filter, update, options))
+                        .next())
+                .map(storage::read);
+    }
+
+    /**
+     * @see CustomerWishlistRepositoryCustomImpl
+     */
+    private Mono<Void> migrateOnWrite(UUID customerId) {
+        if (!storage.migratesOnWrite()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.execute(CustomerWishlistEntity.class, collection ->
+                        Flux.from(collection.find(storage.legacyByIds(List.of(customerId))))
+                                .collectList()
+                                .flatMap(legacyDocuments -> migrate(collection, legacyDocuments)))
+                .then();
+    }
+
+    private Mono<Void> migrate(MongoCollection<Document> collection, List<Document> legacyDocuments) {
+        if (legacyDocuments.isEmpty()) {
+            return Mono.empty();
+        }
+        List<Document> compactDocuments = legacyDocuments.stream()
+                .map(storage::toCompact)
+                .toList();
+        List<Object> legacyIds = legacyDocuments.stream()
+                .map(document -> document.get(WishlistUpdates.ID))
+                .toList();
+        return Mono.from(collection.insertMany(compactDocuments, new InsertManyOptions().ordered(false)))
+                .onErrorResume(MongoBulkWriteException.class, e -> e.getWriteErrors().stream()
+                        .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY)
+                        ? Mono.empty()
+                        : Mono.error(e))
+                .then(Mono.from(collection.deleteMany(WishlistUpdates.legacyDocuments()
+                        .append(WishlistUpdates.ID, new Document("$in", legacyIds)))))
+                .then();
+    }
+
+    private Mono<CustomerWishlistEntity> findOne(Document filter, Document projection) {
+        return mongoTemplate.execute(CustomerWishlistEntity.class,
+                        collection -> collection.find(filter).projection(projection).first())
+                .next()
+                .map(storage::read);
+    }
+}
@@ -0,0 +1,664 @@
+package com.wishlist.repository;
+
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.mongodb.core.CollectionCallback;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Formato {@code bucketed} de {@code wishlist.storage.layout}: os itens de cada cliente ficam em documentos de até
+ * {@code wishlist.storage.buckets.size} itens na coleção {@value #BUCKETS} ({@code cid}, {@code s} e a lista
+ * {@code w} no formato compacto). O documento do cliente em customer_wishlist vira um cabeçalho com os agregados
+ * ({@code ic}, {@code tc}), os validadores ({@code du}, {@code v}) e os ponteiros dos buckets ({@code b}: sequência e
+ * quantidade de itens de cada um, do primeiro ao último).
+ * <p>
+ * Uma escrita altera mais de um documento, então o cabeçalho também serve de reserva do cliente: a escrita grava em
+ * {@code lk} um token e um prazo ({@code wishlist.storage.buckets.lock-timeout}), altera apenas os buckets
+ * necessários (nas adições, só o último) e libera a reserva somando as diferenças nos agregados. Se a escrita falhar
+ * no meio, a reserva expira e a próxima escrita recalcula o cabeçalho a partir dos buckets. Documentos compactos com a
+ * lista inline continuam sendo lidos e passam para buckets na primeira reserva.
+ */
+@Slf4j
+final class WishlistBuckets {
+
+    static final String BUCKETS = "customer_wishlist_bucket";
+
+    /**
+     * Ordem do {@code _id} no índice para UUIDs do mesmo subtipo: bytes sem sinal.
+     */
+    static final Comparator<BsonBinary> ID_ORDER = Comparator.comparing(BsonBinary::getData, Arrays::compareUnsigned);
+
+    private static final String CUSTOMER = "cid";
+    private static final String SEQUENCE = "s";
+    private static final String POINTERS = "b";
+    private static final String ITEM_INDEX = "i";
+    private static final String LOCK = "lk";
+    private static final String LOCK_TOKEN = "t";
+    private static final String LOCK_EXPIRES = "e";
+    private static final long LOCK_RETRY_MILLIS = 10;
+    private static final WishlistLayout COMPACT = WishlistLayout.COMPACT;
+    private static final String PRODUCT_ID = COMPACT.wishlist + "." + COMPACT.productId;
+    private static final Document SEQUENCE_ASCENDING = new Document(SEQUENCE, 1);
+
+    private final MongoTemplate mongoTemplate;
+    private final WishlistStorage storage;
+    private final int bucketSize;
+    private final Duration lockTimeout;
+
+    WishlistBuckets(MongoTemplate mongoTemplate, WishlistStorage storage, WishlistProperties.Buckets properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.storage = storage;
+        this.bucketSize = properties.getSize();
+        this.lockTimeout = properties.getLockTimeout();
+    }
+
+    /**
+     * Cliente a partir do cabeçalho. Os itens só são buscados nos buckets quando a lista for acessada.
+     */
+    CustomerWishlistEntity read(Document header) {
+        CustomerWishlistEntity customer = storage.read(header);
+        if (customer.getWishlist() == null) {
+            Object customerId = storage.id(customer.getCustomerId());
+            customer.setWishlist(new LazyWishlistItems(() -> items(bucketsOf(customerId))));
+        }
+        return customer;
+    }
+
+    /**
+     * Mesma regra de {@link #read}, mas com os itens de todos os clientes buscados em uma única query {@code $in}.
+     */
+    List<CustomerWishlistEntity> readAll(List<Document> headers) {
+        List<CustomerWishlistEntity> customers = headers.stream()
+                .map(storage::read)
+                .toList();
+        List<Object> bucketed = customers.stream()
+                .filter(customer -> customer.getWishlist() == null)
+                .map(customer -> storage.id(customer.getCustomerId()))
+                .toList();
+        if (bucketed.isEmpty()) {
+            return customers;
+        }
+
+        Map<UUID, List<Document>> itemsByCustomer = new HashMap<>();
+        buckets(collection -> collection.find(new Document(CUSTOMER, new Document("$in", bucketed)))
+                .sort(new Document(CUSTOMER, 1).append(SEQUENCE, 1))
+                .into(new ArrayList<>()))
+                .forEach(bucket -> itemsByCustomer
+                        .computeIfAbsent(CustomerWishlistReadingConverter.uuid(bucket.get(CUSTOMER)), key -> new ArrayList<>())
+                        .addAll(bucket.getList(COMPACT.wishlist, Document.class)));
+        customers.stream()
+                .filter(customer -> customer.getWishlist() == null)
+                .forEach(customer -> customer.setWishlist(products(itemsByCustomer.getOrDefault(customer.getCustomerId(), List.of()))));
+        return customers;
+    }
+
+    /**
+     * Cliente lido com a projeção de um único item. Quando o item não está no próprio documento, é procurado nos
+     * buckets com o mesmo {@code $elemMatch}.
+     */
+    CustomerWishlistEntity readItem(Document header, UUID productId) {
+        CustomerWishlistEntity customer = storage.read(header);
+        if (customer.getWishlist() == null) {
+            Object storedProductId = storage.id(productId);
+            Document bucket = buckets(collection -> collection
+                    .find(new Document(CUSTOMER, storage.id(customer.getCustomerId())).append(PRODUCT_ID, storedProductId))
+                    .projection(new Document(COMPACT.wishlist, new Document("$elemMatch", new Document(COMPACT.productId, storedProductId))))
+                    .first());
+            customer.setWishlist(bucket != null ? products(bucket.getList(COMPACT.wishlist, Document.class)) : List.of());
+        }
+        return customer;
+    }
+
+    /**
+     * Cliente lido com a projeção de {@link WishlistUpdates#wishlistPageProjection}. Quando a lista não está no
+     * próprio documento, a página é montada nos buckets com uma agregação que desfaz os buckets ({@code $unwind}),
+     * ordena, recorta e projeta só os campos pedidos.
+     */
+    CustomerWishlistEntity readPage(Document header, WishlistItemsQuery query) {
+        CustomerWishlistEntity customer = storage.read(header);
+        if (customer.getWishlist() != null) {
+            return customer;
+        }
+        if (query.getSize() == 0) {
+            customer.setWishlist(List.of());
+            return customer;
+        }
+
+        String sortField = WishlistUpdates.COMPACT.sortField(query.getSort());
+        int direction = query.isDescending() ? -1 : 1;
+        Document sort = sortField != null
+                ? new Document(COMPACT.wishlist + "." + sortField, direction).append(SEQUENCE, 1).append(ITEM_INDEX, 1)
+                : new Document(SEQUENCE, direction).append(ITEM_INDEX, direction);
+        Document fields = new Document(WishlistUpdates.ID, 0);
+        if (query.allFields()) {
+            fields.append(COMPACT.wishlist, 1);
+        } else {
+            query.getFields().forEach(field -> fields.append(COMPACT.wishlist + "." + WishlistUpdates.COMPACT.field(field), 1));
+        }
+        List<Document> page = aggregate(List.of(
+                new Document("$match", new Document(CUSTOMER, storage.id(customer.getCustomerId()))),
+                new Document("$unwind", new Document("path", "$" + COMPACT.wishlist).append("includeArrayIndex", ITEM_INDEX)),
+                new Document("$sort", sort),
+                new Document("$skip", query.skip()),
+                new Document("$limit", query.getSize()),
+                new Document("$project", fields)));
+        customer.setWishlist(products(page.stream()
+                .map(item -> item.get(COMPACT.wishlist, Document.class))
+                .toList()));
+        return customer;
+    }
+
+    /**
+     * Página de clientes com o produto em algum bucket, em ordem de {@code cid}.
+     */
+    List<BsonBinary> findWishers(UUID productId, BsonBinary after, int limit) {
+        Document filter = new Document(PRODUCT_ID, storage.id(productId));
+        if (after != null) {
+            filter.append(CUSTOMER, new Document("$gt", after));
+        }
+        List<BsonDocument> ids = buckets(collection -> collection.find(filter, BsonDocument.class)
+                .projection(new Document(CUSTOMER, 1).append(WishlistUpdates.ID, 0))
+                .sort(new Document(CUSTOMER, 1))
+                .limit(limit)
+                .into(new ArrayList<>(limit)));
+        return ids.stream()
+                .map(document -> document.getBinary(CUSTOMER))
+                .toList();
+    }
+
+    /**
+     * Executa nos buckets uma agregação sobre {@code w.p}, que tem o mesmo caminho nos documentos compactos.
+     */
+    List<Document> aggregate(List<Document> pipeline) {
+        return buckets(collection -> collection.aggregate(pipeline).allowDiskUse(true).into(new ArrayList<>()));
+    }
+
+    /**
+     * Índice único de sequência por cliente, usado nas leituras em ordem, e o índice multikey de produtos.
+     */
+    void ensureIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(BUCKETS);
+        indexOps.ensureIndex(new CompoundIndexDefinition(new Document(CUSTOMER, 1).append(SEQUENCE, 1)).unique());
+        indexOps.ensureIndex(new CompoundIndexDefinition(new Document(PRODUCT_ID, 1).append(CUSTOMER, 1)));
+    }
+
+    /**
+     * Mesmas regras do pipeline de {@link WishlistUpdates#addProducts}: produtos já presentes são ignorados e nada é
+     * adicionado se o limite for ultrapassado. Os itens atuais são lidos para a resposta e para os duplicados, mas só
+     * o último bucket (e os novos, quando ele enche) é escrito.
+     *
+     * @return o cliente como estava antes da adição, ou vazio quando foi criado agora
+     */
+    Optional<CustomerWishlistEntity> addProducts(UUID customerId, List<ProductEntity> products, int maxItems, LocalDateTime now) {
+        Object mongoNow = storage.date(now);
+        Reservation reservation = reserve(customerId, true, mongoNow).orElseThrow();
+        List<ProductEntity> current = reservation.created() ? List.of() : items(bucketsOf(reservation.customerId()));
+        Set<UUID> currentIds = current.stream()
+                .map(ProductEntity::getProductId)
+                .collect(Collectors.toSet());
+        List<ProductEntity> toAdd = products.stream()
+                .filter(product -> !currentIds.contains(product.getProductId()))
+                .toList();
+
+        Document changes = new Document();
+        if (!toAdd.isEmpty() && itemCount(reservation.header()) + toAdd.size() <= maxItems) {
+            append(reservation.customerId(), reservation.pointers(), storage.products(toAdd));
+            changes.append("$set", new Document(POINTERS, pointerDocuments(reservation.pointers()))
+                            .append(COMPACT.dateUpdate, mongoNow))
+                    .append("$inc", new Document(COMPACT.itemCount, toAdd.size())
+                            .append(COMPACT.totalPriceCents, sumOfPrices(toAdd))
+                            .append(COMPACT.version, 1L));
+        }
+        release(reservation, changes);
+        if (reservation.created()) {
+            return Optional.empty();
+        }
+        return Optional.of(before(reservation, current));
+    }
+
+    /**
+     * Retira os produtos dos buckets que os contêm; um bucket que fica vazio é apagado.
+     *
+     * @param wholeWishlist lê todos os buckets para devolver a lista anterior completa; caso contrário só os buckets
+     *                      com algum dos produtos são lidos e a lista devolvida traz apenas os itens deles
+     * @return o cliente como estava antes da remoção, ou vazio quando o cliente não existe ou nenhum produto foi
+     * encontrado
+     */
+    Optional<CustomerWishlistEntity> removeProducts(UUID customerId, Collection<UUID> productIds, LocalDateTime now,
+                                                    boolean wholeWishlist) {
+        Object mongoNow = storage.date(now);
+        Optional<Reservation> reserved = reserve(customerId, false, mongoNow);
+        if (reserved.isEmpty()) {
+            return Optional.empty();
+        }
+        Reservation reservation = reserved.get();
+        Set<UUID> requested = new HashSet<>(productIds);
+        List<?> ids = storage.productIds(requested);
+        Document filter = new Document(CUSTOMER, reservation.customerId());
+        if (!wholeWishlist) {
+            filter.append(PRODUCT_ID, new Document("$in", ids));
+        }
+        List<Document> buckets = buckets(collection -> collection.find(filter).sort(SEQUENCE_ASCENDING).into(new ArrayList<>()));
+
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        int removedCount = 0;
+        long removedPrice = 0L;
+        for (Document bucket : buckets) {
+            List<Document> items = bucket.getList(COMPACT.wishlist, Document.class);
+            List<Document> removed = items.stream()
+                    .filter(item -> requested.contains(CustomerWishlistReadingConverter.uuid(item.get(COMPACT.productId))))
+                    .toList();
+            if (removed.isEmpty()) {
+                continue;
+            }
+            int sequence = bucket.getInteger(SEQUENCE);
+            Document byBucket = new Document(CUSTOMER, reservation.customerId()).append(SEQUENCE, sequence);
+            if (removed.size() == items.size()) {
+                writes.add(new DeleteOneModel<>(byBucket));
+                reservation.pointers().remove(sequence);
+            } else {
+                writes.add(new UpdateOneModel<>(byBucket, new Document("$pull", new Document(COMPACT.wishlist,
+                        new Document(COMPACT.productId, new Document("$in", ids))))));
+                reservation.pointers().put(sequence, items.size() - removed.size());
+            }
+            removedCount += removed.size();
+            removedPrice += removed.stream().mapToLong(WishlistBuckets::price).sum();
+        }
+        if (writes.isEmpty()) {
+            release(reservation, new Document());
+            return Optional.empty();
+        }
+
+        buckets(collection -> collection.bulkWrite(writes));
+        release(reservation, new Document("$set", new Document(POINTERS, pointerDocuments(reservation.pointers()))
+                        .append(COMPACT.dateUpdate, mongoNow))
+                .append("$inc", new Document(COMPACT.itemCount, -removedCount)
+                        .append(COMPACT.totalPriceCents, -removedPrice)
+                        .append(COMPACT.version, 1L)));
+        return Optional.of(before(reservation, items(buckets)));
+    }
+
+    /**
+     * Aplica as mutações uma a uma, já que cada uma precisa da reserva do cliente.
+     */
+    WishlistMutationResults applyMutations(List<WishlistMutation> mutations, int maxItems, LocalDateTime now) {
+        Set<Integer> failed = new HashSet<>();
+        long applied = 0;
+        for (int i = 0; i < mutations.size(); i++) {
+            WishlistMutation mutation = mutations.get(i);
+            try {
+                boolean changed = mutation.isAdd()
+                        ? addProducts(mutation.getCustomerId(), mutation.getProductsToAdd(), maxItems, now)
+                                .map(before -> added(before, mutation.getProductsToAdd(), maxItems))
+                                .orElse(true)
+                        : removeProducts(mutation.getCustomerId(), mutation.getProductIdsToRemove(), now, false).isPresent();
+                if (changed) {
+                    applied++;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Falha ao aplicar mutação na wishlist do cliente {}: {}", mutation.getCustomerId(), e.getMessage());
+                failed.add(i);
+            }
+        }
+        return new WishlistMutationResults(failed, applied);
+    }
+
+    /**
+     * Troca os detalhes do produto nos buckets com {@code arrayFilters} e soma no {@code totalPriceCents} do cabeçalho
+     * a diferença para o preço que estava gravado. Cada cliente é alterado com a própria reserva, como as demais
+     * escritas: sem ela, uma remoção concorrente que leu o preço antigo o descontaria depois de a diferença já ter sido
+     * somada. Os clientes cuja reserva não é obtida no prazo são tentados de novo ao final da página; os que ainda
+     * assim ficarem de fora são devolvidos em {@link ProductDetailsUpdateResults#getSkipped()}.
+     */
+    ProductDetailsUpdateResults updateProductDetails(ProductEntity product, Collection<UUID> customerIds, LocalDateTime now) {
+        Object productId = storage.id(product.getProductId());
+        List<Object> ids = customerIds.stream()
+                .map(storage::id)
+                .toList();
+        List<Document> wishers = buckets(collection -> collection.find(new Document(CUSTOMER, new Document("$in", ids)).append(PRODUCT_ID, productId))
+                .projection(new Document(WishlistUpdates.ID, 0).append(CUSTOMER, 1))
+                .into(new ArrayList<>()));
+        Set<UUID> pending = wishers.stream()
+                .map(wisher -> CustomerWishlistReadingConverter.uuid(wisher.get(CUSTOMER)))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Document itemUpdate = WishlistUpdates.COMPACT.productItemDetails(product.getName(), product.getDescription(), product.getPrice());
+        Object mongoNow = storage.date(now);
+        long updated = 0;
+        for (int attempt = 0; attempt < 2 && !pending.isEmpty(); attempt++) {
+            Set<UUID> skipped = new LinkedHashSet<>();
+            for (UUID customerId : pending) {
+                try {
+                    if (updateProductDetails(customerId, productId, product.getPrice(), itemUpdate, mongoNow)) {
+                        updated++;
+                    }
+                } catch (PessimisticLockingFailureException e) {
+                    log.warn("Produto {} não atualizado na wishlist do cliente {}: {}", product.getProductId(), customerId, e.getMessage());
+                    skipped.add(customerId);
+                }
+            }
+            pending = skipped;
+        }
+        return new ProductDetailsUpdateResults(updated, pending);
+    }
+
+    /**
+     * @return se a wishlist do cliente tinha o produto e foi alterada
+     * @throws PessimisticLockingFailureException quando a reserva não é obtida no prazo
+     */
+    private boolean updateProductDetails(UUID customerId, Object productId, Long price, Document itemUpdate, Object now) {
+        Optional<Reservation> reserved = reserve(customerId, false, null);
+        if (reserved.isEmpty()) {
+            return false;
+        }
+        Reservation reservation = reserved.get();
+        Document filter = new Document(CUSTOMER, reservation.customerId()).append(PRODUCT_ID, productId);
+        List<Document> previousPrices = aggregate(List.of(
+                new Document("$match", filter),
+                new Document("$unwind", "$" + COMPACT.wishlist),
+                new Document("$match", new Document(PRODUCT_ID, productId)),
+                new Document("$project", new Document(WishlistUpdates.ID, 0)
+                        .append(COMPACT.price, "$" + COMPACT.wishlist + "." + COMPACT.price))));
+        if (previousPrices.isEmpty()) {
+            release(reservation, new Document());
+            return false;
+        }
+        buckets(collection -> collection.updateMany(filter, itemUpdate,
+                new UpdateOptions().arrayFilters(WishlistUpdates.COMPACT.productItemFilter(productId))));
+        long newPrice = price != null ? price : 0L;
+        long difference = previousPrices.stream()
+                .mapToLong(previous -> newPrice - price(previous))
+                .sum();
+        release(reservation, new Document("$inc", new Document(COMPACT.totalPriceCents, difference)
+                .append(COMPACT.version, 1L))
+                .append("$set", new Document(COMPACT.dateUpdate, now)));
+        return true;
+    }
+
+    /**
+     * Passa para buckets até {@code batchSize} documentos compactos que ainda têm a lista inline.
+     *
+     * @return quantidade de documentos migrados; zero quando não há mais nenhum
+     */
+    int migrateBatch(int batchSize) {
+        List<Document> inline = headers(collection -> collection.find(new Document(COMPACT.wishlist, new Document("$exists", true)))
+                .projection(WishlistUpdates.ID_ASCENDING)
+                .limit(batchSize)
+                .into(new ArrayList<>()));
+        for (Document document : inline) {
+            reserve(CustomerWishlistReadingConverter.uuid(document.get(WishlistUpdates.ID)), false, null)
+                    .ifPresent(reservation -> release(reservation, new Document()));
+        }
+        return inline.size();
+    }
+
+    /**
+     * Refaz, sobre a lista anterior devolvida por {@link #addProducts}, a decisão tomada com a reserva.
+     */
+    private static boolean added(CustomerWishlistEntity before, List<ProductEntity> products, int maxItems) {
+        Set<UUID> currentIds = before.getWishlist().stream()
+                .map(ProductEntity::getProductId)
+                .collect(Collectors.toSet());
+        long toAdd = products.stream()
+                .map(ProductEntity::getProductId)
+                .filter(productId -> !currentIds.contains(productId))
+                .distinct()
+                .count();
+        int itemCount = before.getItemCount() != null ? before.getItemCount() : currentIds.size();
+        return toAdd > 0 && itemCount + toAdd <= maxItems;
+    }
+
+    /**
+     * Reserva o cabeçalho do cliente, esperando até {@code lock-timeout} se outra escrita estiver com ele.
+     *
+     * @param create cria o cabeçalho quando o cliente não existe
+     * @return vazio quando o cliente não existe e {@code create} é falso
+     * @throws PessimisticLockingFailureException quando a reserva não é obtida no prazo
+     */
+    private Optional<Reservation> reserve(UUID customerId, boolean create, Object now) {
+        Object id = storage.id(customerId);
+        long deadline = System.nanoTime() + lockTimeout.toNanos();
+        while (true) {
+            ObjectId token = new ObjectId();
+            Date reservedAt = new Date();
+            Document available = WishlistUpdates.byId(id).append("$or", List.of(
+                    new Document(LOCK, new Document("$exists", false)),
+                    new Document(LOCK + "." + LOCK_EXPIRES, new Document("$lt", reservedAt))));
+            Document update = new Document("$set", new Document(LOCK, new Document(LOCK_TOKEN, token)
+                    .append(LOCK_EXPIRES, new Date(reservedAt.getTime() + lockTimeout.toMillis()))));
+            if (create) {
+                update.append("$setOnInsert", newHeader(now));
+            }
+            FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                    .upsert(create)
+                    .returnDocument(ReturnDocument.BEFORE);
+            try {
+                Document before = headers(collection -> collection.findOneAndUpdate(available, update, options));
+                if (before != null) {
+                    return Optional.of(prepare(id, token, before));
+                }
+                if (create) {
+                    return Optional.of(new Reservation(id, token, newHeader(now).append(WishlistUpdates.ID, id), new LinkedHashMap<>(), true));
+                }
+                Long count = headers(collection -> collection.countDocuments(WishlistUpdates.byId(id)));
+                if (count == null || count == 0) {
+                    return Optional.empty();
+                }
+            } catch (DuplicateKeyException e) {
+                // o upsert encontrou o cabeçalho reservado por outra escrita
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new PessimisticLockingFailureException("Wishlist do cliente " + customerId + " reservada por outra escrita");
+            }
+            try {
+                Thread.sleep(LOCK_RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PessimisticLockingFailureException("Espera pela wishlist do cliente " + customerId + " interrompida", e);
+            }
+        }
+    }
+
+    /**
+     * Com a reserva obtida, passa para buckets a lista de um documento compacto ou, se a reserva anterior expirou
+     * sem ser liberada, recalcula o cabeçalho a partir dos buckets.
+     */
+    private Reservation prepare(Object id, ObjectId token, Document header) {
+        List<Document> inline = header.getList(COMPACT.wishlist, Document.class);
+        if (inline != null) {
+            buckets(collection -> collection.deleteMany(new Document(CUSTOMER, id)));
+            LinkedHashMap<Integer, Integer> pointers = new LinkedHashMap<>();
+            append(id, pointers, inline);
+            long total = inline.stream().mapToLong(WishlistBuckets::price).sum();
+            rewriteHeader(id, token, header, pointers, inline.size(), total);
+            log.debug("Wishlist do cliente {} passada para {} buckets", id, pointers.size());
+            return new Reservation(id, token, header, pointers, false);
+        }
+        if (header.containsKey(LOCK)) {
+            log.warn("Reserva expirada na wishlist do cliente {}; recalculando o cabeçalho a partir dos buckets", id);
+            List<Document> buckets = buckets(collection -> collection.find(new Document(CUSTOMER, id))
+                    .projection(new Document(SEQUENCE, 1).append(COMPACT.wishlist + "." + COMPACT.price, 1))
+                    .sort(SEQUENCE_ASCENDING)
+                    .into(new ArrayList<>()));
+            LinkedHashMap<Integer, Integer> pointers = new LinkedHashMap<>();
+            int itemCount = 0;
+            long total = 0L;
+            for (Document bucket : buckets) {
+                List<Document> items = bucket.getList(COMPACT.wishlist, Document.class);
+                pointers.put(bucket.getInteger(SEQUENCE), items.size());
+                itemCount += items.size();
+                total += items.stream().mapToLong(WishlistBuckets::price).sum();
+            }
+            rewriteHeader(id, token, header, pointers, itemCount, total);
+            return new Reservation(id, token, header, pointers, false);
+        }
+        LinkedHashMap<Integer, Integer> pointers = new LinkedHashMap<>();
+        header.getList(POINTERS, Document.class, List.of())
+                .forEach(pointer -> pointers.put(pointer.getInteger(SEQUENCE), pointer.getInteger(COMPACT.itemCount)));
+        return new Reservation(id, token, header, pointers, false);
+    }
+
+    private void rewriteHeader(Object id, ObjectId token, Document header, LinkedHashMap<Integer, Integer> pointers,
+                               int itemCount, long total) {
+        Document set = new Document(POINTERS, pointerDocuments(pointers))
+                .append(COMPACT.itemCount, itemCount)
+                .append(COMPACT.totalPriceCents, total);
+        headers(collection -> collection.updateOne(reserved(id, token),
+                new Document("$set", set).append("$unset", new Document(COMPACT.wishlist, ""))));
+        header.remove(COMPACT.wishlist);
+        header.putAll(set);
+    }
+
+    /**
+     * Escreve os itens no último bucket enquanto houver espaço e o restante em buckets novos, atualizando os ponteiros.
+     */
+    private void append(Object customerId, LinkedHashMap<Integer, Integer> pointers, List<?> items) {
+        int written = 0;
+        int sequence = 0;
+        Map.Entry<Integer, Integer> tail = pointers.lastEntry();
+        if (tail != null) {
+            sequence = tail.getKey() + 1;
+            int room = bucketSize - tail.getValue();
+            if (room > 0) {
+                List<?> chunk = items.subList(0, Math.min(room, items.size()));
+                buckets(collection -> collection.updateOne(new Document(CUSTOMER, customerId).append(SEQUENCE, tail.getKey()),
+                        new Document("$push", new Document(COMPACT.wishlist, new Document("$each", chunk)))));
+                pointers.put(tail.getKey(), tail.getValue() + chunk.size());
+                written = chunk.size();
+            }
+        }
+
+        List<Document> created = new ArrayList<>();
+        for (int from = written; from < items.size(); from += bucketSize) {
+            List<?> chunk = items.subList(from, Math.min(from + bucketSize, items.size()));
+            created.add(new Document(CUSTOMER, customerId)
+                    .append(SEQUENCE, sequence)
+                    .append(COMPACT.wishlist, chunk));
+            pointers.put(sequence, chunk.size());
+            sequence++;
+        }
+        if (!created.isEmpty()) {
+            buckets(collection -> collection.insertMany(created));
+        }
+    }
+
+    /**
+     * Libera a reserva aplicando as alterações do cabeçalho. Se a reserva já tiver expirado, nada é alterado: a
+     * escrita que a assumiu recalcula o cabeçalho a partir dos buckets.
+     */
+    private void release(Reservation reservation, Document changes) {
+        changes.append("$unset", new Document(LOCK, ""));
+        Long matched = headers(collection -> collection.updateOne(reserved(reservation.customerId(), reservation.token()), changes)
+                .getMatchedCount());
+        if (matched == null || matched == 0) {
+            log.warn("Reserva da wishlist do cliente {} expirou antes do fim da escrita", reservation.customerId());
+        }
+    }
+
+    private List<Document> bucketsOf(Object customerId) {
+        return buckets(collection -> collection.find(new Document(CUSTOMER, customerId))
+                .projection(new Document(COMPACT.wishlist, 1))
+                .sort(SEQUENCE_ASCENDING)
+                .into(new ArrayList<>()));
+    }
+
+    private List<ProductEntity> items(List<Document> buckets) {
+        List<Document> items = new ArrayList<>();
+        buckets.forEach(bucket -> items.addAll(bucket.getList(COMPACT.wishlist, Document.class)));
+        return products(items);
+    }
+
+    private List<ProductEntity> products(List<Document> items) {
+        return storage.read(new Document(COMPACT.wishlist, items)).getWishlist();
+    }
+
+    private CustomerWishlistEntity before(Reservation reservation, List<ProductEntity> items) {
+        CustomerWishlistEntity customer = storage.read(reservation.header());
+        customer.setWishlist(new ArrayList<>(items));
+        return customer;
+    }
+
+    private static Document newHeader(Object now) {
+        return new Document(COMPACT.dateCreation, now)
+                .append(COMPACT.itemCount, 0)
+                .append(COMPACT.totalPriceCents, 0L)
+                .append(POINTERS, List.of());
+    }
+
+    private static Document reserved(Object customerId, ObjectId token) {
+        return WishlistUpdates.byId(customerId).append(LOCK + "." + LOCK_TOKEN, token);
+    }
+
+    private static List<Document> pointerDocuments(LinkedHashMap<Integer, Integer> pointers) {
+        return pointers.entrySet().stream()
+                .map(pointer -> new Document(SEQUENCE, pointer.getKey()).append(COMPACT.itemCount, pointer.getValue()))
+                .toList();
+    }
+
+    private static int itemCount(Document header) {
+        Object itemCount = header.get(COMPACT.itemCount);
+        return itemCount != null ? ((Number) itemCount).intValue() : 0;
+    }
+
+    private static long price(Document item) {
+        Object price = item.get(COMPACT.price);
+        return price != null ? ((Number) price).longValue() : 0L;
+    }
+
+    private static long sumOfPrices(List<ProductEntity> products) {
+        return products.stream()
+                .mapToLong(product -> product.getPrice() != null ? product.getPrice() : 0L)
+                .sum();
+    }
+
+    private <T> T headers(CollectionCallback<T> callback) {
+        return mongoTemplate.execute(CustomerWishlistEntity.class, callback);
+    }
+
+    private <T> T buckets(CollectionCallback<T> callback) {
+        return mongoTemplate.execute(BUCKETS, callback);
+    }
+
+    /**
+     * Cabeçalho reservado por uma escrita; {@code pointers} guarda a sequência e a quantidade de itens de cada bucket,
+     * do primeiro ao último, e é atualizado conforme a escrita avança.
+     */
+    private record Reservation(Object customerId, ObjectId token, Document header,
+                               LinkedHashMap<Integer, Integer> pointers, boolean created) {
+    }
+}
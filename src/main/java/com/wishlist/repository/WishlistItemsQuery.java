@@ -0,0 +1,161 @@
+package com.wishlist.repository;
+
+import com.wishlist.domain.ProductEntity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Página e campos dos itens pedidos no GET da wishlist ({@code page}, {@code size}, {@code sort}, {@code fields}).
+ * O repositório aplica a consulta no próprio Mongo ({@code $slice} e projeção dos campos); {@link #apply} faz o mesmo
+ * em memória, quando a wishlist completa já foi lida.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class WishlistItemsQuery {
+
+    /**
+     * Ordem dos itens. {@code ADDED} é a ordem em que foram adicionados, que é a ordem gravada.
+     */
+    public enum SortField {
+        ADDED, NAME, PRICE
+    }
+
+    /**
+     * Campos do produto que podem ser pedidos em {@code fields}, com os nomes da resposta.
+     */
+    public enum ProductField {
+        PRODUCT_ID("productId"), NAME("name"), DESCRIPTION("description"), PRICE("price");
+
+        private final String parameter;
+
+        ProductField(String parameter) {
+            this.parameter = parameter;
+        }
+
+        static ProductField of(String parameter) {
+            return Arrays.stream(values())
+                    .filter(field -> field.parameter.equals(parameter))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Campo desconhecido em fields: " + parameter));
+        }
+    }
+
+    int page;
+    int size;
+    SortField sort;
+    boolean descending;
+    Set<ProductField> fields;
+
+    /**
+     * @param page    página, a partir de zero; nulo é a primeira
+     * @param size    itens por página, de zero (só os totais) a {@code maxSize}; nulo é {@code maxSize}
+     * @param sort    {@code added}, {@code name} ou {@code price}, opcionalmente seguido de {@code ,asc} ou
+     *                {@code ,desc}; nulo é a ordem de inclusão
+     * @param fields  campos do produto separados por vírgula; nulo são todos
+     * @throws IllegalArgumentException quando algum parâmetro é inválido
+     */
+    public static WishlistItemsQuery of(Integer page, Integer size, String sort, String fields, int maxSize) {
+        if (page != null && page < 0) {
+            throw new IllegalArgumentException("page deve ser maior ou igual a zero");
+        }
+        if (size != null && (size < 0 || size > maxSize)) {
+            throw new IllegalArgumentException("size deve estar entre 0 e " + maxSize);
+        }
+
+        SortField sortField = SortField.ADDED;
+        boolean descending = false;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            if (parts.length > 2) {
+                throw new IllegalArgumentException("sort inválido: " + sort);
+            }
+            sortField = switch (parts[0].trim().toLowerCase(Locale.ROOT)) {
+                case "added" -> SortField.ADDED;
+                case "name" -> SortField.NAME;
+                case "price" -> SortField.PRICE;
+                default -> throw new IllegalArgumentException("Ordenação desconhecida: " + parts[0].trim());
+            };
+            if (parts.length == 2) {
+                descending = switch (parts[1].trim().toLowerCase(Locale.ROOT)) {
+                    case "asc" -> false;
+                    case "desc" -> true;
+                    default -> throw new IllegalArgumentException("Direção desconhecida: " + parts[1].trim());
+                };
+            }
+        }
+
+        Set<ProductField> productFields = EnumSet.allOf(ProductField.class);
+        if (fields != null && !fields.isBlank()) {
+            productFields = EnumSet.noneOf(ProductField.class);
+            for (String field : fields.split(",")) {
+                productFields.add(ProductField.of(field.trim()));
+            }
+        }
+        return new WishlistItemsQuery(page != null ? page : 0, size != null ? size : maxSize, sortField, descending,
+                Collections.unmodifiableSet(productFields));
+    }
+
+    /**
+     * Posição do primeiro item da página.
+     */
+    public int skip() {
+        return (int) Math.min((long) page * size, Integer.MAX_VALUE);
+    }
+
+    public boolean allFields() {
+        return fields.size() == ProductField.values().length;
+    }
+
+    /**
+     * Ordena, recorta a página e remove os campos não pedidos de uma wishlist já lida por inteiro. Produtos sem o
+     * campo da ordenação ficam no início em ordem crescente e no fim em ordem decrescente, como no Mongo.
+     */
+    public List<ProductEntity> apply(List<ProductEntity> items) {
+        if (items == null || size == 0) {
+            return List.of();
+        }
+        Comparator<ProductEntity> order = switch (sort) {
+            case ADDED -> null;
+            case NAME -> nullsFirst(ProductEntity::getName);
+            case PRICE -> nullsFirst(ProductEntity::getPrice);
+        };
+        List<ProductEntity> sorted = items;
+        if (order != null) {
+            sorted = items.stream()
+                    .sorted(descending ? order.reversed() : order)
+                    .toList();
+        } else if (descending) {
+            sorted = items.reversed();
+        }
+        return sorted.stream()
+                .skip(skip())
+                .limit(size)
+                .map(this::select)
+                .toList();
+    }
+
+    private ProductEntity select(ProductEntity product) {
+        if (allFields()) {
+            return product;
+        }
+        return new ProductEntity(
+                fields.contains(ProductField.PRODUCT_ID) ? product.getProductId() : null,
+                fields.contains(ProductField.NAME) ? product.getName() : null,
+                fields.contains(ProductField.DESCRIPTION) ? product.getDescription() : null,
+                fields.contains(ProductField.PRICE) ? product.getPrice() : null);
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<ProductEntity> nullsFirst(Function<ProductEntity, T> field) {
+        return Comparator.comparing(field, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+}
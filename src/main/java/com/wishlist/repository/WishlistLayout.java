@@ -0,0 +1,41 @@
+package com.wishlist.repository;
+
+/**
+ * Nomes dos campos de customer_wishlist em cada formato de documento. {@link #LEGACY} é o mapeamento padrão do
+ * Spring Data (nome das propriedades); {@link #COMPACT} usa apelidos curtos, porque os nomes se repetem em cada item
+ * da lista e pesam no tamanho do documento.
+ */
+enum WishlistLayout {
+
+    LEGACY("wishlist", "productId", "name", "description", "price", "dateAdded",
+            "dateCreation", "dateUpdate", "version", "itemCount", "totalPriceCents"),
+    COMPACT("w", "p", "n", "d", "c", "da",
+            "dc", "du", "v", "ic", "tc");
+
+    final String wishlist;
+    final String productId;
+    final String name;
+    final String description;
+    final String price;
+    final String dateAdded;
+    final String dateCreation;
+    final String dateUpdate;
+    final String version;
+    final String itemCount;
+    final String totalPriceCents;
+
+    WishlistLayout(String wishlist, String productId, String name, String description, String price, String dateAdded,
+                   String dateCreation, String dateUpdate, String version, String itemCount, String totalPriceCents) {
+        this.wishlist = wishlist;
+        this.productId = productId;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.dateAdded = dateAdded;
+        this.dateCreation = dateCreation;
+        this.dateUpdate = dateUpdate;
+        this.version = version;
+        this.itemCount = itemCount;
+        this.totalPriceCents = totalPriceCents;
+    }
+}
@@ -0,0 +1,34 @@
+package com.wishlist.repository;
+
+import com.wishlist.domain.ProductEntity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Mutação de uma wishlist a ser enviada em lote. Cada instância vira um único update no bulkWrite.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class WishlistMutation {
+
+    UUID customerId;
+    List<ProductEntity> productsToAdd;
+    Collection<UUID> productIdsToRemove;
+
+    public static WishlistMutation add(UUID customerId, List<ProductEntity> products) {
+        return new WishlistMutation(customerId, products, null);
+    }
+
+    public static WishlistMutation remove(UUID customerId, Collection<UUID> productIds) {
+        return new WishlistMutation(customerId, null, productIds);
+    }
+
+    public boolean isAdd() {
+        return productsToAdd != null;
+    }
+}
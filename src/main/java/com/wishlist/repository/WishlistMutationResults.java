@@ -0,0 +1,31 @@
+package com.wishlist.repository;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Resultado de um lote de {@link WishlistMutation}. O bulkWrite só informa totais, então o que se sabe de cada
+ * operação é se ela falhou; {@code applied} diz quantas das demais de fato alteraram uma wishlist.
+ */
+@Value
+public class WishlistMutationResults {
+
+    /**
+     * Posições (nas mutações enviadas) das operações que falharam no servidor.
+     */
+    Set<Integer> failed;
+
+    /**
+     * Quantidade de operações que alteraram ou criaram uma wishlist.
+     */
+    long applied;
+
+    /**
+     * Indica se todas as operações que não falharam foram aplicadas, ou seja, se nenhuma virou um no-op no servidor
+     * por causa de uma escrita concorrente entre a leitura e a gravação.
+     */
+    public boolean allApplied(int mutations) {
+        return applied >= mutations - failed.size();
+    }
+}
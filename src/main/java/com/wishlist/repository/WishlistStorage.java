@@ -0,0 +1,314 @@
+package com.wishlist.repository;
+
+import com.mongodb.client.model.UpdateManyModel;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import org.bson.BsonBinary;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Converte os valores e monta os filtros de acordo com o formato configurado em {@code wishlist.storage}.
+ * <p>
+ * No formato antigo os valores passam pelo MongoConverter, como sempre foi feito. No compacto os documentos são
+ * montados aqui mesmo: apelidos curtos ({@link WishlistLayout#COMPACT}), UUIDs binários no subtipo 4 e sem
+ * {@code _class}. Enquanto {@code read-legacy} estiver ligado, as leituras por id procuram o cliente nos dois
+ * formatos e as escritas migram antes o documento antigo do cliente, então um cliente nunca tem dois documentos
+ * sendo alterados ao mesmo tempo. O {@code _id} dos documentos antigos é procurado no subtipo 3 (java-legacy,
+ * padrão do Spring Boot).
+ */
+final class WishlistStorage {
+
+    private static final int UUID_BYTES = 16;
+
+    private final MongoConverter converter;
+    private final WishlistLayout layout;
+    private final List<WishlistLayout> readLayouts;
+
+    WishlistStorage(MongoConverter converter, WishlistProperties.Storage properties) {
+        this.converter = converter;
+        this.layout = properties.getLayout() == WishlistProperties.StorageLayout.LEGACY
+                ? WishlistLayout.LEGACY
+                : WishlistLayout.COMPACT;
+        this.readLayouts = properties.getLayout() == WishlistProperties.StorageLayout.COMPACT && properties.isReadLegacy()
+                ? List.of(WishlistLayout.COMPACT, WishlistLayout.LEGACY)
+                : List.of(layout);
+    }
+
+    WishlistUpdates updates() {
+        return WishlistUpdates.of(layout);
+    }
+
+    boolean isCompact() {
+        return layout == WishlistLayout.COMPACT;
+    }
+
+    /**
+     * Indica se ainda pode haver documentos no formato antigo, que precisam ser migrados antes de uma escrita.
+     */
+    boolean migratesOnWrite() {
+        return readLayouts.size() > 1;
+    }
+
+    Object id(UUID customerId) {
+        return uuid(layout, customerId);
+    }
+
+    /**
+     * Filtro de leitura por cliente, que encontra o documento em qualquer um dos formatos lidos.
+     */
+    Document byId(UUID customerId) {
+        return byIds(List.of(customerId));
+    }
+
+    Document byIds(Collection<UUID> customerIds) {
+        List<Object> ids = new ArrayList<>(customerIds.size() * readLayouts.size());
+        for (WishlistLayout readLayout : readLayouts) {
+            customerIds.forEach(customerId -> ids.add(uuid(readLayout, customerId)));
+        }
+        return ids.size() == 1
+                ? WishlistUpdates.byId(ids.get(0))
+                : WishlistUpdates.byId(new Document("$in", ids));
+    }
+
+    Document legacyByIds(Collection<UUID> customerIds) {
+        List<Object> ids = customerIds.stream()
+                .map(customerId -> uuid(WishlistLayout.LEGACY, customerId))
+                .toList();
+        return WishlistUpdates.legacyDocuments().append(WishlistUpdates.ID, new Document("$in", ids));
+    }
+
+    /**
+     * Clientes com o produto na wishlist em qualquer um dos formatos lidos, com {@code _id} depois do cursor.
+     *
+     * @throws IllegalArgumentException quando {@code after} não é um cursor gerado por {@link #cursor}
+     */
+    Document wishersFilter(UUID productId, String after) {
+        List<Document> byProduct = readLayouts.stream()
+                .map(readLayout -> WishlistUpdates.of(readLayout).containingProduct(uuid(readLayout, productId)))
+                .toList();
+        Document filter = byProduct.size() == 1 ? byProduct.get(0) : new Document("$or", byProduct);
+        if (after != null) {
+            filter.append(WishlistUpdates.ID, new Document("$gt", fromCursor(after)));
+        }
+        return filter;
+    }
+
+    /**
+     * Expressão de agregação com os ids dos produtos do documento, em qualquer um dos formatos lidos.
+     */
+    Object productIdsExpression() {
+        List<Document> byLayout = readLayouts.stream()
+                .map(readLayout -> new Document("$ifNull", List.of("$" + readLayout.wishlist + "." + readLayout.productId, List.of())))
+                .toList();
+        return byLayout.size() == 1 ? byLayout.get(0) : new Document("$concatArrays", byLayout);
+    }
+
+    /**
+     * Os ids dos produtos como podem estar gravados, em cada um dos formatos lidos.
+     */
+    List<Object> productIdsInAnyLayout(Collection<UUID> productIds) {
+        List<Object> ids = new ArrayList<>(productIds.size() * readLayouts.size());
+        for (WishlistLayout readLayout : readLayouts) {
+            productIds.forEach(productId -> ids.add(uuid(readLayout, productId)));
+        }
+        return ids;
+    }
+
+    /**
+     * Clientes com algum dos produtos na wishlist, em qualquer um dos formatos lidos.
+     */
+    Document containingAnyProduct(Collection<UUID> productIds) {
+        List<Document> byProducts = readLayouts.stream()
+                .map(readLayout -> new Document(readLayout.wishlist + "." + readLayout.productId, new Document("$in",
+                        productIds.stream().map(productId -> uuid(readLayout, productId)).toList())))
+                .toList();
+        return byProducts.size() == 1 ? byProducts.get(0) : new Document("$or", byProducts);
+    }
+
+    /**
+     * Um pipeline de update por formato lido, que troca os detalhes do produto nas wishlists dos clientes informados
+     * e recalcula o total delas na mesma escrita.
+     */
+    List<UpdateManyModel<Document>> productDetailsUpdates(ProductEntity product, Collection<UUID> customerIds, LocalDateTime now) {
+        Object mongoNow = date(now);
+        Long price = product.getPrice() != null ? product.getPrice().longValue() : null;
+        return readLayouts.stream()
+                .map(readLayout -> {
+                    Object productId = uuid(readLayout, product.getProductId());
+                    return new UpdateManyModel<Document>(customersWithProduct(readLayout, customerIds, productId),
+                            WishlistUpdates.of(readLayout).productDetails(productId, product.getName(),
+                                    product.getDescription(), price, mongoNow));
+                })
+                .toList();
+    }
+
+    private Document customersWithProduct(WishlistLayout readLayout, Collection<UUID> customerIds, Object productId) {
+        List<Object> ids = customerIds.stream()
+                .map(customerId -> uuid(readLayout, customerId))
+                .toList();
+        return WishlistUpdates.byId(new Document("$in", ids))
+                .append(readLayout.wishlist + "." + readLayout.productId, productId);
+    }
+
+    int readLayoutCount() {
+        return readLayouts.size();
+    }
+
+    List<Document> productIndexes() {
+        return readLayouts.stream()
+                .map(readLayout -> WishlistUpdates.of(readLayout).productIndex())
+                .toList();
+    }
+
+    /**
+     * Cursor opaco com o {@code _id} exatamente como está gravado (subtipo e bytes), para que a comparação
+     * {@code $gt} siga a ordem do índice mesmo com documentos dos dois formatos.
+     */
+    static String cursor(BsonBinary id) {
+        byte[] raw = new byte[id.getData().length + 1];
+        raw[0] = id.getType();
+        System.arraycopy(id.getData(), 0, raw, 1, id.getData().length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    static UUID customerId(BsonBinary id) {
+        return CustomerWishlistReadingConverter.uuid(new Binary(id.getType(), id.getData()));
+    }
+
+    static BsonBinary fromCursor(String cursor) {
+        byte[] raw = Base64.getUrlDecoder().decode(cursor);
+        if (raw.length != UUID_BYTES + 1) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        return new BsonBinary(raw[0], Arrays.copyOfRange(raw, 1, raw.length));
+    }
+
+    Document wishlistItemProjection(UUID productId) {
+        Document projection = new Document();
+        readLayouts.forEach(readLayout -> projection.putAll(
+                WishlistUpdates.of(readLayout).wishlistItemProjection(uuid(readLayout, productId))));
+        return projection;
+    }
+
+    Document summaryProjection() {
+        Document projection = new Document();
+        readLayouts.forEach(readLayout -> projection.putAll(WishlistUpdates.of(readLayout).summaryProjection()));
+        return projection;
+    }
+
+    Document wishlistPageProjection(WishlistItemsQuery query) {
+        Document projection = new Document();
+        readLayouts.forEach(readLayout -> projection.putAll(WishlistUpdates.of(readLayout).wishlistPageProjection(query)));
+        return projection;
+    }
+
+    /**
+     * Produtos de {@code requested} presentes no documento anterior à remoção, ou seja, os que foram removidos.
+     */
+    static Set<UUID> removedProductIds(CustomerWishlistEntity before, Collection<UUID> requested) {
+        if (before.getWishlist() == null) {
+            return Set.of();
+        }
+        return before.getWishlist().stream()
+                .map(ProductEntity::getProductId)
+                .filter(requested::contains)
+                .collect(Collectors.toSet());
+    }
+
+    List<?> productIds(Collection<UUID> productIds) {
+        return productIds.stream()
+                .map(this::id)
+                .toList();
+    }
+
+    List<?> products(List<ProductEntity> products) {
+        if (!isCompact()) {
+            return (List<?>) converter.convertToMongoType(products);
+        }
+        return products.stream()
+                .map(this::compactProduct)
+                .toList();
+    }
+
+    Object date(LocalDateTime dateTime) {
+        return converter.convertToMongoType(dateTime);
+    }
+
+    CustomerWishlistEntity read(Document document) {
+        return converter.read(CustomerWishlistEntity.class, document);
+    }
+
+    /**
+     * Regrava um documento (em qualquer formato) no formato compacto. Os agregados são recalculados quando ausentes
+     * e a data de criação é sempre preenchida, já que é ela que diferencia os documentos migrados.
+     */
+    Document toCompact(Document document) {
+        CustomerWishlistEntity customer = read(document);
+        WishlistLayout compact = WishlistLayout.COMPACT;
+        List<ProductEntity> wishlist = customer.getWishlist() != null ? customer.getWishlist() : List.of();
+        LocalDateTime dateCreation = customer.getDateCreation() != null ? customer.getDateCreation()
+                : customer.getDateUpdate() != null ? customer.getDateUpdate()
+                : LocalDateTime.now();
+
+        Document target = new Document(WishlistUpdates.ID, uuid(compact, customer.getCustomerId()))
+                .append(compact.wishlist, wishlist.stream().map(this::compactProduct).toList())
+                .append(compact.dateCreation, date(dateCreation))
+                .append(compact.itemCount, customer.getItemCount() != null ? customer.getItemCount() : wishlist.size())
+                .append(compact.totalPriceCents, customer.getTotalPriceCents() != null
+                        ? customer.getTotalPriceCents()
+                        : wishlist.stream().mapToLong(product -> product.getPrice() != null ? product.getPrice() : 0L).sum());
+        if (customer.getDateUpdate() != null) {
+            target.append(compact.dateUpdate, date(customer.getDateUpdate()));
+        }
+        if (customer.getVersion() != null) {
+            target.append(compact.version, customer.getVersion());
+        }
+        return target;
+    }
+
+    /**
+     * Campos nulos não são gravados; o preço fica em centavos como int64.
+     */
+    private Document compactProduct(ProductEntity product) {
+        WishlistLayout compact = WishlistLayout.COMPACT;
+        Document document = new Document(compact.productId, uuid(compact, product.getProductId()));
+        if (product.getName() != null) {
+            document.append(compact.name, product.getName());
+        }
+        if (product.getDescription() != null) {
+            document.append(compact.description, product.getDescription());
+        }
+        if (product.getPrice() != null) {
+            document.append(compact.price, product.getPrice().longValue());
+        }
+        if (product.getDateAdded() != null) {
+            document.append(compact.dateAdded, date(product.getDateAdded()));
+        }
+        return document;
+    }
+
+    /**
+     * No formato antigo o UUID é convertido pelo driver, como sempre foi. Com o formato compacto ativo o subtipo é
+     * explícito nos dois formatos, já que o driver passa a usar {@code uuid-representation: standard}.
+     */
+    private Object uuid(WishlistLayout target, UUID value) {
+        if (!isCompact()) {
+            return converter.convertToMongoType(value);
+        }
+        return new BsonBinary(value, target == WishlistLayout.COMPACT ? UuidRepresentation.STANDARD : UuidRepresentation.JAVA_LEGACY);
+    }
+}
@@ -0,0 +1,301 @@
+package com.wishlist.repository;
+
+import org.bson.Document;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Monta os filtros, projeções e updates usados nas mutações atômicas da coleção customer_wishlist, com os nomes de
+ * campo de um {@link WishlistLayout}. Os valores recebidos já devem estar convertidos para o formato do Mongo
+ * (ver {@link WishlistStorage}).
+ */
+final class WishlistUpdates {
+
+    static final String ID = "_id";
+
+    /**
+     * Projeção e ordenação só pelo {@code _id}.
+     */
+    static final Document ID_ASCENDING = new Document(ID, 1);
+
+    static final WishlistUpdates LEGACY = new WishlistUpdates(WishlistLayout.LEGACY);
+    static final WishlistUpdates COMPACT = new WishlistUpdates(WishlistLayout.COMPACT);
+
+    private static final String TO_ADD = "__toAdd";
+    private static final String ADDED = "__added";
+    private static final String REMOVED = "__removed";
+    private static final String ITEM = "item";
+
+    private final WishlistLayout layout;
+
+    private WishlistUpdates(WishlistLayout layout) {
+        this.layout = layout;
+    }
+
+    static WishlistUpdates of(WishlistLayout layout) {
+        return layout == WishlistLayout.COMPACT ? COMPACT : LEGACY;
+    }
+
+    /**
+     * Projeção que traz apenas o item da wishlist com o productId informado ({@code $elemMatch}).
+     */
+    Document wishlistItemProjection(Object productId) {
+        return new Document(layout.dateCreation, 1)
+                .append(layout.dateUpdate, 1)
+                .append(layout.version, 1)
+                .append(layout.wishlist, new Document("$elemMatch", new Document(layout.productId, productId)));
+    }
+
+    /**
+     * Projeção que traz apenas os productIds da wishlist ({@code wishlist.productId}).
+     */
+    Document productIdsProjection() {
+        return new Document(layout.wishlist + "." + layout.productId, 1);
+    }
+
+    /**
+     * Projeção sem a lista de produtos, apenas com os agregados e os validadores.
+     */
+    Document summaryProjection() {
+        return new Document(layout.itemCount, 1)
+                .append(layout.totalPriceCents, 1)
+                .append(layout.dateCreation, 1)
+                .append(layout.dateUpdate, 1)
+                .append(layout.version, 1);
+    }
+
+    /**
+     * Projeção com os agregados, os validadores e só a página de itens pedida: a lista é ordenada
+     * ({@code $reverseArray} ou {@code $sortArray}), recortada com {@code $slice} e reduzida aos campos pedidos com
+     * {@code $map}. Documentos sem a lista neste formato ficam sem o campo, para não esconder a lista do outro formato.
+     */
+    Document wishlistPageProjection(WishlistItemsQuery query) {
+        String items = "$" + layout.wishlist;
+        Object sorted = switch (query.getSort()) {
+            case ADDED -> query.isDescending() ? new Document("$reverseArray", items) : items;
+            case NAME, PRICE -> new Document("$sortArray", new Document("input", items)
+                    .append("sortBy", new Document(sortField(query.getSort()), query.isDescending() ? -1 : 1)));
+        };
+        Object page = query.getSize() == 0
+                ? List.of()
+                : new Document("$slice", List.of(sorted, query.skip(), query.getSize()));
+        if (!query.allFields()) {
+            Document fields = new Document();
+            query.getFields().forEach(field -> fields.append(field(field), "$$" + ITEM + "." + field(field)));
+            page = new Document("$map", new Document("input", page).append("as", ITEM).append("in", fields));
+        }
+        return summaryProjection().append(layout.wishlist,
+                new Document("$cond", List.of(new Document("$isArray", items), page, "$$REMOVE")));
+    }
+
+    String field(WishlistItemsQuery.ProductField field) {
+        return switch (field) {
+            case PRODUCT_ID -> layout.productId;
+            case NAME -> layout.name;
+            case DESCRIPTION -> layout.description;
+            case PRICE -> layout.price;
+        };
+    }
+
+    /**
+     * Campo do item usado na ordenação; nulo na ordem de inclusão, que é a ordem gravada.
+     */
+    String sortField(WishlistItemsQuery.SortField sort) {
+        return switch (sort) {
+            case ADDED -> null;
+            case NAME -> layout.name;
+            case PRICE -> layout.price;
+        };
+    }
+
+    static Document byId(Object customerId) {
+        return new Document(ID, customerId);
+    }
+
+    /**
+     * Clientes com o produto na wishlist, usando o índice {@link #productIndex()}.
+     */
+    Document containingProduct(Object productId) {
+        return new Document(layout.wishlist + "." + layout.productId, productId);
+    }
+
+    /**
+     * Índice multikey que atende {@link #containingProduct} já em ordem de {@code _id}, a ordem da paginação.
+     */
+    Document productIndex() {
+        return new Document(layout.wishlist + "." + layout.productId, 1).append(ID, 1);
+    }
+
+    Document byIdContainingAny(Object customerId, Collection<?> productIds) {
+        return new Document(ID, customerId)
+                .append(layout.wishlist + "." + layout.productId, new Document("$in", productIds));
+    }
+
+    /**
+     * Pipeline de update que concatena apenas os produtos que ainda não estão na lista e somente se o
+     * total resultante respeitar o limite. A decisão é tomada pelo servidor, então é segura sob concorrência.
+     * O limite é verificado contra {@code itemCount}, que é incrementado junto com {@code totalPriceCents}. Quando
+     * nada é adicionado todos os campos ficam como estavam (inclusive os agregados ausentes em documentos antigos), então
+     * a adição descartada não conta como documento alterado.
+     */
+    List<Document> addProducts(List<?> products, int maxItems, Object now) {
+        Document currentWishlist = new Document("$ifNull", List.of("$" + layout.wishlist, List.of()));
+        Document currentIds = new Document("$ifNull", List.of("$" + layout.wishlist + "." + layout.productId, List.of()));
+        Document currentCount = currentItemCount();
+        Document addedCount = new Document("$size", "$" + TO_ADD);
+
+        Document toAdd = new Document("$filter", new Document("input", new Document("$literal", products))
+                .append("cond", new Document("$not", List.of(new Document("$in", List.of("$$this." + layout.productId, currentIds))))));
+
+        Document added = new Document("$and", List.of(
+                new Document("$gt", List.of(addedCount, 0)),
+                new Document("$lte", List.of(new Document("$add", List.of(currentCount, addedCount)), maxItems))
+        ));
+
+        return List.of(
+                new Document("$set", new Document(TO_ADD, toAdd)),
+                new Document("$set", new Document(ADDED, added)),
+                new Document("$set", new Document(layout.wishlist, ifAdded(new Document("$concatArrays", List.of(currentWishlist, "$" + TO_ADD)), "$" + layout.wishlist))
+                        .append(layout.dateUpdate, ifAdded(now, "$" + layout.dateUpdate))
+                        .append(layout.version, ifAdded(new Document("$add", List.of(new Document("$ifNull", List.of("$" + layout.version, 0L)), 1L)), "$" + layout.version))
+                        .append(layout.itemCount, ifAdded(new Document("$add", List.of(currentCount, addedCount)), "$" + layout.itemCount))
+                        .append(layout.totalPriceCents, ifAdded(new Document("$add", List.of(currentTotalPrice(), sumOfPrices("$" + TO_ADD))), "$" + layout.totalPriceCents))
+                        .append(layout.dateCreation, ifAdded(new Document("$ifNull", List.of("$" + layout.dateCreation, now)), "$" + layout.dateCreation))),
+                new Document("$unset", List.of(TO_ADD, ADDED))
+        );
+    }
+
+    /**
+     * Pipeline de update que retira os produtos e desconta do {@code itemCount} e do {@code totalPriceCents} apenas
+     * os itens efetivamente removidos. Deve ser usado com {@link #byIdContainingAny}, que garante que há o que remover.
+     */
+    List<Document> removeProducts(Collection<?> productIds, Object now) {
+        Document inIds = new Document("$in", List.of("$$this." + layout.productId, List.copyOf(productIds)));
+        Document currentWishlist = new Document("$ifNull", List.of("$" + layout.wishlist, List.of()));
+
+        return List.of(
+                new Document("$set", new Document(REMOVED, new Document("$filter", new Document("input", currentWishlist).append("cond", inIds)))),
+                new Document("$set", new Document(layout.wishlist, new Document("$filter", new Document("input", currentWishlist)
+                                .append("cond", new Document("$not", List.of(inIds)))))
+                        .append(layout.itemCount, new Document("$subtract", List.of(currentItemCount(), new Document("$size", "$" + REMOVED))))
+                        .append(layout.totalPriceCents, new Document("$subtract", List.of(currentTotalPrice(), sumOfPrices("$" + REMOVED))))
+                        .append(layout.dateUpdate, now)
+                        .append(layout.version, new Document("$add", List.of(new Document("$ifNull", List.of("$" + layout.version, 0L)), 1L)))),
+                new Document("$unset", REMOVED)
+        );
+    }
+
+    /**
+     * Pipeline de update que troca nome, descrição e preço no item do produto (campos nulos são removidos do item)
+     * e, no mesmo update, recalcula {@code totalPriceCents} a partir dos preços da lista e incrementa a versão. Como
+     * é uma única escrita por documento, nenhum leitor vê a versão nova com o total antigo.
+     */
+    List<Document> productDetails(Object productId, String name, String description, Long price, Object now) {
+        Object item = "$$this";
+        item = setOrUnsetField(item, layout.name, name);
+        item = setOrUnsetField(item, layout.description, description);
+        item = setOrUnsetField(item, layout.price, price);
+        Document wishlist = new Document("$map", new Document("input", "$" + layout.wishlist)
+                .append("in", new Document("$cond", List.of(
+                        new Document("$eq", List.of("$$this." + layout.productId, productId)), item, "$$this"))));
+
+        return List.of(
+                new Document("$set", new Document(layout.wishlist, wishlist)),
+                new Document("$set", new Document(layout.totalPriceCents, sumOfPrices("$" + layout.wishlist))
+                        .append(layout.dateUpdate, now)
+                        .append(layout.version, new Document("$add", List.of(new Document("$ifNull", List.of("$" + layout.version, 0L)), 1L))))
+        );
+    }
+
+    /**
+     * Só a nova versão e a data de atualização, sem tocar nos itens; nos buckets o cabeçalho também tem os dois campos.
+     */
+    Document touch(Object now) {
+        return new Document("$set", new Document(layout.dateUpdate, now))
+                .append("$inc", new Document(layout.version, 1L));
+    }
+
+    /**
+     * Só a troca dos campos do item, sem os validadores do documento; usado nos buckets, que não os têm.
+     */
+    Document productItemDetails(String name, String description, Long price) {
+        Document set = new Document();
+        Document unset = new Document();
+        setOrUnset(set, unset, layout.name, name);
+        setOrUnset(set, unset, layout.description, description);
+        setOrUnset(set, unset, layout.price, price);
+        Document update = new Document();
+        if (!set.isEmpty()) {
+            update.append("$set", set);
+        }
+        if (!unset.isEmpty()) {
+            update.append("$unset", unset);
+        }
+        return update;
+    }
+
+    List<Document> productItemFilter(Object productId) {
+        return List.of(new Document(ITEM + "." + layout.productId, productId));
+    }
+
+    private void setOrUnset(Document set, Document unset, String field, Object value) {
+        String path = layout.wishlist + ".$[" + ITEM + "]." + field;
+        if (value != null) {
+            set.append(path, value);
+        } else {
+            unset.append(path, "");
+        }
+    }
+
+    private static Document setOrUnsetField(Object item, String field, Object value) {
+        if (value != null) {
+            return new Document("$setField", new Document("field", field).append("input", item)
+                    .append("value", new Document("$literal", value)));
+        }
+        return new Document("$unsetField", new Document("field", field).append("input", item));
+    }
+
+    /**
+     * Documentos no formato antigo. Todo documento compacto tem a data de criação (o upsert e o migrador sempre a
+     * preenchem), então a ausência do campo identifica os que ainda não foram migrados.
+     */
+    static Document legacyDocuments() {
+        return new Document(WishlistLayout.COMPACT.dateCreation, new Document("$exists", false));
+    }
+
+    /**
+     * Documentos no formato antigo gravados antes de {@code itemCount} existir; usar com {@link #LEGACY}.
+     */
+    static Document withoutAggregates() {
+        return legacyDocuments().append(WishlistLayout.LEGACY.itemCount, new Document("$exists", false));
+    }
+
+    /**
+     * Calcula os agregados de documentos gravados antes de {@code itemCount} e {@code totalPriceCents} existirem.
+     */
+    List<Document> backfillAggregates() {
+        return List.of(new Document("$set", new Document(layout.itemCount, currentItemCount())
+                .append(layout.totalPriceCents, currentTotalPrice())));
+    }
+
+    /**
+     * Documentos antigos, sem os agregados, usam os valores calculados a partir da lista.
+     */
+    private Document currentItemCount() {
+        return new Document("$ifNull", List.of("$" + layout.itemCount,
+                new Document("$size", new Document("$ifNull", List.of("$" + layout.wishlist, List.of())))));
+    }
+
+    private Document currentTotalPrice() {
+        return new Document("$ifNull", List.of("$" + layout.totalPriceCents, sumOfPrices("$" + layout.wishlist)));
+    }
+
+    private Document sumOfPrices(String arrayPath) {
+        return new Document("$toLong", new Document("$sum", arrayPath + "." + layout.price));
+    }
+
+    private Document ifAdded(Object then, Object otherwise) {
+        return new Document("$cond", List.of("$" + ADDED, then, otherwise));
+    }
+}
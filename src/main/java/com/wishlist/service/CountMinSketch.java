@@ -0,0 +1,94 @@
+package com.wishlist.service;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch de UUIDs com contadores atômicos, para atualizações concorrentes sem lock.
+ * <p>
+ * Cada produto soma em uma célula por linha e a estimativa é o menor valor entre elas. Enquanto nenhuma contagem
+ * real ficar negativa (só se remove o que foi adicionado), a estimativa nunca fica abaixo do valor real e, com
+ * probabilidade {@code 1 - delta}, fica no máximo {@code epsilon × total} acima dele. As funções de hash são fixas,
+ * então sketches de instâncias diferentes podem ser somados célula a célula.
+ */
+final class CountMinSketch {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray cells;
+
+    CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.depth = depth;
+        this.cells = new AtomicLongArray(width * depth);
+    }
+
+    static CountMinSketch forError(double epsilon, double delta) {
+        return new CountMinSketch((int) Math.ceil(Math.E / epsilon), (int) Math.ceil(Math.log(1 / delta)));
+    }
+
+    int width() {
+        return width;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    int size() {
+        return cells.length();
+    }
+
+    /**
+     * @return a estimativa do produto depois da soma
+     */
+    long add(UUID productId, long count) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells.addAndGet(cell(row, productId), count));
+        }
+        return estimate;
+    }
+
+    long estimate(UUID productId) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells.get(cell(row, productId)));
+        }
+        return estimate;
+    }
+
+    long get(int cell) {
+        return cells.get(cell);
+    }
+
+    void set(int cell, long value) {
+        cells.set(cell, value);
+    }
+
+    void add(int cell, long value) {
+        cells.addAndGet(cell, value);
+    }
+
+    long getAndReset(int cell) {
+        return cells.getAndSet(cell, 0L);
+    }
+
+    private int cell(int row, UUID productId) {
+        long seed = SEED * (row + 1);
+        long hash = mix(mix(productId.getMostSignificantBits() ^ seed) ^ productId.getLeastSignificantBits());
+        return row * width + Math.floorMod(hash, width);
+    }
+
+    /**
+     * Finalizador do SplitMix64: espalha todos os bits da entrada pela saída.
+     */
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,168 +1,287 @@
 package com.wishlist.service;
 
+import com.wishlist.config.WishlistProperties;
 import com.wishlist.domain.CustomerWishlistEntity;
 import com.wishlist.domain.ProductEntity;
-import com.wishlist.dto.CustomerWishlistDTO;
 import com.wishlist.dto.ProductDTO;
 import com.wishlist.dto.request.CustomerWishlistRequestDTO;
 import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.dto.response.MultiGetWishlistResponseDTO;
+import com.wishlist.dto.response.ProductBatchCheckResponseDTO;
 import com.wishlist.dto.response.ProductCheckResponseDTO;
+import com.wishlist.dto.response.ProductWisherResponseDTO;
+import com.wishlist.dto.response.WishlistSummaryResponseDTO;
 import com.wishlist.exception.CustomerNotFoundException;
+import com.wishlist.exception.InvalidCursorException;
+import com.wishlist.exception.InvalidWishlistQueryException;
 import com.wishlist.exception.NoItemsAddedException;
 import com.wishlist.exception.NoItemsDeletedException;
 import com.wishlist.exception.WishlistLimitExceededException;
 import com.wishlist.repository.CustomerWishlistRepository;
-import com.wishlist.utils.ProductUtils;
+import com.wishlist.repository.WishlistItemsQuery;
+import com.wishlist.repository.ProductWisher;
 import com.wishlist.utils.mapper.CustomerWishlistMapper;
 import com.wishlist.utils.mapper.ProductMapper;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "wishlist.service", histogram = true)
 public class CustomerWishListService {
 
     private final CustomerWishlistRepository repository;
     private final CustomerWishlistMapper mapperWishlist;
     private final ProductMapper productMapper;
+    private final WishlistProperties properties;
+    private final WishlistCache cache;
+    private final WishlistMetrics metrics;
+    private final ProductPopularity popularity;
+    private final ProductCatalog catalog;
 
     public CustomerWishlistResponseDTO getWishlist(UUID customerId) throws CustomerNotFoundException {
+        return getWishlist(customerId, version -> false).orElseThrow();
+    }
+
+    /**
+     * Busca a wishlist uma única vez e só monta a resposta quando {@code notModified} não aceitar a versão lida, então
+     * o ETag e o corpo sempre vêm do mesmo documento.
+     *
+     * @return vazio quando a wishlist não foi modificada
+     */
+    public Optional<CustomerWishlistResponseDTO> getWishlist(UUID customerId, Predicate<WishlistVersion> notModified)
+            throws CustomerNotFoundException {
         CustomerWishlistEntity customer = findCustomerById(customerId);
+        metrics.recordWishlistSize(customer);
+        if (notModified.test(WishlistVersion.of(customer))) {
+            return Optional.empty();
+        }
 
         log.debug("formatando resposta: {}", customer);
-        return mapperWishlist.toResponseDTO(customer);
+        return Optional.of(mapperWishlist.toResponseDTO(catalog.withDetails(customer)));
+    }
+
+    /**
+     * Página da wishlist só com os campos pedidos. A ordenação, o recorte e a projeção são feitos no Mongo, então só
+     * os itens da página são lidos, convertidos e mapeados. A página é montada em memória quando a wishlist completa
+     * já está em cache, no modo normalizado (detalhes e total vêm do catálogo) e em documentos ainda sem os agregados.
+     * Os validadores vêm na própria projeção da página, então {@code notModified} é verificado sem uma leitura a mais.
+     *
+     * @return vazio quando a wishlist não foi modificada
+     */
+    public Optional<CustomerWishlistResponseDTO> getWishlistPage(UUID customerId, Integer page, Integer size, String sort,
+                                                                 String fields, Predicate<WishlistVersion> notModified)
+            throws CustomerNotFoundException, InvalidWishlistQueryException {
+        WishlistItemsQuery query = WishlistPages.query(page, size, sort, fields, properties.getMaxItems());
+        CustomerWishlistEntity customer = null;
+        if (!catalog.isEnabled() && cache.getIfPresent(customerId).isEmpty()) {
+            customer = repository.findWishlistPage(customerId, query)
+                    .orElseThrow(() -> new CustomerNotFoundException(WishlistRules.CUSTOMER_NOT_FOUND_MESSAGE));
+        }
+        if (customer == null || !WishlistPages.hasAggregates(customer)) {
+            customer = WishlistPages.inMemory(catalog.withDetails(findCustomerById(customerId)), query);
+        }
+        if (notModified.test(WishlistVersion.of(customer))) {
+            return Optional.empty();
+        }
+        return Optional.of(mapperWishlist.toPageDTO(customer, query.getPage(), query.getSize(), !query.allFields()));
+    }
+
+    /**
+     * Quantidade de itens e total sem carregar a lista de produtos: usa a wishlist em cache quando houver e, caso
+     * contrário, uma projeção só com os agregados. Documentos ainda não migrados pelo backfill são lidos por inteiro,
+     * assim como todos no modo normalizado, em que o total vem dos preços atuais do catálogo.
+     */
+    public WishlistSummaryResponseDTO getWishlistSummary(UUID customerId) throws CustomerNotFoundException {
+        if (catalog.isEnabled()) {
+            return mapperWishlist.toSummaryDTO(catalog.withDetails(findCustomerById(customerId)));
+        }
+        Optional<CustomerWishlistEntity> cached = cache.getIfPresent(customerId);
+        CustomerWishlistEntity customer = (cached.isPresent() ? cached : repository.findSummary(customerId))
+                .orElseThrow(() -> new CustomerNotFoundException(WishlistRules.CUSTOMER_NOT_FOUND_MESSAGE));
+        if (cached.isEmpty() && (customer.getItemCount() == null || customer.getTotalPriceCents() == null)) {
+            customer = findCustomerById(customerId);
+        }
+        return mapperWishlist.toSummaryDTO(customer);
+    }
+
+    /**
+     * Busca as wishlists de vários clientes com uma query {@code $in} por lote, sem lançar exceção para os
+     * clientes inexistentes.
+     */
+    public MultiGetWishlistResponseDTO getWishlists(List<UUID> customerIds) {
+        List<UUID> distinctIds = customerIds.stream().distinct().toList();
+        int chunkSize = properties.getMultiGet().getChunkSize();
+
+        Map<UUID, CustomerWishlistEntity> customers = new HashMap<>(distinctIds.size());
+        for (int start = 0; start < distinctIds.size(); start += chunkSize) {
+            List<UUID> chunk = distinctIds.subList(start, Math.min(start + chunkSize, distinctIds.size()));
+            customers.putAll(repository.findByCustomerIdIn(chunk).stream()
+                    .collect(Collectors.toMap(CustomerWishlistEntity::getCustomerId, Function.identity())));
+        }
+
+        if (catalog.isEnabled()) {
+            customers = catalog.withDetails(List.copyOf(customers.values())).stream()
+                    .collect(Collectors.toMap(CustomerWishlistEntity::getCustomerId, Function.identity()));
+        }
+
+        List<CustomerWishlistResponseDTO> found = new ArrayList<>(customers.size());
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID customerId : distinctIds) {
+            CustomerWishlistEntity customer = customers.get(customerId);
+            if (customer == null) {
+                notFound.add(customerId);
+            } else {
+                found.add(mapperWishlist.toResponseDTO(customer));
+            }
+        }
+        log.debug("Busca em lote: {} encontrados, {} não encontrados", found.size(), notFound.size());
+        metrics.customerNotFound(notFound.size());
+        return MultiGetWishlistResponseDTO.builder()
+                .found(found)
+                .notFound(notFound)
+                .build();
     }
 
-    @Transactional
     public CustomerWishlistResponseDTO addItemsWishlist(CustomerWishlistRequestDTO wishlistDTO) throws NoItemsAddedException {
-        try {
-            CustomerWishlistEntity customer = findCustomerById(wishlistDTO.getCustomerId());
-            return addItemsToWishlist(customer, wishlistDTO.getWishlist());
-        } catch (CustomerNotFoundException e) {
-            return createNewWishlist(mapperWishlist.requestToDTO(wishlistDTO));
+        UUID customerId = wishlistDTO.getCustomerId();
+        List<ProductEntity> requested = WishlistRules.distinctByProductId(toEntities(wishlistDTO.getWishlist()));
+        if (WishlistRules.exceedsLimit(0, requested.size(), properties.getMaxItems())) {
+            throw new WishlistLimitExceededException(WishlistRules.limitExceededMessage(properties.getMaxItems()));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductEntity> stored = catalog.store(requested, now);
+        Optional<CustomerWishlistEntity> before = repository.addProducts(customerId, stored, properties.getMaxItems(), now);
+        cache.invalidate(customerId);
+        if (before.isEmpty()) {
+            return createNewWishlist(customerId, requested, now);
         }
+        return addItemsToWishlist(before.get(), requested, now);
     }
 
-    private CustomerWishlistResponseDTO createNewWishlist(CustomerWishlistDTO wishlistDTO) {
-        log.info("Criando nova wishlist para o cliente: {}", wishlistDTO.getCustomerId());
-        CustomerWishlistEntity newCustomer = mapperWishlist.toEntity(wishlistDTO);
-        newCustomer.setDateCreation(LocalDateTime.now());
-        return mapperWishlist.toResponseDTO(repository.save(newCustomer));
+    private CustomerWishlistResponseDTO createNewWishlist(UUID customerId, List<ProductEntity> products, LocalDateTime now) {
+        log.info("Criando nova wishlist para o cliente: {}", customerId);
+        CustomerWishlistEntity created = WishlistRules.newWishlist(customerId, products, now);
+        popularity.added(WishlistRules.productIds(products));
+        metrics.recordWishlistSize(created);
+        return mapperWishlist.toResponseDTO(catalog.withDetails(created));
     }
 
-    @Transactional
     public void deleteItemsFromWishlist(UUID customerId, List<UUID> productsToDelete) throws CustomerNotFoundException, NoItemsDeletedException {
         log.info("Removendo produtos da wishlist do cliente: {}", customerId);
-        CustomerWishlistEntity customer = findCustomerById(customerId);
-        removeProductsFromWishlist(customer, productsToDelete);
-        repository.save(customer);
+        validateDeletionRequest(productsToDelete);
+        Set<UUID> removed = repository.removeProducts(customerId, new HashSet<>(productsToDelete), LocalDateTime.now());
+        cache.invalidate(customerId);
+        if (removed.isEmpty()) {
+            throw noItemsDeleted(customerId);
+        }
+        popularity.removed(removed);
     }
 
-    @Transactional
     public CustomerWishlistResponseDTO deleteItemsFromWishlistWithResponse(UUID customerId, List<UUID> productsToDelete) throws CustomerNotFoundException, NoItemsDeletedException {
-        CustomerWishlistEntity customer = findCustomerById(customerId);
-        removeProductsFromWishlist(customer, productsToDelete);
-        return mapperWishlist.toResponseDTO(repository.save(customer));
+        validateDeletionRequest(productsToDelete);
+        Set<UUID> productIds = new HashSet<>(productsToDelete);
+        LocalDateTime now = LocalDateTime.now();
+        Optional<CustomerWishlistEntity> before = repository.removeProductsAndGetPrevious(customerId, productIds, now);
+        cache.invalidate(customerId);
+        if (before.isEmpty()) {
+            throw noItemsDeleted(customerId);
+        }
+        CustomerWishlistEntity customer = before.get();
+        popularity.removed(WishlistRules.productIds(WishlistRules.replayRemove(customer, productIds, now)));
+        log.debug("Produtos removidos da wishlist do cliente: {}", customerId);
+        metrics.recordWishlistSize(customer);
+        return mapperWishlist.toResponseDTO(catalog.withDetails(customer));
     }
 
-    private CustomerWishlistResponseDTO addItemsToWishlist(CustomerWishlistEntity customer, List<ProductDTO> wishlistDTO) throws NoItemsAddedException {
+    private CustomerWishlistResponseDTO addItemsToWishlist(CustomerWishlistEntity customer, List<ProductEntity> requested, LocalDateTime now) throws NoItemsAddedException {
         log.info("Adicionando novos produtos na Wishlist: {}", customer.getCustomerId());
-        if (customer.getWishlist() == null) {
-            customer.setWishlist(new ArrayList<>());
+        log.debug("Qtq itens na lista atual [{}], quantidade solicitada [{}]",
+                WishlistRules.itemCount(customer), requested.size());
+        List<ProductEntity> newItems = WishlistRules.newItems(customer.getWishlist() != null ? customer.getWishlist() : List.of(), requested);
+        CustomerWishlistEntity updated = WishlistRules.replayAdd(customer, requested, properties.getMaxItems(), now);
+        popularity.added(WishlistRules.productIds(newItems));
+        metrics.recordWishlistSize(updated);
+        return mapperWishlist.toResponseDTO(catalog.withDetails(updated));
+    }
+
+    private List<ProductEntity> toEntities(List<ProductDTO> products) {
+        if (products == null) {
+            return List.of();
         }
-        List<ProductEntity> currentWishlist = customer.getWishlist();
-        List<ProductEntity> newItems = wishlistDTO.stream()
-                .filter(productDTO -> !ProductUtils.isProductInList(currentWishlist, productDTO.getProductId()))
+        return products.stream()
                 .map(productMapper::toEntity)
                 .toList();
-        log.debug("Qtq itens na lista atual [{}], quantidade para ser adicionados [{}]", currentWishlist.size(), newItems.size());
-
-        if (newItems.isEmpty()) {
-            throw new NoItemsAddedException("Nenhum produto foi adicionado pois os itens selecionados já constam na sua Wishlist");
-        }
-        if (currentWishlist.size() + newItems.size() > 20) {
-            throw new WishlistLimitExceededException(
-                    "Não é possível adicionar mais itens. O limite máximo é de 20 itens na wishlist."
-            );
-        }
-
-        currentWishlist.addAll(newItems);
-        customer.setDateUpdate(LocalDateTime.now());
-        return mapperWishlist.toResponseDTO(repository.save(customer));
     }
 
     private CustomerWishlistEntity findCustomerById(UUID customerId) throws CustomerNotFoundException {
         log.debug("Buscando customer: {}", customerId);
-        return repository.findByCustomerId(customerId)
-                .orElseThrow(() -> new CustomerNotFoundException("Usuário não encontrado"));
+        return cache.get(customerId, repository::findByCustomerId)
+                .orElseThrow(() -> new CustomerNotFoundException(WishlistRules.CUSTOMER_NOT_FOUND_MESSAGE));
     }
 
-    private void removeProductsFromWishlist(CustomerWishlistEntity customer, List<UUID> productsToDelete) throws NoItemsDeletedException {
-        log.debug("Removendo produtos da wishlist do cliente: {}", customer.getCustomerId());
-        if (!isValidDeletionRequest(customer, productsToDelete)) {
-            throw new NoItemsDeletedException("Nenhum produto válido foi fornecido para remoção");
-        }
-
-        int originalSize = customer.getWishlist().size();
-        Set<UUID> productsToRemove = new HashSet<>(productsToDelete);
-        customer.getWishlist().removeIf(product -> productsToRemove.contains(product.getProductId()));
-
-        log.debug("Produtos removidos da wishlist do cliente: {}", customer.getCustomerId());
-
-        if (customer.getWishlist().size() == originalSize) {
-            throw new NoItemsDeletedException("Nenhum dos produtos fornecidos foi encontrado na wishlist");
+    private void validateDeletionRequest(List<UUID> productsToDelete) throws NoItemsDeletedException {
+        if (productsToDelete == null || productsToDelete.isEmpty()) {
+            throw new NoItemsDeletedException(WishlistRules.INVALID_DELETION_MESSAGE);
         }
-
-        customer.setDateUpdate(LocalDateTime.now());
     }
 
-    private boolean isValidDeletionRequest(CustomerWishlistEntity customer, List<UUID> productsToDelete) {
-        return customer.getWishlist() != null &&
-                productsToDelete != null &&
-                !productsToDelete.isEmpty();
+    /**
+     * Só é chamado quando o update não encontrou documento, para diferenciar cliente inexistente
+     * de produtos que não estavam na wishlist.
+     */
+    private NoItemsDeletedException noItemsDeleted(UUID customerId) throws CustomerNotFoundException {
+        if (!repository.existsByCustomerId(customerId)) {
+            throw new CustomerNotFoundException(WishlistRules.CUSTOMER_NOT_FOUND_MESSAGE);
+        }
+        return new NoItemsDeletedException(WishlistRules.NO_ITEMS_DELETED_MESSAGE);
     }
 
+    /**
+     * Usa a wishlist em cache quando houver; caso contrário consulta apenas o item procurado ({@code $elemMatch}),
+     * sem trazer o restante da wishlist. O documento parcial não é colocado em cache.
+     */
     public ProductCheckResponseDTO checkProductInWishlist(UUID customerId, UUID productId) throws CustomerNotFoundException {
-        CustomerWishlistEntity customer = findCustomerById(customerId);
-
-        ProductCheckResponseDTO.ProductDetailsDTO productDetails = null;
-        boolean inWishlist = false;
-
-        if (customer.getWishlist() != null) {
-            Optional<ProductEntity> productOpt = customer.getWishlist().stream()
-                    .filter(product -> product.getProductId().equals(productId))
-                    .findFirst();
-
-            if (productOpt.isPresent()) {
-                ProductEntity product = productOpt.get();
-                inWishlist = true;
+        log.debug("Buscando produto {} na wishlist do customer: {}", productId, customerId);
+        Optional<CustomerWishlistEntity> cached = cache.getIfPresent(customerId);
+        CustomerWishlistEntity customer = (cached.isPresent() ? cached : repository.findWishlistItem(customerId, productId))
+                .orElseThrow(() -> new CustomerNotFoundException(WishlistRules.CUSTOMER_NOT_FOUND_MESSAGE));
+        ProductEntity product = WishlistChecks.findProduct(customer, productId);
+        return WishlistChecks.toCheckResponse(customerId, productId, catalog.withDetails(product));
+    }
 
-                productDetails = ProductCheckResponseDTO.ProductDetailsDTO.builder()
-                        .name(product.getName())
-                        .description(product.getDescription())
-                        .price(product.getPrice())
-                        .build();
-            }
+    /**
+     * Clientes que têm o produto na wishlist, a partir do cursor, em ordem estável. As páginas de
+     * {@code wishlist.wishers.page-size} são buscadas conforme o Stream é consumido, então só uma fica em memória.
+     * A primeira é buscada já na chamada, para que um cursor inválido seja rejeitado antes do início da resposta.
+     */
+    public Stream<ProductWisherResponseDTO> streamWishers(UUID productId, String cursor) throws InvalidCursorException {
+        int pageSize = properties.getWishers().getPageSize();
+        List<ProductWisher> firstPage;
+        try {
+            firstPage = repository.findWishers(productId, cursor, pageSize);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(WishlistRules.INVALID_CURSOR_MESSAGE);
         }
-
-        return ProductCheckResponseDTO.builder()
-                .customerId(customerId)
-                .productId(productId)
-                .inWishlist(inWishlist)
-                .product(productDetails)
-                .build();
+        return Stream.iterate(firstPage, page -> !page.isEmpty(), page -> page.size() < pageSize
+                        ? List.of()
+                        : repository.findWishers(productId, page.get(page.size() - 1).getCursor(), pageSize))
+                .flatMap(List::stream)
+                .map(WishlistChecks::toWisherDTO);
     }
 
-
-
-
-
-
+    public ProductBatchCheckResponseDTO checkProductsInWishlist(UUID customerId, List<UUID> productIds) throws CustomerNotFoundException {
+        return WishlistChecks.checkProducts(customerId, catalog.withDetails(findCustomerById(customerId)), productIds);
+    }
 }
-
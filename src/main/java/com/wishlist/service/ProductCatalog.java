@@ -0,0 +1,218 @@
+package com.wishlist.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.repository.ProductCatalogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo de produtos do modo normalizado ({@code wishlist.catalog.enabled}): as wishlists guardam só o id e a data
+ * de inclusão de cada produto, e nome, descrição e preço ficam uma única vez na coleção product_catalog. Assim um
+ * produto popular não é copiado em cada wishlist, e os documentos e o cache de wishlists ficam bem menores.
+ * <p>
+ * Os detalhes são lidos de um cache em memória; os produtos ausentes são buscados em lotes com uma query
+ * {@code $in}, fora de qualquer lock do cache. Produtos que não estão no catálogo (como os de wishlists gravadas
+ * antes do modo normalizado) mantêm os detalhes guardados no próprio item. Com o modo desligado, todos os métodos
+ * devolvem os valores recebidos.
+ */
+@Slf4j
+@Component
+public class ProductCatalog {
+
+    /**
+     * Marca no cache os produtos que não estão no catálogo, para não consultá-los a cada leitura.
+     */
+    private static final ProductEntity MISSING = new ProductEntity();
+
+    private final ProductCatalogRepository repository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Cache<UUID, ProductEntity> cache;
+
+    public ProductCatalog(ProductCatalogRepository repository, WishlistProperties properties) {
+        WishlistProperties.Catalog config = properties.getCatalog();
+        this.repository = repository;
+        this.enabled = config.isEnabled();
+        this.batchSize = config.getBatchSize();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getExpireAfterWrite())
+                .build();
+        if (enabled) {
+            log.info("Catálogo de produtos habilitado (tamanho máximo {}, expiração {})",
+                    config.getMaximumSize(), config.getExpireAfterWrite());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Insere no catálogo os produtos que ainda não estão nele e devolve os itens como devem ser gravados na wishlist.
+     */
+    public List<ProductEntity> store(List<ProductEntity> products, LocalDateTime now) {
+        insertMissing(products);
+        return references(products, now);
+    }
+
+    /**
+     * Insere, em um único bulkWrite, os produtos que não estão no cache nem no catálogo. Os detalhes vêm do cliente,
+     * então não substituem os de um produto que já existe: alterações de nome, descrição e preço só entram por
+     * {@link #save}. Os produtos inseridos vão para o cache; os que já existiam saem dele, para que a próxima leitura
+     * traga os detalhes do catálogo.
+     */
+    public void insertMissing(Collection<ProductEntity> products) {
+        if (!enabled) {
+            return;
+        }
+        Map<UUID, ProductEntity> unknown = new LinkedHashMap<>();
+        for (ProductEntity product : products) {
+            ProductEntity cached = cache.getIfPresent(product.getProductId());
+            if (cached == null || cached == MISSING) {
+                unknown.putIfAbsent(product.getProductId(), details(product));
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+        Set<UUID> inserted = repository.insertMissing(List.copyOf(unknown.values()));
+        unknown.forEach((productId, details) -> {
+            if (inserted.contains(productId)) {
+                cache.put(productId, details);
+            } else {
+                cache.invalidate(productId);
+            }
+        });
+    }
+
+    /**
+     * Grava, em um único bulkWrite, os detalhes novos ou alterados em relação ao cache, substituindo os do catálogo.
+     * Usado pela atualização de produtos.
+     */
+    public void save(Collection<ProductEntity> products) {
+        if (!enabled) {
+            return;
+        }
+        Map<UUID, ProductEntity> changed = new LinkedHashMap<>();
+        for (ProductEntity product : products) {
+            ProductEntity details = details(product);
+            if (!details.equals(cache.getIfPresent(product.getProductId()))) {
+                changed.put(product.getProductId(), details);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        repository.saveAll(List.copyOf(changed.values()));
+        cache.putAll(changed);
+    }
+
+    /**
+     * Os itens como são gravados na wishlist no modo normalizado: só o id e a data de inclusão.
+     */
+    public List<ProductEntity> references(List<ProductEntity> products, LocalDateTime now) {
+        if (!enabled) {
+            return products;
+        }
+        return products.stream()
+                .map(product -> new ProductEntity(product.getProductId(), null, null, null, now))
+                .toList();
+    }
+
+    /**
+     * Cópia da wishlist com os detalhes do catálogo e o total recalculado a partir dos preços atuais. A entidade
+     * recebida não é alterada, já que pode estar no cache de wishlists.
+     */
+    public CustomerWishlistEntity withDetails(CustomerWishlistEntity customer) {
+        if (!enabled || customer == null) {
+            return customer;
+        }
+        return withDetails(List.of(customer)).get(0);
+    }
+
+    /**
+     * Mesma regra de {@link #withDetails(CustomerWishlistEntity)}, com uma única carga para os produtos de todas as
+     * wishlists.
+     */
+    public List<CustomerWishlistEntity> withDetails(List<CustomerWishlistEntity> customers) {
+        if (!enabled) {
+            return customers;
+        }
+        Set<UUID> productIds = customers.stream()
+                .filter(customer -> customer.getWishlist() != null)
+                .flatMap(customer -> customer.getWishlist().stream())
+                .map(ProductEntity::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, ProductEntity> details = cache.getAll(productIds, this::load);
+        return customers.stream()
+                .map(customer -> withDetails(customer, details))
+                .toList();
+    }
+
+    /**
+     * O item com os detalhes do catálogo, carregando só esse produto.
+     */
+    public ProductEntity withDetails(ProductEntity item) {
+        if (!enabled || item == null || item.getProductId() == null) {
+            return item;
+        }
+        return withDetails(item, cache.get(item.getProductId(), productId -> load(Set.of(productId)).get(productId)));
+    }
+
+    private Map<UUID, ProductEntity> load(Set<? extends UUID> productIds) {
+        List<UUID> pending = new ArrayList<>(productIds);
+        Map<UUID, ProductEntity> loaded = new HashMap<>(pending.size());
+        for (int start = 0; start < pending.size(); start += batchSize) {
+            repository.findByIds(pending.subList(start, Math.min(start + batchSize, pending.size())))
+                    .forEach(product -> loaded.put(product.getProductId(), product));
+        }
+        log.debug("{} produtos carregados do catálogo, {} ausentes", loaded.size(), pending.size() - loaded.size());
+        pending.forEach(productId -> loaded.putIfAbsent(productId, MISSING));
+        return loaded;
+    }
+
+    private static CustomerWishlistEntity withDetails(CustomerWishlistEntity customer, Map<UUID, ProductEntity> details) {
+        if (customer.getWishlist() == null) {
+            return customer;
+        }
+        List<ProductEntity> wishlist = customer.getWishlist().stream()
+                .map(item -> withDetails(item, details.get(item.getProductId())))
+                .toList();
+        return CustomerWishlistEntity.builder()
+                .customerId(customer.getCustomerId())
+                .wishlist(wishlist)
+                .dateCreation(customer.getDateCreation())
+                .dateUpdate(customer.getDateUpdate())
+                .version(customer.getVersion())
+                .itemCount(customer.getItemCount())
+                .totalPriceCents(wishlist.stream().mapToLong(product -> product.getPrice() != null ? product.getPrice() : 0L).sum())
+                .build();
+    }
+
+    private static ProductEntity withDetails(ProductEntity item, ProductEntity product) {
+        return product == null || product == MISSING ? item : new ProductEntity(item.getProductId(),
+                product.getName(), product.getDescription(), product.getPrice(), item.getDateAdded());
+    }
+
+    private static ProductEntity details(ProductEntity product) {
+        return new ProductEntity(product.getProductId(), product.getName(), product.getDescription(), product.getPrice());
+    }
+}
@@ -0,0 +1,124 @@
+package com.wishlist.service;
+
+import com.wishlist.domain.ProductEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Conjunto de productIds usado pelas regras da wishlist para saber, em tempo constante, se um produto já está na
+ * lista. Guarda cada UUID como o par de longs que o compõe, em endereçamento aberto com sondagem linear, sem criar
+ * um objeto por item como o {@link java.util.HashSet}. Não suporta remoção, já que é montado a cada operação.
+ */
+final class ProductIdSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] mostSignificant;
+    private long[] leastSignificant;
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private boolean containsNull;
+
+    ProductIdSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    static ProductIdSet of(List<ProductEntity> products) {
+        if (products == null) {
+            return new ProductIdSet(0);
+        }
+        ProductIdSet productIds = new ProductIdSet(products.size());
+        for (ProductEntity product : products) {
+            productIds.add(product.getProductId());
+        }
+        return productIds;
+    }
+
+    /**
+     * @return {@code true} se o productId ainda não estava no conjunto
+     */
+    boolean add(UUID productId) {
+        if (productId == null) {
+            boolean added = !containsNull;
+            containsNull = true;
+            return added;
+        }
+        long most = productId.getMostSignificantBits();
+        long least = productId.getLeastSignificantBits();
+        int slot = slot(most, least);
+        if (used[slot]) {
+            return false;
+        }
+        used[slot] = true;
+        mostSignificant[slot] = most;
+        leastSignificant[slot] = least;
+        if (++size > (mask + 1) * LOAD_FACTOR) {
+            grow();
+        }
+        return true;
+    }
+
+    boolean contains(UUID productId) {
+        if (productId == null) {
+            return containsNull;
+        }
+        return used[slot(productId.getMostSignificantBits(), productId.getLeastSignificantBits())];
+    }
+
+    int size() {
+        return containsNull ? size + 1 : size;
+    }
+
+    /**
+     * Posição do UUID na tabela: a que já o contém ou a primeira livre da sequência de sondagem.
+     */
+    private int slot(long most, long least) {
+        int slot = hash(most, least) & mask;
+        while (used[slot] && (mostSignificant[slot] != most || leastSignificant[slot] != least)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldMost = mostSignificant;
+        long[] oldLeast = leastSignificant;
+        boolean[] oldUsed = used;
+        allocate(oldUsed.length * 2);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slot(oldMost[i], oldLeast[i]);
+                used[slot] = true;
+                mostSignificant[slot] = oldMost[i];
+                leastSignificant[slot] = oldLeast[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        mostSignificant = new long[capacity];
+        leastSignificant = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 8;
+        while (capacity * LOAD_FACTOR < expectedSize + 1) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Mistura os 128 bits com o finalizador do MurmurHash3, já que os bits de versão e variante do UUID são fixos.
+     */
+    private static int hash(long most, long least) {
+        long h = most ^ Long.rotateLeft(least, 32);
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (h ^ (h >>> 33));
+    }
+}
@@ -0,0 +1,265 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.dto.response.PopularProductsResponseDTO;
+import com.wishlist.dto.response.PopularProductsResponseDTO.PopularProductDTO;
+import com.wishlist.repository.ProductPopularitySnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ranking aproximado dos produtos mais desejados, alimentado por toda adição e remoção bem-sucedida.
+ * <p>
+ * As contagens ficam em um {@link CountMinSketch}: a estimativa de um produto nunca fica abaixo do valor real e, com
+ * probabilidade {@code 1 - delta}, passa dele no máximo {@code epsilon × total de itens em wishlists} (com os valores
+ * padrão, 0,05% do total com 99,9% de confiança). Os candidatos ao ranking são os {@code 2 × top-k} produtos com
+ * maior estimativa vistos até agora; a leitura só reordena esses candidatos, sem ir ao banco.
+ * <p>
+ * As alterações também são acumuladas em um segundo sketch, zerado a cada gravação no Mongo
+ * ({@link ProductPopularityCheckpoint}), que as soma ao estado compartilhado com as demais instâncias. Entre duas
+ * gravações, cada instância enxerga o estado compartilhado da última gravação mais as suas próprias alterações.
+ */
+@Component
+public class ProductPopularity {
+
+    private final boolean enabled;
+    private final double epsilon;
+    private final double delta;
+    private final int topK;
+    private final CountMinSketch counts;
+    private final CountMinSketch pending;
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong pendingTotal = new AtomicLong();
+    private final Candidates candidates;
+
+    public ProductPopularity(WishlistProperties properties) {
+        WishlistProperties.Popularity popularity = properties.getPopularity();
+        this.enabled = popularity.isEnabled();
+        this.epsilon = popularity.getEpsilon();
+        this.delta = popularity.getDelta();
+        this.topK = popularity.getTopK();
+        this.counts = CountMinSketch.forError(epsilon, delta);
+        this.pending = new CountMinSketch(counts.width(), counts.depth());
+        this.candidates = new Candidates(candidateCapacity());
+    }
+
+    public void added(Collection<UUID> productIds) {
+        update(productIds, 1L);
+    }
+
+    public void removed(Collection<UUID> productIds) {
+        update(productIds, -1L);
+    }
+
+    public long estimate(UUID productId) {
+        return Math.max(0L, counts.estimate(productId));
+    }
+
+    public PopularProductsResponseDTO top(int limit) {
+        List<PopularProductDTO> products = topIds(limit).stream()
+                .map(productId -> new PopularProductDTO(productId, estimate(productId)))
+                .toList();
+        return PopularProductsResponseDTO.builder()
+                .totalWishes(total())
+                .errorBound(errorBound(total()))
+                .confidence(1 - delta)
+                .products(products)
+                .build();
+    }
+
+    List<UUID> topIds(int limit) {
+        return candidates.ids().stream()
+                .filter(productId -> estimate(productId) > 0)
+                .sorted(Comparator.comparingLong(this::estimate).reversed())
+                .limit(Math.max(0, Math.min(limit, topK)))
+                .toList();
+    }
+
+    int topK() {
+        return topK;
+    }
+
+    List<UUID> candidateIds() {
+        return candidates.ids();
+    }
+
+    int candidateCapacity() {
+        return 2 * topK;
+    }
+
+    long total() {
+        return Math.max(0L, total.get());
+    }
+
+    long errorBound(long totalWishes) {
+        return (long) Math.ceil(epsilon * totalWishes);
+    }
+
+    /**
+     * Retira as alterações acumuladas desde a última gravação. Se a gravação falhar, devolver com {@link #restore}.
+     */
+    Changes drainChanges() {
+        List<Integer> cells = new ArrayList<>();
+        List<Long> increments = new ArrayList<>();
+        for (int cell = 0; cell < pending.size(); cell++) {
+            long increment = pending.getAndReset(cell);
+            if (increment != 0) {
+                cells.add(cell);
+                increments.add(increment);
+            }
+        }
+        return new Changes(counts.width(), counts.depth(), cells.stream().mapToInt(Integer::intValue).toArray(),
+                increments.stream().mapToLong(Long::longValue).toArray(),
+                pendingTotal.getAndSet(0L),
+                candidates.ids());
+    }
+
+    void restore(Changes changes) {
+        for (int i = 0; i < changes.cells().length; i++) {
+            pending.add(changes.cells()[i], changes.increments()[i]);
+        }
+        pendingTotal.addAndGet(changes.total());
+    }
+
+    /**
+     * Passa a usar o estado compartilhado, mantendo por cima as alterações locais ainda não gravadas.
+     *
+     * @return {@code false} quando o estado tem outras dimensões e foi ignorado
+     */
+    boolean load(ProductPopularitySnapshot snapshot) {
+        if (snapshot.getWidth() != counts.width() || snapshot.getDepth() != counts.depth()) {
+            return false;
+        }
+        long[] stored = snapshot.getCounters();
+        for (int cell = 0; cell < counts.size(); cell++) {
+            counts.set(cell, stored[cell] + pending.get(cell));
+        }
+        total.set(snapshot.getTotal() + pendingTotal.get());
+        snapshot.getCandidates().forEach(productId -> candidates.offer(productId, counts.estimate(productId), counts::estimate));
+        candidates.refresh(counts::estimate);
+        return true;
+    }
+
+    /**
+     * Monta um estado novo a partir de todas as wishlists, descartando as contagens atuais.
+     */
+    Rebuild rebuild() {
+        drainChanges();
+        return new Rebuild(new CountMinSketch(counts.width(), counts.depth()), new Candidates(candidateCapacity()));
+    }
+
+    private void update(Collection<UUID> productIds, long count) {
+        if (!enabled || productIds.isEmpty()) {
+            return;
+        }
+        for (UUID productId : productIds) {
+            pending.add(productId, count);
+            candidates.offer(productId, counts.add(productId, count), counts::estimate);
+        }
+        total.addAndGet(count * productIds.size());
+        pendingTotal.addAndGet(count * productIds.size());
+    }
+
+    record Changes(int width, int depth, int[] cells, long[] increments, long total, List<UUID> candidates) {
+    }
+
+    /**
+     * Contagem feita fora do sketch em uso; {@link #snapshot()} gera o estado a ser gravado.
+     */
+    static final class Rebuild {
+
+        private final CountMinSketch sketch;
+        private final Candidates candidates;
+        private long total;
+
+        private Rebuild(CountMinSketch sketch, Candidates candidates) {
+            this.sketch = sketch;
+            this.candidates = candidates;
+        }
+
+        void add(UUID productId) {
+            candidates.offer(productId, sketch.add(productId, 1L), sketch::estimate);
+            total++;
+        }
+
+        ProductPopularitySnapshot snapshot() {
+            long[] counters = new long[sketch.size()];
+            for (int cell = 0; cell < counters.length; cell++) {
+                counters[cell] = sketch.get(cell);
+            }
+            return new ProductPopularitySnapshot(sketch.width(), sketch.depth(), counters, total, candidates.ids());
+        }
+    }
+
+    /**
+     * Produtos com as maiores estimativas, limitados a {@code capacity}. Um produto novo só entra no lugar do
+     * candidato mais fraco quando a sua estimativa é maior; o limite de entrada fica guardado para que a maioria
+     * das atualizações não precise do lock.
+     */
+    private static final class Candidates {
+
+        private final int capacity;
+        private final Map<UUID, Long> estimates = new ConcurrentHashMap<>();
+        private volatile long admission;
+
+        Candidates(int capacity) {
+            this.capacity = capacity;
+        }
+
+        List<UUID> ids() {
+            return List.copyOf(estimates.keySet());
+        }
+
+        void offer(UUID productId, long estimate, ToLongFunction<UUID> estimator) {
+            if (estimate <= 0) {
+                estimates.remove(productId);
+                return;
+            }
+            if (estimates.replace(productId, estimate) != null) {
+                return;
+            }
+            if (estimates.size() < capacity) {
+                estimates.put(productId, estimate);
+                return;
+            }
+            if (estimate <= admission) {
+                return;
+            }
+            synchronized (this) {
+                refresh(estimator);
+                Map.Entry<UUID, Long> weakest = weakest();
+                if (weakest == null || estimate > weakest.getValue()) {
+                    if (weakest != null && estimates.size() >= capacity) {
+                        estimates.remove(weakest.getKey());
+                    }
+                    estimates.put(productId, estimate);
+                }
+                Map.Entry<UUID, Long> newWeakest = weakest();
+                admission = newWeakest != null ? newWeakest.getValue() : 0L;
+            }
+        }
+
+        /**
+         * Atualiza as estimativas guardadas, que envelhecem quando outros produtos somam nas mesmas células.
+         */
+        synchronized void refresh(ToLongFunction<UUID> estimator) {
+            estimates.replaceAll((productId, estimate) -> estimator.applyAsLong(productId));
+            estimates.values().removeIf(estimate -> estimate <= 0);
+        }
+
+        private Map.Entry<UUID, Long> weakest() {
+            return estimates.entrySet().stream()
+                    .min(Map.Entry.comparingByValue())
+                    .orElse(null);
+        }
+    }
+}
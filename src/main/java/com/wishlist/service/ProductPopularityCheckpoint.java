@@ -0,0 +1,64 @@
+package com.wishlist.service;
+
+import com.wishlist.repository.ProductPopularityRepository;
+import com.wishlist.repository.ProductPopularitySnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Grava o ranking de produtos no Mongo a cada {@code wishlist.popularity.checkpoint-interval} e no encerramento, e o
+ * carrega na inicialização. Cada gravação soma as alterações desta instância ao estado compartilhado e traz de volta
+ * as das outras. Se o Mongo estiver indisponível, as alterações voltam para a fila e vão na próxima gravação.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "wishlist.popularity", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProductPopularityCheckpoint {
+
+    private final ProductPopularity popularity;
+    private final ProductPopularityRepository repository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            repository.find().ifPresent(this::apply);
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível carregar o ranking de produtos ({})", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${wishlist.popularity.checkpoint-interval:PT1M}",
+            initialDelayString = "${wishlist.popularity.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        ProductPopularity.Changes changes = popularity.drainChanges();
+        ProductPopularitySnapshot merged;
+        try {
+            merged = repository.merge(changes.width(), changes.depth(), changes.cells(), changes.increments(),
+                    changes.total(), changes.candidates());
+        } catch (RuntimeException e) {
+            popularity.restore(changes);
+            log.warn("Falha ao gravar o ranking de produtos, nova tentativa no próximo intervalo ({})", e.getMessage());
+            return;
+        }
+        apply(merged);
+        if (merged.getCandidates().size() > popularity.candidateCapacity()) {
+            repository.saveCandidates(popularity.candidateIds());
+        }
+        log.debug("Ranking de produtos gravado: {} células alteradas, {} itens em wishlists", changes.cells().length, merged.getTotal());
+    }
+
+    private void apply(ProductPopularitySnapshot snapshot) {
+        if (!popularity.load(snapshot)) {
+            log.warn("Ranking de produtos gravado com outras dimensões ({}x{}) ignorado", snapshot.getDepth(), snapshot.getWidth());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.dto.response.PopularProductsResponseDTO;
+import com.wishlist.dto.response.PopularityRecountResponseDTO;
+import com.wishlist.dto.response.PopularityRecountResponseDTO.ProductCountDTO;
+import com.wishlist.repository.CustomerWishlistRepository;
+import com.wishlist.repository.ProductPopularityRepository;
+import com.wishlist.repository.ProductPopularitySnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Confere o ranking aproximado contra a contagem exata no banco e, quando necessário, o reconstrói a partir de
+ * todas as wishlists. As duas operações percorrem a coleção inteira e devem rodar fora do horário de pico: a
+ * conferência pode ser agendada em {@code wishlist.popularity.recount-cron}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductPopularityRecount {
+
+    private final ProductPopularity popularity;
+    private final CustomerWishlistRepository repository;
+    private final ProductPopularityRepository popularityRepository;
+    private final WishlistProperties properties;
+
+    /**
+     * Compara os {@code top-k} produtos exatos e os estimados. Uma estimativa fora do limite (abaixo do valor exato ou
+     * acima dele mais que {@code epsilon × total}) é registrada como aviso.
+     */
+    public PopularityRecountResponseDTO recount() {
+        int topK = popularity.topK();
+        Map<UUID, Long> exact = new HashMap<>(repository.topWishedProducts(topK));
+        List<UUID> estimatedTop = popularity.topIds(topK);
+        Set<UUID> missing = new HashSet<>(estimatedTop);
+        missing.removeAll(exact.keySet());
+        exact.putAll(repository.countWishesByProduct(missing));
+        long totalWishes = repository.countWishes();
+        long errorBound = popularity.errorBound(totalWishes);
+
+        List<ProductCountDTO> products = Stream.concat(exact.keySet().stream(), estimatedTop.stream())
+                .distinct()
+                .map(productId -> new ProductCountDTO(productId, exact.getOrDefault(productId, 0L), popularity.estimate(productId)))
+                .sorted(Comparator.comparingLong(ProductCountDTO::getExactCount).reversed())
+                .toList();
+        long maxError = products.stream()
+                .mapToLong(product -> Math.abs(product.getEstimatedCount() - product.getExactCount()))
+                .max()
+                .orElse(0L);
+        boolean withinBound = products.stream().allMatch(product -> product.getEstimatedCount() >= product.getExactCount()
+                && product.getEstimatedCount() - product.getExactCount() <= errorBound);
+        List<UUID> exactTop = products.stream()
+                .filter(product -> product.getExactCount() > 0)
+                .limit(topK)
+                .map(ProductCountDTO::getProductId)
+                .toList();
+        double recall = exactTop.isEmpty() ? 1.0
+                : (double) exactTop.stream().filter(estimatedTop::contains).count() / exactTop.size();
+
+        if (withinBound) {
+            log.info("Ranking de produtos conferido: erro máximo {} (limite {}), recall {}", maxError, errorBound, recall);
+        } else {
+            log.warn("Ranking de produtos fora do limite de erro: erro máximo {} (limite {}), recall {}", maxError, errorBound, recall);
+        }
+        return PopularityRecountResponseDTO.builder()
+                .totalWishes(totalWishes)
+                .estimatedTotalWishes(popularity.total())
+                .errorBound(errorBound)
+                .maxError(maxError)
+                .withinBound(withinBound)
+                .recall(recall)
+                .products(products)
+                .build();
+    }
+
+    /**
+     * Recria o estado do ranking contando todas as wishlists e substitui o estado gravado no Mongo. As alterações
+     * feitas pelas outras instâncias durante a contagem e ainda não gravadas se perdem, por isso a reconstrução é
+     * indicada apenas quando a conferência aponta estimativas fora do limite.
+     */
+    public PopularProductsResponseDTO rebuild() {
+        log.info("Reconstruindo o ranking de produtos a partir das wishlists");
+        ProductPopularity.Rebuild rebuild = popularity.rebuild();
+        try (Stream<CustomerWishlistEntity> customers = repository.streamAll(null, properties.getExport().getBatchSize())) {
+            customers.filter(customer -> customer.getWishlist() != null)
+                    .flatMap(customer -> customer.getWishlist().stream())
+                    .map(ProductEntity::getProductId)
+                    .forEach(rebuild::add);
+        }
+        ProductPopularitySnapshot snapshot = rebuild.snapshot();
+        popularityRepository.replace(snapshot);
+        popularity.load(snapshot);
+        log.info("Ranking de produtos reconstruído com {} itens em wishlists", snapshot.getTotal());
+        return popularity.top(popularity.topK());
+    }
+
+    @Async
+    public CompletableFuture<PopularityRecountResponseDTO> recountAsync() {
+        return CompletableFuture.completedFuture(recount());
+    }
+
+    @Async
+    public CompletableFuture<PopularProductsResponseDTO> rebuildAsync() {
+        return CompletableFuture.completedFuture(rebuild());
+    }
+
+    @Scheduled(cron = "${wishlist.popularity.recount-cron:-}")
+    public void scheduledRecount() {
+        recount();
+    }
+}
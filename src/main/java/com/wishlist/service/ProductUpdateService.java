@@ -0,0 +1,141 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.dto.response.ProductUpdateResponseDTO;
+import com.wishlist.exception.ProductUpdateInProgressException;
+import com.wishlist.repository.CustomerWishlistRepository;
+import com.wishlist.repository.ProductDetailsUpdateResults;
+import com.wishlist.repository.ProductWisher;
+import com.wishlist.utils.mapper.ProductMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Propaga alterações de nome, descrição e preço dos produtos para as cópias guardadas em cada wishlist.
+ * <p>
+ * Os clientes com o produto são lidos em páginas de {@code wishlist.product-update.batch-size} pelo índice de
+ * produtos, e cada página é alterada no servidor com um único updateMany em pipeline, com pausa entre as páginas.
+ * No mesmo update as wishlists alteradas têm o total recalculado e a versão incrementada; elas saem do cache desta
+ * instância, e nas demais o cache expira em {@code wishlist.cache.expire-after-write}.
+ * <p>
+ * No modo normalizado ({@code wishlist.catalog.enabled}) os detalhes são trocados só no catálogo, já que as wishlists
+ * não os guardam; as wishlists com o produto são percorridas da mesma forma apenas para incrementar a versão, para
+ * que o ETag mude. Outras instâncias continuam montando as respostas com os detalhes antigos do seu cache de catálogo
+ * por até {@code wishlist.catalog.expire-after-write}: nessa janela um cliente pode receber o ETag novo com o preço
+ * antigo, e só volta a ver o preço novo quando o cache daquela instância expira.
+ * <p>
+ * No formato {@code bucketed} as wishlists reservadas por outra escrita além do prazo ficam com os detalhes antigos e
+ * são contadas em {@code skippedWishlists}; nesse caso a atualização deve ser reenviada.
+ * <p>
+ * Roda uma atualização por vez em cada instância; o andamento é consultado em {@link #progress()}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductUpdateService {
+
+    private static final String IN_PROGRESS_MESSAGE = "Já existe uma atualização de produtos em andamento";
+
+    private final CustomerWishlistRepository repository;
+    private final ProductMapper productMapper;
+    private final WishlistProperties properties;
+    private final WishlistCache cache;
+    private final ProductCatalog catalog;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger processedProducts = new AtomicInteger();
+    private final AtomicLong updatedWishlists = new AtomicLong();
+    private final AtomicLong skippedWishlists = new AtomicLong();
+    private volatile int totalProducts;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    @Async
+    public CompletableFuture<ProductUpdateResponseDTO> updateAsync(List<ProductDTO> products) {
+        return CompletableFuture.completedFuture(update(products));
+    }
+
+    /**
+     * @throws ProductUpdateInProgressException quando outra atualização ainda está em andamento
+     */
+    public ProductUpdateResponseDTO update(List<ProductDTO> products) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ProductUpdateInProgressException(IN_PROGRESS_MESSAGE);
+        }
+        totalProducts = products.size();
+        processedProducts.set(0);
+        updatedWishlists.set(0);
+        skippedWishlists.set(0);
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        log.info("Atualizando {} produtos nas wishlists", products.size());
+        try {
+            for (ProductDTO product : products) {
+                update(productMapper.toEntity(product));
+                processedProducts.incrementAndGet();
+            }
+            log.info("Atualização de produtos concluída: {} produtos, {} wishlists alteradas", products.size(), updatedWishlists.get());
+            if (skippedWishlists.get() > 0) {
+                log.warn("{} wishlists ficaram com os detalhes antigos por estarem reservadas; reenviar a atualização",
+                        skippedWishlists.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Atualização de produtos interrompida após {} produtos", processedProducts.get());
+        } finally {
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+        return progress();
+    }
+
+    public ProductUpdateResponseDTO progress() {
+        return ProductUpdateResponseDTO.builder()
+                .running(running.get())
+                .totalProducts(totalProducts)
+                .processedProducts(processedProducts.get())
+                .updatedWishlists(updatedWishlists.get())
+                .skippedWishlists(skippedWishlists.get())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+
+    private void update(ProductEntity product) throws InterruptedException {
+        catalog.save(List.of(product));
+        WishlistProperties.ProductUpdate config = properties.getProductUpdate();
+        String cursor = null;
+        List<ProductWisher> page;
+        do {
+            page = repository.findWishers(product.getProductId(), cursor, config.getBatchSize());
+            if (page.isEmpty()) {
+                break;
+            }
+            List<UUID> customerIds = page.stream().map(ProductWisher::getCustomerId).toList();
+            LocalDateTime now = LocalDateTime.now();
+            if (catalog.isEnabled()) {
+                updatedWishlists.addAndGet(repository.touchWishlists(customerIds, now));
+            } else {
+                ProductDetailsUpdateResults updated = repository.updateProductDetails(product, customerIds, now);
+                updatedWishlists.addAndGet(updated.getUpdated());
+                skippedWishlists.addAndGet(updated.getSkipped().size());
+            }
+            cache.invalidateAll(customerIds);
+            cursor = page.get(page.size() - 1).getCursor();
+            log.debug("Produto {}: {} wishlists alteradas até agora", product.getProductId(), updatedWishlists.get());
+            Thread.sleep(config.getPause().toMillis());
+        } while (page.size() == config.getBatchSize());
+    }
+}
@@ -0,0 +1,275 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.dto.request.CustomerWishlistRequestDTO;
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.dto.response.MultiGetWishlistResponseDTO;
+import com.wishlist.dto.response.ProductBatchCheckResponseDTO;
+import com.wishlist.dto.response.ProductCheckResponseDTO;
+import com.wishlist.dto.response.ProductWisherResponseDTO;
+import com.wishlist.dto.response.WishlistSummaryResponseDTO;
+import com.wishlist.exception.CustomerNotFoundException;
+import com.wishlist.exception.InvalidCursorException;
+import com.wishlist.exception.InvalidWishlistQueryException;
+import com.wishlist.exception.NoItemsDeletedException;
+import com.wishlist.exception.WishlistLimitExceededException;
+import com.wishlist.repository.ReactiveCustomerWishlistRepository;
+import com.wishlist.repository.WishlistItemsQuery;
+import com.wishlist.utils.mapper.CustomerWishlistMapper;
+import com.wishlist.utils.mapper.ProductMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Versão reativa de {@link CustomerWishListService}, ativa no profile {@code reactive}. Usa os mesmos updates
+ * atômicos e as mesmas regras ({@link WishlistRules}); os erros são sinalizados com as mesmas exceções, então o
+ * mapeamento de status do InternalExceptionHandler é mantido.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCustomerWishListService {
+
+    private final ReactiveCustomerWishlistRepository repository;
+    private final CustomerWishlistMapper mapperWishlist;
+    private final ProductMapper productMapper;
+    private final WishlistProperties properties;
+    private final WishlistMetrics metrics;
+    private final ProductPopularity popularity;
+    private final ProductCatalog catalog;
+
+    /**
+     * O formato {@code bucketed} reserva o cliente com espera bloqueante e só existe no repositório blocking.
+     */
+    @PostConstruct
+    void checkStorageLayout() {
+        if (properties.getStorage().getLayout() == WishlistProperties.StorageLayout.BUCKETED) {
+            throw new IllegalStateException("wishlist.storage.layout=bucketed não é suportado no profile reactive");
+        }
+    }
+
+    /**
+     * Busca a wishlist e só monta a resposta quando {@code notModified} não aceitar a versão atual.
+     *
+     * @return vazio quando a wishlist não foi modificada
+     */
+    public Mono<CustomerWishlistResponseDTO> getWishlist(UUID customerId, Predicate<WishlistVersion> notModified) {
+        return findCustomerById(customerId)
+                .doOnNext(metrics::recordWishlistSize)
+                .filter(customer -> !notModified.test(WishlistVersion.of(customer)))
+                .flatMap(this::withDetails)
+                .map(mapperWishlist::toResponseDTO);
+    }
+
+    /**
+     * Mesma regra de {@link CustomerWishListService#getWishlistPage}; os validadores vêm na própria projeção da
+     * página, então {@code notModified} é verificado sem uma leitura a mais.
+     *
+     * @return vazio quando a wishlist não foi modificada
+     */
+    public Mono<CustomerWishlistResponseDTO> getWishlistPage(UUID customerId, Integer page, Integer size, String sort, String fields,
+                                                             Predicate<WishlistVersion> notModified) {
+        WishlistItemsQuery query;
+        try {
+            query = WishlistPages.query(page, size, sort, fields, properties.getMaxItems());
+        } catch (InvalidWishlistQueryException e) {
+            return Mono.error(e);
+        }
+        Mono<CustomerWishlistEntity> inMemory = findCustomerById(customerId)
+                .flatMap(this::withDetails)
+                .map(customer -> WishlistPages.inMemory(customer, query));
+        Mono<CustomerWishlistEntity> customer = catalog.isEnabled()
+                ? inMemory
+                : repository.findWishlistPage(customerId, query)
+                        .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException(WishlistRules.CUSTOMER_NOT_FOUND_MESSAGE)))
+                        .flatMap(found -> WishlistPages.hasAggregates(found) ? Mono.just(found) : inMemory);
+        return customer
+                .filter(found -> !notModified.test(WishlistVersion.of(found)))
+                .map(found -> mapperWishlist.toPageDTO(found, query.getPage(), query.getSize(), !query.allFields()));
+    }
+
+    /**
+     * @see CustomerWishListService#getWishlistSummary
+     */
+    public Mono<WishlistSummaryResponseDTO> getWishlistSummary(UUID customerId) {
+        if (catalog.isEnabled()) {
+            return findCustomerById(customerId)
+                    .flatMap(this::withDetails)
+                    .map(mapperWishlist::toSummaryDTO);
+        }
+        return repository.findSummary(customerId)
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException(WishlistRules.CUSTOMER_NOT_FOUND_MESSAGE)))
+                .flatMap(customer -> customer.getItemCount() != null && customer.getTotalPriceCents() != null
+                        ? Mono.just(customer)
+                        : findCustomerById(customerId))
+                .map(mapperWishlist::toSummaryDTO);
+    }
+
+    public Mono<MultiGetWishlistResponseDTO> getWishlists(List<UUID> customerIds) {
+        List<UUID> distinctIds = customerIds.stream().distinct().toList();
+        return Flux.fromIterable(distinctIds)
+                .buffer(properties.getMultiGet().getChunkSize())
+                .concatMap(repository::findByCustomerIdIn)
+                .collectList()
+                .flatMap(customers -> onCatalog(() -> catalog.withDetails(customers)))
+                .map(customers -> customers.stream()
+                        .collect(Collectors.toMap(CustomerWishlistEntity::getCustomerId, Function.identity(), (first, last) -> last)))
+                .map(customers -> {
+                    List<CustomerWishlistResponseDTO> found = new ArrayList<>(customers.size());
+                    List<UUID> notFound = new ArrayList<>();
+                    for (UUID customerId : distinctIds) {
+                        CustomerWishlistEntity customer = customers.get(customerId);
+                        if (customer == null) {
+                            notFound.add(customerId);
+                        } else {
+                            found.add(mapperWishlist.toResponseDTO(customer));
+                        }
+                    }
+                    metrics.customerNotFound(notFound.size());
+                    return MultiGetWishlistResponseDTO.builder()
+                            .found(found)
+                            .notFound(notFound)
+                            .build();
+                });
+    }
+
+    public Mono<CustomerWishlistResponseDTO> addItemsWishlist(CustomerWishlistRequestDTO wishlistDTO) {
+        UUID customerId = wishlistDTO.getCustomerId();
+        List<ProductEntity> requested = WishlistRules.distinctByProductId(toEntities(wishlistDTO.getWishlist()));
+        if (WishlistRules.exceedsLimit(0, requested.size(), properties.getMaxItems())) {
+            return Mono.error(new WishlistLimitExceededException(WishlistRules.limitExceededMessage(properties.getMaxItems())));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return onCatalog(() -> catalog.store(requested, now))
+                .flatMap(stored -> repository.addProducts(customerId, stored, properties.getMaxItems(), now))
+                .flatMap(before -> Mono.fromCallable(() -> {
+                    List<ProductEntity> newItems = WishlistRules.newItems(before.getWishlist() != null ? before.getWishlist() : List.of(), requested);
+                    CustomerWishlistEntity updated = WishlistRules.replayAdd(before, requested, properties.getMaxItems(), now);
+                    popularity.added(WishlistRules.productIds(newItems));
+                    return updated;
+                }))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.info("Criando nova wishlist para o cliente: {}", customerId);
+                    popularity.added(WishlistRules.productIds(requested));
+                    return WishlistRules.newWishlist(customerId, requested, now);
+                }))
+                .doOnNext(metrics::recordWishlistSize)
+                .flatMap(this::withDetails)
+                .map(mapperWishlist::toResponseDTO);
+    }
+
+    public Mono<Void> deleteItemsFromWishlist(UUID customerId, List<UUID> productsToDelete) {
+        log.info("Removendo produtos da wishlist do cliente: {}", customerId);
+        return validateDeletionRequest(productsToDelete)
+                .then(Mono.defer(() -> repository.removeProducts(customerId, new HashSet<>(productsToDelete), LocalDateTime.now())))
+                .flatMap(removed -> removed.isEmpty()
+                        ? noItemsDeleted(customerId)
+                        : Mono.<Void>fromRunnable(() -> popularity.removed(removed)));
+    }
+
+    public Mono<CustomerWishlistResponseDTO> deleteItemsFromWishlistWithResponse(UUID customerId, List<UUID> productsToDelete) {
+        LocalDateTime now = LocalDateTime.now();
+        return validateDeletionRequest(productsToDelete)
+                .then(Mono.defer(() -> repository.removeProductsAndGetPrevious(customerId, new HashSet<>(productsToDelete), now)))
+                .switchIfEmpty(Mono.defer(() -> noItemsDeleted(customerId)))
+                .map(before -> {
+                    List<ProductEntity> removed = WishlistRules.replayRemove(before, new HashSet<>(productsToDelete), now);
+                    popularity.removed(WishlistRules.productIds(removed));
+                    return before;
+                })
+                .doOnNext(metrics::recordWishlistSize)
+                .flatMap(this::withDetails)
+                .map(mapperWishlist::toResponseDTO);
+    }
+
+    public Mono<ProductCheckResponseDTO> checkProductInWishlist(UUID customerId, UUID productId) {
+        return repository.findWishlistItem(customerId, productId)
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException(WishlistRules.CUSTOMER_NOT_FOUND_MESSAGE)))
+                .flatMap(this::withDetails)
+                .map(customer -> WishlistChecks.checkProduct(customerId, customer, productId));
+    }
+
+    /**
+     * @see CustomerWishListService#streamWishers
+     */
+    public Flux<ProductWisherResponseDTO> getWishers(UUID productId, String cursor) {
+        int pageSize = properties.getWishers().getPageSize();
+        return repository.findWishers(productId, cursor, pageSize)
+                .onErrorMap(IllegalArgumentException.class, e -> new InvalidCursorException(WishlistRules.INVALID_CURSOR_MESSAGE))
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty()
+                        : repository.findWishers(productId, page.get(page.size() - 1).getCursor(), pageSize))
+                .flatMapIterable(Function.identity())
+                .map(WishlistChecks::toWisherDTO);
+    }
+
+    public Mono<ProductBatchCheckResponseDTO> checkProductsInWishlist(UUID customerId, List<UUID> productIds) {
+        return findCustomerById(customerId)
+                .flatMap(this::withDetails)
+                .map(customer -> WishlistChecks.checkProducts(customerId, customer, productIds));
+    }
+
+    private List<ProductEntity> toEntities(List<ProductDTO> products) {
+        if (products == null) {
+            return List.of();
+        }
+        return products.stream()
+                .map(productMapper::toEntity)
+                .toList();
+    }
+
+    private Mono<CustomerWishlistEntity> withDetails(CustomerWishlistEntity customer) {
+        return onCatalog(() -> catalog.withDetails(customer));
+    }
+
+    /**
+     * O catálogo usa o MongoTemplate bloqueante (na carga do cache e na gravação dos produtos), então, com o modo
+     * normalizado ligado, as chamadas rodam no scheduler boundedElastic.
+     */
+    private <T> Mono<T> onCatalog(Callable<T> call) {
+        Mono<T> result = Mono.fromCallable(call);
+        return catalog.isEnabled() ? result.subscribeOn(Schedulers.boundedElastic()) : result;
+    }
+
+    private Mono<CustomerWishlistEntity> findCustomerById(UUID customerId) {
+        log.debug("Buscando customer: {}", customerId);
+        return repository.findByCustomerId(customerId)
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException(WishlistRules.CUSTOMER_NOT_FOUND_MESSAGE)));
+    }
+
+    private Mono<Void> validateDeletionRequest(List<UUID> productsToDelete) {
+        if (productsToDelete == null || productsToDelete.isEmpty()) {
+            return Mono.error(new NoItemsDeletedException(WishlistRules.INVALID_DELETION_MESSAGE));
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * Só é chamado quando o update não encontrou documento, para diferenciar cliente inexistente
+     * de produtos que não estavam na wishlist.
+     */
+    private <T> Mono<T> noItemsDeleted(UUID customerId) {
+        return repository.existsByCustomerId(customerId)
+                .flatMap(exists -> Mono.error(exists
+                        ? new NoItemsDeletedException(WishlistRules.NO_ITEMS_DELETED_MESSAGE)
+                        : new CustomerNotFoundException(WishlistRules.CUSTOMER_NOT_FOUND_MESSAGE)));
+    }
+}
@@ -0,0 +1,32 @@
+package com.wishlist.service;
+
+import com.wishlist.repository.CustomerWishlistRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migração única dos documentos gravados antes de {@code itemCount} e {@code totalPriceCents} existirem. Roda na
+ * inicialização quando {@code wishlist.backfill.aggregates=true}; o cálculo é feito no servidor e só atinge documentos
+ * sem os campos, então pode ser repetida sem efeito.
+ * <p>
+ * Até a migração, leituras e updates tratam a ausência dos campos calculando os valores a partir da lista.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "wishlist.backfill", name = "aggregates", havingValue = "true")
+public class WishlistAggregatesBackfill implements ApplicationRunner {
+
+    private final CustomerWishlistRepository repository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Preenchendo itemCount e totalPriceCents das wishlists antigas");
+        long updated = repository.backfillAggregates();
+        log.info("Backfill dos agregados concluído: {} wishlists atualizadas", updated);
+    }
+}
@@ -0,0 +1,331 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.dto.request.BulkWishlistOperationDTO;
+import com.wishlist.dto.request.BulkWishlistRequestDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO.OperationResultDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO.Status;
+import com.wishlist.repository.CustomerWishlistRepository;
+import com.wishlist.repository.WishlistMutation;
+import com.wishlist.repository.WishlistMutationResults;
+import com.wishlist.utils.mapper.ProductMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica operações de vários clientes em lotes: uma consulta {@code $in} para ler o estado atual do lote
+ * e um bulkWrite não ordenado para gravar. O resultado de cada operação é calculado com as mesmas regras
+ * de {@link CustomerWishListService} sobre o estado lido; o update enviado reaplica as regras no servidor,
+ * então o limite e a ausência de duplicados continuam garantidos mesmo com escritas concorrentes. Quando o
+ * servidor aplica menos operações do que o planejado, o lote é lido de novo e o resultado de cada operação é corrigido
+ * pelo documento do seu cliente.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Timed(value = "wishlist.service", histogram = true)
+public class WishlistBulkService {
+
+    private static final String WRITE_FAILED_MESSAGE = "Falha ao gravar a operação, tente novamente";
+    private static final String UNKNOWN_MESSAGE = "Não foi possível confirmar se a operação foi aplicada; consulte a wishlist antes de repetir";
+
+    private final CustomerWishlistRepository repository;
+    private final ProductMapper productMapper;
+    private final WishlistProperties properties;
+    private final WishlistCache cache;
+    private final WishlistMetrics metrics;
+    private final ProductPopularity popularity;
+    private final ProductCatalog catalog;
+
+    public BulkWishlistResponseDTO applyOperations(BulkWishlistRequestDTO request) {
+        List<BulkWishlistOperationDTO> operations = request.getOperations();
+        log.info("Aplicando {} operações em lote", operations.size());
+
+        List<OperationResultDTO> results = new ArrayList<>(operations.size());
+        for (List<BulkWishlistOperationDTO> chunk : chunks(operations, properties.getBulk().getChunkSize())) {
+            results.addAll(applyChunk(chunk));
+        }
+
+        results.forEach(result -> recordRejection(result.getStatus()));
+        int succeeded = (int) results.stream().filter(result -> result.getStatus().isSuccess()).count();
+        return BulkWishlistResponseDTO.builder()
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Quebra as operações em lotes de no máximo {@code chunkSize}, abrindo um novo lote sempre que um cliente
+     * se repete, para que as operações do mesmo cliente sejam aplicadas na ordem recebida.
+     */
+    private List<List<BulkWishlistOperationDTO>> chunks(List<BulkWishlistOperationDTO> operations, int chunkSize) {
+        List<List<BulkWishlistOperationDTO>> chunks = new ArrayList<>();
+        List<BulkWishlistOperationDTO> current = new ArrayList<>();
+        Set<UUID> customersInChunk = new HashSet<>();
+        for (BulkWishlistOperationDTO operation : operations) {
+            if (current.size() == chunkSize || !customersInChunk.add(operation.getCustomerId())) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                customersInChunk = new HashSet<>();
+                customersInChunk.add(operation.getCustomerId());
+            }
+            current.add(operation);
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private List<OperationResultDTO> applyChunk(List<BulkWishlistOperationDTO> chunk) {
+        Set<UUID> customerIds = chunk.stream()
+                .map(BulkWishlistOperationDTO::getCustomerId)
+                .collect(Collectors.toSet());
+        Map<UUID, CustomerWishlistEntity> customers = repository.findByCustomerIdIn(customerIds).stream()
+                .collect(Collectors.toMap(CustomerWishlistEntity::getCustomerId, Function.identity()));
+
+        List<OperationResultDTO> results = new ArrayList<>(chunk.size());
+        List<WishlistMutation> mutations = new ArrayList<>();
+        List<OperationResultDTO> mutationResults = new ArrayList<>();
+        for (BulkWishlistOperationDTO operation : chunk) {
+            CustomerWishlistEntity customer = customers.get(operation.getCustomerId());
+            int pendingMutations = mutations.size();
+            OperationResultDTO result = operation.getType() == BulkWishlistOperationDTO.OperationType.ADD
+                    ? planAdd(operation, customer, mutations)
+                    : planRemove(operation, customer, mutations);
+            results.add(result);
+            if (mutations.size() > pendingMutations) {
+                mutationResults.add(result);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        WishlistMutationResults written = repository.applyMutations(stored(mutations, now), properties.getMaxItems(), now);
+        cache.invalidateAll(mutations.stream().map(WishlistMutation::getCustomerId).toList());
+        List<List<UUID>> changed = new ArrayList<>(mutations.size());
+        for (WishlistMutation mutation : mutations) {
+            changed.add(planned(mutation, customers.get(mutation.getCustomerId())));
+        }
+        if (!written.allApplied(mutations.size())) {
+            reconcile(mutations, mutationResults, changed, customers, written, now);
+        }
+        for (int i = 0; i < mutations.size(); i++) {
+            if (written.getFailed().contains(i)) {
+                OperationResultDTO result = mutationResults.get(i);
+                result.setStatus(Status.WRITE_FAILED);
+                result.setMessage(WRITE_FAILED_MESSAGE);
+            } else {
+                recordPopularity(mutations.get(i), changed.get(i));
+            }
+        }
+        log.debug("Lote com {} operações aplicado: {} gravações, {} aplicadas, {} falhas", chunk.size(), mutations.size(),
+                written.getApplied(), written.getFailed().size());
+        return results;
+    }
+
+    private OperationResultDTO planAdd(BulkWishlistOperationDTO operation, CustomerWishlistEntity customer, List<WishlistMutation> mutations) {
+        List<ProductEntity> requested = WishlistRules.distinctByProductId(toEntities(operation.getProducts()));
+        if (WishlistRules.exceedsLimit(0, requested.size(), properties.getMaxItems())) {
+            return result(operation, Status.LIMIT_EXCEEDED, WishlistRules.limitExceededMessage(properties.getMaxItems()));
+        }
+        if (customer == null) {
+            mutations.add(WishlistMutation.add(operation.getCustomerId(), requested));
+            return result(operation, Status.CREATED, null);
+        }
+
+        List<ProductEntity> currentWishlist = customer.getWishlist() != null ? customer.getWishlist() : List.of();
+        List<ProductEntity> newItems = WishlistRules.newItems(currentWishlist, requested);
+        if (newItems.isEmpty()) {
+            return result(operation, Status.NO_ITEMS_ADDED, WishlistRules.NO_ITEMS_ADDED_MESSAGE);
+        }
+        if (WishlistRules.exceedsLimit(WishlistRules.itemCount(customer), newItems.size(), properties.getMaxItems())) {
+            return result(operation, Status.LIMIT_EXCEEDED, WishlistRules.limitExceededMessage(properties.getMaxItems()));
+        }
+        mutations.add(WishlistMutation.add(operation.getCustomerId(), newItems));
+        return result(operation, Status.ADDED, null);
+    }
+
+    private OperationResultDTO planRemove(BulkWishlistOperationDTO operation, CustomerWishlistEntity customer, List<WishlistMutation> mutations) {
+        if (operation.getProductIds() == null || operation.getProductIds().isEmpty()) {
+            return result(operation, Status.NO_ITEMS_DELETED, WishlistRules.INVALID_DELETION_MESSAGE);
+        }
+        if (customer == null) {
+            return result(operation, Status.CUSTOMER_NOT_FOUND, WishlistRules.CUSTOMER_NOT_FOUND_MESSAGE);
+        }
+
+        Set<UUID> productsToRemove = new HashSet<>(operation.getProductIds());
+        boolean anyInWishlist = customer.getWishlist() != null && customer.getWishlist().stream()
+                .anyMatch(product -> productsToRemove.contains(product.getProductId()));
+        if (!anyInWishlist) {
+            return result(operation, Status.NO_ITEMS_DELETED, WishlistRules.NO_ITEMS_DELETED_MESSAGE);
+        }
+        mutations.add(WishlistMutation.remove(operation.getCustomerId(), productsToRemove));
+        return result(operation, Status.REMOVED, null);
+    }
+
+    /**
+     * No modo normalizado insere no catálogo os produtos do lote que ainda não estão nele, em um único bulkWrite, e
+     * envia nas mutações só as referências.
+     */
+    private List<WishlistMutation> stored(List<WishlistMutation> mutations, LocalDateTime now) {
+        if (!catalog.isEnabled()) {
+            return mutations;
+        }
+        catalog.insertMissing(mutations.stream()
+                .filter(WishlistMutation::isAdd)
+                .flatMap(mutation -> mutation.getProductsToAdd().stream())
+                .toList());
+        return mutations.stream()
+                .map(mutation -> mutation.isAdd()
+                        ? WishlistMutation.add(mutation.getCustomerId(), catalog.references(mutation.getProductsToAdd(), now))
+                        : mutation)
+                .toList();
+    }
+
+    private Map<UUID, CustomerWishlistEntity> read(Collection<UUID> customerIds) {
+        return repository.findByCustomerIdIn(customerIds).stream()
+                .collect(Collectors.toMap(CustomerWishlistEntity::getCustomerId, Function.identity()));
+    }
+
+    /**
+     * Produtos que a mutação adiciona ou retira segundo o estado lido no início do lote.
+     */
+    private List<UUID> planned(WishlistMutation mutation, CustomerWishlistEntity customer) {
+        if (mutation.isAdd()) {
+            return WishlistRules.productIds(mutation.getProductsToAdd());
+        }
+        if (customer == null || customer.getWishlist() == null) {
+            return List.of();
+        }
+        return customer.getWishlist().stream()
+                .map(ProductEntity::getProductId)
+                .filter(mutation.getProductIdsToRemove()::contains)
+                .toList();
+    }
+
+    /**
+     * Chamado quando o bulkWrite aplicou menos operações do que o planejado: uma escrita concorrente mudou wishlists do
+     * lote entre a leitura e a gravação e o servidor descartou essas operações. O bulkWrite só informa totais, então o
+     * lote é lido de novo e cada operação é decidida pelo próprio documento, já que o lote tem no máximo uma por
+     * cliente. Toda escrita aplicada incrementa a versão e grava a data de atualização: se a data é a desta gravação,
+     * a operação foi a última escrita e foi aplicada; se a versão não mudou, ou mudou uma única vez por outra escrita,
+     * foi descartada. Nos demais casos (mais de uma escrita desde a leitura, ou cliente apagado) não há como saber, e a
+     * operação fica como {@link Status#UNKNOWN}. Só entram na popularidade as operações que foram a única escrita no
+     * cliente, em que os produtos alterados são exatamente os planejados.
+     */
+    private void reconcile(List<WishlistMutation> mutations, List<OperationResultDTO> results, List<List<UUID>> changed,
+                           Map<UUID, CustomerWishlistEntity> before, WishlistMutationResults written, LocalDateTime now) {
+        Map<UUID, CustomerWishlistEntity> current = read(mutations.stream().map(WishlistMutation::getCustomerId).toList());
+        LocalDateTime writtenAt = now.truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < mutations.size(); i++) {
+            if (written.getFailed().contains(i)) {
+                continue;
+            }
+            WishlistMutation mutation = mutations.get(i);
+            CustomerWishlistEntity after = current.get(mutation.getCustomerId());
+            long writes = after != null ? version(after) - version(before.get(mutation.getCustomerId())) : -1;
+            if (after != null && writtenAt.equals(after.getDateUpdate())) {
+                if (writes != 1) {
+                    changed.set(i, List.of());
+                }
+            } else if (writes == 0 || writes == 1) {
+                discard(mutation, results.get(i), changed.get(i), after);
+                changed.set(i, List.of());
+            } else {
+                OperationResultDTO result = results.get(i);
+                result.setStatus(Status.UNKNOWN);
+                result.setMessage(UNKNOWN_MESSAGE);
+                changed.set(i, List.of());
+                log.warn("Não foi possível confirmar a operação na wishlist do cliente {}: {} escritas concorrentes",
+                        mutation.getCustomerId(), writes);
+            }
+        }
+    }
+
+    private static long version(CustomerWishlistEntity customer) {
+        return customer != null && customer.getVersion() != null ? customer.getVersion() : 0L;
+    }
+
+    /**
+     * Produtos planejados que, no estado gravado, estão como a operação deixaria: presentes na adição e ausentes na
+     * remoção.
+     */
+    private List<UUID> stillChanged(WishlistMutation mutation, List<UUID> planned, CustomerWishlistEntity current) {
+        Set<UUID> currentIds = current != null && current.getWishlist() != null
+                ? new HashSet<>(WishlistRules.productIds(current.getWishlist()))
+                : Set.of();
+        return planned.stream()
+                .filter(productId -> currentIds.contains(productId) == mutation.isAdd())
+                .toList();
+    }
+
+    /**
+     * Troca o resultado planejado pelo motivo que o servidor teve para descartar a operação.
+     */
+    private void discard(WishlistMutation mutation, OperationResultDTO result, List<UUID> planned, CustomerWishlistEntity current) {
+        if (!mutation.isAdd()) {
+            result.setStatus(Status.NO_ITEMS_DELETED);
+            result.setMessage(WishlistRules.NO_ITEMS_DELETED_MESSAGE);
+        } else if (current != null && stillChanged(mutation, planned, current).isEmpty()
+                && WishlistRules.exceedsLimit(WishlistRules.itemCount(current), planned.size(), properties.getMaxItems())) {
+            result.setStatus(Status.LIMIT_EXCEEDED);
+            result.setMessage(WishlistRules.limitExceededMessage(properties.getMaxItems()));
+        } else {
+            result.setStatus(Status.NO_ITEMS_ADDED);
+            result.setMessage(WishlistRules.NO_ITEMS_ADDED_MESSAGE);
+        }
+    }
+
+    private void recordPopularity(WishlistMutation mutation, List<UUID> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        if (mutation.isAdd()) {
+            popularity.added(changed);
+        } else {
+            popularity.removed(changed);
+        }
+    }
+
+    private List<ProductEntity> toEntities(List<ProductDTO> products) {
+        if (products == null) {
+            return List.of();
+        }
+        return products.stream()
+                .map(productMapper::toEntity)
+                .toList();
+    }
+
+    private void recordRejection(Status status) {
+        switch (status) {
+            case LIMIT_EXCEEDED -> metrics.limitExceeded();
+            case NO_ITEMS_ADDED -> metrics.noItemsAdded();
+            case NO_ITEMS_DELETED -> metrics.noItemsDeleted();
+            case CUSTOMER_NOT_FOUND -> metrics.customerNotFound();
+            default -> {
+            }
+        }
+    }
+
+    private OperationResultDTO result(BulkWishlistOperationDTO operation, Status status, String message) {
+        return OperationResultDTO.builder()
+                .customerId(operation.getCustomerId())
+                .type(operation.getType())
+                .status(status)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.wishlist.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.dto.response.CacheStatsResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache em memória das wishlists por cliente, com limite de tamanho e expiração.
+ * As entidades guardadas são compartilhadas entre requisições e não devem ser alteradas por quem as recebe.
+ * Toda mutação deve chamar {@link #invalidate}: a invalidação descarta também uma carga em andamento da mesma
+ * chave, então um valor lido antes da escrita nunca fica no cache depois dela.
+ * <p>
+ * A carga roda na thread que chamou, fora do lock do mapa: com virtual threads, uma consulta ao Mongo dentro do
+ * {@code compute} deixaria a thread presa à carrier. Quem pedir a mesma chave durante a carga espera pelo mesmo resultado.
+ */
+@Slf4j
+@Component
+public class WishlistCache {
+
+    private final boolean enabled;
+    private final AsyncCache<UUID, CustomerWishlistEntity> cache;
+
+    public WishlistCache(WishlistProperties properties) {
+        WishlistProperties.Cache config = properties.getCache();
+        this.enabled = config.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        log.info("Cache de wishlists {} (tamanho máximo {}, expiração {})",
+                enabled ? "habilitado" : "desabilitado", config.getMaximumSize(), config.getExpireAfterWrite());
+    }
+
+    public Optional<CustomerWishlistEntity> get(UUID customerId, Function<UUID, Optional<CustomerWishlistEntity>> loader) {
+        if (!enabled) {
+            return loader.apply(customerId);
+        }
+        CompletableFuture<CustomerWishlistEntity> loading = new CompletableFuture<>();
+        CompletableFuture<CustomerWishlistEntity> cached = cache.get(customerId, (id, executor) -> loading);
+        if (cached == loading) {
+            try {
+                loading.complete(loader.apply(customerId).orElse(null));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(cached.join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Retorna a wishlist apenas se já estiver carregada, sem esperar por uma carga em andamento.
+     */
+    public Optional<CustomerWishlistEntity> getIfPresent(UUID customerId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CompletableFuture<CustomerWishlistEntity> cached = cache.getIfPresent(customerId);
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cached.join());
+    }
+
+    public void invalidate(UUID customerId) {
+        cache.synchronous().invalidate(customerId);
+    }
+
+    public void invalidateAll(Collection<UUID> customerIds) {
+        cache.synchronous().invalidateAll(customerIds);
+    }
+
+    public CacheStatsResponseDTO stats() {
+        CacheStats stats = cache.synchronous().stats();
+        return CacheStatsResponseDTO.builder()
+                .enabled(enabled)
+                .size(cache.synchronous().estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .loadCount(stats.loadCount())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+}
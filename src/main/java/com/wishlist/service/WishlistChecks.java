@@ -0,0 +1,85 @@
+package com.wishlist.service;
+
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.dto.response.ProductBatchCheckResponseDTO;
+import com.wishlist.dto.response.ProductCheckResponseDTO;
+import com.wishlist.dto.response.ProductWisherResponseDTO;
+import com.wishlist.repository.ProductWisher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Monta as respostas de verificação de produtos a partir da wishlist já carregada e as linhas da listagem de
+ * clientes por produto.
+ */
+final class WishlistChecks {
+
+    private WishlistChecks() {
+    }
+
+    static ProductWisherResponseDTO toWisherDTO(ProductWisher wisher) {
+        return ProductWisherResponseDTO.builder()
+                .customerId(wisher.getCustomerId())
+                .cursor(wisher.getCursor())
+                .build();
+    }
+
+    static ProductCheckResponseDTO checkProduct(UUID customerId, CustomerWishlistEntity customer, UUID productId) {
+        return toCheckResponse(customerId, productId, findProduct(customer, productId));
+    }
+
+    static ProductEntity findProduct(CustomerWishlistEntity customer, UUID productId) {
+        if (customer.getWishlist() == null) {
+            return null;
+        }
+        return customer.getWishlist().stream()
+                .filter(item -> productId.equals(item.getProductId()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Verifica vários produtos com uma única leitura da wishlist, usando um índice por productId
+     * em vez de percorrer a lista para cada produto.
+     */
+    static ProductBatchCheckResponseDTO checkProducts(UUID customerId, CustomerWishlistEntity customer, List<UUID> productIds) {
+        Map<UUID, ProductEntity> productsById = new HashMap<>();
+        if (customer.getWishlist() != null) {
+            for (ProductEntity product : customer.getWishlist()) {
+                productsById.putIfAbsent(product.getProductId(), product);
+            }
+        }
+
+        List<ProductCheckResponseDTO> products = new ArrayList<>(productIds.size());
+        for (UUID productId : productIds) {
+            products.add(toCheckResponse(customerId, productId, productsById.get(productId)));
+        }
+        return ProductBatchCheckResponseDTO.builder()
+                .customerId(customerId)
+                .products(products)
+                .build();
+    }
+
+    static ProductCheckResponseDTO toCheckResponse(UUID customerId, UUID productId, ProductEntity product) {
+        ProductCheckResponseDTO.ProductDetailsDTO productDetails = null;
+        if (product != null) {
+            productDetails = ProductCheckResponseDTO.ProductDetailsDTO.builder()
+                    .name(product.getName())
+                    .description(product.getDescription())
+                    .price(product.getPrice())
+                    .build();
+        }
+
+        return ProductCheckResponseDTO.builder()
+                .customerId(customerId)
+                .productId(productId)
+                .inWishlist(product != null)
+                .product(productDetails)
+                .build();
+    }
+}
@@ -0,0 +1,168 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação de todas as wishlists para um arquivo, pela linha de comando. Roda na inicialização quando
+ * {@code wishlist.export.output} é informado, por exemplo:
+ * <pre>
+ * java -jar app.jar --spring.main.web-application-type=none --wishlist.export.output=/tmp/wishlists.ndjson.gz
+ * </pre>
+ * A cada {@code wishlist.export.checkpoint-interval} linhas o arquivo é gravado em disco e o checkpoint (último
+ * customerId e tamanho do arquivo) é salvo ao lado dele. Se a exportação for interrompida, a próxima execução com a
+ * mesma saída descarta o que foi escrito depois do checkpoint e continua do cliente seguinte. Com gzip, cada trecho
+ * entre checkpoints é um membro gzip completo, então o arquivo final é um gzip válido (membros concatenados). Ao
+ * terminar, o checkpoint é removido.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "wishlist.export", name = "output")
+public class WishlistExportRunner implements ApplicationRunner {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WishlistExportService exportService;
+    private final WishlistProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        WishlistProperties.Export export = properties.getExport();
+        Path output = Path.of(export.getOutput());
+        Path checkpointFile = Path.of(export.getCheckpoint() != null ? export.getCheckpoint() : export.getOutput() + ".checkpoint");
+        boolean gzip = export.getGzip() != null ? export.getGzip() : export.getOutput().endsWith(".gz");
+
+        Progress resume = Progress.read(checkpointFile);
+        if (resume != null) {
+            log.info("Retomando a exportação de wishlists para {} após o cliente {}", output, resume.customerId());
+        } else {
+            log.info("Exportando wishlists para {}", output);
+        }
+
+        long exported;
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long start = resume != null ? resume.bytes() : 0L;
+            if (channel.size() < start) {
+                throw new IllegalStateException("O checkpoint " + checkpointFile + " não corresponde ao arquivo " + output);
+            }
+            channel.truncate(start);
+            channel.position(start);
+            try (SegmentedOutput file = new SegmentedOutput(channel, gzip)) {
+                exported = exportService.export(resume != null ? resume.customerId() : null, file, (customerId, count) -> {
+                    new Progress(customerId, file.commit()).write(checkpointFile);
+                    log.debug("{} wishlists exportadas, até o cliente {}", count, customerId);
+                });
+            }
+        }
+        Files.deleteIfExists(checkpointFile);
+        log.info("Exportação de wishlists concluída: {} wishlists escritas em {}", exported, output);
+    }
+
+    private record Progress(UUID customerId, long bytes) {
+
+        static Progress read(Path file) throws IOException {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            }
+            return new Progress(UUID.fromString(properties.getProperty("customerId")),
+                    Long.parseLong(properties.getProperty("bytes")));
+        }
+
+        /**
+         * Grava em um arquivo temporário e troca de uma vez, para que uma interrupção nunca deixe o checkpoint pela metade.
+         */
+        void write(Path file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("customerId", customerId.toString());
+            properties.setProperty("bytes", Long.toString(bytes));
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temporary)) {
+                properties.store(writer, null);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Saída em trechos: {@link #commit()} encerra o trecho atual (no gzip, fecha o membro), grava em disco e devolve o
+     * tamanho do arquivo até ali. O próximo trecho só começa na próxima escrita.
+     */
+    private static final class SegmentedOutput extends OutputStream {
+
+        private final FileChannel channel;
+        private final OutputStream file;
+        private final boolean gzip;
+        private OutputStream segment;
+
+        SegmentedOutput(FileChannel channel, boolean gzip) {
+            this.channel = channel;
+            this.file = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            this.gzip = gzip;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            segment().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            segment().write(b, off, len);
+        }
+
+        long commit() throws IOException {
+            finishSegment();
+            file.flush();
+            channel.force(false);
+            return channel.position();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (gzip && channel.position() == 0) {
+                segment();
+            }
+            finishSegment();
+            file.flush();
+        }
+
+        private OutputStream segment() throws IOException {
+            if (segment == null) {
+                segment = gzip ? new GZIPOutputStream(file, BUFFER_SIZE) : file;
+            }
+            return segment;
+        }
+
+        private void finishSegment() throws IOException {
+            if (segment instanceof GZIPOutputStream gzipSegment) {
+                gzipSegment.finish();
+            }
+            segment = null;
+        }
+    }
+}
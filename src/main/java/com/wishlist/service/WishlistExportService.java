@@ -0,0 +1,90 @@
+package com.wishlist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.repository.CustomerWishlistRepository;
+import com.wishlist.utils.mapper.CustomerWishlistMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de todas as wishlists em NDJSON, uma linha por cliente no formato de {@link CustomerWishlistResponseDTO}.
+ * <p>
+ * Os documentos vêm de um cursor do Mongo em lotes de {@code wishlist.export.batch-size} e cada um é escrito na saída
+ * assim que lido, então a memória usada não cresce com o tamanho da coleção. A ordem é a do {@code _id}; o customerId
+ * da última linha escrita serve de checkpoint para retomar uma exportação interrompida.
+ */
+@Slf4j
+@Service
+public class WishlistExportService {
+
+    private final CustomerWishlistRepository repository;
+    private final CustomerWishlistMapper mapperWishlist;
+    private final WishlistProperties properties;
+    private final ProductCatalog catalog;
+    private final ObjectWriter writer;
+
+    public WishlistExportService(CustomerWishlistRepository repository, CustomerWishlistMapper mapperWishlist,
+                                 WishlistProperties properties, ProductCatalog catalog, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.mapperWishlist = mapperWishlist;
+        this.properties = properties;
+        this.catalog = catalog;
+        this.writer = objectMapper.writerFor(CustomerWishlistResponseDTO.class);
+    }
+
+    /**
+     * Exporta as wishlists de clientes posteriores a {@code after}, na ordem do {@code _id}.
+     *
+     * @param after      customerId da última linha já exportada, ou {@code null} para exportar desde o início
+     * @param output     saída das linhas; não é fechada aqui
+     * @param checkpoint chamado a cada {@code wishlist.export.checkpoint-interval} linhas e ao final, com o
+     *                   customerId da última linha escrita
+     * @return quantidade de wishlists exportadas
+     */
+    public long export(UUID after, OutputStream output, Checkpoint checkpoint) throws IOException {
+        int interval = properties.getExport().getCheckpointInterval();
+        long exported = 0;
+        UUID last = null;
+        try (Stream<CustomerWishlistResponseDTO> wishlists = repository.streamAll(after, properties.getExport().getBatchSize())
+                .map(catalog::withDetails)
+                .map(mapperWishlist::toResponseDTO)) {
+            Iterator<CustomerWishlistResponseDTO> iterator = wishlists.iterator();
+            while (iterator.hasNext()) {
+                CustomerWishlistResponseDTO wishlist = iterator.next();
+                output.write(writer.writeValueAsBytes(wishlist));
+                output.write('\n');
+                last = wishlist.getCustomerId();
+                if (++exported % interval == 0) {
+                    checkpoint.reached(last, exported);
+                }
+            }
+        }
+        if (last != null && exported % interval != 0) {
+            checkpoint.reached(last, exported);
+        }
+        log.debug("{} wishlists exportadas após o cliente {}", exported, after);
+        return exported;
+    }
+
+    public long export(UUID after, OutputStream output) throws IOException {
+        return export(after, output, (customerId, exported) -> { });
+    }
+
+    @FunctionalInterface
+    public interface Checkpoint {
+        /**
+         * @param customerId último cliente já escrito na saída
+         * @param exported   linhas escritas até aqui nesta execução
+         */
+        void reached(UUID customerId, long exported) throws IOException;
+    }
+}
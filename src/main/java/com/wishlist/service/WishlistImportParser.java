@@ -0,0 +1,158 @@
+package com.wishlist.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.dto.request.CustomerWishlistRequestDTO;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Interpreta os registros da importação em massa.
+ * <ul>
+ *     <li>NDJSON: um {@link CustomerWishlistRequestDTO} por linha, no mesmo formato do corpo de {@code PUT /api/wishlist}.</li>
+ *     <li>CSV: cabeçalho {@value #CSV_HEADER} e um produto por linha. As linhas seguidas do mesmo cliente formam um
+ *     único registro, equivalente a uma chamada com todos os produtos.</li>
+ * </ul>
+ * Erros de formato viram {@link IllegalArgumentException} com a mensagem que vai para o arquivo de rejeitados.
+ */
+final class WishlistImportParser {
+
+    static final String CSV_HEADER = "customerId,productId,name,description,price";
+    private static final int CSV_COLUMNS = 5;
+
+    private final ObjectReader reader;
+    private final boolean csv;
+
+    WishlistImportParser(ObjectMapper objectMapper, Path input) {
+        this.reader = objectMapper.readerFor(CustomerWishlistRequestDTO.class);
+        String name = input.getFileName().toString().toLowerCase(Locale.ROOT);
+        this.csv = name.endsWith(".csv") || name.endsWith(".csv.gz");
+    }
+
+    boolean isCsv() {
+        return csv;
+    }
+
+    /**
+     * @throws IllegalArgumentException quando o cabeçalho do CSV não é {@value #CSV_HEADER}
+     */
+    void checkHeader(String header) {
+        if (!CSV_HEADER.equalsIgnoreCase(header.replace(" ", ""))) {
+            throw new IllegalArgumentException("Cabeçalho CSV inválido, esperado: " + CSV_HEADER);
+        }
+    }
+
+    /**
+     * Cliente da linha CSV, usado apenas para agrupar linhas seguidas; a validação acontece em {@link #parse}.
+     */
+    String customerKey(String line) {
+        int comma = line.indexOf(',');
+        return (comma < 0 ? line : line.substring(0, comma)).replace("\"", "").trim();
+    }
+
+    CustomerWishlistRequestDTO parse(List<String> lines) {
+        return csv ? parseCsv(lines) : parseJson(lines.get(0));
+    }
+
+    private CustomerWishlistRequestDTO parseJson(String line) {
+        try {
+            CustomerWishlistRequestDTO request = reader.readValue(line);
+            if (request == null) {
+                throw new IllegalArgumentException("JSON inválido: registro vazio");
+            }
+            return request;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private CustomerWishlistRequestDTO parseCsv(List<String> lines) {
+        UUID customerId = null;
+        List<ProductDTO> products = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            List<String> fields = fields(line);
+            if (fields.size() != CSV_COLUMNS) {
+                throw new IllegalArgumentException("A linha CSV deve ter " + CSV_COLUMNS + " colunas: " + CSV_HEADER);
+            }
+            customerId = uuid(fields.get(0), "customerId");
+            products.add(ProductDTO.builder()
+                    .productId(uuid(fields.get(1), "productId"))
+                    .name(emptyToNull(fields.get(2)))
+                    .description(emptyToNull(fields.get(3)))
+                    .price(price(fields.get(4)))
+                    .build());
+        }
+        return CustomerWishlistRequestDTO.builder()
+                .customerId(customerId)
+                .wishlist(products)
+                .build();
+    }
+
+    /**
+     * Colunas separadas por vírgula; valores entre aspas podem conter vírgulas e aspas duplicadas ({@code ""}).
+     */
+    static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>(CSV_COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Aspas não fechadas na linha CSV");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static UUID uuid(String value, String column) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(trimmed);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(column + " inválido: " + trimmed);
+        }
+    }
+
+    private static Double price(String value) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Preço inválido: " + trimmed);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,15 @@
+package com.wishlist.service;
+
+import lombok.Value;
+
+/**
+ * Totais de uma importação em massa. Registros ignorados são os que não trouxeram nenhum produto novo.
+ */
+@Value
+public class WishlistImportResult {
+
+    long read;
+    long imported;
+    long skipped;
+    long rejected;
+}
@@ -0,0 +1,41 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Importação em massa pela linha de comando. Roda na inicialização quando {@code wishlist.bulk-import.input} é
+ * informado, por exemplo:
+ * <pre>
+ * java -jar app.jar --spring.main.web-application-type=none --wishlist.bulk-import.input=/tmp/wishlists.csv.gz
+ * </pre>
+ * Como os produtos já presentes são ignorados, uma importação interrompida pode ser repetida com o mesmo arquivo.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "wishlist.bulk-import", name = "input")
+public class WishlistImportRunner implements ApplicationRunner {
+
+    private final WishlistImportService importService;
+    private final WishlistProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException, InterruptedException {
+        WishlistProperties.BulkImport bulkImport = properties.getBulkImport();
+        Path input = Path.of(bulkImport.getInput());
+        Path rejects = Path.of(bulkImport.getRejects() != null ? bulkImport.getRejects() : bulkImport.getInput() + ".rejects.ndjson");
+        WishlistImportResult result = importService.importFile(input, rejects);
+        if (result.getRejected() > 0) {
+            log.warn("{} registros rejeitados na importação, detalhes em {}", result.getRejected(), rejects);
+        }
+    }
+}
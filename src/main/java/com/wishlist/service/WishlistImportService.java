@@ -0,0 +1,352 @@
+package com.wishlist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.dto.request.BulkWishlistOperationDTO;
+import com.wishlist.dto.request.BulkWishlistRequestDTO;
+import com.wishlist.dto.request.CustomerWishlistRequestDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO.OperationResultDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO.Status;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Importação em massa de wishlists a partir de um arquivo NDJSON ou CSV (ver {@link WishlistImportParser}), em três
+ * etapas ligadas por filas limitadas de {@code wishlist.bulk-import.queue-capacity}:
+ * <ol>
+ *     <li>leitura: uma thread lê o arquivo linha a linha e monta os registros;</li>
+ *     <li>validação: {@code parallelism} threads interpretam cada registro e aplicam as mesmas validações de
+ *     {@link CustomerWishlistRequestDTO} e {@code ProductDTO};</li>
+ *     <li>gravação: uma thread junta os registros válidos em lotes e os envia a {@link WishlistBulkService} como
+ *     operações ADD, que aplica as regras de {@code PUT /api/wishlist} (sem duplicados, limite de
+ *     {@code wishlist.max-items} itens) e grava com um bulkWrite não ordenado.</li>
+ * </ol>
+ * Quando a gravação fica para trás, as filas enchem e a leitura espera, então a memória não depende do tamanho do
+ * arquivo. Registros inválidos ou recusados vão para o arquivo de rejeitados com o motivo; registros cujos produtos
+ * já estão na wishlist são contados como ignorados, o que permite repetir uma importação.
+ * <p>
+ * As threads de validação não preservam a ordem entre registros; as operações do mesmo cliente dentro de um lote
+ * continuam aplicadas na ordem em que chegam à gravação.
+ */
+@Slf4j
+@Service
+public class WishlistImportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ImportRecord END_OF_INPUT = new ImportRecord(-1, List.of(), 0);
+    private static final ParsedRecord END_OF_VALIDATION = new ParsedRecord(END_OF_INPUT, null, null);
+
+    private final WishlistBulkService bulkService;
+    private final WishlistProperties properties;
+    private final WishlistMetrics metrics;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rejectionWriter;
+
+    public WishlistImportService(WishlistBulkService bulkService, WishlistProperties properties, WishlistMetrics metrics,
+                                 Validator validator, ObjectMapper objectMapper) {
+        this.bulkService = bulkService;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.rejectionWriter = objectMapper.writerFor(Rejection.class);
+    }
+
+    /**
+     * Importa {@code input} e escreve os registros rejeitados em {@code rejects} (NDJSON com linha, motivo e conteúdo).
+     *
+     * @throws IllegalArgumentException quando o cabeçalho do CSV é inválido
+     */
+    public WishlistImportResult importFile(Path input, Path rejects) throws IOException, InterruptedException {
+        WishlistProperties.BulkImport config = properties.getBulkImport();
+        WishlistImportParser parser = new WishlistImportParser(objectMapper, input);
+        BlockingQueue<ImportRecord> records = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        BlockingQueue<ParsedRecord> parsed = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        int parallelism = Math.max(1, config.getParallelism());
+        Progress progress = new Progress(config.getProgressInterval());
+
+        log.info("Importando wishlists de {} ({} threads de validação, lotes de {})", input, parallelism, config.getBatchSize());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism + 2);
+        try (BufferedReader reader = open(input);
+             OutputStream rejected = Files.newOutputStream(rejects)) {
+            ExecutorCompletionService<Void> stages = new ExecutorCompletionService<>(executor);
+            stages.submit(stage(() -> read(reader, parser, records, parallelism)));
+            for (int i = 0; i < parallelism; i++) {
+                stages.submit(stage(() -> validate(parser, records, parsed)));
+            }
+            stages.submit(stage(() -> write(parsed, parallelism, rejected, progress)));
+            awaitStages(stages, parallelism + 2);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        WishlistImportResult result = progress.result();
+        log.info("Importação concluída: {} registros lidos, {} importados, {} ignorados, {} rejeitados",
+                result.getRead(), result.getImported(), result.getSkipped(), result.getRejected());
+        return result;
+    }
+
+    private BufferedReader open(Path input) throws IOException {
+        InputStream stream = Files.newInputStream(input);
+        if (input.getFileName().toString().endsWith(".gz")) {
+            stream = new GZIPInputStream(stream, BUFFER_SIZE);
+        }
+        return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Espera todas as etapas; na primeira falha interrompe as demais, que podem estar paradas em uma fila cheia ou vazia.
+     */
+    private static void awaitStages(ExecutorCompletionService<Void> stages, int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            try {
+                stages.take().get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException ioException) {
+                    throw ioException;
+                }
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Falha na importação", cause);
+            }
+        }
+    }
+
+    private void read(BufferedReader reader, WishlistImportParser parser, BlockingQueue<ImportRecord> records,
+                      int validators) throws IOException, InterruptedException {
+        long lineNumber = 0;
+        String line;
+        if (parser.isCsv()) {
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            if (line != null) {
+                parser.checkHeader(line);
+            }
+        }
+
+        List<String> group = new ArrayList<>();
+        String groupKey = null;
+        long groupLine = 0;
+        int overflow = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (!parser.isCsv()) {
+                records.put(new ImportRecord(lineNumber, List.of(line), 0));
+                continue;
+            }
+            String key = parser.customerKey(line);
+            if (!key.equals(groupKey)) {
+                if (!group.isEmpty()) {
+                    records.put(new ImportRecord(groupLine, group, overflow));
+                }
+                group = new ArrayList<>();
+                groupKey = key;
+                groupLine = lineNumber;
+                overflow = 0;
+            }
+            // Um cliente com mais produtos que o limite é rejeitado inteiro; só as primeiras linhas ficam em memória.
+            if (group.size() <= properties.getMaxItems()) {
+                group.add(line);
+            } else {
+                overflow++;
+            }
+        }
+        if (!group.isEmpty()) {
+            records.put(new ImportRecord(groupLine, group, overflow));
+        }
+        for (int i = 0; i < validators; i++) {
+            records.put(END_OF_INPUT);
+        }
+    }
+
+    private void validate(WishlistImportParser parser, BlockingQueue<ImportRecord> records,
+                          BlockingQueue<ParsedRecord> parsed) throws InterruptedException {
+        ImportRecord record;
+        while ((record = records.take()) != END_OF_INPUT) {
+            parsed.put(parse(parser, record));
+        }
+        parsed.put(END_OF_VALIDATION);
+    }
+
+    private ParsedRecord parse(WishlistImportParser parser, ImportRecord record) {
+        if (record.overflow() > 0) {
+            return ParsedRecord.rejected(record, WishlistRules.limitExceededMessage(properties.getMaxItems()));
+        }
+        CustomerWishlistRequestDTO request;
+        try {
+            request = parser.parse(record.lines());
+        } catch (IllegalArgumentException e) {
+            return ParsedRecord.rejected(record, e.getMessage());
+        }
+        List<String> violations = validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+        if (!violations.isEmpty()) {
+            return ParsedRecord.rejected(record, String.join("; ", violations));
+        }
+        return new ParsedRecord(record, BulkWishlistOperationDTO.builder()
+                .customerId(request.getCustomerId())
+                .type(BulkWishlistOperationDTO.OperationType.ADD)
+                .products(request.getWishlist())
+                .build(), null);
+    }
+
+    private void write(BlockingQueue<ParsedRecord> parsed, int validators, OutputStream rejected,
+                       Progress progress) throws IOException, InterruptedException {
+        int batchSize = properties.getBulkImport().getBatchSize();
+        List<ParsedRecord> batch = new ArrayList<>(batchSize);
+        int finished = 0;
+        while (finished < validators) {
+            ParsedRecord record = parsed.take();
+            if (record == END_OF_VALIDATION) {
+                finished++;
+                continue;
+            }
+            batch.add(record);
+            if (batch.size() == batchSize) {
+                writeBatch(batch, rejected, progress);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, rejected, progress);
+        }
+        rejected.flush();
+    }
+
+    private void writeBatch(List<ParsedRecord> batch, OutputStream rejected, Progress progress) throws IOException {
+        List<ParsedRecord> valid = new ArrayList<>(batch.size());
+        long imported = 0;
+        long skipped = 0;
+        long rejections = 0;
+        for (ParsedRecord record : batch) {
+            if (record.operation() != null) {
+                valid.add(record);
+            } else {
+                reject(rejected, record.source(), record.rejection());
+                rejections++;
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            List<OperationResultDTO> results = bulkService.applyOperations(BulkWishlistRequestDTO.builder()
+                    .operations(valid.stream().map(ParsedRecord::operation).toList())
+                    .build()).getResults();
+            for (int i = 0; i < results.size(); i++) {
+                OperationResultDTO result = results.get(i);
+                if (result.getStatus().isSuccess()) {
+                    imported++;
+                } else if (result.getStatus() == Status.NO_ITEMS_ADDED) {
+                    skipped++;
+                } else {
+                    reject(rejected, valid.get(i).source(), result.getMessage());
+                    rejections++;
+                }
+            }
+        }
+
+        metrics.imported(imported);
+        metrics.importSkipped(skipped);
+        metrics.importRejected(rejections);
+        progress.add(batch.size(), imported, skipped, rejections);
+    }
+
+    private void reject(OutputStream rejected, ImportRecord record, String reason) throws IOException {
+        rejected.write(rejectionWriter.writeValueAsBytes(new Rejection(record.line(), reason, String.join("\n", record.lines()))));
+        rejected.write('\n');
+    }
+
+    private static Callable<Void> stage(Stage stage) {
+        return () -> {
+            stage.run();
+            return null;
+        };
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Linhas de um registro: uma no NDJSON, uma por produto no CSV. {@code overflow} conta as linhas além do limite
+     * de itens que não foram guardadas.
+     */
+    private record ImportRecord(long line, List<String> lines, int overflow) {
+    }
+
+    private record ParsedRecord(ImportRecord source, BulkWishlistOperationDTO operation, String rejection) {
+
+        static ParsedRecord rejected(ImportRecord source, String rejection) {
+            return new ParsedRecord(source, null, rejection);
+        }
+    }
+
+    private record Rejection(long line, String reason, String content) {
+    }
+
+    /**
+     * Totais da importação; atualizados apenas pela etapa de gravação.
+     */
+    private static final class Progress {
+
+        private final long interval;
+        private final long startedAt = System.nanoTime();
+        private long read;
+        private long imported;
+        private long skipped;
+        private long rejected;
+
+        Progress(long interval) {
+            this.interval = interval;
+        }
+
+        void add(long records, long imported, long skipped, long rejected) {
+            long before = read;
+            this.read += records;
+            this.imported += imported;
+            this.skipped += skipped;
+            this.rejected += rejected;
+            if (interval > 0 && before / interval != read / interval) {
+                double seconds = Math.max(1, System.nanoTime() - startedAt) / 1_000_000_000d;
+                log.info("{} registros processados ({} por segundo): {} importados, {} ignorados, {} rejeitados",
+                        read, Math.round(read / seconds), this.imported, this.skipped, this.rejected);
+            }
+        }
+
+        WishlistImportResult result() {
+            return new WishlistImportResult(read, imported, skipped, rejected);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.IntStream;
+
+/**
+ * Métricas de domínio da wishlist. As latências por operação vêm do {@code @Timed} dos serviços e as do Mongo
+ * (comandos e pool de conexões) da auto-configuração do Spring Boot.
+ */
+@Component
+public class WishlistMetrics {
+
+    private static final String REJECTIONS = "wishlist.rejections";
+    private static final String IMPORT_RECORDS = "wishlist.import.records";
+
+    private final DistributionSummary wishlistSize;
+    private final Counter limitExceeded;
+    private final Counter noItemsAdded;
+    private final Counter noItemsDeleted;
+    private final Counter customerNotFound;
+    private final Counter imported;
+    private final Counter importSkipped;
+    private final Counter importRejected;
+
+    public WishlistMetrics(MeterRegistry registry, WishlistProperties properties) {
+        this.wishlistSize = DistributionSummary.builder("wishlist.size")
+                .description("Quantidade de itens das wishlists lidas ou alteradas")
+                .baseUnit("items")
+                .serviceLevelObjectives(sizeBuckets(properties.getMaxItems()))
+                .register(registry);
+        this.limitExceeded = rejection(registry, "limit_exceeded");
+        this.noItemsAdded = rejection(registry, "no_items_added");
+        this.noItemsDeleted = rejection(registry, "no_items_deleted");
+        this.customerNotFound = rejection(registry, "customer_not_found");
+        this.imported = importRecords(registry, "imported");
+        this.importSkipped = importRecords(registry, "skipped");
+        this.importRejected = importRecords(registry, "rejected");
+    }
+
+    public void recordWishlistSize(CustomerWishlistEntity customer) {
+        wishlistSize.record(WishlistRules.itemCount(customer));
+    }
+
+    public void limitExceeded() {
+        limitExceeded.increment();
+    }
+
+    public void noItemsAdded() {
+        noItemsAdded.increment();
+    }
+
+    public void noItemsDeleted() {
+        noItemsDeleted.increment();
+    }
+
+    public void customerNotFound() {
+        customerNotFound(1);
+    }
+
+    public void customerNotFound(int count) {
+        customerNotFound.increment(count);
+    }
+
+    public void imported(long count) {
+        imported.increment(count);
+    }
+
+    public void importSkipped(long count) {
+        importSkipped.increment(count);
+    }
+
+    public void importRejected(long count) {
+        importRejected.increment(count);
+    }
+
+    /**
+     * Faixas do histograma de tamanho proporcionais ao limite, mais as de lista vazia, quase cheia e cheia
+     * (0, 1, 5, 10, 15, 19 e 20 com o limite padrão).
+     */
+    private static double[] sizeBuckets(int maxItems) {
+        return IntStream.of(0, 1, maxItems / 4, maxItems / 2, maxItems * 3 / 4, maxItems - 1, maxItems)
+                .filter(bucket -> bucket >= 0)
+                .distinct()
+                .sorted()
+                .asDoubleStream()
+                .toArray();
+    }
+
+    private static Counter importRecords(MeterRegistry registry, String outcome) {
+        return Counter.builder(IMPORT_RECORDS)
+                .description("Registros processados pela importação em massa, por resultado")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Counter rejection(MeterRegistry registry, String reason) {
+        return Counter.builder(REJECTIONS)
+                .description("Operações recusadas pelas regras da wishlist, por motivo")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
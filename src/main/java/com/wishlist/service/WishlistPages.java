@@ -0,0 +1,52 @@
+package com.wishlist.service;
+
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.exception.InvalidWishlistQueryException;
+import com.wishlist.repository.WishlistItemsQuery;
+
+import java.util.List;
+
+/**
+ * Regras da busca paginada da wishlist comuns aos serviços blocking e reativo.
+ */
+final class WishlistPages {
+
+    private WishlistPages() {
+    }
+
+    static WishlistItemsQuery query(Integer page, Integer size, String sort, String fields, int maxItems)
+            throws InvalidWishlistQueryException {
+        try {
+            return WishlistItemsQuery.of(page, size, sort, fields, maxItems);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidWishlistQueryException(e.getMessage());
+        }
+    }
+
+    /**
+     * A página lida do Mongo só serve quando o documento tem os agregados; sem eles, a quantidade e o total da
+     * wishlist inteira não podem ser calculados a partir da página.
+     */
+    static boolean hasAggregates(CustomerWishlistEntity page) {
+        return page.getItemCount() != null && page.getTotalPriceCents() != null;
+    }
+
+    /**
+     * Monta a página a partir da wishlist completa, mantendo a quantidade e o total da lista inteira.
+     */
+    static CustomerWishlistEntity inMemory(CustomerWishlistEntity customer, WishlistItemsQuery query) {
+        List<ProductEntity> wishlist = customer.getWishlist() != null ? customer.getWishlist() : List.of();
+        return CustomerWishlistEntity.builder()
+                .customerId(customer.getCustomerId())
+                .wishlist(query.apply(wishlist))
+                .dateCreation(customer.getDateCreation())
+                .dateUpdate(customer.getDateUpdate())
+                .version(customer.getVersion())
+                .itemCount(wishlist.size())
+                .totalPriceCents(customer.getTotalPriceCents() != null
+                        ? customer.getTotalPriceCents()
+                        : wishlist.stream().mapToLong(product -> product.getPrice() != null ? product.getPrice() : 0L).sum())
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.wishlist.service;
+
+import com.wishlist.repository.CustomerWishlistRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Garante na inicialização o índice multikey de produtos usado para listar quem tem um produto na wishlist.
+ * Sem ele a listagem percorre a coleção inteira. Desligar com {@code wishlist.wishers.create-index=false} quando os
+ * índices forem gerenciados fora da aplicação.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "wishlist.wishers", name = "create-index", havingValue = "true", matchIfMissing = true)
+public class WishlistProductIndexInitializer implements ApplicationRunner {
+
+    private final CustomerWishlistRepository repository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        repository.ensureProductIndexes();
+        log.info("Índice de produtos da wishlist verificado");
+    }
+}
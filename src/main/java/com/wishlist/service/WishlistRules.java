@@ -0,0 +1,163 @@
+package com.wishlist.service;
+
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.exception.NoItemsAddedException;
+import com.wishlist.exception.WishlistLimitExceededException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Regras de negócio da wishlist compartilhadas entre as operações individuais e em lote.
+ * O update atômico no Mongo aplica exatamente as mesmas regras do lado do servidor.
+ */
+final class WishlistRules {
+
+    static final String LIMIT_EXCEEDED_MESSAGE = "Não é possível adicionar mais itens. O limite máximo é de %d itens na wishlist.";
+    static final String NO_ITEMS_ADDED_MESSAGE = "Nenhum produto foi adicionado pois os itens selecionados já constam na sua Wishlist";
+    static final String INVALID_DELETION_MESSAGE = "Nenhum produto válido foi fornecido para remoção";
+    static final String NO_ITEMS_DELETED_MESSAGE = "Nenhum dos produtos fornecidos foi encontrado na wishlist";
+    static final String CUSTOMER_NOT_FOUND_MESSAGE = "Usuário não encontrado";
+    static final String INVALID_CURSOR_MESSAGE = "Cursor inválido";
+
+    private WishlistRules() {
+    }
+
+    static List<ProductEntity> distinctByProductId(List<ProductEntity> products) {
+        if (products == null) {
+            return List.of();
+        }
+        ProductIdSet seen = new ProductIdSet(products.size());
+        List<ProductEntity> distinct = new ArrayList<>(products.size());
+        for (ProductEntity product : products) {
+            if (seen.add(product.getProductId())) {
+                distinct.add(product);
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Produtos pedidos que ainda não estão na wishlist, na ordem do pedido. A lista atual é indexada uma única vez,
+     * então o custo cresce com a soma dos tamanhos e não com o produto deles.
+     */
+    static List<ProductEntity> newItems(List<ProductEntity> currentWishlist, List<ProductEntity> requested) {
+        ProductIdSet current = ProductIdSet.of(currentWishlist);
+        List<ProductEntity> newItems = new ArrayList<>(requested.size());
+        for (ProductEntity product : requested) {
+            if (!current.contains(product.getProductId())) {
+                newItems.add(product);
+            }
+        }
+        return newItems;
+    }
+
+    static boolean exceedsLimit(int currentSize, int itemsToAdd, int maxItems) {
+        return currentSize + itemsToAdd > maxItems;
+    }
+
+    static String limitExceededMessage(int maxItems) {
+        return LIMIT_EXCEEDED_MESSAGE.formatted(maxItems);
+    }
+
+    /**
+     * Quantidade de itens pelo agregado do documento; documentos ainda não migrados usam o tamanho da lista.
+     */
+    static int itemCount(CustomerWishlistEntity customer) {
+        if (customer.getItemCount() != null) {
+            return customer.getItemCount();
+        }
+        return customer.getWishlist() != null ? customer.getWishlist().size() : 0;
+    }
+
+    static long totalPriceCents(CustomerWishlistEntity customer) {
+        if (customer.getTotalPriceCents() != null) {
+            return customer.getTotalPriceCents();
+        }
+        return sumOfPrices(customer.getWishlist());
+    }
+
+    static long sumOfPrices(List<ProductEntity> products) {
+        if (products == null) {
+            return 0L;
+        }
+        long total = 0L;
+        for (ProductEntity product : products) {
+            total += product.getPrice() != null ? product.getPrice() : 0L;
+        }
+        return total;
+    }
+
+    /**
+     * Documento equivalente ao criado pelo upsert quando o cliente ainda não tinha wishlist.
+     */
+    static CustomerWishlistEntity newWishlist(UUID customerId, List<ProductEntity> products, LocalDateTime now) {
+        return CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>(products))
+                .dateCreation(now)
+                .dateUpdate(products.isEmpty() ? null : now)
+                .version(products.isEmpty() ? null : 1L)
+                .itemCount(products.size())
+                .totalPriceCents(sumOfPrices(products))
+                .build();
+    }
+
+    /**
+     * Reproduz localmente a decisão tomada pelo update atômico a partir do documento anterior a ele,
+     * evitando uma segunda ida ao banco para montar a resposta. O documento recebido é alterado.
+     */
+    static CustomerWishlistEntity replayAdd(CustomerWishlistEntity before, List<ProductEntity> requested, int maxItems,
+                                            LocalDateTime now) throws NoItemsAddedException {
+        List<ProductEntity> currentWishlist = before.getWishlist() != null ? before.getWishlist() : List.of();
+        List<ProductEntity> newItems = newItems(currentWishlist, requested);
+        if (newItems.isEmpty()) {
+            throw new NoItemsAddedException(NO_ITEMS_ADDED_MESSAGE);
+        }
+        int currentCount = itemCount(before);
+        if (exceedsLimit(currentCount, newItems.size(), maxItems)) {
+            throw new WishlistLimitExceededException(limitExceededMessage(maxItems));
+        }
+
+        List<ProductEntity> updatedWishlist = new ArrayList<>(currentWishlist);
+        updatedWishlist.addAll(newItems);
+        before.setTotalPriceCents(totalPriceCents(before) + sumOfPrices(newItems));
+        before.setItemCount(currentCount + newItems.size());
+        before.setWishlist(updatedWishlist);
+        before.setDateUpdate(now);
+        before.setVersion(before.getVersion() != null ? before.getVersion() + 1 : 1L);
+        return before;
+    }
+
+    /**
+     * Reproduz localmente a remoção feita pelo update atômico a partir do documento anterior a ele. O documento
+     * recebido é alterado.
+     *
+     * @return os produtos removidos
+     */
+    static List<ProductEntity> replayRemove(CustomerWishlistEntity before, Set<UUID> productIds, LocalDateTime now) {
+        List<ProductEntity> currentWishlist = before.getWishlist() != null ? before.getWishlist() : List.of();
+        List<ProductEntity> removed = new ArrayList<>();
+        List<ProductEntity> remaining = new ArrayList<>(currentWishlist.size());
+        for (ProductEntity product : currentWishlist) {
+            (productIds.contains(product.getProductId()) ? removed : remaining).add(product);
+        }
+
+        before.setTotalPriceCents(totalPriceCents(before) - sumOfPrices(removed));
+        before.setItemCount(itemCount(before) - removed.size());
+        before.setWishlist(remaining);
+        before.setDateUpdate(now);
+        before.setVersion(before.getVersion() != null ? before.getVersion() + 1 : 1L);
+        return removed;
+    }
+
+    static List<UUID> productIds(List<ProductEntity> products) {
+        return products.stream()
+                .map(ProductEntity::getProductId)
+                .toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.repository.CustomerWishlistRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migra para o formato compacto, em segundo plano, os documentos de customer_wishlist ainda no formato antigo.
+ * Roda após a inicialização quando {@code wishlist.storage.migration.enabled=true}, em lotes com pausa entre eles;
+ * pode ser interrompida e retomada, já que cada lote só busca documentos não migrados.
+ * <p>
+ * Enquanto isso as requisições continuam atendidas: as leituras encontram o cliente nos dois formatos e as escritas
+ * migram o documento do cliente antes de alterá-lo (ver {@code wishlist.storage.read-legacy}). Com
+ * {@code wishlist.storage.layout=bucketed}, a mesma rotina passa para buckets os documentos compactos.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "wishlist.storage.migration", name = "enabled", havingValue = "true")
+public class WishlistStorageMigrator {
+
+    private final CustomerWishlistRepository repository;
+    private final WishlistProperties properties;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        WishlistProperties.Storage storage = properties.getStorage();
+        if (storage.getLayout() == WishlistProperties.StorageLayout.LEGACY) {
+            log.warn("Migração ignorada: wishlist.storage.layout é legacy");
+            return;
+        }
+
+        String target = storage.getLayout().name().toLowerCase();
+        log.info("Migrando wishlists para o formato {} em lotes de {}", target, storage.getMigration().getBatchSize());
+        long total = 0;
+        int migrated;
+        try {
+            while ((migrated = repository.migrateLegacyBatch(storage.getMigration().getBatchSize())) > 0) {
+                total += migrated;
+                log.debug("{} wishlists migradas até agora", total);
+                Thread.sleep(storage.getMigration().getPause().toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Migração interrompida após {} wishlists", total);
+            return;
+        }
+        log.info("Migração para o formato {} concluída: {} wishlists migradas", target, total);
+    }
+}
@@ -0,0 +1,40 @@
+package com.wishlist.service;
+
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.utils.CurrencyFormatter;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * ETag e Last-Modified de uma wishlist. O ETag vem do campo {@code version}; documentos antigos, sem versão,
+ * usam a data da última atualização.
+ */
+@Value
+public class WishlistVersion {
+
+    String etag;
+    long lastModified;
+
+    static WishlistVersion of(CustomerWishlistEntity customer) {
+        LocalDateTime updatedAt = customer.getDateUpdate() != null ? customer.getDateUpdate() : customer.getDateCreation();
+        long lastModified = updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1L;
+        String etag = customer.getVersion() != null
+                ? "\"v" + customer.getVersion() + "\""
+                : "\"t" + lastModified + "\"";
+        return new WishlistVersion(etag, lastModified);
+    }
+
+    /**
+     * Versão da representação com o total formatado por {@code formatter}: locales diferentes do padrão geram
+     * outro ETag, já que o corpo muda.
+     */
+    public WishlistVersion localized(CurrencyFormatter formatter) {
+        if (formatter == CurrencyFormatter.DEFAULT) {
+            return this;
+        }
+        String localizedEtag = etag.substring(0, etag.length() - 1) + "-" + formatter.getLocale().toLanguageTag() + "\"";
+        return new WishlistVersion(localizedEtag, lastModified);
+    }
+}
@@ -0,0 +1,128 @@
+package com.wishlist.utils;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+
+/**
+ * Formata valores em centavos como moeda, com o mesmo resultado de {@link NumberFormat#getCurrencyInstance(Locale)},
+ * sem criar um formatter a cada chamada e sem passar por {@code double}. Prefixos, sufixos e separadores são
+ * extraídos uma única vez do {@link DecimalFormat} do locale.
+ * <p>
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ */
+public final class CurrencyFormatter {
+
+    public static final Locale DEFAULT_LOCALE = Locale.forLanguageTag("pt-BR");
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("BRL");
+
+    // Declarado antes de DEFAULT, que já usa os valores na inicialização
+    private static final long[] SELF_CHECK_VALUES = {0L, 1L, 99L, 100L, 1_990L, 123_456L, 100_000_000L, -1L, -123_456L};
+
+    /**
+     * Formato usado desde sempre nas respostas da API (reais, pt-BR).
+     */
+    public static final CurrencyFormatter DEFAULT = new CurrencyFormatter(DEFAULT_LOCALE, DEFAULT_CURRENCY);
+
+    @Getter
+    private final Locale locale;
+    @Getter
+    private final Currency currency;
+    private final char[] positivePrefix;
+    private final char[] positiveSuffix;
+    private final char[] negativePrefix;
+    private final char[] negativeSuffix;
+    private final char decimalSeparator;
+    private final char groupingSeparator;
+    private final int groupingSize;
+    private final int fractionDigits;
+
+    private CurrencyFormatter(Locale locale, Currency currency) {
+        DecimalFormat reference = reference(locale, currency);
+        DecimalFormatSymbols symbols = reference.getDecimalFormatSymbols();
+        this.locale = locale;
+        this.currency = currency;
+        this.positivePrefix = reference.getPositivePrefix().toCharArray();
+        this.positiveSuffix = reference.getPositiveSuffix().toCharArray();
+        this.negativePrefix = reference.getNegativePrefix().toCharArray();
+        this.negativeSuffix = reference.getNegativeSuffix().toCharArray();
+        this.decimalSeparator = symbols.getMonetaryDecimalSeparator();
+        this.groupingSeparator = symbols.getMonetaryGroupingSeparator();
+        this.groupingSize = reference.isGroupingUsed() ? reference.getGroupingSize() : 0;
+        this.fractionDigits = Math.max(currency.getDefaultFractionDigits(), 0);
+        selfCheck(reference);
+    }
+
+    /**
+     * @throws IllegalArgumentException se o padrão de moeda do locale não puder ser reproduzido
+     *                                  (ex.: mínimo de dígitos inteiros maior que 1)
+     */
+    public static CurrencyFormatter of(Locale locale, Currency currency) {
+        if (DEFAULT_LOCALE.equals(locale) && DEFAULT_CURRENCY.equals(currency)) {
+            return DEFAULT;
+        }
+        return new CurrencyFormatter(locale, currency);
+    }
+
+    /**
+     * @param amount valor na menor unidade da moeda (centavos, para o real)
+     */
+    public String format(long amount) {
+        boolean negative = amount < 0;
+        char[] prefix = negative ? negativePrefix : positivePrefix;
+        char[] suffix = negative ? negativeSuffix : positiveSuffix;
+
+        // 19 dígitos + separadores de milhar + separador decimal cabem com folga em 40 posições
+        char[] buffer = new char[40 + prefix.length + suffix.length];
+        int position = buffer.length - suffix.length;
+        System.arraycopy(suffix, 0, buffer, position, suffix.length);
+
+        // Trabalha com o valor negativo para que Long.MIN_VALUE não estoure
+        long remaining = negative ? amount : -amount;
+        for (int i = 0; i < fractionDigits; i++) {
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        }
+        if (fractionDigits > 0) {
+            buffer[--position] = decimalSeparator;
+        }
+        int digitsInGroup = 0;
+        do {
+            if (groupingSize > 0 && digitsInGroup == groupingSize) {
+                buffer[--position] = groupingSeparator;
+                digitsInGroup = 0;
+            }
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+            digitsInGroup++;
+        } while (remaining != 0);
+
+        position -= prefix.length;
+        System.arraycopy(prefix, 0, buffer, position, prefix.length);
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    private static DecimalFormat reference(Locale locale, Currency currency) {
+        if (!(NumberFormat.getCurrencyInstance(locale) instanceof DecimalFormat format)) {
+            throw new IllegalArgumentException("Locale sem formato de moeda decimal: " + locale.toLanguageTag());
+        }
+        format.setCurrency(currency);
+        return format;
+    }
+
+    private void selfCheck(DecimalFormat reference) {
+        for (long value : SELF_CHECK_VALUES) {
+            String expected = reference.format(BigDecimal.valueOf(value, fractionDigits));
+            if (!expected.equals(format(value))) {
+                throw new IllegalArgumentException(String.format(
+                        "Formato de moeda de %s não suportado: esperado [%s], gerado [%s]",
+                        locale.toLanguageTag(), expected, format(value)));
+            }
+        }
+    }
+}
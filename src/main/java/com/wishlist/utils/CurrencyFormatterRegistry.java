@@ -0,0 +1,86 @@
+package com.wishlist.utils;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.dto.response.MultiGetWishlistResponseDTO;
+import com.wishlist.dto.response.WishlistSummaryResponseDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Formatters de moeda dos locales configurados em {@code wishlist.currency}, montados uma única vez.
+ * <p>
+ * O mapper sempre preenche {@code formattedTotalPrice} com {@link CurrencyFormatter#DEFAULT}; os controllers só
+ * reformatam quando a requisição pede outro locale, então o caminho padrão não tem custo extra.
+ */
+@Component
+public class CurrencyFormatterRegistry {
+
+    private final Map<Locale, CurrencyFormatter> formatters = new LinkedHashMap<>();
+    private final Map<String, CurrencyFormatter> byTag = new LinkedHashMap<>();
+    private final CurrencyFormatter defaultFormatter;
+
+    public CurrencyFormatterRegistry(WishlistProperties properties) {
+        WishlistProperties.Currency config = properties.getCurrency();
+        Currency currency = Currency.getInstance(config.getCode());
+        defaultFormatter = CurrencyFormatter.of(config.getDefaultLocale(), currency);
+        register(defaultFormatter);
+        for (Locale locale : config.getLocales()) {
+            register(CurrencyFormatter.of(locale, currency));
+        }
+    }
+
+    /**
+     * Escolhe o formatter pelo parâmetro {@code lang} ou, na falta dele, pelo header Accept-Language. Locales não
+     * configurados (ou valores inválidos) caem no locale padrão.
+     */
+    public CurrencyFormatter resolve(String lang, String acceptLanguage) {
+        String requested = lang != null && !lang.isBlank() ? lang : acceptLanguage;
+        if (requested == null || requested.isBlank()) {
+            return defaultFormatter;
+        }
+        CurrencyFormatter exact = byTag.get(requested.trim().toLowerCase(Locale.ROOT));
+        if (exact != null) {
+            return exact;
+        }
+        try {
+            List<Locale> matches = Locale.filter(Locale.LanguageRange.parse(requested), formatters.keySet());
+            return matches.isEmpty() ? defaultFormatter : formatters.get(matches.get(0));
+        } catch (IllegalArgumentException e) {
+            return defaultFormatter;
+        }
+    }
+
+    public CustomerWishlistResponseDTO localize(CustomerWishlistResponseDTO response, CurrencyFormatter formatter) {
+        if (response != null && formatter != CurrencyFormatter.DEFAULT) {
+            long total = response.getTotalPrice() != null ? response.getTotalPrice() : 0L;
+            response.setFormattedTotalPrice(formatter.format(total));
+        }
+        return response;
+    }
+
+    public WishlistSummaryResponseDTO localize(WishlistSummaryResponseDTO response, CurrencyFormatter formatter) {
+        if (response != null && formatter != CurrencyFormatter.DEFAULT) {
+            long total = response.getTotalPrice() != null ? response.getTotalPrice() : 0L;
+            response.setFormattedTotalPrice(formatter.format(total));
+        }
+        return response;
+    }
+
+    public MultiGetWishlistResponseDTO localize(MultiGetWishlistResponseDTO response, CurrencyFormatter formatter) {
+        if (formatter != CurrencyFormatter.DEFAULT && response.getFound() != null) {
+            response.getFound().forEach(found -> localize(found, formatter));
+        }
+        return response;
+    }
+
+    private void register(CurrencyFormatter formatter) {
+        formatters.putIfAbsent(formatter.getLocale(), formatter);
+        byTag.putIfAbsent(formatter.getLocale().toLanguageTag().toLowerCase(Locale.ROOT), formatter);
+    }
+}
@@ -2,27 +2,91 @@ package com.wishlist.utils.mapper;
 
 import com.wishlist.domain.CustomerWishlistEntity;
 import com.wishlist.dto.CustomerWishlistDTO;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.dto.SparseProductDTO;
 import com.wishlist.dto.request.CustomerWishlistRequestDTO;
 import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.dto.response.WishlistSummaryResponseDTO;
+import com.wishlist.utils.CurrencyFormatter;
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-
-import java.text.NumberFormat;
-import java.util.Locale;
+import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring")
 public interface CustomerWishlistMapper {
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "itemCount", ignore = true)
+    @Mapping(target = "totalPriceCents", ignore = true)
     CustomerWishlistEntity toEntity(CustomerWishlistDTO dto);
 
     @Mapping(target = "dateCreation", ignore = true)
     @Mapping(target = "dateUpdate", ignore = true)
     CustomerWishlistDTO requestToDTO(CustomerWishlistRequestDTO request);
 
-    @Mapping(target = "totalPrice", expression = "java(calculateTotalPrice(entity))")
-    @Mapping(target = "formattedTotalPrice", expression = "java(formatPrice(calculateTotalPrice(entity)))")
+    @Mapping(target = "totalPrice", ignore = true)
+    @Mapping(target = "formattedTotalPrice", ignore = true)
+    @Mapping(target = "itemCount", ignore = true)
+    @Mapping(target = "page", ignore = true)
+    @Mapping(target = "size", ignore = true)
     CustomerWishlistResponseDTO toResponseDTO(CustomerWishlistEntity entity);
 
+    /**
+     * Resposta da busca paginada: {@code entity} traz só os itens da página, e a quantidade e o total são os da
+     * wishlist inteira. Com {@code sparse} (só alguns campos pedidos em {@code fields}) os campos nulos dos produtos
+     * são omitidos.
+     */
+    default CustomerWishlistResponseDTO toPageDTO(CustomerWishlistEntity entity, int page, int size, boolean sparse) {
+        CustomerWishlistResponseDTO response = toResponseDTO(entity);
+        if (response != null) {
+            response.setItemCount(entity.getItemCount());
+            response.setPage(page);
+            response.setSize(size);
+            if (sparse && response.getWishlist() != null) {
+                response.setWishlist(response.getWishlist().stream()
+                        .<ProductDTO>map(SparseProductDTO::new)
+                        .toList());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Usa o total mantido no documento (ou calcula uma única vez, em documentos não migrados) e reaproveita o valor
+     * na versão formatada.
+     */
+    @AfterMapping
+    default void fillTotalPrice(CustomerWishlistEntity entity, @MappingTarget CustomerWishlistResponseDTO response) {
+        Long totalPrice = totalPrice(entity);
+        response.setTotalPrice(totalPrice);
+        response.setFormattedTotalPrice(formatPrice(totalPrice));
+    }
+
+    /**
+     * Monta o resumo apenas com os agregados; não depende da lista de produtos quando o documento já os tem.
+     */
+    default WishlistSummaryResponseDTO toSummaryDTO(CustomerWishlistEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        Long totalPrice = totalPrice(entity);
+        return WishlistSummaryResponseDTO.builder()
+                .customerId(entity.getCustomerId())
+                .itemCount(entity.getItemCount() != null ? entity.getItemCount()
+                        : entity.getWishlist() != null ? entity.getWishlist().size() : 0)
+                .totalPrice(totalPrice)
+                .formattedTotalPrice(formatPrice(totalPrice))
+                .build();
+    }
+
+    default Long totalPrice(CustomerWishlistEntity entity) {
+        if (entity != null && entity.getTotalPriceCents() != null) {
+            return entity.getTotalPriceCents();
+        }
+        return calculateTotalPrice(entity);
+    }
+
     default Long calculateTotalPrice(CustomerWishlistEntity entity) {
         if (entity == null || entity.getWishlist() == null) {
             return 0L;
@@ -38,10 +102,6 @@ public interface CustomerWishlistMapper {
             return "R$0,00";
         }
 
-        NumberFormat formatter = NumberFormat.getCurrencyInstance(new Locale("pt", "BR"));
-        return formatter.format(priceInCents / 100.0);
+        return CurrencyFormatter.DEFAULT.format(priceInCents);
     }
-
-
-
 }
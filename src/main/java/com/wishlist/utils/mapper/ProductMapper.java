@@ -3,10 +3,12 @@ package com.wishlist.utils.mapper;
 import com.wishlist.domain.ProductEntity;
 import com.wishlist.dto.ProductDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface ProductMapper {
 
+    @Mapping(target = "dateAdded", ignore = true)
     ProductEntity toEntity(ProductDTO dto);
     ProductDTO toDTO(ProductEntity entity);
 }
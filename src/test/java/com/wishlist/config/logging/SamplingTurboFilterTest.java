@@ -0,0 +1,81 @@
+package com.wishlist.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger controllerLogger = context.getLogger("com.wishlist.controller.WishlistController");
+    private final Logger otherLogger = context.getLogger("org.mongodb.driver");
+    private final Logger adminLogger = context.getLogger("com.wishlist.controller.WishlistAdminController");
+    private final SamplingTurboFilter sampling = new SamplingTurboFilter();
+    private final RequestDebugTurboFilter requestDebug = new RequestDebugTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        sampling.addLoggerName("com.wishlist.controller.WishlistController");
+        sampling.setSampleEvery(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void quandoMensagemInfoDeAltoVolume_deveDeixarPassarUmACadaN() {
+        long passed = IntStream.range(0, 100)
+                .mapToObj(i -> sampling.decide(null, controllerLogger, Level.INFO, "Buscando wishlist", null, null))
+                .filter(reply -> reply == FilterReply.NEUTRAL)
+                .count();
+
+        assertEquals(10, passed);
+    }
+
+    @Test
+    void quandoNivelAcimaDoMaximo_naoDeveAmostrar() {
+        IntStream.range(0, 20).forEach(i ->
+                assertEquals(FilterReply.NEUTRAL, sampling.decide(null, controllerLogger, Level.WARN, "Erro", null, null)));
+    }
+
+    @Test
+    void quandoLoggerNaoListado_naoDeveAmostrar() {
+        IntStream.range(0, 20).forEach(i ->
+                assertEquals(FilterReply.NEUTRAL, sampling.decide(null, otherLogger, Level.INFO, "Conexão", null, null)));
+    }
+
+    @Test
+    void quandoLoggerOperacionalNoMesmoPacote_naoDeveAmostrar() {
+        IntStream.range(0, 20).forEach(i ->
+                assertEquals(FilterReply.NEUTRAL, sampling.decide(null, adminLogger, Level.INFO, "Migração iniciada", null, null)));
+    }
+
+    @Test
+    void quandoApenasVerificaNivel_naoDeveConsumirAmostra() {
+        sampling.decide(null, controllerLogger, Level.INFO, null, null, null);
+
+        assertEquals(FilterReply.NEUTRAL, sampling.decide(null, controllerLogger, Level.INFO, "Buscando wishlist", null, null));
+    }
+
+    @Test
+    void quandoRequisicaoPediuDebug_deveLiberarDebugDaAplicacao() {
+        assertEquals(FilterReply.NEUTRAL, requestDebug.decide(null, controllerLogger, Level.DEBUG, "payload", null, null));
+
+        MDC.put(RequestDebugTurboFilter.MDC_KEY, "true");
+
+        assertEquals(FilterReply.ACCEPT, requestDebug.decide(null, controllerLogger, Level.DEBUG, "payload", null, null));
+        assertEquals(FilterReply.NEUTRAL, requestDebug.decide(null, controllerLogger, Level.TRACE, "payload", null, null));
+        assertEquals(FilterReply.NEUTRAL, requestDebug.decide(null, otherLogger, Level.DEBUG, "payload", null, null));
+    }
+}
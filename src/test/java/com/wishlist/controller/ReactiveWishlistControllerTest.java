@@ -0,0 +1,148 @@
+package com.wishlist.controller;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.exception.CustomerNotFoundException;
+import com.wishlist.exception.NoItemsAddedException;
+import com.wishlist.exception.NoItemsDeletedException;
+import com.wishlist.service.ReactiveCustomerWishListService;
+import com.wishlist.service.WishlistBulkService;
+import com.wishlist.service.WishlistMetrics;
+import com.wishlist.service.WishlistVersion;
+import com.wishlist.utils.CurrencyFormatterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveWishlistController.class)
+@Import({CurrencyFormatterRegistry.class, WishlistProperties.class})
+@ActiveProfiles("reactive")
+class ReactiveWishlistControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveCustomerWishListService customerWishListService;
+
+    @MockBean
+    private WishlistBulkService wishlistBulkService;
+
+    @MockBean
+    private WishlistMetrics wishlistMetrics;
+
+    private UUID customerId;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        customerId = UUID.randomUUID();
+        productId = UUID.randomUUID();
+    }
+
+    @Test
+    void quandoBuscarWishlist_deveRetornarSucessoComEtag() {
+        CustomerWishlistResponseDTO response = CustomerWishlistResponseDTO.builder()
+                .customerId(customerId)
+                .wishlist(List.of())
+                .build();
+        whenGetWishlist(new WishlistVersion("\"v1\"", 1700000000000L), response);
+
+        webTestClient.get().uri("/api/wishlist/{customerId}", customerId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"v1\"")
+                .expectBody()
+                .jsonPath("$.customerId").isEqualTo(customerId.toString());
+    }
+
+    @Test
+    void quandoBuscarWishlistComEtagAtual_deveRetornarNotModified() {
+        whenGetWishlist(new WishlistVersion("\"v1\"", 1700000000000L), null);
+
+        webTestClient.get().uri("/api/wishlist/{customerId}", customerId)
+                .header("If-None-Match", "\"v1\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void quandoBuscarWishlistClienteNaoEncontrado_deveRetornarNotFound() {
+        when(customerWishListService.getWishlist(eq(customerId), any()))
+                .thenReturn(Mono.error(new CustomerNotFoundException("Cliente não encontrado")));
+
+        webTestClient.get().uri("/api/wishlist/{customerId}", customerId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void quandoAdicionarProdutosJaExistentes_deveRetornarConflict() {
+        when(customerWishListService.addItemsWishlist(any()))
+                .thenReturn(Mono.error(new NoItemsAddedException("Nenhum produto foi adicionado")));
+
+        webTestClient.put().uri("/api/wishlist")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(String.format("""
+                        { "customerId": "%s", "wishlist": [] }
+                        """, customerId))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void quandoRemoverProdutosSemCorpo_deveRetornarNoContent() {
+        when(customerWishListService.deleteItemsFromWishlist(customerId, List.of(productId))).thenReturn(Mono.empty());
+
+        webTestClient.method(HttpMethod.DELETE).uri("/api/wishlist/product")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(criarJsonRequisicaoRemocaoProdutos())
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    void quandoRemoverProdutosInexistentes_deveRetornarBadRequest() {
+        when(customerWishListService.deleteItemsFromWishlist(customerId, List.of(productId)))
+                .thenReturn(Mono.error(new NoItemsDeletedException("Nenhum produto encontrado")));
+
+        webTestClient.method(HttpMethod.DELETE).uri("/api/wishlist/product")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(criarJsonRequisicaoRemocaoProdutos())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    /**
+     * Simula o serviço aplicando o predicado de "não modificado" recebido do controller.
+     */
+    private void whenGetWishlist(WishlistVersion version, CustomerWishlistResponseDTO response) {
+        when(customerWishListService.getWishlist(eq(customerId), any())).thenAnswer(invocation -> {
+            Predicate<WishlistVersion> notModified = invocation.getArgument(1);
+            return notModified.test(version) ? Mono.empty() : Mono.justOrEmpty(response);
+        });
+    }
+
+    private String criarJsonRequisicaoRemocaoProdutos() {
+        return String.format("""
+                { "customerId": "%s", "productIds": ["%s"] }
+                """, customerId, productId);
+    }
+}
@@ -1,30 +1,56 @@
 package com.wishlist.controller;
 
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.dto.SparseProductDTO;
 import com.wishlist.dto.request.CustomerWishlistRequestDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO;
 import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.dto.response.MultiGetWishlistResponseDTO;
+import com.wishlist.dto.response.ProductBatchCheckResponseDTO;
 import com.wishlist.dto.response.ProductCheckResponseDTO;
+import com.wishlist.dto.response.ProductWisherResponseDTO;
+import com.wishlist.dto.response.WishlistSummaryResponseDTO;
 import com.wishlist.exception.CustomerNotFoundException;
+import com.wishlist.exception.InvalidCursorException;
+import com.wishlist.exception.InvalidWishlistQueryException;
 import com.wishlist.exception.NoItemsAddedException;
 import com.wishlist.exception.NoItemsDeletedException;
 import com.wishlist.service.CustomerWishListService;
+import com.wishlist.service.WishlistBulkService;
+import com.wishlist.service.WishlistMetrics;
+import com.wishlist.service.WishlistVersion;
+import com.wishlist.utils.CurrencyFormatterRegistry;
+import org.hamcrest.core.IsNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(WishlistController.class)
+@Import({CurrencyFormatterRegistry.class, WishlistProperties.class})
 class WishlistControllerTest {
 
     @Autowired
@@ -33,6 +59,12 @@ class WishlistControllerTest {
     @MockBean
     private CustomerWishListService customerWishListService;
 
+    @MockBean
+    private WishlistBulkService wishlistBulkService;
+
+    @MockBean
+    private WishlistMetrics wishlistMetrics;
+
     private UUID customerId;
     private UUID productId;
 
@@ -45,22 +77,160 @@ class WishlistControllerTest {
     @Test
     void quandoBuscarWishlist_deveRetornarSucesso() throws Exception {
         CustomerWishlistResponseDTO customerWishlistResponse = criarRespostaWishlistVazia(customerId);
-        when(customerWishListService.getWishlist(customerId)).thenReturn(customerWishlistResponse);
+        simularWishlist(new WishlistVersion("\"v3\"", 1700000000000L), customerWishlistResponse);
 
         mockMvc.perform(get("/api/wishlist/{customerId}", customerId)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v3\""))
+                .andExpect(header().exists("Last-Modified"))
                 .andExpect(content().json(criarJsonWishlistVazia(customerId)));
     }
 
+    @Test
+    void quandoBuscarWishlistEmOutroIdioma_deveFormatarTotalEVariarEtag() throws Exception {
+        simularWishlist(new WishlistVersion("\"v3\"", 1700000000000L), criarRespostaWishlistVazia(customerId));
+
+        mockMvc.perform(get("/api/wishlist/{customerId}", customerId)
+                        .header("Accept-Language", "en-US,en;q=0.9")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v3-en-US\""))
+                .andExpect(header().string("Vary", "Accept-Language"))
+                .andExpect(jsonPath("$.formattedTotalPrice").value("R$0.00"));
+    }
+
+    @Test
+    void quandoBuscarWishlistComEtagAtual_deveRetornarNotModifiedSemMontarResposta() throws Exception {
+        simularWishlist(new WishlistVersion("\"v3\"", 1700000000000L), criarRespostaWishlistVazia(customerId));
+
+        mockMvc.perform(get("/api/wishlist/{customerId}", customerId)
+                        .header("If-None-Match", "\"v3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(customerWishListService).getWishlist(eq(customerId), any());
+    }
+
+    @Test
+    void quandoBuscarWishlistComEtagAntigo_deveRetornarSucesso() throws Exception {
+        simularWishlist(new WishlistVersion("\"v4\"", 1700000000000L), criarRespostaWishlistVazia(customerId));
+
+        mockMvc.perform(get("/api/wishlist/{customerId}", customerId)
+                        .header("If-None-Match", "\"v3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v4\""));
+    }
+
+    @Test
+    void quandoBuscarPaginaComCampos_deveRetornarSoOsCamposPedidosEAQuantidadeTotal() throws Exception {
+        CustomerWishlistResponseDTO pagina = CustomerWishlistResponseDTO.builder()
+                        .customerId(customerId)
+                        .wishlist(List.of(new SparseProductDTO(ProductDTO.builder().productId(productId).build())))
+                        .totalPrice(9_000L)
+                        .formattedTotalPrice("R$ 90,00")
+                        .itemCount(3)
+                        .page(1)
+                        .size(2)
+                        .build();
+        when(customerWishListService.getWishlistPage(eq(customerId), eq(1), eq(2), eq("price,desc"), eq("productId"), any()))
+                .thenAnswer(invocation -> invocation.<Predicate<WishlistVersion>>getArgument(5)
+                        .test(new WishlistVersion("\"v3\"", 1700000000000L)) ? Optional.empty() : Optional.of(pagina));
+
+        mockMvc.perform(get("/api/wishlist/{customerId}", customerId)
+                        .param("page", "1")
+                        .param("size", "2")
+                        .param("sort", "price,desc")
+                        .param("fields", "productId")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v3\""))
+                .andExpect(jsonPath("$.itemCount").value(3))
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.wishlist[0].productId").value(productId.toString()))
+                .andExpect(jsonPath("$.wishlist[0].name").doesNotExist())
+                .andExpect(jsonPath("$.wishlist[0].price").doesNotExist());
+
+        verify(customerWishListService, never()).getWishlist(any(), any());
+    }
+
+    @Test
+    void quandoBuscarWishlistSemPaginacao_naoDeveRetornarCamposDaPaginaEManterCamposNulos() throws Exception {
+        CustomerWishlistResponseDTO wishlist = criarRespostaWishlistVazia(customerId);
+        wishlist.setWishlist(List.of(ProductDTO.builder().productId(productId).name("Produto").price(10.0).build()));
+        simularWishlist(new WishlistVersion("\"v3\"", 1700000000000L), wishlist);
+
+        mockMvc.perform(get("/api/wishlist/{customerId}", customerId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.wishlist[0].description").value(IsNull.nullValue()))
+                .andExpect(jsonPath("$.itemCount").doesNotExist())
+                .andExpect(jsonPath("$.page").doesNotExist())
+                .andExpect(jsonPath("$.size").doesNotExist());
+    }
+
+    @Test
+    void quandoBuscarPaginaComOrdenacaoInvalida_deveRetornarBadRequest() throws Exception {
+        when(customerWishListService.getWishlistPage(eq(customerId), isNull(), isNull(), eq("cor"), isNull(), any()))
+                .thenThrow(new InvalidWishlistQueryException("Ordenação desconhecida: cor"));
+
+        mockMvc.perform(get("/api/wishlist/{customerId}", customerId)
+                        .param("sort", "cor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void quandoBuscarResumo_deveRetornarQuantidadeETotal() throws Exception {
+        when(customerWishListService.getWishlistSummary(customerId)).thenReturn(WishlistSummaryResponseDTO.builder()
+                .customerId(customerId)
+                .itemCount(2)
+                .totalPrice(3_500L)
+                .formattedTotalPrice("R$ 35,00")
+                .build());
+
+        mockMvc.perform(get("/api/wishlist/{customerId}/summary", customerId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemCount").value(2))
+                .andExpect(jsonPath("$.totalPrice").value(3_500))
+                .andExpect(jsonPath("$.wishlist").doesNotExist());
+    }
+
     @Test
     void quandoBuscarWishlistClienteNaoEncontrado_deveRetornarNotFound() throws Exception {
-        doThrow(new CustomerNotFoundException("Cliente não encontrado"))
-                .when(customerWishListService).getWishlist(customerId);
+        when(customerWishListService.getWishlist(eq(customerId), any()))
+                .thenThrow(new CustomerNotFoundException("Cliente não encontrado"));
 
         mockMvc.perform(get("/api/wishlist/{customerId}", customerId)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
+        verify(wishlistMetrics).customerNotFound();
+    }
+
+    @Test
+    void quandoBuscarVariosClientes_deveRetornarEncontradosENaoEncontrados() throws Exception {
+        UUID missingCustomerId = UUID.randomUUID();
+        MultiGetWishlistResponseDTO response = MultiGetWishlistResponseDTO.builder()
+                .found(List.of(criarRespostaWishlistVazia(customerId)))
+                .notFound(List.of(missingCustomerId))
+                .build();
+        when(customerWishListService.getWishlists(List.of(customerId, missingCustomerId))).thenReturn(response);
+
+        mockMvc.perform(post("/api/wishlist/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                { "customerIds": ["%s", "%s"] }
+                                """, customerId, missingCustomerId)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(String.format("""
+                        {
+                            "found": [ { "customerId": "%s", "wishlist": [] } ],
+                            "notFound": ["%s"]
+                        }
+                        """, customerId, missingCustomerId)));
     }
 
     @Test
@@ -84,6 +254,41 @@ class WishlistControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void quandoVerificarVariosProdutos_deveRetornarSucesso() throws Exception {
+        ProductBatchCheckResponseDTO response = ProductBatchCheckResponseDTO.builder()
+                .customerId(customerId)
+                .products(List.of(criarRespostaVerificacaoProduto(customerId, productId, true)))
+                .build();
+        when(customerWishListService.checkProductsInWishlist(customerId, List.of(productId))).thenReturn(response);
+
+        mockMvc.perform(post("/api/wishlist/product/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                { "customerId": "%s", "productIds": ["%s"] }
+                                """, customerId, productId)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(String.format("""
+                        {
+                            "customerId": "%s",
+                            "products": [ %s ]
+                        }
+                        """, customerId, criarJsonVerificacaoProduto(customerId, productId))));
+    }
+
+    @Test
+    void quandoVerificarVariosProdutosClienteNaoEncontrado_deveRetornarNotFound() throws Exception {
+        doThrow(new CustomerNotFoundException("Cliente não encontrado"))
+                .when(customerWishListService).checkProductsInWishlist(eq(customerId), anyList());
+
+        mockMvc.perform(post("/api/wishlist/product/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                { "customerId": "%s", "productIds": ["%s"] }
+                                """, customerId, productId)))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void quandoAdicionarProdutosNaWishlist_deveRetornarSucesso() throws Exception {
         CustomerWishlistResponseDTO response = criarRespostaWishlistVazia(customerId);
@@ -107,6 +312,17 @@ class WishlistControllerTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void quandoWishlistReservadaPorOutraEscrita_deveRetornarConflict() throws Exception {
+        doThrow(new PessimisticLockingFailureException("Wishlist do cliente " + customerId + " reservada por outra escrita"))
+                .when(customerWishListService).addItemsWishlist(any(CustomerWishlistRequestDTO.class));
+
+        mockMvc.perform(put("/api/wishlist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(criarJsonRequisicaoWishlistVazia(customerId)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void quandoRemoverProdutosComRetornoCorpo_deveRetornarSucesso() throws Exception {
         CustomerWishlistResponseDTO response = criarRespostaWishlistVazia(customerId);
@@ -152,6 +368,72 @@ class WishlistControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void quandoAplicarLote_deveRetornarResultadoPorOperacao() throws Exception {
+        BulkWishlistResponseDTO response = BulkWishlistResponseDTO.builder()
+                .succeeded(1)
+                .failed(0)
+                .results(List.of(BulkWishlistResponseDTO.OperationResultDTO.builder()
+                        .customerId(customerId)
+                        .status(BulkWishlistResponseDTO.Status.REMOVED)
+                        .build()))
+                .build();
+        when(wishlistBulkService.applyOperations(any())).thenReturn(response);
+
+        mockMvc.perform(post("/api/wishlist/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                {
+                                    "operations": [
+                                        { "customerId": "%s", "type": "REMOVE", "productIds": ["%s"] }
+                                    ]
+                                }
+                                """, customerId, productId)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(String.format("""
+                        {
+                            "succeeded": 1,
+                            "failed": 0,
+                            "results": [ { "customerId": "%s", "status": "REMOVED" } ]
+                        }
+                        """, customerId)));
+    }
+
+    @Test
+    void quandoListarClientesDoProduto_deveRetornarUmaLinhaPorCliente() throws Exception {
+        UUID otherCustomerId = UUID.randomUUID();
+        when(customerWishListService.streamWishers(productId, null)).thenReturn(Stream.of(
+                ProductWisherResponseDTO.builder().customerId(customerId).cursor("c1").build(),
+                ProductWisherResponseDTO.builder().customerId(otherCustomerId).cursor("c2").build()));
+
+        MvcResult result = mockMvc.perform(get("/api/wishlist/product/{productId}/customers", productId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(String.format("""
+                        {"customerId":"%s","cursor":"c1"}
+                        {"customerId":"%s","cursor":"c2"}
+                        """, customerId, otherCustomerId)));
+    }
+
+    @Test
+    void quandoListarClientesComCursorInvalido_deveRetornarBadRequest() throws Exception {
+        when(customerWishListService.streamWishers(productId, "invalido"))
+                .thenThrow(new InvalidCursorException("Cursor inválido"));
+
+        mockMvc.perform(get("/api/wishlist/product/{productId}/customers", productId)
+                        .param("cursor", "invalido"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void simularWishlist(WishlistVersion version, CustomerWishlistResponseDTO response) throws Exception {
+        when(customerWishListService.getWishlist(eq(customerId), any())).thenAnswer(invocation ->
+                invocation.<Predicate<WishlistVersion>>getArgument(1).test(version) ? Optional.empty() : Optional.of(response));
+    }
+
     private CustomerWishlistResponseDTO criarRespostaWishlistVazia(UUID customerId) {
         return CustomerWishlistResponseDTO.builder()
                 .customerId(customerId)
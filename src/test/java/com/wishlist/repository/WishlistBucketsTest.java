@@ -0,0 +1,198 @@
+package com.wishlist.repository;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.UpdateResult;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import org.bson.BsonBinary;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.mongodb.core.CollectionCallback;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+class WishlistBucketsTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final MongoCollection<Document> headers = mock(MongoCollection.class);
+    private final MongoCollection<Document> buckets = mock(MongoCollection.class);
+    private final FindIterable<Document> found = mock(FindIterable.class);
+    private final List<Document> storedBuckets = new ArrayList<>();
+    private final UUID customerId = UUID.randomUUID();
+    private WishlistBuckets wishlistBuckets;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.execute(eq(CustomerWishlistEntity.class), any(CollectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<CollectionCallback<?>>getArgument(1).doInCollection(headers));
+        when(mongoTemplate.execute(eq(WishlistBuckets.BUCKETS), any(CollectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<CollectionCallback<?>>getArgument(1).doInCollection(buckets));
+        when(buckets.find(any(Bson.class))).thenReturn(found);
+        when(found.projection(any())).thenReturn(found);
+        when(found.sort(any())).thenReturn(found);
+        when(found.into(any())).thenAnswer(invocation -> {
+            Collection<Document> target = invocation.getArgument(0);
+            target.addAll(storedBuckets);
+            return target;
+        });
+        when(headers.updateOne(any(Bson.class), any(Bson.class))).thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        WishlistProperties.Storage storage = new WishlistProperties.Storage();
+        storage.setLayout(WishlistProperties.StorageLayout.BUCKETED);
+        storage.getBuckets().setSize(2);
+        storage.getBuckets().setLockTimeout(Duration.ofMillis(50));
+        wishlistBuckets = new WishlistBuckets(mongoTemplate, new WishlistStorage(converter(), storage), storage.getBuckets());
+    }
+
+    @Test
+    void quandoUltimoBucketEncher_deveCompletarOUltimoEAbrirBucketNovo() {
+        storedBuckets.add(bucket(0, item(UUID.randomUUID(), 100L)));
+        reserveReturns(header(1, 100L).append("b", List.of(pointer(0, 1))));
+        List<ProductEntity> products = List.of(new ProductEntity(UUID.randomUUID(), "A", null, 200L),
+                new ProductEntity(UUID.randomUUID(), "B", null, 300L),
+                new ProductEntity(UUID.randomUUID(), "C", null, 400L));
+
+        wishlistBuckets.addProducts(customerId, products, 20, LocalDateTime.now());
+
+        ArgumentCaptor<Bson> tailUpdate = ArgumentCaptor.forClass(Bson.class);
+        verify(buckets).updateOne(eq(new Document("cid", new BsonBinary(customerId, UuidRepresentation.STANDARD)).append("s", 0)),
+                tailUpdate.capture());
+        Document each = ((Document) tailUpdate.getValue()).get("$push", Document.class).get("w", Document.class);
+        assertEquals(1, each.getList("$each", Document.class).size());
+
+        ArgumentCaptor<List<Document>> created = ArgumentCaptor.forClass(List.class);
+        verify(buckets).insertMany(created.capture());
+        assertEquals(1, created.getValue().size());
+        assertEquals(1, created.getValue().get(0).get("s"));
+        assertEquals(2, created.getValue().get(0).getList("w", Document.class).size());
+
+        Document release = releaseUpdate();
+        assertEquals(List.of(pointer(0, 2), pointer(1, 2)), release.get("$set", Document.class).get("b"));
+        assertEquals(new Document("ic", 3).append("tc", 900L).append("v", 1L), release.get("$inc"));
+    }
+
+    @Test
+    void quandoReservaNaoLiberadaNoPrazo_deveFalharComConflitoDeEscrita() {
+        when(headers.findOneAndUpdate(any(Bson.class), any(Bson.class), any(FindOneAndUpdateOptions.class))).thenReturn(null);
+        when(headers.countDocuments(any(Bson.class))).thenReturn(1L);
+
+        long start = System.nanoTime();
+        assertThrows(PessimisticLockingFailureException.class,
+                () -> wishlistBuckets.removeProducts(customerId, Set.of(UUID.randomUUID()), LocalDateTime.now(), false));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(50)) >= 0);
+        verify(headers, atLeast(2)).findOneAndUpdate(any(Bson.class), any(Bson.class), any(FindOneAndUpdateOptions.class));
+        verify(buckets, never()).bulkWrite(any());
+    }
+
+    @Test
+    void quandoWishlistContinuarReservadaNaAtualizacaoDeProduto_deveTentarDeNovoEDevolverOCliente() {
+        storedBuckets.add(new Document("cid", id()));
+        when(headers.findOneAndUpdate(any(Bson.class), any(Bson.class), any(FindOneAndUpdateOptions.class))).thenReturn(null);
+        when(headers.countDocuments(any(Bson.class))).thenReturn(1L);
+
+        ProductDetailsUpdateResults results = wishlistBuckets.updateProductDetails(
+                new ProductEntity(UUID.randomUUID(), "Novo nome", null, 2490L), List.of(customerId), LocalDateTime.now());
+
+        assertEquals(0L, results.getUpdated());
+        assertEquals(Set.of(customerId), results.getSkipped());
+        verify(buckets, never()).updateMany(any(Bson.class), any(Bson.class), any(UpdateOptions.class));
+        verify(headers, never()).updateOne(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    void quandoReservaAnteriorExpirou_deveRecalcularCabecalhoAPartirDosBuckets() {
+        storedBuckets.add(bucket(0, item(UUID.randomUUID(), 100L), item(UUID.randomUUID(), 200L)));
+        storedBuckets.add(bucket(1, item(UUID.randomUUID(), 300L)));
+        Document abandoned = new Document("t", new ObjectId()).append("e", new Date(System.currentTimeMillis() - 1_000));
+        reserveReturns(header(5, 999L).append("b", List.of(pointer(0, 5))).append("lk", abandoned));
+
+        wishlistBuckets.addProducts(customerId, List.of(new ProductEntity(UUID.randomUUID(), "D", null, 400L)), 20, LocalDateTime.now());
+
+        ArgumentCaptor<Bson> updates = ArgumentCaptor.forClass(Bson.class);
+        verify(headers, times(2)).updateOne(any(Bson.class), updates.capture());
+        Document rewrite = (Document) updates.getAllValues().get(0);
+        assertEquals(new Document("b", List.of(pointer(0, 2), pointer(1, 1)))
+                .append("ic", 3)
+                .append("tc", 600L), rewrite.get("$set"));
+        assertEquals(new Document("ic", 1).append("tc", 400L).append("v", 1L),
+                ((Document) updates.getAllValues().get(1)).get("$inc"));
+    }
+
+    private void reserveReturns(Document header) {
+        when(headers.findOneAndUpdate(any(Bson.class), any(Bson.class), any(FindOneAndUpdateOptions.class))).thenReturn(header);
+    }
+
+    private Document releaseUpdate() {
+        ArgumentCaptor<Bson> update = ArgumentCaptor.forClass(Bson.class);
+        verify(headers).updateOne(any(Bson.class), update.capture());
+        return (Document) update.getValue();
+    }
+
+    private Document header(int itemCount, long totalPriceCents) {
+        return new Document("_id", id())
+                .append("dc", new Date())
+                .append("v", 1L)
+                .append("ic", itemCount)
+                .append("tc", totalPriceCents);
+    }
+
+    private Binary id() {
+        BsonBinary id = new BsonBinary(customerId, UuidRepresentation.STANDARD);
+        return new Binary(id.getType(), id.getData());
+    }
+
+    private static Document bucket(int sequence, Document... items) {
+        return new Document("s", sequence).append("w", List.of(items));
+    }
+
+    private static Document item(UUID productId, long price) {
+        BsonBinary id = new BsonBinary(productId, UuidRepresentation.STANDARD);
+        return new Document("p", new Binary(id.getType(), id.getData())).append("c", price);
+    }
+
+    private static Document pointer(int sequence, int itemCount) {
+        return new Document("s", sequence).append("ic", itemCount);
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of(new CustomerWishlistReadingConverter()));
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
@@ -0,0 +1,271 @@
+package com.wishlist.repository;
+
+import com.mongodb.client.model.UpdateManyModel;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WishlistStorageTest {
+
+    private final MappingMongoConverter converter = converter();
+
+    @Test
+    void quandoDocumentoNoFormatoAntigo_deveLerUuidSubtipo3ENomesCompletos() {
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        LocalDateTime dateCreation = LocalDateTime.of(2024, 1, 10, 8, 30);
+        Document legacy = new Document("_id", binary(customerId, UuidRepresentation.JAVA_LEGACY))
+                .append("wishlist", List.of(new Document("productId", binary(productId, UuidRepresentation.JAVA_LEGACY))
+                        .append("name", "Produto")
+                        .append("price", 1990)))
+                .append("dateCreation", toDate(dateCreation))
+                .append("version", 3)
+                .append("_class", CustomerWishlistEntity.class.getName());
+
+        CustomerWishlistEntity customer = converter.read(CustomerWishlistEntity.class, legacy);
+
+        assertEquals(customerId, customer.getCustomerId());
+        assertEquals(List.of(new ProductEntity(productId, "Produto", null, 1990L)), customer.getWishlist());
+        assertEquals(dateCreation, customer.getDateCreation());
+        assertEquals(3L, customer.getVersion());
+        assertNull(customer.getItemCount());
+    }
+
+    @Test
+    void quandoMigrarDocumentoAntigo_deveGravarFormatoCompactoComAgregados() {
+        WishlistStorage storage = storage(WishlistProperties.StorageLayout.COMPACT);
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        Document legacy = new Document("_id", binary(customerId, UuidRepresentation.JAVA_LEGACY))
+                .append("wishlist", List.of(new Document("productId", binary(productId, UuidRepresentation.JAVA_LEGACY))
+                        .append("name", "Produto")
+                        .append("price", 1990L)))
+                .append("dateCreation", toDate(LocalDateTime.of(2024, 1, 10, 8, 30)));
+
+        Document compact = storage.toCompact(legacy);
+
+        assertEquals(new BsonBinary(customerId, UuidRepresentation.STANDARD), compact.get("_id"));
+        assertEquals(List.of(new Document("p", new BsonBinary(productId, UuidRepresentation.STANDARD))
+                .append("n", "Produto")
+                .append("c", 1990L)), compact.get("w"));
+        assertEquals(1, compact.get("ic"));
+        assertEquals(1990L, compact.get("tc"));
+        assertFalse(compact.containsKey("_class"));
+        assertFalse(compact.containsKey("wishlist"));
+
+        CustomerWishlistEntity fromLegacy = converter.read(CustomerWishlistEntity.class, legacy);
+        CustomerWishlistEntity fromCompact = converter.read(CustomerWishlistEntity.class, asDecoded(compact));
+        assertEquals(fromLegacy.getWishlist(), fromCompact.getWishlist());
+        assertEquals(fromLegacy.getDateCreation(), fromCompact.getDateCreation());
+    }
+
+    @Test
+    void quandoLeituraDoFormatoAntigoLigada_deveBuscarClienteNosDoisFormatos() {
+        WishlistStorage storage = storage(WishlistProperties.StorageLayout.COMPACT);
+        UUID customerId = UUID.randomUUID();
+
+        Document filter = storage.byId(customerId);
+
+        assertEquals(new Document("_id", new Document("$in", List.of(
+                new BsonBinary(customerId, UuidRepresentation.STANDARD),
+                new BsonBinary(customerId, UuidRepresentation.JAVA_LEGACY)))), filter);
+        assertTrue(storage.migratesOnWrite());
+    }
+
+    @Test
+    void quandoFormatoAntigo_deveManterFiltroPorIdSimples() {
+        WishlistStorage storage = storage(WishlistProperties.StorageLayout.LEGACY);
+        UUID customerId = UUID.randomUUID();
+
+        assertEquals(new Document("_id", customerId), storage.byId(customerId));
+        assertFalse(storage.migratesOnWrite());
+    }
+
+    @Test
+    void quandoAtualizarProduto_deveTrocarItemERecalcularTotalNoMesmoUpdate() {
+        WishlistProperties.Storage properties = new WishlistProperties.Storage();
+        properties.setLayout(WishlistProperties.StorageLayout.COMPACT);
+        properties.setReadLegacy(false);
+        WishlistStorage storage = new WishlistStorage(converter, properties);
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        BsonBinary storedProductId = new BsonBinary(productId, UuidRepresentation.STANDARD);
+
+        List<UpdateManyModel<Document>> updates = storage.productDetailsUpdates(
+                new ProductEntity(productId, "Novo nome", null, 2490L), List.of(customerId), LocalDateTime.of(2024, 5, 1, 10, 0));
+
+        assertEquals(1, updates.size());
+        UpdateManyModel<Document> update = updates.get(0);
+        assertEquals(new Document("_id", new Document("$in", List.of(new BsonBinary(customerId, UuidRepresentation.STANDARD))))
+                .append("w.p", storedProductId), update.getFilter());
+        assertNull(update.getUpdate());
+        List<? extends Bson> pipeline = update.getUpdatePipeline();
+        assertEquals(2, pipeline.size());
+
+        Document item = new Document("$setField", new Document("field", "c")
+                .append("input", new Document("$unsetField", new Document("field", "d")
+                        .append("input", new Document("$setField", new Document("field", "n")
+                                .append("input", "$$this")
+                                .append("value", new Document("$literal", "Novo nome"))))))
+                .append("value", new Document("$literal", 2490L)));
+        assertEquals(new Document("$set", new Document("w", new Document("$map", new Document("input", "$w")
+                .append("in", new Document("$cond", List.of(
+                        new Document("$eq", List.of("$$this.p", storedProductId)), item, "$$this")))))), pipeline.get(0));
+
+        Document totals = ((Document) pipeline.get(1)).get("$set", Document.class);
+        assertEquals(new Document("$toLong", new Document("$sum", "$w.c")), totals.get("tc"));
+        assertEquals(new Document("$add", List.of(new Document("$ifNull", List.of("$v", 0L)), 1L)), totals.get("v"));
+    }
+
+    @Test
+    void quandoAdicaoDescartadaEmDocumentoSemAgregados_naoDeveAlterarODocumento() {
+        List<Document> pipeline = WishlistUpdates.LEGACY.addProducts(List.of(new Document("productId", "p")), 20, "agora");
+
+        Document set = pipeline.get(2).get("$set", Document.class);
+        for (String field : List.of("wishlist", "dateUpdate", "version", "itemCount", "totalPriceCents", "dateCreation")) {
+            List<?> condition = set.get(field, Document.class).getList("$cond", Object.class);
+            assertEquals("$__added", condition.get(0), field);
+            assertEquals("$" + field, condition.get(2), field);
+        }
+    }
+
+    @Test
+    void quandoAtualizarProdutoNosBuckets_deveTrocarSoOsCamposDoItem() {
+        Document changes = WishlistUpdates.COMPACT.productItemDetails("Novo nome", "Descrição", 2490L);
+
+        assertEquals(new Document("$set", new Document("w.$[item].n", "Novo nome")
+                .append("w.$[item].d", "Descrição")
+                .append("w.$[item].c", 2490L)), changes);
+    }
+
+    @Test
+    void quandoFormatoEmBuckets_deveBuscarItensSomenteNoPrimeiroAcesso() {
+        UUID productId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        List<ProductEntity> items = new LazyWishlistItems(() -> {
+            loads.incrementAndGet();
+            return List.of(new ProductEntity(productId, "Produto", null, 1990L));
+        });
+
+        assertEquals(0, loads.get());
+        assertEquals(1, items.size());
+        assertEquals(productId, items.get(0).getProductId());
+        assertEquals(1, loads.get());
+        assertThrows(UnsupportedOperationException.class, () -> items.add(new ProductEntity(productId, "Produto", null, 1990L)));
+    }
+
+    @Test
+    void quandoFormatoEmBuckets_deveGravarNomesCompactosSemLeituraDoFormatoAntigo() {
+        WishlistStorage storage = storage(WishlistProperties.StorageLayout.BUCKETED);
+        UUID customerId = UUID.randomUUID();
+
+        assertTrue(storage.isCompact());
+        assertEquals(new Document("_id", new BsonBinary(customerId, UuidRepresentation.STANDARD)), storage.byId(customerId));
+        assertFalse(storage.migratesOnWrite());
+    }
+
+    @Test
+    void quandoBuscarPagina_deveOrdenarRecortarEProjetarOsCamposNoMongo() {
+        WishlistProperties.Storage properties = new WishlistProperties.Storage();
+        properties.setLayout(WishlistProperties.StorageLayout.COMPACT);
+        properties.setReadLegacy(false);
+        WishlistStorage storage = new WishlistStorage(converter, properties);
+
+        Document projection = storage.wishlistPageProjection(WishlistItemsQuery.of(1, 2, "price,desc", "productId,name", 20));
+
+        Document page = new Document("$map", new Document("input", new Document("$slice", List.of(
+                new Document("$sortArray", new Document("input", "$w").append("sortBy", new Document("c", -1))), 2, 2)))
+                .append("as", "item")
+                .append("in", new Document("p", "$$item.p").append("n", "$$item.n")));
+        assertEquals(new Document("ic", 1)
+                .append("tc", 1)
+                .append("dc", 1)
+                .append("du", 1)
+                .append("v", 1)
+                .append("w", new Document("$cond", List.of(new Document("$isArray", "$w"), page, "$$REMOVE"))), projection);
+    }
+
+    @Test
+    void quandoPaginaNaOrdemDeInclusao_deveManterAOrdemGravadaNaMemoria() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        List<ProductEntity> items = List.of(new ProductEntity(first, "C", null, 10L),
+                new ProductEntity(second, "A", null, null),
+                new ProductEntity(third, "B", null, 30L));
+
+        assertEquals(List.of(third, second), WishlistItemsQuery.of(0, 2, "added,desc", null, 20).apply(items).stream()
+                .map(ProductEntity::getProductId).toList());
+        assertEquals(List.of(second, first), WishlistItemsQuery.of(0, 2, "price", null, 20).apply(items).stream()
+                .map(ProductEntity::getProductId).toList());
+        assertEquals(List.of(), WishlistItemsQuery.of(2, 2, "name", null, 20).apply(items));
+        assertEquals(List.of(), WishlistItemsQuery.of(null, 0, null, null, 20).apply(items));
+    }
+
+    private WishlistStorage storage(WishlistProperties.StorageLayout layout) {
+        WishlistProperties.Storage properties = new WishlistProperties.Storage();
+        properties.setLayout(layout);
+        return new WishlistStorage(converter, properties);
+    }
+
+    /**
+     * Simula a leitura pelo driver, que entrega binários como {@link Binary} e não como {@link BsonBinary}.
+     */
+    private static Document asDecoded(Document compact) {
+        Document decoded = new Document(compact);
+        decoded.put("_id", toBinary(compact.get("_id")));
+        decoded.put("w", compact.getList("w", Document.class).stream()
+                .map(product -> new Document(product).append("p", toBinary(product.get("p"))))
+                .toList());
+        return decoded;
+    }
+
+    private static Binary toBinary(Object value) {
+        BsonBinary binary = (BsonBinary) value;
+        return new Binary(binary.getType(), binary.getData());
+    }
+
+    private static Binary binary(UUID uuid, UuidRepresentation representation) {
+        BsonBinary binary = new BsonBinary(uuid, representation);
+        assertEquals(representation == UuidRepresentation.STANDARD
+                ? BsonBinarySubType.UUID_STANDARD.getValue()
+                : BsonBinarySubType.UUID_LEGACY.getValue(), binary.getType());
+        return new Binary(binary.getType(), binary.getData());
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of(new CustomerWishlistReadingConverter()));
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
@@ -1,30 +1,43 @@
 package com.wishlist.service;
 
+import com.wishlist.config.WishlistProperties;
 import com.wishlist.domain.CustomerWishlistEntity;
 import com.wishlist.domain.ProductEntity;
-import com.wishlist.dto.CustomerWishlistDTO;
 import com.wishlist.dto.ProductDTO;
 import com.wishlist.dto.request.CustomerWishlistRequestDTO;
 import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.dto.response.MultiGetWishlistResponseDTO;
+import com.wishlist.dto.response.ProductBatchCheckResponseDTO;
 import com.wishlist.dto.response.ProductCheckResponseDTO;
+import com.wishlist.dto.response.ProductWisherResponseDTO;
+import com.wishlist.dto.response.WishlistSummaryResponseDTO;
 import com.wishlist.exception.CustomerNotFoundException;
+import com.wishlist.exception.InvalidCursorException;
+import com.wishlist.exception.InvalidWishlistQueryException;
 import com.wishlist.exception.NoItemsAddedException;
 import com.wishlist.exception.NoItemsDeletedException;
 import com.wishlist.exception.WishlistLimitExceededException;
 import com.wishlist.repository.CustomerWishlistRepository;
+import com.wishlist.repository.ProductCatalogRepository;
+import com.wishlist.repository.ProductWisher;
+import com.wishlist.repository.WishlistItemsQuery;
 import com.wishlist.utils.mapper.CustomerWishlistMapper;
 import com.wishlist.utils.mapper.ProductMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,6 +55,21 @@ class CustomerWishListServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Spy
+    private WishlistProperties properties = new WishlistProperties();
+
+    @Spy
+    private WishlistMetrics metrics = new WishlistMetrics(new SimpleMeterRegistry(), new WishlistProperties());
+
+    @Spy
+    private WishlistCache cache = new WishlistCache(new WishlistProperties());
+
+    @Spy
+    private ProductPopularity popularity = new ProductPopularity(new WishlistProperties());
+
+    @Spy
+    private ProductCatalog catalog = new ProductCatalog(mock(ProductCatalogRepository.class), new WishlistProperties());
+
     @InjectMocks
     private CustomerWishListService service;
 
@@ -67,6 +95,7 @@ class CustomerWishListServiceTest {
         assertEquals(expectedResponse, response);
         verify(repository).findByCustomerId(customerId);
         verify(mapperWishlist).toResponseDTO(customerEntity);
+        verify(metrics).recordWishlistSize(customerEntity);
     }
 
     @Test
@@ -80,6 +109,91 @@ class CustomerWishListServiceTest {
         verifyNoInteractions(mapperWishlist);
     }
 
+    @Test
+    void quandoWishlistEstaEmCache_getWishlistNaoDeveConsultarRepositorio() throws Exception {
+        UUID customerId = UUID.randomUUID();
+
+        CustomerWishlistEntity customerEntity = new CustomerWishlistEntity();
+        customerEntity.setCustomerId(customerId);
+        customerEntity.setWishlist(new ArrayList<>());
+
+        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
+
+        service.getWishlist(customerId);
+        service.getWishlist(customerId);
+
+        verify(repository, times(1)).findByCustomerId(customerId);
+        verify(mapperWishlist, times(2)).toResponseDTO(customerEntity);
+    }
+
+    @Test
+    void quandoWishlistEAlterada_deveInvalidarCache() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        CustomerWishlistEntity customerEntity = new CustomerWishlistEntity();
+        customerEntity.setCustomerId(customerId);
+        customerEntity.setWishlist(new ArrayList<>(List.of(new ProductEntity(productId, "Produto", "Descrição", 100L))));
+
+        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
+        when(repository.removeProducts(eq(customerId), eq(Set.of(productId)), any())).thenReturn(Set.of(productId));
+
+        service.getWishlist(customerId);
+        service.deleteItemsFromWishlist(customerId, List.of(productId));
+        service.getWishlist(customerId);
+
+        verify(cache).invalidate(customerId);
+        verify(repository, times(2)).findByCustomerId(customerId);
+    }
+
+    @Test
+    void quandoBuscarVersaoDaWishlist_deveUsarVersaoOuDataDeAtualizacao() throws Exception {
+        UUID versioned = UUID.randomUUID();
+        UUID legacy = UUID.randomUUID();
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 10, 12, 0);
+
+        when(repository.findByCustomerId(versioned)).thenReturn(Optional.of(CustomerWishlistEntity.builder()
+                .customerId(versioned).dateUpdate(updatedAt).version(7L).build()));
+        when(repository.findByCustomerId(legacy)).thenReturn(Optional.of(CustomerWishlistEntity.builder()
+                .customerId(legacy).dateUpdate(updatedAt).build()));
+
+        List<WishlistVersion> versions = new ArrayList<>();
+        assertTrue(service.getWishlist(versioned, versions::add).isEmpty());
+        assertTrue(service.getWishlist(legacy, versions::add).isEmpty());
+        WishlistVersion versionedResult = versions.get(0);
+        WishlistVersion legacyResult = versions.get(1);
+
+        long expectedLastModified = updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertEquals("\"v7\"", versionedResult.getEtag());
+        assertEquals(expectedLastModified, versionedResult.getLastModified());
+        assertEquals("\"t" + expectedLastModified + "\"", legacyResult.getEtag());
+        verifyNoInteractions(mapperWishlist);
+    }
+
+    @Test
+    void quandoBuscarVariosClientes_deveSepararEncontradosENaoEncontrados() {
+        properties.getMultiGet().setChunkSize(2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+
+        CustomerWishlistEntity firstEntity = CustomerWishlistEntity.builder().customerId(first).wishlist(List.of()).build();
+        CustomerWishlistEntity secondEntity = CustomerWishlistEntity.builder().customerId(second).wishlist(List.of()).build();
+        CustomerWishlistResponseDTO firstResponse = CustomerWishlistResponseDTO.builder().customerId(first).build();
+        CustomerWishlistResponseDTO secondResponse = CustomerWishlistResponseDTO.builder().customerId(second).build();
+
+        when(repository.findByCustomerIdIn(List.of(second, missing))).thenReturn(List.of(secondEntity));
+        when(repository.findByCustomerIdIn(List.of(first))).thenReturn(List.of(firstEntity));
+        when(mapperWishlist.toResponseDTO(firstEntity)).thenReturn(firstResponse);
+        when(mapperWishlist.toResponseDTO(secondEntity)).thenReturn(secondResponse);
+
+        MultiGetWishlistResponseDTO response = service.getWishlists(List.of(second, missing, first, second));
+
+        assertEquals(List.of(secondResponse, firstResponse), response.getFound());
+        assertEquals(List.of(missing), response.getNotFound());
+        verify(repository, never()).findByCustomerId(any());
+    }
+
     @Test
     void quandoProdutoEstaNaWishlist_checkProductDeveRetornarRespostaCorreta() throws Exception {
         UUID customerId = UUID.randomUUID();
@@ -95,7 +209,7 @@ class CustomerWishListServiceTest {
         customerEntity.setCustomerId(customerId);
         customerEntity.setWishlist(List.of(productEntity));
 
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
+        when(repository.findWishlistItem(customerId, productId)).thenReturn(Optional.of(customerEntity));
 
         ProductCheckResponseDTO response = service.checkProductInWishlist(customerId, productId);
 
@@ -107,7 +221,8 @@ class CustomerWishListServiceTest {
         assertEquals("Product in Wishlist", response.getProduct().getName());
         assertEquals("Description of product", response.getProduct().getDescription());
         assertEquals(100L, response.getProduct().getPrice());
-        verify(repository).findByCustomerId(customerId);
+        verify(repository).findWishlistItem(customerId, productId);
+        verify(repository, never()).findByCustomerId(any());
     }
 
     @Test
@@ -119,7 +234,7 @@ class CustomerWishListServiceTest {
         customerEntity.setCustomerId(customerId);
         customerEntity.setWishlist(new ArrayList<>());
 
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
+        when(repository.findWishlistItem(customerId, productId)).thenReturn(Optional.of(customerEntity));
 
         ProductCheckResponseDTO response = service.checkProductInWishlist(customerId, productId);
 
@@ -128,7 +243,8 @@ class CustomerWishListServiceTest {
         assertEquals(productId, response.getProductId());
         assertFalse(response.isInWishlist());
         assertNull(response.getProduct());
-        verify(repository).findByCustomerId(customerId);
+        verify(repository).findWishlistItem(customerId, productId);
+        verify(repository, never()).findByCustomerId(any());
     }
 
     @Test
@@ -136,10 +252,45 @@ class CustomerWishListServiceTest {
         UUID customerId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
 
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.empty());
+        when(repository.findWishlistItem(customerId, productId)).thenReturn(Optional.empty());
 
         assertThrows(CustomerNotFoundException.class, () -> service.checkProductInWishlist(customerId, productId));
-        verify(repository).findByCustomerId(customerId);
+        verify(repository).findWishlistItem(customerId, productId);
+        verify(repository, never()).findByCustomerId(any());
+    }
+
+    @Test
+    void quandoVerificarVariosProdutos_deveRetornarResultadoDeCadaUm() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        UUID inWishlist = UUID.randomUUID();
+        UUID notInWishlist = UUID.randomUUID();
+
+        CustomerWishlistEntity customerEntity = new CustomerWishlistEntity();
+        customerEntity.setCustomerId(customerId);
+        customerEntity.setWishlist(List.of(new ProductEntity(inWishlist, "Produto", "Descrição", 150L)));
+
+        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
+
+        ProductBatchCheckResponseDTO response = service.checkProductsInWishlist(customerId, List.of(notInWishlist, inWishlist));
+
+        assertEquals(customerId, response.getCustomerId());
+        assertEquals(2, response.getProducts().size());
+        assertFalse(response.getProducts().get(0).isInWishlist());
+        assertNull(response.getProducts().get(0).getProduct());
+        assertTrue(response.getProducts().get(1).isInWishlist());
+        assertEquals(inWishlist, response.getProducts().get(1).getProductId());
+        assertEquals(150L, response.getProducts().get(1).getProduct().getPrice());
+        verify(repository, times(1)).findByCustomerId(customerId);
+    }
+
+    @Test
+    void quandoClienteNaoExiste_checkProductsDeveLancarCustomerNotFoundException() {
+        UUID customerId = UUID.randomUUID();
+
+        when(repository.findByCustomerId(customerId)).thenReturn(Optional.empty());
+
+        assertThrows(CustomerNotFoundException.class,
+                () -> service.checkProductsInWishlist(customerId, List.of(UUID.randomUUID())));
     }
 
     @Test
@@ -162,17 +313,156 @@ class CustomerWishListServiceTest {
         ProductEntity productEntity = new ProductEntity();
         productEntity.setProductId(productDTO.getProductId());
 
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
         when(productMapper.toEntity(productDTO)).thenReturn(productEntity);
-        when(repository.save(any())).thenReturn(customerEntity);
+        when(repository.addProducts(eq(customerId), eq(List.of(productEntity)), eq(20), any())).thenReturn(Optional.of(customerEntity));
         when(mapperWishlist.toResponseDTO(any())).thenReturn(CustomerWishlistResponseDTO.builder().build());
 
         CustomerWishlistResponseDTO response = service.addItemsWishlist(requestDTO);
 
         assertNotNull(response);
         ArgumentCaptor<CustomerWishlistEntity> captor = ArgumentCaptor.forClass(CustomerWishlistEntity.class);
-        verify(repository).save(captor.capture());
+        verify(mapperWishlist).toResponseDTO(captor.capture());
         assertEquals(1, captor.getValue().getWishlist().size());
+        assertNotNull(captor.getValue().getDateUpdate());
+        verify(repository, never()).findByCustomerId(any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void quandoAdicionarItens_deveAtualizarAgregadosSemRecalcularALista() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        ProductDTO productDTO = ProductDTO.builder().productId(UUID.randomUUID()).name("Product C").build();
+        CustomerWishlistRequestDTO requestDTO = CustomerWishlistRequestDTO.builder()
+                .customerId(customerId)
+                .wishlist(List.of(productDTO))
+                .build();
+        CustomerWishlistEntity before = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>(List.of(new ProductEntity(UUID.randomUUID(), "Product A", null, 1_000L))))
+                .itemCount(1)
+                .totalPriceCents(1_000L)
+                .build();
+        ProductEntity productEntity = new ProductEntity(productDTO.getProductId(), "Product C", null, 2_500L);
+
+        when(productMapper.toEntity(productDTO)).thenReturn(productEntity);
+        when(repository.addProducts(eq(customerId), eq(List.of(productEntity)), eq(20), any())).thenReturn(Optional.of(before));
+        when(mapperWishlist.toResponseDTO(any())).thenReturn(CustomerWishlistResponseDTO.builder().build());
+
+        service.addItemsWishlist(requestDTO);
+
+        ArgumentCaptor<CustomerWishlistEntity> captor = ArgumentCaptor.forClass(CustomerWishlistEntity.class);
+        verify(mapperWishlist).toResponseDTO(captor.capture());
+        assertEquals(2, captor.getValue().getItemCount());
+        assertEquals(3_500L, captor.getValue().getTotalPriceCents());
+    }
+
+    @Test
+    void quandoBuscarResumo_deveUsarProjecaoSemAListaDeProdutos() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        CustomerWishlistEntity summary = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .itemCount(3)
+                .totalPriceCents(4_500L)
+                .build();
+        WishlistSummaryResponseDTO expected = WishlistSummaryResponseDTO.builder().customerId(customerId).itemCount(3).build();
+
+        when(repository.findSummary(customerId)).thenReturn(Optional.of(summary));
+        when(mapperWishlist.toSummaryDTO(summary)).thenReturn(expected);
+
+        assertEquals(expected, service.getWishlistSummary(customerId));
+        verify(repository, never()).findByCustomerId(any());
+    }
+
+    @Test
+    void quandoBuscarResumoDeDocumentoNaoMigrado_deveLerAWishlistCompleta() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        CustomerWishlistEntity legacySummary = CustomerWishlistEntity.builder().customerId(customerId).build();
+        CustomerWishlistEntity legacy = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>(List.of(new ProductEntity(UUID.randomUUID(), "Product A", null, 1_000L))))
+                .build();
+
+        when(repository.findSummary(customerId)).thenReturn(Optional.of(legacySummary));
+        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(legacy));
+        when(mapperWishlist.toSummaryDTO(legacy)).thenReturn(WishlistSummaryResponseDTO.builder().build());
+
+        assertNotNull(service.getWishlistSummary(customerId));
+        verify(mapperWishlist).toSummaryDTO(legacy);
+    }
+
+    @Test
+    void quandoBuscarPagina_deveUsarProjecaoSemLerAWishlistCompleta() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        CustomerWishlistEntity page = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(List.of(new ProductEntity(UUID.randomUUID(), null, null, null)))
+                .itemCount(3)
+                .totalPriceCents(4_500L)
+                .build();
+        CustomerWishlistResponseDTO expected = CustomerWishlistResponseDTO.builder().customerId(customerId).build();
+        ArgumentCaptor<WishlistItemsQuery> query = ArgumentCaptor.forClass(WishlistItemsQuery.class);
+
+        when(repository.findWishlistPage(eq(customerId), query.capture())).thenReturn(Optional.of(page));
+        when(mapperWishlist.toPageDTO(page, 1, 1, true)).thenReturn(expected);
+
+        assertEquals(Optional.of(expected), service.getWishlistPage(customerId, 1, 1, "added,desc", "productId", version -> false));
+        assertTrue(query.getValue().isDescending());
+        assertEquals(Set.of(WishlistItemsQuery.ProductField.PRODUCT_ID), query.getValue().getFields());
+        verify(repository, never()).findByCustomerId(any());
+    }
+
+    @Test
+    void quandoPaginaNaoModificada_deveUsarVersaoDaProjecaoSemMontarResposta() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        CustomerWishlistEntity page = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(List.of())
+                .itemCount(3)
+                .totalPriceCents(4_500L)
+                .version(5L)
+                .build();
+        when(repository.findWishlistPage(eq(customerId), any())).thenReturn(Optional.of(page));
+
+        assertTrue(service.getWishlistPage(customerId, 0, 0, null, null, version -> "\"v5\"".equals(version.getEtag())).isEmpty());
+        verify(repository, never()).findByCustomerId(any());
+        verifyNoInteractions(mapperWishlist);
+    }
+
+    @Test
+    void quandoBuscarPaginaDeDocumentoNaoMigrado_deveMontarPaginaEmMemoria() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        ProductEntity cheap = new ProductEntity(UUID.randomUUID(), "Barato", null, 1_000L);
+        ProductEntity expensive = new ProductEntity(UUID.randomUUID(), "Caro", "Descrição", 5_000L);
+        ProductEntity medium = new ProductEntity(UUID.randomUUID(), "Médio", null, 3_000L);
+        CustomerWishlistEntity legacy = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>(List.of(cheap, expensive, medium)))
+                .build();
+        ArgumentCaptor<CustomerWishlistEntity> page = ArgumentCaptor.forClass(CustomerWishlistEntity.class);
+
+        when(repository.findWishlistPage(eq(customerId), any())).thenReturn(Optional.of(CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(List.of(cheap, expensive))
+                .build()));
+        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(legacy));
+
+        service.getWishlistPage(customerId, 0, 2, "price,desc", "productId,price", version -> false);
+
+        verify(mapperWishlist).toPageDTO(page.capture(), eq(0), eq(2), eq(true));
+        assertEquals(List.of(new ProductEntity(expensive.getProductId(), null, null, 5_000L),
+                new ProductEntity(medium.getProductId(), null, null, 3_000L)), page.getValue().getWishlist());
+        assertEquals(3, page.getValue().getItemCount());
+        assertEquals(9_000L, page.getValue().getTotalPriceCents());
+    }
+
+    @Test
+    void quandoParametrosDaPaginaInvalidos_deveLancarInvalidWishlistQueryException() {
+        UUID customerId = UUID.randomUUID();
+
+        assertThrows(InvalidWishlistQueryException.class, () -> service.getWishlistPage(customerId, null, null, "cor", null, version -> false));
+        assertThrows(InvalidWishlistQueryException.class, () -> service.getWishlistPage(customerId, null, 21, null, null, version -> false));
+        assertThrows(InvalidWishlistQueryException.class, () -> service.getWishlistPage(customerId, null, null, null, "productId,estoque", version -> false));
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -188,25 +478,23 @@ class CustomerWishListServiceTest {
                 .wishlist(List.of(productDTO))
                 .build();
 
-        CustomerWishlistEntity newCustomerEntity = new CustomerWishlistEntity();
-        newCustomerEntity.setCustomerId(customerId);
-        newCustomerEntity.setWishlist(List.of());
-
-        CustomerWishlistDTO customerWishlistDTO = new CustomerWishlistDTO();
-        customerWishlistDTO.setCustomerId(customerId);
-        customerWishlistDTO.setWishlist(List.of(productDTO));
+        ProductEntity productEntity = new ProductEntity();
+        productEntity.setProductId(productDTO.getProductId());
 
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.empty());
-        when(mapperWishlist.requestToDTO(requestDTO)).thenReturn(customerWishlistDTO);
-        when(mapperWishlist.toEntity(customerWishlistDTO)).thenReturn(newCustomerEntity);
-        when(repository.save(any())).thenReturn(newCustomerEntity);
+        when(productMapper.toEntity(productDTO)).thenReturn(productEntity);
+        when(repository.addProducts(eq(customerId), anyList(), eq(20), any())).thenReturn(Optional.empty());
         when(mapperWishlist.toResponseDTO(any())).thenReturn(CustomerWishlistResponseDTO.builder().build());
 
         CustomerWishlistResponseDTO response = service.addItemsWishlist(requestDTO);
 
         assertNotNull(response);
-        verify(repository).save(any());
-        verify(mapperWishlist).toEntity(customerWishlistDTO);
+        ArgumentCaptor<CustomerWishlistEntity> captor = ArgumentCaptor.forClass(CustomerWishlistEntity.class);
+        verify(mapperWishlist).toResponseDTO(captor.capture());
+        assertEquals(customerId, captor.getValue().getCustomerId());
+        assertEquals(List.of(productEntity), captor.getValue().getWishlist());
+        assertNotNull(captor.getValue().getDateCreation());
+        assertEquals(1, captor.getValue().getItemCount());
+        assertEquals(0L, captor.getValue().getTotalPriceCents());
     }
 
     @Test
@@ -230,9 +518,11 @@ class CustomerWishListServiceTest {
         customerEntity.setCustomerId(customerId);
         customerEntity.setWishlist(List.of(existingProduct));
 
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
+        when(productMapper.toEntity(productDTO)).thenReturn(existingProduct);
+        when(repository.addProducts(eq(customerId), anyList(), eq(20), any())).thenReturn(Optional.of(customerEntity));
 
         assertThrows(NoItemsAddedException.class, () -> service.addItemsWishlist(requestDTO));
+        verifyNoInteractions(mapperWishlist);
     }
 
     @Test
@@ -248,16 +538,110 @@ class CustomerWishListServiceTest {
                 .wishlist(List.of(productDTO))
                 .build();
 
-        List<ProductEntity> currentWishlist = Mockito.mock(List.class);
-        when(currentWishlist.size()).thenReturn(20);
+        List<ProductEntity> currentWishlist = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            currentWishlist.add(new ProductEntity(UUID.randomUUID(), "Produto " + i, null, 100L));
+        }
 
         CustomerWishlistEntity customerEntity = new CustomerWishlistEntity();
         customerEntity.setCustomerId(customerId);
         customerEntity.setWishlist(currentWishlist);
 
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
+        ProductEntity productEntity = new ProductEntity();
+        productEntity.setProductId(productDTO.getProductId());
+
+        when(productMapper.toEntity(productDTO)).thenReturn(productEntity);
+        when(repository.addProducts(eq(customerId), anyList(), eq(20), any())).thenReturn(Optional.of(customerEntity));
 
         assertThrows(WishlistLimitExceededException.class, () -> service.addItemsWishlist(requestDTO));
+        verifyNoInteractions(mapperWishlist);
+    }
+
+    @Test
+    void quandoRequisicaoUltrapassaLimite_naoDeveAcessarRepositorio() {
+        UUID customerId = UUID.randomUUID();
+        List<ProductDTO> products = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            ProductDTO productDTO = ProductDTO.builder()
+                    .productId(UUID.randomUUID())
+                    .name("Produto " + i)
+                    .build();
+            products.add(productDTO);
+            when(productMapper.toEntity(productDTO)).thenReturn(new ProductEntity(productDTO.getProductId(), productDTO.getName(), null, 100L));
+        }
+
+        CustomerWishlistRequestDTO requestDTO = CustomerWishlistRequestDTO.builder()
+                .customerId(customerId)
+                .wishlist(products)
+                .build();
+
+        assertThrows(WishlistLimitExceededException.class, () -> service.addItemsWishlist(requestDTO));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void quandoLimiteConfiguradoMaior_deveAdicionarSomenteNovosEmWishlistGrande() throws Exception {
+        properties.setMaxItems(500);
+        UUID customerId = UUID.randomUUID();
+        List<ProductEntity> currentWishlist = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            currentWishlist.add(new ProductEntity(UUID.randomUUID(), "Produto " + i, null, 100L));
+        }
+        List<ProductDTO> products = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UUID productId = i < 100 ? currentWishlist.get(i * 3).getProductId() : UUID.randomUUID();
+            ProductDTO productDTO = ProductDTO.builder().productId(productId).name("Pedido " + i).build();
+            products.add(productDTO);
+            when(productMapper.toEntity(productDTO)).thenReturn(new ProductEntity(productId, productDTO.getName(), null, 100L));
+        }
+        products.addAll(products.subList(150, 200));
+        CustomerWishlistRequestDTO requestDTO = CustomerWishlistRequestDTO.builder()
+                .customerId(customerId)
+                .wishlist(products)
+                .build();
+        CustomerWishlistEntity before = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>(currentWishlist))
+                .itemCount(300)
+                .totalPriceCents(30_000L)
+                .build();
+
+        when(repository.addProducts(eq(customerId), argThat(requested -> requested.size() == 200), eq(500), any()))
+                .thenReturn(Optional.of(before));
+        when(mapperWishlist.toResponseDTO(any())).thenReturn(CustomerWishlistResponseDTO.builder().build());
+
+        service.addItemsWishlist(requestDTO);
+
+        ArgumentCaptor<CustomerWishlistEntity> captor = ArgumentCaptor.forClass(CustomerWishlistEntity.class);
+        verify(mapperWishlist).toResponseDTO(captor.capture());
+        assertEquals(400, captor.getValue().getItemCount());
+        assertEquals(400, captor.getValue().getWishlist().stream().map(ProductEntity::getProductId).distinct().count());
+        assertEquals(40_000L, captor.getValue().getTotalPriceCents());
+    }
+
+    @Test
+    void quandoRequisicaoTemProdutosRepetidos_deveEnviarApenasUmaVez() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        ProductDTO productDTO = ProductDTO.builder()
+                .productId(UUID.randomUUID())
+                .name("Produto Repetido")
+                .build();
+
+        CustomerWishlistRequestDTO requestDTO = CustomerWishlistRequestDTO.builder()
+                .customerId(customerId)
+                .wishlist(List.of(productDTO, productDTO))
+                .build();
+
+        ProductEntity productEntity = new ProductEntity();
+        productEntity.setProductId(productDTO.getProductId());
+
+        when(productMapper.toEntity(productDTO)).thenReturn(productEntity);
+        when(repository.addProducts(eq(customerId), eq(List.of(productEntity)), eq(20), any())).thenReturn(Optional.empty());
+        when(mapperWishlist.toResponseDTO(any())).thenReturn(CustomerWishlistResponseDTO.builder().build());
+
+        service.addItemsWishlist(requestDTO);
+
+        verify(repository).addProducts(eq(customerId), eq(List.of(productEntity)), eq(20), any());
     }
 
     @Test
@@ -269,7 +653,7 @@ class CustomerWishListServiceTest {
         customer.setCustomerId(customerId);
         customer.setWishlist(null);
 
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customer));
+        when(repository.findWishlistItem(customerId, productId)).thenReturn(Optional.of(customer));
 
         ProductCheckResponseDTO result = service.checkProductInWishlist(customerId, productId);
 
@@ -301,16 +685,15 @@ class CustomerWishListServiceTest {
         ProductEntity productEntity = new ProductEntity();
         productEntity.setProductId(productDTO.getProductId());
 
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
         when(productMapper.toEntity(productDTO)).thenReturn(productEntity);
-        when(repository.save(any())).thenReturn(customerEntity);
+        when(repository.addProducts(eq(customerId), anyList(), eq(20), any())).thenReturn(Optional.of(customerEntity));
         when(mapperWishlist.toResponseDTO(any())).thenReturn(CustomerWishlistResponseDTO.builder().build());
 
         CustomerWishlistResponseDTO response = service.addItemsWishlist(requestDTO);
 
         assertNotNull(response);
         ArgumentCaptor<CustomerWishlistEntity> captor = ArgumentCaptor.forClass(CustomerWishlistEntity.class);
-        verify(repository).save(captor.capture());
+        verify(mapperWishlist).toResponseDTO(captor.capture());
 
         assertNotNull(captor.getValue().getWishlist());
         assertEquals(1, captor.getValue().getWishlist().size());
@@ -322,13 +705,6 @@ class CustomerWishListServiceTest {
         UUID customerId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
 
-        ProductEntity productEntity = new ProductEntity();
-        productEntity.setProductId(productId);
-
-        CustomerWishlistEntity customerEntity = new CustomerWishlistEntity();
-        customerEntity.setCustomerId(customerId);
-        customerEntity.setWishlist(new ArrayList<>(List.of(productEntity)));
-
         CustomerWishlistEntity savedEntity = new CustomerWishlistEntity();
         savedEntity.setCustomerId(customerId);
         savedEntity.setWishlist(new ArrayList<>());
@@ -340,16 +716,15 @@ class CustomerWishListServiceTest {
                 .formattedTotalPrice("R$0,00")
                 .build();
 
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
-        when(repository.save(any(CustomerWishlistEntity.class))).thenReturn(savedEntity);
+        when(repository.removeProductsAndGetPrevious(eq(customerId), eq(Set.of(productId)), any())).thenReturn(Optional.of(savedEntity));
         when(mapperWishlist.toResponseDTO(savedEntity)).thenReturn(expectedResponse);
 
         CustomerWishlistResponseDTO response = service.deleteItemsFromWishlistWithResponse(customerId, List.of(productId));
 
         assertNotNull(response);
-        assertTrue(customerEntity.getWishlist().isEmpty());
         assertEquals(expectedResponse, response);
-        verify(repository).save(customerEntity);
+        verify(repository, never()).findByCustomerId(any());
+        verify(repository, never()).save(any());
     }
 
     @Test
@@ -357,39 +732,26 @@ class CustomerWishListServiceTest {
         UUID customerId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
 
-        ProductEntity productEntity = new ProductEntity();
-        productEntity.setProductId(productId);
-
-        CustomerWishlistEntity customerEntity = new CustomerWishlistEntity();
-        customerEntity.setCustomerId(customerId);
-        customerEntity.setWishlist(new ArrayList<>(List.of(productEntity)));
-
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
-        when(repository.save(any(CustomerWishlistEntity.class))).thenReturn(customerEntity);
+        when(repository.removeProducts(eq(customerId), eq(Set.of(productId)), any())).thenReturn(Set.of(productId));
 
         service.deleteItemsFromWishlist(customerId, List.of(productId));
 
-        assertTrue(customerEntity.getWishlist().isEmpty());
-        verify(repository).findByCustomerId(customerId);
-        verify(repository).save(customerEntity);
+        verify(repository).removeProducts(eq(customerId), eq(Set.of(productId)), any());
+        verify(popularity).removed(Set.of(productId));
+        verify(repository, never()).existsByCustomerId(any());
+        verify(repository, never()).save(any());
     }
 
     @Test
-    void quandoRemovendoProdutosComWishlistNula_deveLancarNoItemsDeletedException() {
+    void quandoDeletandoItensDeClienteInexistente_deveLancarCustomerNotFoundException() {
         UUID customerId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
 
-        CustomerWishlistEntity customerEntity = new CustomerWishlistEntity();
-        customerEntity.setCustomerId(customerId);
-        customerEntity.setWishlist(null);
-
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
+        when(repository.removeProducts(eq(customerId), anySet(), any())).thenReturn(Set.of());
+        when(repository.existsByCustomerId(customerId)).thenReturn(false);
 
-        NoItemsDeletedException exception = assertThrows(NoItemsDeletedException.class,
-                () -> service.deleteItemsFromWishlistWithResponse(customerId, List.of(productId)));
-
-        assertEquals("Nenhum produto válido foi fornecido para remoção", exception.getMessage());
-        verify(repository, never()).save(any());
+        assertThrows(CustomerNotFoundException.class,
+                () -> service.deleteItemsFromWishlist(customerId, List.of(productId)));
     }
 
     @Test
@@ -397,17 +759,11 @@ class CustomerWishListServiceTest {
         UUID customerId = UUID.randomUUID();
         List<UUID> nullProductIds = null;
 
-        CustomerWishlistEntity customerEntity = new CustomerWishlistEntity();
-        customerEntity.setCustomerId(customerId);
-        customerEntity.setWishlist(new ArrayList<>());
-
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
-
         NoItemsDeletedException exception = assertThrows(NoItemsDeletedException.class,
                 () -> service.deleteItemsFromWishlistWithResponse(customerId, nullProductIds));
 
         assertEquals("Nenhum produto válido foi fornecido para remoção", exception.getMessage());
-        verify(repository, never()).save(any());
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -415,39 +771,51 @@ class CustomerWishListServiceTest {
         UUID customerId = UUID.randomUUID();
         List<UUID> emptyProductIds = new ArrayList<>();
 
-        CustomerWishlistEntity customerEntity = new CustomerWishlistEntity();
-        customerEntity.setCustomerId(customerId);
-        customerEntity.setWishlist(new ArrayList<>());
-
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
-
         NoItemsDeletedException exception = assertThrows(NoItemsDeletedException.class,
                 () -> service.deleteItemsFromWishlistWithResponse(customerId, emptyProductIds));
 
         assertEquals("Nenhum produto válido foi fornecido para remoção", exception.getMessage());
-        verify(repository, never()).save(any());
+        verifyNoInteractions(repository);
     }
 
     @Test
     void quandoProdutosNaoEncontradosNaWishlist_deveLancarNoItemsDeletedException() {
         UUID customerId = UUID.randomUUID();
-        UUID productId = UUID.randomUUID();
         UUID nonExistingProductId = UUID.randomUUID();
 
-        ProductEntity productEntity = new ProductEntity();
-        productEntity.setProductId(productId);
-
-        CustomerWishlistEntity customerEntity = new CustomerWishlistEntity();
-        customerEntity.setCustomerId(customerId);
-        customerEntity.setWishlist(new ArrayList<>(List.of(productEntity)));
-
-        when(repository.findByCustomerId(customerId)).thenReturn(Optional.of(customerEntity));
+        when(repository.removeProductsAndGetPrevious(eq(customerId), anySet(), any())).thenReturn(Optional.empty());
+        when(repository.existsByCustomerId(customerId)).thenReturn(Set.of(productId));
 
         NoItemsDeletedException exception = assertThrows(NoItemsDeletedException.class,
                 () -> service.deleteItemsFromWishlistWithResponse(customerId, List.of(nonExistingProductId)));
 
         assertEquals("Nenhum dos produtos fornecidos foi encontrado na wishlist", exception.getMessage());
-        assertEquals(1, customerEntity.getWishlist().size());
-        verify(repository, never()).save(any());
+        verifyNoInteractions(mapperWishlist);
+    }
+
+    @Test
+    void quandoListarClientesDoProduto_deveBuscarPaginasAteAUltimaIncompleta() throws Exception {
+        UUID productId = UUID.randomUUID();
+        properties.getWishers().setPageSize(2);
+        ProductWisher first = new ProductWisher(UUID.randomUUID(), "c1");
+        ProductWisher second = new ProductWisher(UUID.randomUUID(), "c2");
+        ProductWisher third = new ProductWisher(UUID.randomUUID(), "c3");
+        when(repository.findWishers(productId, null, 2)).thenReturn(List.of(first, second));
+        when(repository.findWishers(productId, "c2", 2)).thenReturn(List.of(third));
+
+        List<UUID> customerIds = service.streamWishers(productId, null)
+                .map(ProductWisherResponseDTO::getCustomerId)
+                .toList();
+
+        assertEquals(List.of(first.getCustomerId(), second.getCustomerId(), third.getCustomerId()), customerIds);
+        verify(repository, times(2)).findWishers(eq(productId), any(), eq(2));
+    }
+
+    @Test
+    void quandoCursorInvalido_streamWishersDeveLancarInvalidCursorException() {
+        UUID productId = UUID.randomUUID();
+        when(repository.findWishers(eq(productId), eq("???"), anyInt())).thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        assertThrows(InvalidCursorException.class, () -> service.streamWishers(productId, "???"));
     }
 }
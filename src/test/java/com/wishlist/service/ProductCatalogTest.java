@@ -0,0 +1,110 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.repository.ProductCatalogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogTest {
+
+    @Mock
+    private ProductCatalogRepository repository;
+
+    private ProductCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        WishlistProperties properties = new WishlistProperties();
+        properties.getCatalog().setEnabled(true);
+        catalog = new ProductCatalog(repository, properties);
+    }
+
+    @Test
+    void quandoModoNormalizado_deveGravarDetalhesNoCatalogoESoReferenciasNaWishlist() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 10, 0);
+        ProductEntity product = new ProductEntity(UUID.randomUUID(), "Produto", "Descrição", 1990L);
+
+        when(repository.insertMissing(List.of(product))).thenReturn(Set.of(product.getProductId()));
+
+        List<ProductEntity> stored = catalog.store(List.of(product), now);
+        catalog.store(List.of(product), now);
+
+        assertEquals(List.of(new ProductEntity(product.getProductId(), null, null, null, now)), stored);
+        verify(repository, times(1)).insertMissing(any());
+        verify(repository, never()).saveAll(any());
+    }
+
+    @Test
+    void quandoClienteEnviarDetalhesDeProdutoJaCatalogado_naoDeveSubstituirOsDoCatalogo() {
+        UUID productId = UUID.randomUUID();
+        ProductEntity fromCustomer = new ProductEntity(productId, "Nome do cliente", null, 1L);
+        when(repository.insertMissing(List.of(fromCustomer))).thenReturn(Set.of());
+        when(repository.findByIds(anyCollection())).thenReturn(List.of(new ProductEntity(productId, "Oficial", null, 1990L)));
+
+        catalog.store(List.of(fromCustomer), LocalDateTime.now());
+        CustomerWishlistEntity customer = catalog.withDetails(CustomerWishlistEntity.builder()
+                .customerId(UUID.randomUUID())
+                .wishlist(List.of(new ProductEntity(productId, null, null, null, LocalDateTime.now())))
+                .build());
+
+        assertEquals("Oficial", customer.getWishlist().get(0).getName());
+        assertEquals(1990L, customer.getTotalPriceCents());
+        verify(repository, never()).saveAll(any());
+    }
+
+    @Test
+    void quandoPreencherDetalhes_deveUsarCatalogoRecalcularTotalENaoAlterarOriginal() {
+        UUID inCatalog = UUID.randomUUID();
+        UUID legacy = UUID.randomUUID();
+        LocalDateTime dateAdded = LocalDateTime.of(2024, 5, 1, 10, 0);
+        when(repository.findByIds(anyCollection())).thenReturn(List.of(new ProductEntity(inCatalog, "Atual", null, 500L)));
+        CustomerWishlistEntity customer = CustomerWishlistEntity.builder()
+                .customerId(UUID.randomUUID())
+                .wishlist(new ArrayList<>(List.of(
+                        new ProductEntity(inCatalog, null, null, null, dateAdded),
+                        new ProductEntity(legacy, "Antigo", "Gravado no item", 300L))))
+                .itemCount(2)
+                .totalPriceCents(300L)
+                .build();
+
+        CustomerWishlistEntity withDetails = catalog.withDetails(customer);
+        catalog.withDetails(customer);
+
+        assertEquals(List.of(
+                new ProductEntity(inCatalog, "Atual", null, 500L, dateAdded),
+                new ProductEntity(legacy, "Antigo", "Gravado no item", 300L)), withDetails.getWishlist());
+        assertEquals(800L, withDetails.getTotalPriceCents());
+        assertEquals(300L, customer.getTotalPriceCents());
+        assertNull(customer.getWishlist().get(0).getName());
+        verify(repository, times(1)).findByIds(any());
+    }
+
+    @Test
+    void quandoPreencherDetalhesDeUmItem_deveCarregarSoEsseProduto() {
+        UUID productId = UUID.randomUUID();
+        LocalDateTime dateAdded = LocalDateTime.of(2024, 5, 1, 10, 0);
+        when(repository.findByIds(List.of(productId))).thenReturn(List.of(new ProductEntity(productId, "Atual", null, 500L)));
+
+        ProductEntity item = catalog.withDetails(new ProductEntity(productId, null, null, null, dateAdded));
+
+        assertEquals(new ProductEntity(productId, "Atual", null, 500L, dateAdded), item);
+        verify(repository).findByIds(List.of(productId));
+    }
+}
@@ -0,0 +1,103 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.dto.response.PopularProductsResponseDTO;
+import com.wishlist.repository.ProductPopularitySnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductPopularityTest {
+
+    @Test
+    void quandoMuitosProdutos_estimativaNaoDeveFicarAbaixoDoValorRealNemPassarDoLimite() {
+        ProductPopularity popularity = new ProductPopularity(new WishlistProperties());
+        List<UUID> products = IntStream.range(0, 5_000).mapToObj(i -> UUID.randomUUID()).toList();
+        List<UUID> heavy = products.subList(0, 10);
+        Map<UUID, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            UUID productId = products.get(10 + random.nextInt(products.size() - 10));
+            popularity.added(Set.of(productId));
+            exact.merge(productId, 1L, Long::sum);
+        }
+        for (int rank = 0; rank < heavy.size(); rank++) {
+            for (int i = 0; i < 2_000 - 100 * rank; i++) {
+                popularity.added(Set.of(heavy.get(rank)));
+                exact.merge(heavy.get(rank), 1L, Long::sum);
+            }
+        }
+        popularity.removed(Set.of(heavy.get(0)));
+        exact.merge(heavy.get(0), -1L, Long::sum);
+
+        long bound = popularity.errorBound(popularity.total());
+        exact.forEach((productId, count) -> {
+            assertTrue(popularity.estimate(productId) >= count);
+            assertTrue(popularity.estimate(productId) - count <= bound);
+        });
+        assertEquals(heavy, popularity.topIds(10));
+    }
+
+    @Test
+    void quandoConsultarRanking_deveOrdenarPorEstimativaERespeitarTopK() {
+        WishlistProperties properties = new WishlistProperties();
+        properties.getPopularity().setTopK(2);
+        ProductPopularity popularity = new ProductPopularity(properties);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        IntStream.range(0, 3).forEach(i -> popularity.added(Set.of(first)));
+        IntStream.range(0, 2).forEach(i -> popularity.added(Set.of(second)));
+        popularity.added(Set.of(third));
+
+        PopularProductsResponseDTO top = popularity.top(10);
+
+        assertEquals(6L, top.getTotalWishes());
+        assertEquals(List.of(first, second), top.getProducts().stream()
+                .map(PopularProductsResponseDTO.PopularProductDTO::getProductId)
+                .toList());
+        assertEquals(3L, top.getProducts().get(0).getEstimatedCount());
+    }
+
+    @Test
+    void quandoGravarECarregarEstadoCompartilhado_deveManterAlteracoesAindaNaoGravadas() {
+        ProductPopularity popularity = new ProductPopularity(new WishlistProperties());
+        UUID productId = UUID.randomUUID();
+        popularity.added(Set.of(productId));
+        popularity.added(Set.of(productId));
+
+        ProductPopularity.Changes changes = popularity.drainChanges();
+        popularity.added(Set.of(productId));
+        ProductPopularitySnapshot stored = applyTo(changes, new long[changes.width() * changes.depth()], 5L);
+        assertTrue(popularity.load(stored));
+
+        assertEquals(3L, popularity.estimate(productId));
+        assertEquals(List.of(productId), popularity.candidateIds());
+
+        ProductPopularity.Changes failed = popularity.drainChanges();
+        popularity.restore(failed);
+        ProductPopularity.Changes retried = popularity.drainChanges();
+        assertArrayEquals(failed.cells(), retried.cells());
+        assertEquals(1L, retried.total());
+    }
+
+    /**
+     * Simula o {@code $inc} do repositório sobre um estado já gravado por outra instância.
+     */
+    private static ProductPopularitySnapshot applyTo(ProductPopularity.Changes changes, long[] counters, long total) {
+        for (int i = 0; i < changes.cells().length; i++) {
+            counters[changes.cells()[i]] += changes.increments()[i];
+        }
+        return new ProductPopularitySnapshot(changes.width(), changes.depth(), counters,
+                total + changes.total(), new ArrayList<>(changes.candidates()));
+    }
+}
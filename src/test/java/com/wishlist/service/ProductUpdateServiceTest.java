@@ -0,0 +1,113 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.dto.response.ProductUpdateResponseDTO;
+import com.wishlist.repository.CustomerWishlistRepository;
+import com.wishlist.repository.ProductDetailsUpdateResults;
+import com.wishlist.repository.ProductCatalogRepository;
+import com.wishlist.repository.ProductWisher;
+import com.wishlist.utils.mapper.ProductMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductUpdateServiceTest {
+
+    @Mock
+    private CustomerWishlistRepository repository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    private final WishlistProperties properties = new WishlistProperties();
+    private final WishlistCache cache = spy(new WishlistCache(new WishlistProperties()));
+    private ProductUpdateService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.getProductUpdate().setBatchSize(2);
+        properties.getProductUpdate().setPause(Duration.ZERO);
+        service = new ProductUpdateService(repository, productMapper, properties, cache,
+                new ProductCatalog(mock(ProductCatalogRepository.class), properties));
+    }
+
+    @Test
+    void quandoAtualizarProduto_devePercorrerClientesEmLotesEInvalidarCache() {
+        UUID productId = UUID.randomUUID();
+        ProductDTO dto = ProductDTO.builder().productId(productId).name("Novo nome").price(2490.0).build();
+        ProductEntity product = new ProductEntity(productId, "Novo nome", null, 2490L);
+        ProductWisher first = new ProductWisher(UUID.randomUUID(), "c1");
+        ProductWisher second = new ProductWisher(UUID.randomUUID(), "c2");
+        ProductWisher third = new ProductWisher(UUID.randomUUID(), "c3");
+        when(productMapper.toEntity(dto)).thenReturn(product);
+        when(repository.findWishers(productId, null, 2)).thenReturn(List.of(first, second));
+        when(repository.findWishers(productId, "c2", 2)).thenReturn(List.of(third));
+        when(repository.updateProductDetails(eq(product), any(), any()))
+                .thenReturn(new ProductDetailsUpdateResults(2L, Set.of()), new ProductDetailsUpdateResults(1L, Set.of()));
+
+        ProductUpdateResponseDTO result = service.update(List.of(dto));
+
+        assertFalse(result.isRunning());
+        assertEquals(1, result.getProcessedProducts());
+        assertEquals(3L, result.getUpdatedWishlists());
+        assertNotNull(result.getFinishedAt());
+        verify(repository).updateProductDetails(eq(product), eq(List.of(first.getCustomerId(), second.getCustomerId())), any());
+        verify(repository).updateProductDetails(eq(product), eq(List.of(third.getCustomerId())), any());
+        verify(cache).invalidateAll(List.of(third.getCustomerId()));
+        verify(repository, never()).findWishers(eq(productId), eq("c3"), anyInt());
+    }
+
+    @Test
+    void quandoWishlistContinuarReservada_deveInformarQuantasFicaramDeFora() {
+        UUID productId = UUID.randomUUID();
+        ProductDTO dto = ProductDTO.builder().productId(productId).name("Novo nome").price(2490.0).build();
+        ProductEntity product = new ProductEntity(productId, "Novo nome", null, 2490L);
+        ProductWisher first = new ProductWisher(UUID.randomUUID(), "c1");
+        ProductWisher second = new ProductWisher(UUID.randomUUID(), "c2");
+        when(productMapper.toEntity(dto)).thenReturn(product);
+        when(repository.findWishers(productId, null, 2)).thenReturn(List.of(first, second));
+        when(repository.findWishers(productId, "c2", 2)).thenReturn(List.of());
+        when(repository.updateProductDetails(eq(product), any(), any()))
+                .thenReturn(new ProductDetailsUpdateResults(1L, Set.of(second.getCustomerId())));
+
+        ProductUpdateResponseDTO result = service.update(List.of(dto));
+
+        assertEquals(1L, result.getUpdatedWishlists());
+        assertEquals(1L, result.getSkippedWishlists());
+    }
+
+    @Test
+    void quandoModoNormalizado_deveAtualizarCatalogoEIncrementarVersaoDasWishlists() {
+        properties.getCatalog().setEnabled(true);
+        ProductCatalogRepository catalogRepository = mock(ProductCatalogRepository.class);
+        service = new ProductUpdateService(repository, productMapper, properties, cache, new ProductCatalog(catalogRepository, properties));
+        ProductDTO dto = ProductDTO.builder().productId(UUID.randomUUID()).name("Novo nome").price(2490.0).build();
+        ProductEntity product = new ProductEntity(dto.getProductId(), "Novo nome", null, 2490L);
+        ProductWisher wisher = new ProductWisher(UUID.randomUUID(), "c1");
+        when(productMapper.toEntity(dto)).thenReturn(product);
+        when(repository.findWishers(product.getProductId(), null, 2)).thenReturn(List.of(wisher));
+        when(repository.touchWishlists(eq(List.of(wisher.getCustomerId())), any())).thenReturn(1L);
+
+        ProductUpdateResponseDTO result = service.update(List.of(dto));
+
+        assertEquals(1L, result.getUpdatedWishlists());
+        verify(catalogRepository).saveAll(List.of(product));
+        verify(repository, never()).updateProductDetails(any(), any(), any());
+        verify(cache).invalidateAll(List.of(wisher.getCustomerId()));
+    }
+}
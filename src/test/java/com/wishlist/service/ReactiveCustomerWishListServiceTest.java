@@ -0,0 +1,203 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.dto.request.CustomerWishlistRequestDTO;
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.exception.CustomerNotFoundException;
+import com.wishlist.exception.NoItemsAddedException;
+import com.wishlist.exception.NoItemsDeletedException;
+import com.wishlist.exception.WishlistLimitExceededException;
+import com.wishlist.repository.ProductCatalogRepository;
+import com.wishlist.repository.ReactiveCustomerWishlistRepository;
+import com.wishlist.utils.mapper.CustomerWishlistMapper;
+import com.wishlist.utils.mapper.ProductMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCustomerWishListServiceTest {
+
+    @Mock
+    private ReactiveCustomerWishlistRepository repository;
+
+    @Mock
+    private CustomerWishlistMapper mapperWishlist;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Spy
+    private WishlistProperties properties = new WishlistProperties();
+
+    @Spy
+    private WishlistMetrics metrics = new WishlistMetrics(new SimpleMeterRegistry(), new WishlistProperties());
+
+    @Spy
+    private ProductPopularity popularity = new ProductPopularity(new WishlistProperties());
+
+    @Spy
+    private ProductCatalog catalog = new ProductCatalog(mock(ProductCatalogRepository.class), new WishlistProperties());
+
+    @InjectMocks
+    private ReactiveCustomerWishListService service;
+
+    @Test
+    void quandoClienteNaoExiste_getWishlistDeveEmitirCustomerNotFoundException() {
+        UUID customerId = UUID.randomUUID();
+        when(repository.findByCustomerId(customerId)).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.getWishlist(customerId, version -> false))
+                .expectError(CustomerNotFoundException.class)
+                .verify();
+        verifyNoInteractions(mapperWishlist);
+    }
+
+    @Test
+    void quandoWishlistNaoFoiModificada_getWishlistNaoDeveMontarResposta() {
+        UUID customerId = UUID.randomUUID();
+        CustomerWishlistEntity customer = CustomerWishlistEntity.builder().customerId(customerId).version(2L).build();
+        when(repository.findByCustomerId(customerId)).thenReturn(Mono.just(customer));
+
+        StepVerifier.create(service.getWishlist(customerId, version -> "\"v2\"".equals(version.getEtag())))
+                .verifyComplete();
+        verifyNoInteractions(mapperWishlist);
+    }
+
+    @Test
+    void quandoClienteNaoTemWishlist_deveCriarNovaWishlist() {
+        UUID customerId = UUID.randomUUID();
+        ProductDTO productDTO = ProductDTO.builder().productId(UUID.randomUUID()).name("Produto").price(10.0).build();
+        ProductEntity productEntity = new ProductEntity(productDTO.getProductId(), "Produto", null, 1000L);
+        CustomerWishlistRequestDTO request = CustomerWishlistRequestDTO.builder()
+                .customerId(customerId)
+                .wishlist(List.of(productDTO))
+                .build();
+        CustomerWishlistResponseDTO expected = CustomerWishlistResponseDTO.builder().customerId(customerId).build();
+
+        when(productMapper.toEntity(productDTO)).thenReturn(productEntity);
+        when(repository.addProducts(eq(customerId), eq(List.of(productEntity)), eq(20), any()))
+                .thenReturn(Mono.empty());
+        when(mapperWishlist.toResponseDTO(any())).thenReturn(expected);
+
+        StepVerifier.create(service.addItemsWishlist(request))
+                .expectNext(expected)
+                .verifyComplete();
+
+        ArgumentCaptor<CustomerWishlistEntity> captor = ArgumentCaptor.forClass(CustomerWishlistEntity.class);
+        verify(mapperWishlist).toResponseDTO(captor.capture());
+        assertEquals(List.of(productEntity), captor.getValue().getWishlist());
+        assertEquals(1L, captor.getValue().getVersion());
+    }
+
+    @Test
+    void quandoProdutosJaEstaoNaWishlist_deveEmitirNoItemsAddedException() {
+        UUID customerId = UUID.randomUUID();
+        ProductDTO productDTO = ProductDTO.builder().productId(UUID.randomUUID()).name("Produto").price(10.0).build();
+        ProductEntity productEntity = new ProductEntity(productDTO.getProductId(), "Produto", null, 1000L);
+        CustomerWishlistRequestDTO request = CustomerWishlistRequestDTO.builder()
+                .customerId(customerId)
+                .wishlist(List.of(productDTO))
+                .build();
+        CustomerWishlistEntity before = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>(List.of(productEntity)))
+                .build();
+
+        when(productMapper.toEntity(productDTO)).thenReturn(productEntity);
+        when(repository.addProducts(eq(customerId), anyList(), anyInt(), any())).thenReturn(Mono.just(before));
+
+        StepVerifier.create(service.addItemsWishlist(request))
+                .expectError(NoItemsAddedException.class)
+                .verify();
+        verifyNoInteractions(mapperWishlist);
+    }
+
+    @Test
+    void quandoRequisicaoExcedeLimite_naoDeveConsultarRepositorio() {
+        List<ProductDTO> products = IntStream.range(0, 21)
+                .mapToObj(i -> ProductDTO.builder().productId(UUID.randomUUID()).name("Produto " + i).price(1.0).build())
+                .toList();
+        CustomerWishlistRequestDTO request = CustomerWishlistRequestDTO.builder()
+                .customerId(UUID.randomUUID())
+                .wishlist(products)
+                .build();
+        when(productMapper.toEntity(any(ProductDTO.class)))
+                .thenAnswer(invocation -> new ProductEntity(((ProductDTO) invocation.getArgument(0)).getProductId(), "Produto", null, 100L));
+
+        StepVerifier.create(service.addItemsWishlist(request))
+                .expectError(WishlistLimitExceededException.class)
+                .verify();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void quandoNenhumProdutoRemovidoEClienteNaoExiste_deveEmitirCustomerNotFoundException() {
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        when(repository.removeProducts(eq(customerId), eq(Set.of(productId)), any())).thenReturn(Mono.just(Set.of()));
+        when(repository.existsByCustomerId(customerId)).thenReturn(Mono.just(Set.of()));
+
+        StepVerifier.create(service.deleteItemsFromWishlist(customerId, List.of(productId)))
+                .expectError(CustomerNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void quandoNenhumProdutoRemovidoEClienteExiste_deveEmitirNoItemsDeletedException() {
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        when(repository.removeProductsAndGetPrevious(eq(customerId), eq(Set.of(productId)), any())).thenReturn(Mono.empty());
+        when(repository.existsByCustomerId(customerId)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.deleteItemsFromWishlistWithResponse(customerId, List.of(productId)))
+                .expectError(NoItemsDeletedException.class)
+                .verify();
+    }
+
+    @Test
+    void quandoListaDeRemocaoVazia_deveEmitirNoItemsDeletedExceptionSemConsultarRepositorio() {
+        StepVerifier.create(service.deleteItemsFromWishlist(UUID.randomUUID(), List.of()))
+                .expectError(NoItemsDeletedException.class)
+                .verify();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void quandoBuscarVariosClientes_deveSepararEncontradosENaoEncontrados() {
+        UUID found = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        CustomerWishlistEntity customer = CustomerWishlistEntity.builder().customerId(found).build();
+        CustomerWishlistResponseDTO response = CustomerWishlistResponseDTO.builder().customerId(found).build();
+
+        when(repository.findByCustomerIdIn(List.of(found, missing))).thenReturn(Flux.just(customer));
+        when(mapperWishlist.toResponseDTO(customer)).thenReturn(response);
+
+        StepVerifier.create(service.getWishlists(List.of(found, missing, found)))
+                .assertNext(result -> {
+                    assertEquals(List.of(response), result.getFound());
+                    assertEquals(List.of(missing), result.getNotFound());
+                })
+                .verifyComplete();
+    }
+}
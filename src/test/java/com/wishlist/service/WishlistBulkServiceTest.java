@@ -0,0 +1,295 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.domain.ProductEntity;
+import com.wishlist.dto.ProductDTO;
+import com.wishlist.dto.request.BulkWishlistOperationDTO;
+import com.wishlist.dto.request.BulkWishlistOperationDTO.OperationType;
+import com.wishlist.dto.request.BulkWishlistRequestDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO.Status;
+import com.wishlist.repository.CustomerWishlistRepository;
+import com.wishlist.repository.ProductCatalogRepository;
+import com.wishlist.repository.WishlistMutation;
+import com.wishlist.repository.WishlistMutationResults;
+import com.wishlist.utils.mapper.ProductMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WishlistBulkServiceTest {
+
+    @Mock
+    private CustomerWishlistRepository repository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Spy
+    private WishlistProperties properties = new WishlistProperties();
+
+    @Spy
+    private WishlistMetrics metrics = new WishlistMetrics(new SimpleMeterRegistry(), new WishlistProperties());
+
+    @Spy
+    private WishlistCache cache = new WishlistCache(new WishlistProperties());
+
+    @Spy
+    private ProductPopularity popularity = new ProductPopularity(new WishlistProperties());
+
+    @Spy
+    private ProductCatalog catalog = new ProductCatalog(mock(ProductCatalogRepository.class), new WishlistProperties());
+
+    @InjectMocks
+    private WishlistBulkService service;
+
+    @Test
+    void quandoAplicarLote_deveCalcularResultadoDeCadaOperacao() {
+        UUID newCustomer = UUID.randomUUID();
+        UUID existingCustomer = UUID.randomUUID();
+        UUID missingCustomer = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        ProductDTO productDTO = ProductDTO.builder().productId(productId).name("Produto").price(10.0).build();
+        ProductEntity productEntity = new ProductEntity(productId, "Produto", null, 10L);
+        when(productMapper.toEntity(productDTO)).thenReturn(productEntity);
+
+        CustomerWishlistEntity existing = CustomerWishlistEntity.builder()
+                .customerId(existingCustomer)
+                .wishlist(new ArrayList<>(List.of(productEntity)))
+                .build();
+        when(repository.findByCustomerIdIn(anyCollection())).thenReturn(List.of(existing));
+        when(repository.applyMutations(anyList(), eq(20), any())).thenReturn(new WishlistMutationResults(Set.of(), 2));
+
+        BulkWishlistRequestDTO request = BulkWishlistRequestDTO.builder()
+                .operations(List.of(
+                        add(newCustomer, productDTO),
+                        add(existingCustomer, productDTO),
+                        remove(missingCustomer, productId)))
+                .build();
+
+        BulkWishlistResponseDTO response = service.applyOperations(request);
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertEquals(Status.CREATED, response.getResults().get(0).getStatus());
+        assertEquals(Status.NO_ITEMS_ADDED, response.getResults().get(1).getStatus());
+        assertEquals(Status.CUSTOMER_NOT_FOUND, response.getResults().get(2).getStatus());
+        verify(metrics).noItemsAdded();
+        verify(metrics).customerNotFound();
+
+        ArgumentCaptor<List<WishlistMutation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).applyMutations(captor.capture(), eq(20), any());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(newCustomer, captor.getValue().get(0).getCustomerId());
+    }
+
+    @Test
+    void quandoGravacaoFalhar_deveMarcarOperacaoComoFalha() {
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        CustomerWishlistEntity existing = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>(List.of(new ProductEntity(productId, "Produto", null, 10L))))
+                .build();
+        when(repository.findByCustomerIdIn(anyCollection())).thenReturn(List.of(existing));
+        when(repository.applyMutations(anyList(), eq(20), any())).thenReturn(new WishlistMutationResults(Set.of(0), 0));
+
+        BulkWishlistResponseDTO response = service.applyOperations(BulkWishlistRequestDTO.builder()
+                .operations(List.of(remove(customerId, productId)))
+                .build());
+
+        assertEquals(0, response.getSucceeded());
+        assertEquals(Status.WRITE_FAILED, response.getResults().get(0).getStatus());
+    }
+
+    @Test
+    void quandoServidorDescartarAdicao_deveCorrigirResultadoPeloEstadoGravado() {
+        properties.setMaxItems(1);
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        ProductDTO productDTO = ProductDTO.builder().productId(productId).name("Produto").price(10.0).build();
+        when(productMapper.toEntity(productDTO)).thenReturn(new ProductEntity(productId, "Produto", null, 10L));
+        CustomerWishlistEntity before = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>())
+                .build();
+        CustomerWishlistEntity after = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>(List.of(new ProductEntity(UUID.randomUUID(), "Outro", null, 5L))))
+                .itemCount(1)
+                .build();
+        when(repository.findByCustomerIdIn(anyCollection())).thenReturn(List.of(before), List.of(after));
+        when(repository.applyMutations(anyList(), eq(1), any())).thenReturn(new WishlistMutationResults(Set.of(), 0));
+
+        BulkWishlistResponseDTO response = service.applyOperations(BulkWishlistRequestDTO.builder()
+                .operations(List.of(add(customerId, productDTO)))
+                .build());
+
+        assertEquals(0, response.getSucceeded());
+        assertEquals(Status.LIMIT_EXCEEDED, response.getResults().get(0).getStatus());
+        verify(metrics).limitExceeded();
+        verify(popularity, never()).added(anyCollection());
+    }
+
+    @Test
+    void quandoDocumentoSemAgregadosRecebeSoDuplicados_naoDeveContarComoAdicionado() {
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        ProductDTO productDTO = ProductDTO.builder().productId(productId).name("Produto").price(10.0).build();
+        ProductEntity product = new ProductEntity(productId, "Produto", null, 10L);
+        when(productMapper.toEntity(productDTO)).thenReturn(product);
+        CustomerWishlistEntity before = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>())
+                .build();
+        CustomerWishlistEntity after = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>(List.of(product)))
+                .version(1L)
+                .build();
+        when(repository.findByCustomerIdIn(anyCollection())).thenReturn(List.of(before), List.of(after));
+        when(repository.applyMutations(anyList(), eq(20), any())).thenReturn(new WishlistMutationResults(Set.of(), 0));
+
+        BulkWishlistResponseDTO response = service.applyOperations(BulkWishlistRequestDTO.builder()
+                .operations(List.of(add(customerId, productDTO)))
+                .build());
+
+        assertEquals(Status.NO_ITEMS_ADDED, response.getResults().get(0).getStatus());
+        verify(metrics).noItemsAdded();
+        verify(popularity, never()).added(anyCollection());
+    }
+
+    @Test
+    void quandoProdutoJaRemovidoPorOutraEscrita_naoDeveDescontarPopularidade() {
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        CustomerWishlistEntity before = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>(List.of(new ProductEntity(productId, "Produto", null, 10L))))
+                .version(3L)
+                .build();
+        CustomerWishlistEntity after = CustomerWishlistEntity.builder()
+                .customerId(customerId)
+                .wishlist(new ArrayList<>())
+                .version(4L)
+                .build();
+        when(repository.findByCustomerIdIn(anyCollection())).thenReturn(List.of(before), List.of(after));
+        when(repository.applyMutations(anyList(), eq(20), any())).thenReturn(new WishlistMutationResults(Set.of(), 0));
+
+        BulkWishlistResponseDTO response = service.applyOperations(BulkWishlistRequestDTO.builder()
+                .operations(List.of(remove(customerId, productId)))
+                .build());
+
+        assertEquals(Status.NO_ITEMS_DELETED, response.getResults().get(0).getStatus());
+        verify(popularity, never()).removed(anyCollection());
+    }
+
+    @Test
+    void quandoParteDoLoteForDescartada_deveDecidirCadaOperacaoPeloProprioDocumento() {
+        UUID addCustomer = UUID.randomUUID();
+        UUID removeCustomer = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        ProductDTO productDTO = ProductDTO.builder().productId(productId).name("Produto").price(10.0).build();
+        ProductEntity product = new ProductEntity(productId, "Produto", null, 10L);
+        when(productMapper.toEntity(productDTO)).thenReturn(product);
+        List<CustomerWishlistEntity> before = List.of(
+                CustomerWishlistEntity.builder().customerId(addCustomer).wishlist(new ArrayList<>()).version(1L).build(),
+                CustomerWishlistEntity.builder().customerId(removeCustomer).wishlist(new ArrayList<>(List.of(product))).version(5L).build());
+        AtomicReference<LocalDateTime> writtenAt = new AtomicReference<>();
+        when(repository.applyMutations(anyList(), eq(20), any())).thenAnswer(invocation -> {
+            writtenAt.set(invocation.getArgument(2));
+            return new WishlistMutationResults(Set.of(), 1);
+        });
+        when(repository.findByCustomerIdIn(anyCollection())).thenReturn(before).thenAnswer(invocation -> List.of(
+                CustomerWishlistEntity.builder().customerId(addCustomer).wishlist(new ArrayList<>(List.of(product)))
+                        .version(2L).dateUpdate(writtenAt.get().truncatedTo(ChronoUnit.MILLIS)).build(),
+                CustomerWishlistEntity.builder().customerId(removeCustomer).wishlist(new ArrayList<>())
+                        .version(7L).dateUpdate(LocalDateTime.of(2024, 5, 1, 10, 0)).build()));
+
+        BulkWishlistResponseDTO response = service.applyOperations(BulkWishlistRequestDTO.builder()
+                .operations(List.of(add(addCustomer, productDTO), remove(removeCustomer, productId)))
+                .build());
+
+        assertEquals(Status.ADDED, response.getResults().get(0).getStatus());
+        assertEquals(Status.UNKNOWN, response.getResults().get(1).getStatus());
+        assertEquals(1, response.getSucceeded());
+        verify(popularity).added(List.of(productId));
+        verify(popularity, never()).removed(anyCollection());
+    }
+
+    @Test
+    void quandoClienteSeRepete_deveSepararEmLotesDiferentes() {
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        when(repository.findByCustomerIdIn(anyCollection())).thenReturn(List.of());
+        when(repository.applyMutations(anyList(), eq(20), any())).thenReturn(new WishlistMutationResults(Set.of(), 2));
+
+        service.applyOperations(BulkWishlistRequestDTO.builder()
+                .operations(List.of(remove(customerId, productId), remove(customerId, productId)))
+                .build());
+
+        verify(repository, times(2)).findByCustomerIdIn(anyCollection());
+    }
+
+    @Test
+    void quandoLoteMaiorQueChunk_deveDividirEmVariasGravacoes() {
+        properties.getBulk().setChunkSize(2);
+        when(repository.findByCustomerIdIn(anyCollection())).thenReturn(List.of());
+        when(repository.applyMutations(anyList(), eq(20), any())).thenReturn(new WishlistMutationResults(Set.of(), 2));
+
+        List<BulkWishlistOperationDTO> operations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            operations.add(BulkWishlistOperationDTO.builder()
+                    .customerId(UUID.randomUUID())
+                    .type(OperationType.ADD)
+                    .products(List.of())
+                    .build());
+        }
+
+        BulkWishlistResponseDTO response = service.applyOperations(BulkWishlistRequestDTO.builder().operations(operations).build());
+
+        assertEquals(5, response.getSucceeded());
+        verify(repository, times(3)).applyMutations(anyList(), eq(20), any());
+    }
+
+    private BulkWishlistOperationDTO add(UUID customerId, ProductDTO product) {
+        return BulkWishlistOperationDTO.builder()
+                .customerId(customerId)
+                .type(OperationType.ADD)
+                .products(List.of(product))
+                .build();
+    }
+
+    private BulkWishlistOperationDTO remove(UUID customerId, UUID productId) {
+        return BulkWishlistOperationDTO.builder()
+                .customerId(customerId)
+                .type(OperationType.REMOVE)
+                .productIds(List.of(productId))
+                .build();
+    }
+}
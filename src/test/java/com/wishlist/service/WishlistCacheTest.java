@@ -0,0 +1,69 @@
+package com.wishlist.service;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WishlistCacheTest {
+
+    private final WishlistCache cache = new WishlistCache(new WishlistProperties());
+
+    @Test
+    void quandoWishlistJaCarregada_naoDeveChamarLoaderNovamente() {
+        UUID customerId = UUID.randomUUID();
+        CustomerWishlistEntity customer = CustomerWishlistEntity.builder().customerId(customerId).build();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(customerId, id -> {
+            loads.incrementAndGet();
+            return Optional.of(customer);
+        });
+        Optional<CustomerWishlistEntity> result = cache.get(customerId, id -> {
+            loads.incrementAndGet();
+            return Optional.of(customer);
+        });
+
+        assertEquals(Optional.of(customer), result);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getHitCount());
+    }
+
+    @Test
+    void quandoClienteNaoExiste_naoDeveGuardarResultadoVazio() {
+        UUID customerId = UUID.randomUUID();
+
+        assertTrue(cache.get(customerId, id -> Optional.empty()).isEmpty());
+
+        assertTrue(cache.getIfPresent(customerId).isEmpty());
+    }
+
+    @Test
+    void quandoInvalidadoDuranteACarga_naoDeveGuardarValorCarregado() {
+        UUID customerId = UUID.randomUUID();
+        CustomerWishlistEntity stale = CustomerWishlistEntity.builder().customerId(customerId).build();
+
+        Optional<CustomerWishlistEntity> result = cache.get(customerId, id -> {
+            cache.invalidate(customerId);
+            return Optional.of(stale);
+        });
+
+        assertEquals(Optional.of(stale), result);
+        assertTrue(cache.getIfPresent(customerId).isEmpty());
+    }
+
+    @Test
+    void quandoLoaderFalha_deveRepassarExcecaoENaoGuardarNada() {
+        UUID customerId = UUID.randomUUID();
+
+        assertThrows(IllegalStateException.class, () -> cache.get(customerId, id -> {
+            throw new IllegalStateException("falha");
+        }));
+        assertTrue(cache.getIfPresent(customerId).isEmpty());
+    }
+}
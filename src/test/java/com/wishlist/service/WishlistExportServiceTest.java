@@ -0,0 +1,92 @@
+package com.wishlist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.domain.CustomerWishlistEntity;
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import com.wishlist.repository.CustomerWishlistRepository;
+import com.wishlist.repository.ProductCatalogRepository;
+import com.wishlist.utils.mapper.CustomerWishlistMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WishlistExportServiceTest {
+
+    @Mock
+    private CustomerWishlistRepository repository;
+
+    @Mock
+    private CustomerWishlistMapper mapperWishlist;
+
+    private final WishlistProperties properties = new WishlistProperties();
+
+    private WishlistExportService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.getExport().setCheckpointInterval(2);
+        service = new WishlistExportService(repository, mapperWishlist, properties,
+                new ProductCatalog(mock(ProductCatalogRepository.class), properties), new ObjectMapper());
+        when(mapperWishlist.toResponseDTO(any())).thenAnswer(invocation -> CustomerWishlistResponseDTO.builder()
+                .customerId(invocation.<CustomerWishlistEntity>getArgument(0).getCustomerId())
+                .totalPrice(0L)
+                .build());
+    }
+
+    @Test
+    void quandoExportar_deveEscreverUmaLinhaPorWishlistESalvarCheckpoints() throws Exception {
+        List<UUID> customerIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        AtomicBoolean closed = new AtomicBoolean();
+        when(repository.streamAll(null, properties.getExport().getBatchSize()))
+                .thenReturn(customerIds.stream().map(this::customer).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        List<String> checkpoints = new ArrayList<>();
+
+        long exported = service.export(null, output, (customerId, count) -> checkpoints.add(customerId + "@" + count));
+
+        assertEquals(3, exported);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[2].contains(customerIds.get(2).toString()));
+        assertEquals(List.of(customerIds.get(1) + "@2", customerIds.get(2) + "@3"), checkpoints);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void quandoRetomarExportacao_deveContinuarAposOCheckpoint() throws Exception {
+        UUID checkpoint = UUID.randomUUID();
+        UUID next = UUID.randomUUID();
+        when(repository.streamAll(checkpoint, properties.getExport().getBatchSize()))
+                .thenReturn(Stream.of(customer(next)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = service.export(checkpoint, output);
+
+        assertEquals(1, exported);
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains(next.toString()));
+        verify(repository, never()).streamAll(isNull(), anyInt());
+    }
+
+    private CustomerWishlistEntity customer(UUID customerId) {
+        CustomerWishlistEntity customer = new CustomerWishlistEntity();
+        customer.setCustomerId(customerId);
+        customer.setWishlist(List.of());
+        return customer;
+    }
+}
@@ -0,0 +1,144 @@
+package com.wishlist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.dto.request.BulkWishlistOperationDTO;
+import com.wishlist.dto.request.BulkWishlistRequestDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO.OperationResultDTO;
+import com.wishlist.dto.response.BulkWishlistResponseDTO.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WishlistImportServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private WishlistBulkService bulkService;
+
+    private final WishlistProperties properties = new WishlistProperties();
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private WishlistImportService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.getBulkImport().setParallelism(2);
+        properties.getBulkImport().setQueueCapacity(2);
+        properties.getBulkImport().setBatchSize(2);
+        service = new WishlistImportService(bulkService, properties, new WishlistMetrics(new SimpleMeterRegistry(), properties),
+                Validation.buildDefaultValidatorFactory().getValidator(), objectMapper);
+    }
+
+    @Test
+    void quandoImportarNdjson_deveGravarValidosERejeitarInvalidos() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        Path input = write("wishlists.ndjson", String.format("""
+                {"customerId":"%s","wishlist":[{"productId":"%s","name":"Produto","price":10.5}]}
+                {"customerId":
+                {"customerId":"%s","wishlist":[{"productId":"%s","price":10.5}]}
+                """, customerId, productId, UUID.randomUUID(), productId));
+        answerWith(operation -> Status.CREATED);
+
+        WishlistImportResult result = service.importFile(input, directory.resolve("rejects.ndjson"));
+
+        assertEquals(new WishlistImportResult(3, 1, 0, 2), result);
+        ArgumentCaptor<BulkWishlistRequestDTO> request = ArgumentCaptor.forClass(BulkWishlistRequestDTO.class);
+        verify(bulkService).applyOperations(request.capture());
+        BulkWishlistOperationDTO operation = request.getValue().getOperations().get(0);
+        assertEquals(customerId, operation.getCustomerId());
+        assertEquals(BulkWishlistOperationDTO.OperationType.ADD, operation.getType());
+        assertEquals(productId, operation.getProducts().get(0).getProductId());
+
+        List<Map<?, ?>> rejects = rejects(directory.resolve("rejects.ndjson"));
+        assertEquals(List.of(2, 3), rejects.stream().map(reject -> reject.get("line")).sorted().toList());
+        assertTrue(rejects.stream().anyMatch(reject -> "O nome do produto não pode estar em branco".equals(reject.get("reason"))));
+    }
+
+    @Test
+    void quandoImportarCsv_deveAgruparLinhasDoMesmoClienteEIgnorarProdutosExistentes() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        UUID otherCustomerId = UUID.randomUUID();
+        Path input = write("wishlists.csv", String.format("""
+                customerId,productId,name,description,price
+                %s,%s,Produto A,,10
+                %s,%s,Produto B,"Com vírgula, e ""aspas""",20
+                %s,%s,Produto C,,30
+                """, customerId, UUID.randomUUID(), customerId, UUID.randomUUID(), otherCustomerId, UUID.randomUUID()));
+        answerWith(operation -> operation.getCustomerId().equals(customerId) ? Status.CREATED : Status.NO_ITEMS_ADDED);
+
+        WishlistImportResult result = service.importFile(input, directory.resolve("rejects.ndjson"));
+
+        assertEquals(new WishlistImportResult(2, 1, 1, 0), result);
+        ArgumentCaptor<BulkWishlistRequestDTO> request = ArgumentCaptor.forClass(BulkWishlistRequestDTO.class);
+        verify(bulkService).applyOperations(request.capture());
+        BulkWishlistOperationDTO grouped = request.getValue().getOperations().stream()
+                .filter(operation -> operation.getCustomerId().equals(customerId))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, grouped.getProducts().size());
+        assertTrue(grouped.getProducts().stream().anyMatch(product -> "Com vírgula, e \\"aspas\\"".equals(product.getDescription())));
+        assertTrue(rejects(directory.resolve("rejects.ndjson")).isEmpty());
+    }
+
+    @Test
+    void quandoCabecalhoCsvInvalido_deveFalharSemGravar() throws Exception {
+        Path input = write("wishlists.csv", "cliente,produto\n");
+
+        assertThrows(IllegalArgumentException.class, () -> service.importFile(input, directory.resolve("rejects.ndjson")));
+        verifyNoInteractions(bulkService);
+    }
+
+    private void answerWith(Function<BulkWishlistOperationDTO, Status> status) {
+        when(bulkService.applyOperations(any())).thenAnswer(invocation -> {
+            List<OperationResultDTO> results = invocation.<BulkWishlistRequestDTO>getArgument(0).getOperations().stream()
+                    .map(operation -> OperationResultDTO.builder()
+                            .customerId(operation.getCustomerId())
+                            .type(operation.getType())
+                            .status(status.apply(operation))
+                            .build())
+                    .toList();
+            return BulkWishlistResponseDTO.builder().results(results).build();
+        });
+    }
+
+    private Path write(String name, String content) throws Exception {
+        return Files.writeString(directory.resolve(name), content);
+    }
+
+    private List<Map<?, ?>> rejects(Path file) throws Exception {
+        return Files.readAllLines(file).stream()
+                .map(line -> {
+                    try {
+                        return (Map<?, ?>) objectMapper.readValue(line, Map.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,54 @@
+package com.wishlist.utils;
+
+import com.wishlist.config.WishlistProperties;
+import com.wishlist.dto.response.CustomerWishlistResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyFormatterRegistryTest {
+
+    private final CurrencyFormatterRegistry registry = new CurrencyFormatterRegistry(new WishlistProperties());
+
+    @Test
+    void quandoSemIdiomaNaRequisicao_deveUsarFormatterPadrao() {
+        assertSame(CurrencyFormatter.DEFAULT, registry.resolve(null, null));
+        assertSame(CurrencyFormatter.DEFAULT, registry.resolve("", " "));
+    }
+
+    @Test
+    void quandoParametroLangInformado_deveTerPrioridadeSobreAcceptLanguage() {
+        CurrencyFormatter formatter = registry.resolve("es-ES", "en-US");
+
+        assertEquals(Locale.forLanguageTag("es-ES"), formatter.getLocale());
+    }
+
+    @Test
+    void quandoAcceptLanguageComPesos_deveEscolherOPrimeiroSuportado() {
+        CurrencyFormatter formatter = registry.resolve(null, "fr-FR,fr;q=0.9,en;q=0.8");
+
+        assertEquals(Locale.forLanguageTag("en-US"), formatter.getLocale());
+    }
+
+    @Test
+    void quandoIdiomaNaoSuportadoOuInvalido_deveUsarFormatterPadrao() {
+        assertSame(CurrencyFormatter.DEFAULT, registry.resolve(null, "de-DE"));
+        assertSame(CurrencyFormatter.DEFAULT, registry.resolve("??", null));
+    }
+
+    @Test
+    void quandoLocalizarComFormatterPadrao_naoDeveAlterarResposta() {
+        CustomerWishlistResponseDTO response = CustomerWishlistResponseDTO.builder()
+                .totalPrice(123_456L)
+                .formattedTotalPrice("R$ 1.234,56")
+                .build();
+
+        registry.localize(response, CurrencyFormatter.DEFAULT);
+        assertEquals("R$ 1.234,56", response.getFormattedTotalPrice());
+
+        registry.localize(response, registry.resolve("en-US", null));
+        assertEquals("R$1,234.56", response.getFormattedTotalPrice());
+    }
+}
@@ -0,0 +1,51 @@
+package com.wishlist.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyFormatterTest {
+
+    @Test
+    void quandoFormatarEmReais_deveGerarOMesmoTextoQueNumberFormat() {
+        NumberFormat legacy = NumberFormat.getCurrencyInstance(new Locale("pt", "BR"));
+        Random random = new Random(42);
+        LongStream values = LongStream.concat(
+                LongStream.rangeClosed(-1_000, 100_000),
+                random.longs(10_000, -10_000_000_000L, 10_000_000_000L));
+
+        values.forEach(cents -> assertEquals(legacy.format(cents / 100.0), CurrencyFormatter.DEFAULT.format(cents)));
+    }
+
+    @Test
+    void quandoLocaleDiferente_deveManterAMoedaEUsarOsSeparadoresDoLocale() {
+        CurrencyFormatter formatter = CurrencyFormatter.of(Locale.forLanguageTag("en-US"), Currency.getInstance("BRL"));
+
+        assertEquals("R$1,234,567.89", formatter.format(123_456_789L));
+        assertEquals("-R$0.01", formatter.format(-1L));
+    }
+
+    @Test
+    void quandoLocalePadrao_deveReutilizarInstanciaPadrao() {
+        assertSame(CurrencyFormatter.DEFAULT, CurrencyFormatter.of(Locale.forLanguageTag("pt-BR"), Currency.getInstance("BRL")));
+    }
+
+    @Test
+    void quandoValorExtremo_naoDeveEstourar() {
+        String formatted = CurrencyFormatter.DEFAULT.format(Long.MIN_VALUE);
+
+        assertTrue(formatted.endsWith("92.233.720.368.547.758,08"));
+    }
+
+    @Test
+    void quandoPadraoDoLocaleNaoPodeSerReproduzido_deveFalharNaCriacao() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CurrencyFormatter.of(Locale.forLanguageTag("ja-JP"), Currency.getInstance("BRL")));
+    }
+}